@@ -0,0 +1,123 @@
+package com.ice.bonds.concurrency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many requests run bond analytics at the same time.
+ *
+ * The analytics are pure CPU work. With spring.threads.virtual.enabled=true every request gets its own
+ * virtual thread, so without a cap thousands of requests would be analyzed at once, all time-slicing the
+ * same few cores and all holding their bonds in memory. Requests beyond bonds.analytics.max-concurrency
+ * wait here (a virtual thread waiting on a semaphore costs no platform thread) and get a
+ * RejectedExecutionException if no permit frees up within bonds.analytics.acquire-timeout.
+ * On platform threads the Tomcat pool already bounds the requests in flight, so bonds.analytics.limiter.enabled
+ * defaults to spring.threads.virtual.enabled.
+ *
+ * Only the analysis is wrapped, never request body parsing, so a slow client can't hold a permit.
+ * Background jobs use callWaiting instead: they are already queued, so they wait for a permit as long
+ * as it takes rather than fail. Calls must not be nested: permits are not reentrant.
+ */
+@Component
+public class AnalyticsConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+
+    @Autowired
+    public AnalyticsConcurrencyLimiter(@Value("${bonds.analytics.limiter.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                       @Value("${bonds.analytics.max-concurrency:0}") int maxConcurrency,
+                                       @Value("${bonds.analytics.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("bonds.analytics.max-concurrency cannot be negative");
+        }
+        if (acquireTimeout.isNegative()) {
+            throw new IllegalArgumentException("bonds.analytics.acquire-timeout cannot be negative");
+        }
+        this.enabled = enabled;
+        this.maxConcurrency = maxConcurrency == 0 ? Runtime.getRuntime().availableProcessors() : maxConcurrency;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(this.maxConcurrency);
+    }
+
+    /**
+     * @return A limiter that never blocks, for tests and benchmarks
+     */
+    public static AnalyticsConcurrencyLimiter unlimited() {
+        return new AnalyticsConcurrencyLimiter(false, 1, Duration.ZERO);
+    }
+
+    /**
+     * Runs the task once a permit is available.
+     *
+     * @param task The analytics work
+     * @return The task's result
+     * @throws RejectedExecutionException if no permit became available within the acquire timeout
+     */
+    public <T> T call(Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        acquire();
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs the task once a permit is available, however long that takes. For work that has no client
+     * waiting on it, such as background jobs.
+     *
+     * @param task The analytics work
+     * @return The task's result
+     * @throws RejectedExecutionException if the thread is interrupted while waiting
+     */
+    public <T> T callWaiting(Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for an analytics slot", e);
+        }
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            // Uncontended case first, avoids reading the clock
+            if (permits.tryAcquire() || permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for an analytics slot", e);
+        }
+        throw new RejectedExecutionException("Timed out waiting for an analytics slot");
+    }
+}
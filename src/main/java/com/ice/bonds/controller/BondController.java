@@ -1,16 +1,26 @@
 package com.ice.bonds.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
 import com.ice.bonds.dto.BondAnalysisResponse;
 import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.serialization.BondV2Reader;
+import com.ice.bonds.serialization.EmbeddedJsonReader;
+import com.ice.bonds.serialization.NdjsonBondReader;
+import com.ice.bonds.serialization.NdjsonWriter;
 import com.ice.bonds.service.BondService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/bonds")
 public class BondController {
@@ -18,15 +28,25 @@ public class BondController {
     private static final Logger logger = LoggerFactory.getLogger(BondController.class);
 
     private final BondService bondService;
-    private final ObjectMapper objectMapper;
+    private final EmbeddedJsonReader embeddedJsonReader;
+    private final BondV2Reader bondV2Reader;
+    private final AnalyticsConcurrencyLimiter analyticsLimiter;
+    private final NdjsonBondReader ndjsonBondReader;
+    private final NdjsonWriter ndjsonWriter;
 
     /**
      * Constructor for Spring dependency injection.
      * The BondService singleton bean is automatically injected.
      */
-    public BondController(BondService bondService, ObjectMapper objectMapper) {
+    public BondController(BondService bondService, EmbeddedJsonReader embeddedJsonReader, BondV2Reader bondV2Reader,
+                          AnalyticsConcurrencyLimiter analyticsLimiter, NdjsonBondReader ndjsonBondReader,
+                          NdjsonWriter ndjsonWriter) {
         this.bondService = bondService;
-        this.objectMapper = objectMapper;
+        this.embeddedJsonReader = embeddedJsonReader;
+        this.bondV2Reader = bondV2Reader;
+        this.analyticsLimiter = analyticsLimiter;
+        this.ndjsonBondReader = ndjsonBondReader;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     /**
@@ -41,7 +61,42 @@ public class BondController {
     public ResponseEntity<BondAnalysisResponse> analyzeBond(@RequestBody BondDTORequest bondDTORequest) {
 
         logger.info("Received bond analysis request for ISIN: {}", bondDTORequest.getIsin());
-        BondAnalysisResponse response = bondService.analyzeBondWithResponse(bondDTORequest);
+        BondAnalysisResponse response = analyticsLimiter.call(() -> bondService.analyzeBondWithResponse(bondDTORequest));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Analyzes a stream of bonds sent as newline-delimited JSON, one bond object per line.
+     * Each line is read, analyzed under the analytics limiter and its result written and flushed before
+     * the next line is read, all on the request thread, so neither the body nor the results are held.
+     * An invalid bond before the first result gets a 400, after it the response ends at the last result.
+     *
+     * @param body NDJSON request body
+     * @param response Written with one BondAnalysisResponse per input line, in request order, as NDJSON
+     */
+    @PostMapping(value = "/analyze",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void analyzeBondStream(InputStream body, HttpServletResponse response) {
+        logger.info("Received streaming bond analysis request");
+        NdjsonWriter.Lines lines = ndjsonWriter.open(response);
+        ndjsonBondReader.forEachBond(body, bondDTORequest ->
+                lines.write(analyticsLimiter.call(() -> bondService.analyzeBondWithResponse(bondDTORequest))));
+    }
+
+    /**
+     * Analyzes a bond sent in the v2 schema, where numeric fields are native JSON integers.
+     * The body is parsed directly into a Bond model by BondV2Deserializer.
+     *
+     * @param body v2 bond JSON object
+     * @return BondAnalysisResponse containing YTM, Macaulay Duration, Modified Duration
+     * @throws IllegalArgumentException if the JSON or any field is invalid
+     */
+    @PostMapping("/v2/analyze")
+    public ResponseEntity<BondAnalysisResponse> analyzeBondV2(InputStream body) {
+        Bond bond = bondV2Reader.readBond(body);
+        logger.info("Received v2 bond analysis request for ISIN: {}", bond.getISIN());
+        BondAnalysisResponse response = analyticsLimiter.call(() -> bondService.analyzeBondWithResponse(bond));
         return ResponseEntity.ok(response);
     }
 
@@ -49,36 +104,38 @@ public class BondController {
      * Analyzes a bond from a JSON string.
      * Accepts JSON serialized into a string and deserializes it.
      *
-     * @param jsonString JSON string containing bond data
+     * @param body JSON string containing bond data
      * @return BondAnalysisResponse containing YTM, Macaulay Duration, Modified Duration
      * @throws IllegalArgumentException if the JSON is invalid or ISIN is invalid
      */
     @PostMapping("/analyze-from-string")
-    public ResponseEntity<BondAnalysisResponse> analyzeBondFromString(@RequestBody String jsonString) {
+    public ResponseEntity<BondAnalysisResponse> analyzeBondFromString(InputStream body) {
         logger.info("Received bond analysis request from JSON string");
 
-        BondDTORequest bondDTORequest;
-        try {
-            // The input is a JSON-encoded string. We need to first deserialize the string value,
-            // then parse the resulting JSON object.
-            String actualJson = objectMapper.readValue(jsonString, String.class);
-
-            // Validate that the deserialized string is not null or empty
-            if (actualJson == null || actualJson.trim().isEmpty()) {
-                throw new IllegalArgumentException("JSON string content cannot be null or empty");
-            }
-
-            bondDTORequest = objectMapper.readValue(actualJson, BondDTORequest.class);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to parse JSON string: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
-        }
+        // The input is a JSON-encoded string. The embedded JSON object is parsed directly
+        // from the string token, without materializing the unescaped content.
+        BondDTORequest bondDTORequest = embeddedJsonReader.readBond(body);
 
         logger.info("Parsed bond from JSON string for ISIN: {}", bondDTORequest.getIsin());
-        BondAnalysisResponse response = bondService.analyzeBondWithResponse(bondDTORequest);
+        BondAnalysisResponse response = analyticsLimiter.call(() -> bondService.analyzeBondWithResponse(bondDTORequest));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Exception handler for RejectedExecutionException.
+     * Returns HTTP 503 Service Unavailable when no analytics slot frees up in time.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 503 status
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException ex) {
+        logger.warn("Analytics rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server busy, retry later");
+    }
+
     /**
      * Exception handler for IllegalArgumentException.
      * Returns HTTP 400 Bad Request with the error message.
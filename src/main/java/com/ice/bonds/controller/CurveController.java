@@ -0,0 +1,93 @@
+package com.ice.bonds.controller;
+
+import com.ice.bonds.dto.CurveBootstrapRequest;
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.dto.YieldCurveRequest;
+import com.ice.bonds.dto.YieldCurveResponse;
+import com.ice.bonds.service.CurveBootstrapService;
+import com.ice.bonds.service.YieldCurveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * The discount curve curve-based analytics price against.
+ */
+@RestController
+@RequestMapping("/api/curve")
+public class CurveController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurveController.class);
+
+    private final YieldCurveService yieldCurveService;
+    private final CurveBootstrapService curveBootstrapService;
+
+    public CurveController(YieldCurveService yieldCurveService, CurveBootstrapService curveBootstrapService) {
+        this.yieldCurveService = yieldCurveService;
+        this.curveBootstrapService = curveBootstrapService;
+    }
+
+    /**
+     * @return Pillars of the current curve, or 404 if none was set
+     */
+    @GetMapping
+    public ResponseEntity<YieldCurveResponse> getCurve() {
+        return ResponseEntity.of(yieldCurveService.describe());
+    }
+
+    /**
+     * Replaces the current curve.
+     *
+     * @param request Tenors with either zero rates (continuously compounded, basis points) or discount factors
+     * @return Pillars of the new curve
+     */
+    @PutMapping
+    public ResponseEntity<YieldCurveResponse> setCurve(@RequestBody YieldCurveRequest request) {
+        YieldCurveResponse response = yieldCurveService.replace(request);
+        logger.info("Curve set with {} pillars, {} interpolation", response.getTenors().size(), response.getInterpolation());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Replaces the current curve with one bootstrapped from benchmark bonds.
+     *
+     * @param request Benchmarks priced by their marketValue, linear or log-linear interpolation
+     * @return Pillars of the new curve, one at each benchmark's maturity
+     */
+    @PutMapping("/bootstrap")
+    public ResponseEntity<YieldCurveResponse> bootstrapCurve(@RequestBody CurveBootstrapRequest request) {
+        YieldCurveResponse response = curveBootstrapService.bootstrap(request);
+        logger.info("Curve bootstrapped from {} benchmarks, {} interpolation", response.getTenors().size(),
+                response.getInterpolation());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Reprices benchmarks and re-solves the bootstrapped curve from the earliest one quoted.
+     *
+     * @param quotes New benchmark prices, other ISINs are ignored
+     * @return Pillars of the new curve, or 404 if no benchmarks were set
+     */
+    @PostMapping("/bootstrap/quotes")
+    public ResponseEntity<YieldCurveResponse> applyQuotes(@RequestBody List<PriceTickRequest> quotes) {
+        logger.debug("Applying {} benchmark quotes", quotes.size());
+        return ResponseEntity.of(curveBootstrapService.applyQuotes(quotes));
+    }
+
+    /**
+     * Exception handler for IllegalArgumentException.
+     * Returns HTTP 400 Bad Request with the error message.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 400 status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.error("Validation error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ice.bonds.controller;
+
+import com.ice.bonds.dto.InstrumentResponse;
+import com.ice.bonds.service.InstrumentMasterService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Lookups in the instrument master (bonds.instruments.file).
+ */
+@RestController
+@RequestMapping("/api/instruments")
+public class InstrumentController {
+
+    private final InstrumentMasterService instrumentMasterService;
+
+    public InstrumentController(InstrumentMasterService instrumentMasterService) {
+        this.instrumentMasterService = instrumentMasterService;
+    }
+
+    /**
+     * @param isin The ISIN
+     * @return Static terms of the instrument, or 404 if it is not in the instrument master
+     */
+    @GetMapping("/{isin}")
+    public ResponseEntity<InstrumentResponse> getInstrument(@PathVariable String isin) {
+        return ResponseEntity.of(instrumentMasterService.find(isin).map(bond -> new InstrumentResponse(
+                bond.getISIN(),
+                bond.getIssueDate(),
+                bond.getMaturityDate(),
+                bond.getCouponRate(),
+                bond.getFaceValue(),
+                bond.getPaymentTerm())));
+    }
+}
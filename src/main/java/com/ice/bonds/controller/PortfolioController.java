@@ -1,22 +1,34 @@
 package com.ice.bonds.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
 import com.ice.bonds.dto.BondDTORequest;
 import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.CashFlowBucketResponse;
+import com.ice.bonds.dto.CashFlowLadderResponse;
 import com.ice.bonds.dto.PortfolioAnalysisResponse;
 import com.ice.bonds.model.Bond;
 import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.serialization.BondColumns;
+import com.ice.bonds.serialization.BondV2Reader;
+import com.ice.bonds.serialization.EmbeddedJsonReader;
+import com.ice.bonds.serialization.ColumnarPortfolioCodec;
+import com.ice.bonds.serialization.NdjsonBondReader;
+import com.ice.bonds.serialization.NdjsonWriter;
+import com.ice.bonds.service.CashFlowLadderService;
 import com.ice.bonds.service.PortfolioService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/portfolios")
@@ -25,113 +37,213 @@ public class PortfolioController {
     private static final Logger logger = LoggerFactory.getLogger(PortfolioController.class);
 
     private final PortfolioService portfolioService;
-    private final ObjectMapper objectMapper;
+    private final EmbeddedJsonReader embeddedJsonReader;
+    private final ColumnarPortfolioCodec columnarPortfolioCodec;
+    private final BondV2Reader bondV2Reader;
+    private final AnalyticsConcurrencyLimiter analyticsLimiter;
+    private final NdjsonBondReader ndjsonBondReader;
+    private final NdjsonWriter ndjsonWriter;
+    private final CashFlowLadderService cashFlowLadderService;
 
-    public PortfolioController(PortfolioService portfolioService, ObjectMapper objectMapper) {
+    public PortfolioController(PortfolioService portfolioService, EmbeddedJsonReader embeddedJsonReader,
+                               ColumnarPortfolioCodec columnarPortfolioCodec, BondV2Reader bondV2Reader,
+                               AnalyticsConcurrencyLimiter analyticsLimiter, NdjsonBondReader ndjsonBondReader,
+                               NdjsonWriter ndjsonWriter,
+                               CashFlowLadderService cashFlowLadderService) {
         this.portfolioService = portfolioService;
-        this.objectMapper = objectMapper;
+        this.embeddedJsonReader = embeddedJsonReader;
+        this.columnarPortfolioCodec = columnarPortfolioCodec;
+        this.bondV2Reader = bondV2Reader;
+        this.analyticsLimiter = analyticsLimiter;
+        this.ndjsonBondReader = ndjsonBondReader;
+        this.ndjsonWriter = ndjsonWriter;
+        this.cashFlowLadderService = cashFlowLadderService;
     }
 
     /**
      * Analyzes a portfolio of bonds and returns weighted durations and total value.
      *
      * @param bondDTORequests List of bond data from JSON request
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
      * @return PortfolioAnalysisResponse containing portfolio analysis results
      */
     @PostMapping("/analyze")
-    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolio(@RequestBody List<BondDTORequest> bondDTORequests) {
+    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolio(@RequestBody List<BondDTORequest> bondDTORequests,
+                                                                      @RequestParam(required = false) String fields,
+                                                                      @RequestParam(defaultValue = "false") boolean summaryOnly) {
         logger.info("Received portfolio analysis request with {} bonds", bondDTORequests.size());
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
 
-        // Create a new portfolio with a default account ID
-        Portfolio portfolio = new Portfolio("default-account");
+        // Create a new portfolio with a default account ID, add bonds to it, analyze
+        // and map the portfolio to the response DTO
+        PortfolioAnalysisResponse response = analyticsLimiter.call(() -> portfolioService.mapToPortfolioAnalysisResponse(
+                portfolioService.addBondsToPortfolio(new Portfolio("default-account"), bondDTORequests), bondFields));
 
-        // Add bonds to the portfolio and analyze
-        portfolio = portfolioService.addBondsToPortfolio(portfolio, bondDTORequests);
+        return ResponseEntity.ok(response);
+    }
 
-        // Map the portfolio to the response DTO
-        PortfolioAnalysisResponse response = mapToPortfolioAnalysisResponse(portfolio);
+    /**
+     * Analyzes a portfolio sent as newline-delimited JSON, one bond object per line.
+     * The body is read on the request thread, then analyzed like a JSON array body.
+     *
+     * @param body NDJSON request body
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return PortfolioAnalysisResponse containing portfolio analysis results
+     */
+    @PostMapping(value = "/analyze",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolioStream(InputStream body,
+                                                                            @RequestParam(required = false) String fields,
+                                                                            @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        logger.info("Received NDJSON portfolio analysis request");
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+        List<BondDTORequest> bondDTORequests = ndjsonBondReader.readBonds(body);
+
+        PortfolioAnalysisResponse response = analyticsLimiter.call(() -> portfolioService.mapToPortfolioAnalysisResponse(
+                portfolioService.addBondsToPortfolio(new Portfolio("default-account"), bondDTORequests), bondFields));
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Analyzes a portfolio of bonds from a JSON string.
-     * Accepts JSON serialized into a string and deserializes it.
+     * Projects the portfolio's coupon and principal flows from today and sums them per bucket.
      *
-     * @param jsonString JSON string containing list of bond data
-     * @return PortfolioAnalysisResponse containing portfolio analysis results
+     * @param bucket daily, monthly or yearly
+     * @param bondDTORequests The positions
+     * @return CashFlowLadderResponse with the non-empty buckets in date order
      */
-    @PostMapping("/analyze-from-string")
-    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolioFromString(@RequestBody String jsonString) {
-        logger.info("Received portfolio analysis request from JSON string");
+    @PostMapping("/cashflows")
+    public ResponseEntity<CashFlowLadderResponse> cashFlowLadder(@RequestParam(defaultValue = "monthly") String bucket,
+                                                                 @RequestBody List<BondDTORequest> bondDTORequests) {
+        logger.info("Received cash-flow ladder request with {} bonds", bondDTORequests.size());
+        CashFlowLadderService.Bucket size = CashFlowLadderService.Bucket.parse(bucket);
+        return ResponseEntity.ok(analyticsLimiter.call(() -> cashFlowLadderService.ladder(bondDTORequests, size)));
+    }
+
+    /**
+     * Cash-flow ladder of a portfolio sent as newline-delimited JSON, returned as one NDJSON line per
+     * non-empty bucket. Buckets are written as the schedules are merged instead of building the whole ladder,
+     * each one merged under the analytics limiter and written outside it.
+     *
+     * @param bucket daily, monthly or yearly
+     * @param body NDJSON request body
+     * @param response Written with one CashFlowBucketResponse per bucket, in date order, as NDJSON
+     */
+    @PostMapping(value = "/cashflows",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void cashFlowLadderStream(@RequestParam(defaultValue = "monthly") String bucket, InputStream body,
+                                     HttpServletResponse response) {
+        logger.info("Received streaming cash-flow ladder request");
+        CashFlowLadderService.Bucket size = CashFlowLadderService.Bucket.parse(bucket);
+        List<BondDTORequest> bondDTORequests = ndjsonBondReader.readBonds(body);
 
-        List<BondDTORequest> bondDTORequests;
-        try {
-            // The input is a JSON-encoded string. We need to first deserialize the string value,
-            // then parse the resulting JSON array.
-            String actualJson = objectMapper.readValue(jsonString, String.class);
-            bondDTORequests = objectMapper.readValue(actualJson, new TypeReference<List<BondDTORequest>>() {});
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to parse JSON string: {}", e.getMessage());
-            throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
+        CashFlowLadderService.LadderMerge merge =
+                analyticsLimiter.call(() -> cashFlowLadderService.streamLadder(bondDTORequests, size));
+        NdjsonWriter.Lines lines = ndjsonWriter.open(response);
+        CashFlowBucketResponse next;
+        while ((next = analyticsLimiter.call(merge::next)) != null) {
+            lines.write(next);
         }
+    }
 
-        logger.info("Parsed {} bonds from JSON string", bondDTORequests.size());
+    /**
+     * Analyzes a portfolio sent in the v2 schema, where numeric fields are native JSON integers.
+     * Each array element is parsed directly into a Bond model by BondV2Deserializer.
+     *
+     * @param body v2 JSON array of bond objects
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return PortfolioAnalysisResponse containing portfolio analysis results
+     */
+    @PostMapping("/v2/analyze")
+    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolioV2(InputStream body,
+                                                                        @RequestParam(required = false) String fields,
+                                                                        @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+        List<Bond> bonds = bondV2Reader.readBonds(body);
+        logger.info("Received v2 portfolio analysis request with {} bonds", bonds.size());
 
-        // Create a new portfolio with a default account ID
-        Portfolio portfolio = new Portfolio("default-account");
+        PortfolioAnalysisResponse response = analyticsLimiter.call(() -> portfolioService.mapToPortfolioAnalysisResponse(
+                portfolioService.addBondModelsToPortfolio(new Portfolio("default-account"), bonds), bondFields));
 
-        // Add bonds to the portfolio and analyze
-        portfolio = portfolioService.addBondsToPortfolio(portfolio, bondDTORequests);
+        return ResponseEntity.ok(response);
+    }
 
-        // Map the portfolio to the response DTO
-        PortfolioAnalysisResponse response = mapToPortfolioAnalysisResponse(portfolio);
+    /**
+     * Analyzes a portfolio sent in the binary columnar format.
+     * Same analysis as the JSON endpoint, but the request is decoded straight into primitive
+     * columns and the results are returned in the same columnar encoding.
+     * See ColumnarPortfolioCodec for the wire layout.
+     *
+     * @param body Columnar encoded request
+     * @return Columnar encoded analysis results
+     */
+    @PostMapping(value = "/analyze",
+            consumes = ColumnarPortfolioCodec.MEDIA_TYPE,
+            produces = ColumnarPortfolioCodec.MEDIA_TYPE)
+    public ResponseEntity<byte[]> analyzePortfolioColumnar(@RequestBody byte[] body) {
+        BondColumns columns = columnarPortfolioCodec.decode(body);
+        logger.info("Received columnar portfolio analysis request with {} bonds", columns.size());
 
-        return ResponseEntity.ok(response);
+        byte[] response = analyticsLimiter.call(() -> columnarPortfolioCodec.encode(
+                portfolioService.addBondsToPortfolio(new Portfolio("default-account"), columns)));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ColumnarPortfolioCodec.MEDIA_TYPE))
+                .body(response);
     }
 
     /**
-     * Maps a Portfolio model to a PortfolioAnalysisResponse DTO.
+     * Analyzes a portfolio of bonds from a JSON string.
+     * Accepts JSON serialized into a string and deserializes it.
      *
-     * @param portfolio The portfolio to map
-     * @return The mapped PortfolioAnalysisResponse
+     * @param body JSON string containing list of bond data
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return PortfolioAnalysisResponse containing portfolio analysis results
      */
-    private PortfolioAnalysisResponse mapToPortfolioAnalysisResponse(Portfolio portfolio) {
-        List<BondInPortfolioAnalysisResponse> bondResponses = portfolio.getBonds().stream()
-                .map(this::mapToBondInPortfolioAnalysisResponse)
-                .collect(Collectors.toList());
-
-        return new PortfolioAnalysisResponse(
-                portfolio.getId(),
-                portfolio.getAccountId(),
-                bondResponses,
-                portfolio.getWeightedMacaulayDuration(),
-                portfolio.getWeightedModifiedDuration(),
-                portfolio.getTotalPortfolioValue()
-        );
+    @PostMapping("/analyze-from-string")
+    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolioFromString(InputStream body,
+                                                                                @RequestParam(required = false) String fields,
+                                                                                @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        logger.info("Received portfolio analysis request from JSON string");
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+
+        // The input is a JSON-encoded string. The embedded JSON array is parsed directly
+        // from the string token, without materializing the unescaped content.
+        List<BondDTORequest> bondDTORequests = embeddedJsonReader.readBonds(body);
+
+        logger.info("Parsed {} bonds from JSON string", bondDTORequests.size());
+
+        // Create a new portfolio with a default account ID, add bonds to it, analyze
+        // and map the portfolio to the response DTO
+        PortfolioAnalysisResponse response = analyticsLimiter.call(() -> portfolioService.mapToPortfolioAnalysisResponse(
+                portfolioService.addBondsToPortfolio(new Portfolio("default-account"), bondDTORequests), bondFields));
+
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Maps a Bond model to a BondInPortfolioAnalysisResponse DTO.
+     * Exception handler for RejectedExecutionException.
+     * Returns HTTP 503 Service Unavailable when no analytics slot frees up in time.
      *
-     * @param bond The bond to map
-     * @return The mapped BondInPortfolioAnalysisResponse
+     * @param ex The exception
+     * @return ResponseEntity with error message and 503 status
      */
-    private BondInPortfolioAnalysisResponse mapToBondInPortfolioAnalysisResponse(Bond bond) {
-        return new BondInPortfolioAnalysisResponse(
-                bond.getISIN(),
-                bond.getYieldToMaturity(),
-                bond.getMacaulayDuration(),
-                bond.getModifiedDuration(),
-                bond.getMaturityDate(),
-                bond.getIssueDate(),
-                bond.getCouponRate(),
-                bond.getFaceValue(),
-                bond.getMarketValue(),
-                bond.getPaymentTerm(),
-                bond.getQuantity(),
-                bond.getBondWeightInPortfolio()
-        );
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException ex) {
+        logger.warn("Analytics rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server busy, retry later");
     }
 
     /**
@@ -0,0 +1,147 @@
+package com.ice.bonds.controller;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioJobResponse;
+import com.ice.bonds.model.PortfolioJob;
+import com.ice.bonds.service.PortfolioJobService;
+import com.ice.bonds.service.PortfolioService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/portfolios/jobs")
+public class PortfolioJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioJobController.class);
+
+    private final PortfolioJobService portfolioJobService;
+    private final PortfolioService portfolioService;
+
+    public PortfolioJobController(PortfolioJobService portfolioJobService, PortfolioService portfolioService) {
+        this.portfolioJobService = portfolioJobService;
+        this.portfolioService = portfolioService;
+    }
+
+    /**
+     * Submits a portfolio for asynchronous analysis.
+     * Returns 202 Accepted with the job status and a Location header pointing at the job.
+     *
+     * @param bondDTORequests List of bond data from JSON request
+     * @return PortfolioJobResponse for the queued job
+     */
+    @PostMapping
+    public ResponseEntity<PortfolioJobResponse> submitJob(@RequestBody List<BondDTORequest> bondDTORequests) {
+        logger.info("Received portfolio job with {} bonds", bondDTORequests.size());
+
+        PortfolioJob job = portfolioJobService.submit(bondDTORequests);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/portfolios/jobs/" + job.getId()))
+                .body(mapToPortfolioJobResponse(job));
+    }
+
+    /**
+     * Returns the status and progress of a job.
+     *
+     * @param jobId The job id
+     * @return PortfolioJobResponse, or 404 if the job is unknown or its result has expired
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PortfolioJobResponse> getJobStatus(@PathVariable UUID jobId) {
+        return portfolioJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(mapToPortfolioJobResponse(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Returns the analysis result of a completed job.
+     * Returns 202 with the job status while the job is still queued or running,
+     * 422 with the job status if it failed, and 404 if the job is unknown or has expired.
+     *
+     * @param jobId The job id
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return PortfolioAnalysisResponse of the completed job
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> getJobResult(@PathVariable UUID jobId,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+        Optional<PortfolioJob> found = portfolioJobService.getJob(jobId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PortfolioJob job = found.get();
+
+        switch (job.getStatus()) {
+            case COMPLETED:
+                PortfolioAnalysisResponse response = portfolioService.mapToPortfolioAnalysisResponse(job.getResult(), bondFields);
+                return ResponseEntity.ok(response);
+            case FAILED:
+                return ResponseEntity.unprocessableContent().body(mapToPortfolioJobResponse(job));
+            default:
+                return ResponseEntity.accepted().body(mapToPortfolioJobResponse(job));
+        }
+    }
+
+    /**
+     * Maps a PortfolioJob model to a PortfolioJobResponse DTO.
+     *
+     * @param job The job to map
+     * @return The mapped PortfolioJobResponse
+     */
+    private PortfolioJobResponse mapToPortfolioJobResponse(PortfolioJob job) {
+        return new PortfolioJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getAnalyzedBonds(),
+                job.getTotalBonds(),
+                job.getSubmittedAt(),
+                job.getCompletedAt(),
+                job.getError()
+        );
+    }
+
+    /**
+     * Exception handler for RejectedExecutionException.
+     * Returns HTTP 429 Too Many Requests when the job queue is full.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 429 status
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecutionException(RejectedExecutionException ex) {
+        logger.warn("Portfolio job rejected, queue is full");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many portfolio jobs in progress, retry later");
+    }
+
+    /**
+     * Exception handler for IllegalArgumentException.
+     * Returns HTTP 400 Bad Request with the error message.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 400 status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.error("Validation error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
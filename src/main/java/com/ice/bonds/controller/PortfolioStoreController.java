@@ -0,0 +1,260 @@
+package com.ice.bonds.controller;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.CashFlowLadderResponse;
+import com.ice.bonds.dto.HistoricalVaRResponse;
+import com.ice.bonds.dto.IsinExposureResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioValuationResponse;
+import com.ice.bonds.dto.SimulationResponse;
+import com.ice.bonds.service.CashFlowLadderService;
+import com.ice.bonds.service.HistoricalRiskService;
+import com.ice.bonds.service.MonteCarloService;
+import com.ice.bonds.service.PortfolioFeedService;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Portfolios stored on the server, changed position by position, with a live analytics feed.
+ */
+@RestController
+@RequestMapping("/api/portfolios")
+public class PortfolioStoreController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioStoreController.class);
+
+    private final PortfolioStoreService portfolioStoreService;
+    private final PortfolioFeedService portfolioFeedService;
+    private final CashFlowLadderService cashFlowLadderService;
+    private final HistoricalRiskService historicalRiskService;
+    private final MonteCarloService monteCarloService;
+
+    public PortfolioStoreController(PortfolioStoreService portfolioStoreService,
+                                    PortfolioFeedService portfolioFeedService,
+                                    CashFlowLadderService cashFlowLadderService,
+                                    HistoricalRiskService historicalRiskService,
+                                    MonteCarloService monteCarloService) {
+        this.portfolioStoreService = portfolioStoreService;
+        this.portfolioFeedService = portfolioFeedService;
+        this.cashFlowLadderService = cashFlowLadderService;
+        this.historicalRiskService = historicalRiskService;
+        this.monteCarloService = monteCarloService;
+    }
+
+    /**
+     * Stores and analyzes a new portfolio. Returns 201 Created with a Location header pointing at it.
+     *
+     * @param accountId Account the portfolio belongs to
+     * @param bondDTORequests Initial positions, at most one per ISIN
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return PortfolioAnalysisResponse of the stored portfolio
+     */
+    @PostMapping
+    public ResponseEntity<PortfolioAnalysisResponse> createPortfolio(
+            @RequestParam(defaultValue = "default-account") String accountId,
+            @RequestBody List<BondDTORequest> bondDTORequests,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        logger.info("Storing portfolio for account {} with {} bonds", accountId, bondDTORequests.size());
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+
+        PortfolioAnalysisResponse response = portfolioStoreService.create(accountId, bondDTORequests, bondFields);
+
+        return ResponseEntity.created(URI.create("/api/portfolios/" + response.getId())).body(response);
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return Current analysis of the stored portfolio, or 404
+     */
+    @GetMapping("/{portfolioId}")
+    public ResponseEntity<PortfolioAnalysisResponse> getPortfolio(@PathVariable UUID portfolioId,
+                                                                  @RequestParam(required = false) String fields,
+                                                                  @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        return ResponseEntity.of(portfolioStoreService.get(portfolioId,
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly)));
+    }
+
+    /**
+     * Adds positions or replaces the positions with the same ISIN. Only these bonds are re-analyzed.
+     *
+     * @param portfolioId The portfolio id
+     * @param bondDTORequests Positions to add or replace
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return Analysis of the updated portfolio, or 404
+     */
+    @PutMapping("/{portfolioId}/bonds")
+    public ResponseEntity<PortfolioAnalysisResponse> upsertBonds(@PathVariable UUID portfolioId,
+                                                                 @RequestBody List<BondDTORequest> bondDTORequests,
+                                                                 @RequestParam(required = false) String fields,
+                                                                 @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        logger.info("Updating {} positions of portfolio {}", bondDTORequests.size(), portfolioId);
+        Set<BondInPortfolioAnalysisResponse.Field> bondFields =
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly);
+        return ResponseEntity.of(portfolioStoreService.upsertBonds(portfolioId, bondDTORequests, bondFields));
+    }
+
+    /**
+     * Removes a position.
+     *
+     * @param portfolioId The portfolio id
+     * @param isin ISIN of the position to remove
+     * @param fields Comma separated bond fields to return, all of them by default
+     * @param summaryOnly true to return the portfolio figures without the bonds
+     * @return Analysis of the updated portfolio, or 404 if there is no such portfolio or position
+     */
+    @DeleteMapping("/{portfolioId}/bonds/{isin}")
+    public ResponseEntity<PortfolioAnalysisResponse> removeBond(@PathVariable UUID portfolioId,
+                                                                @PathVariable String isin,
+                                                                @RequestParam(required = false) String fields,
+                                                                @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        return ResponseEntity.of(portfolioStoreService.removeBond(portfolioId, isin,
+                BondInPortfolioAnalysisResponse.Field.projection(fields, summaryOnly)));
+    }
+
+    /**
+     * Deletes a stored portfolio and closes its live feed subscriptions.
+     *
+     * @param portfolioId The portfolio id
+     * @return 204, or 404 if there is no such portfolio
+     */
+    @DeleteMapping("/{portfolioId}")
+    public ResponseEntity<Void> deletePortfolio(@PathVariable UUID portfolioId) {
+        return portfolioStoreService.delete(portfolioId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Live analytics feed of a stored portfolio as Server-Sent Events.
+     * Sends a "snapshot" event with the full analysis, then coalesced "update" events with the
+     * new aggregates and the changed positions only.
+     *
+     * @param portfolioId The portfolio id
+     * @return The event stream, or 404
+     */
+    @GetMapping(value = "/{portfolioId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPortfolio(@PathVariable UUID portfolioId) {
+        logger.info("New live feed subscriber for portfolio {}", portfolioId);
+        return ResponseEntity.of(portfolioFeedService.subscribe(portfolioId));
+    }
+
+    /**
+     * Cash-flow ladder of a stored portfolio's current positions, from today.
+     *
+     * @param portfolioId The portfolio id
+     * @param bucket daily, monthly or yearly
+     * @return CashFlowLadderResponse, or 404
+     */
+    @GetMapping("/{portfolioId}/cashflows")
+    public ResponseEntity<CashFlowLadderResponse> getCashFlowLadder(@PathVariable UUID portfolioId,
+                                                                    @RequestParam(defaultValue = "monthly") String bucket) {
+        return ResponseEntity.of(cashFlowLadderService.storedLadder(portfolioId, CashFlowLadderService.Bucket.parse(bucket)));
+    }
+
+    /**
+     * Present value, durations and convexity of a stored portfolio's netted cash flows at a flat yield
+     * and parallel shocks of it.
+     *
+     * @param portfolioId The portfolio id
+     * @param yield Annual (effective) base yield in basis points, the portfolio IRR if omitted
+     * @param shock Comma separated shocks in basis points, one scenario each
+     * @return PortfolioValuationResponse, or 404
+     */
+    @GetMapping("/{portfolioId}/valuation")
+    public ResponseEntity<PortfolioValuationResponse> getValuation(@PathVariable UUID portfolioId,
+                                                                   @RequestParam(required = false) Double yield,
+                                                                   @RequestParam(defaultValue = "0") List<Double> shock) {
+        return ResponseEntity.of(portfolioStoreService.valuation(portfolioId, yield, shock));
+    }
+
+    /**
+     * Historical VaR and expected shortfall of a stored portfolio over the configured yield history,
+     * each day's change applied as a parallel shift of the portfolio IRR.
+     *
+     * @param portfolioId The portfolio id
+     * @param confidence Comma separated confidence levels, each between 0 and 1
+     * @param mode full (revalue the cash flows) or approximation (duration and convexity)
+     * @return HistoricalVaRResponse, 404 if there is no such portfolio, or 503 if no yield history is configured
+     */
+    @GetMapping("/{portfolioId}/var")
+    public ResponseEntity<?> getHistoricalVaR(@PathVariable UUID portfolioId,
+                                              @RequestParam(defaultValue = "0.95,0.99") List<Double> confidence,
+                                              @RequestParam(defaultValue = "full") String mode) {
+        if (!historicalRiskService.hasHistory()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("No yield history configured, set bonds.risk.history-file");
+        }
+        return ResponseEntity.of(historicalRiskService.historicalVaR(portfolioId, confidence,
+                HistoricalRiskService.Mode.parse(mode)));
+    }
+
+    /**
+     * Monte Carlo present value distribution of a stored portfolio, the short rate starting from the
+     * portfolio IRR.
+     *
+     * @param portfolioId The portfolio id
+     * @param model vasicek or hull-white (fitted to the flat IRR curve)
+     * @param meanReversion Mean reversion speed, per year
+     * @param volatility Short rate volatility in basis points per √year
+     * @param longTermRate Vasicek long-term rate in basis points, the IRR if omitted
+     * @param paths Number of paths
+     * @param seed Seed, the same seed gives the same result
+     * @param quantile Comma separated probabilities of the quantiles to report
+     * @return SimulationResponse, or 404
+     */
+    @GetMapping("/{portfolioId}/simulation")
+    public ResponseEntity<SimulationResponse> getSimulation(@PathVariable UUID portfolioId,
+                                                            @RequestParam(defaultValue = "hull-white") String model,
+                                                            @RequestParam(defaultValue = "0.1") double meanReversion,
+                                                            @RequestParam(defaultValue = "100") double volatility,
+                                                            @RequestParam(required = false) Double longTermRate,
+                                                            @RequestParam(defaultValue = "10000") int paths,
+                                                            @RequestParam(defaultValue = "1") long seed,
+                                                            @RequestParam(defaultValue = "0.01,0.05,0.5,0.95,0.99") List<Double> quantile) {
+        return ResponseEntity.of(monteCarloService.simulate(portfolioId, model, meanReversion, volatility, longTermRate,
+                paths, seed, quantile));
+    }
+
+    /**
+     * Exposure to an ISIN across every stored portfolio: total quantity and market value, and each
+     * holding's weight and contribution to its portfolio's weighted durations.
+     *
+     * @param isin The ISIN
+     * @return IsinExposureResponse, with no holdings if no stored portfolio holds the ISIN
+     */
+    @GetMapping("/holdings/{isin}")
+    public ResponseEntity<IsinExposureResponse> getExposure(@PathVariable String isin) {
+        return ResponseEntity.ok(portfolioStoreService.getExposure(isin));
+    }
+
+    /**
+     * Exception handler for IllegalArgumentException.
+     * Returns HTTP 400 Bad Request with the error message.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 400 status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.error("Validation error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,54 @@
+package com.ice.bonds.controller;
+
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.dto.PriceTickResponse;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Market price ingestion for the stored portfolios.
+ */
+@RestController
+@RequestMapping("/api/prices")
+public class PriceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceController.class);
+
+    private final PortfolioStoreService portfolioStoreService;
+
+    public PriceController(PortfolioStoreService portfolioStoreService) {
+        this.portfolioStoreService = portfolioStoreService;
+    }
+
+    /**
+     * Applies a batch of price ticks to every stored position with the ticked ISINs.
+     * Only the repriced positions are re-analyzed, live feed subscribers get the changes as updates.
+     *
+     * @param ticks Price ticks in arrival order, the last tick of an ISIN wins
+     * @return PriceTickResponse with what the batch changed
+     */
+    @PostMapping("/ticks")
+    public ResponseEntity<PriceTickResponse> applyTicks(@RequestBody List<PriceTickRequest> ticks) {
+        logger.debug("Applying {} price ticks", ticks.size());
+        return ResponseEntity.ok(portfolioStoreService.applyPriceTicks(ticks));
+    }
+
+    /**
+     * Exception handler for IllegalArgumentException.
+     * Returns HTTP 400 Bad Request with the error message.
+     *
+     * @param ex The exception
+     * @return ResponseEntity with error message and 400 status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.error("Validation error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
@@ -14,10 +14,15 @@ public class BondAnalysisResponse {
     private int faceValue;
     private int marketValue;
     private String paymentTerm;
+    // Coupon accrued since the last payment date, in cents
+    private double accruedInterest;
+    // marketValue (clean price) plus accruedInterest, in cents
+    private double dirtyPrice;
 
     public BondAnalysisResponse(String isin, double ytm, double macaulayDuration, double modifiedDuration,
                                 LocalDate maturityDate, LocalDate issueDate, int couponRate,
-                                int faceValue, int marketValue, String paymentTerm) {
+                                int faceValue, int marketValue, String paymentTerm,
+                                double accruedInterest, double dirtyPrice) {
         this.isin = isin;
         this.ytm = ytm;
         this.macaulayDuration = macaulayDuration;
@@ -28,6 +33,8 @@ public class BondAnalysisResponse {
         this.faceValue = faceValue;
         this.marketValue = marketValue;
         this.paymentTerm = paymentTerm;
+        this.accruedInterest = accruedInterest;
+        this.dirtyPrice = dirtyPrice;
     }
 
     public String getIsin() {
@@ -109,5 +116,20 @@ public class BondAnalysisResponse {
     public void setPaymentTerm(String paymentTerm) {
         this.paymentTerm = paymentTerm;
     }
-}
 
+    public double getAccruedInterest() {
+        return accruedInterest;
+    }
+
+    public void setAccruedInterest(double accruedInterest) {
+        this.accruedInterest = accruedInterest;
+    }
+
+    public double getDirtyPrice() {
+        return dirtyPrice;
+    }
+
+    public void setDirtyPrice(double dirtyPrice) {
+        this.dirtyPrice = dirtyPrice;
+    }
+}
@@ -28,6 +28,15 @@ public class BondDTORequest {
     // Quantity of bonds held - must be a whole number string without decimals or commas
     private String quantity;
 
+    // Optional bond type: fixed (default), zero, floating, amortizing or callable
+    private String bondType;
+
+    // Callable bonds only: call date in ISO format (YYYY-MM-DD), on a coupon payment date
+    private String callDate;
+
+    // Callable bonds only: redemption price in cents if called
+    private String callPrice;
+
     public String getIsin() {
         return isin;
     }
@@ -87,4 +96,28 @@ public class BondDTORequest {
     public void setQuantity(String quantity) {
         this.quantity = quantity;
     }
+
+    public String getBondType() {
+        return bondType;
+    }
+
+    public void setBondType(String bondType) {
+        this.bondType = bondType;
+    }
+
+    public String getCallDate() {
+        return callDate;
+    }
+
+    public void setCallDate(String callDate) {
+        this.callDate = callDate;
+    }
+
+    public String getCallPrice() {
+        return callPrice;
+    }
+
+    public void setCallPrice(String callPrice) {
+        this.callPrice = callPrice;
+    }
 }
@@ -1,9 +1,88 @@
 package com.ice.bonds.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class BondInPortfolioAnalysisResponse {
 
+    /**
+     * Serialized fields, for projecting the bonds of a PortfolioAnalysisResponse.
+     */
+    public enum Field {
+        ISIN("isin"),
+        YTM("ytm"),
+        MACAULAY_DURATION("macaulayDuration"),
+        MODIFIED_DURATION("modifiedDuration"),
+        MATURITY_DATE("maturityDate"),
+        ISSUE_DATE("issueDate"),
+        COUPON_RATE("couponRate"),
+        FACE_VALUE("faceValue"),
+        MARKET_VALUE("marketValue"),
+        PAYMENT_TERM("paymentTerm"),
+        QUANTITY("quantity"),
+        BOND_WEIGHT_IN_PORTFOLIO("bondWeightInPortfolio"),
+        ACCRUED_INTEREST("accruedInterest"),
+        DIRTY_PRICE("dirtyPrice"),
+        Z_SPREAD("zSpread");
+
+        private final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return JSON property name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param fields Comma separated JSON property names, as serialized
+         * @return The fields, empty for a blank list
+         * @throws IllegalArgumentException for an unknown name
+         */
+        public static EnumSet<Field> parse(String fields) {
+            EnumSet<Field> parsed = EnumSet.noneOf(Field.class);
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                parsed.add(fromName(trimmed));
+            }
+            return parsed;
+        }
+
+        /**
+         * Projection requested by the fields and summaryOnly query parameters.
+         *
+         * @param fields Comma separated JSON property names, null for all of them
+         * @param summaryOnly true for no bonds at all
+         * @return The fields to serialize, null for all of them, empty for no bonds
+         * @throws IllegalArgumentException for an unknown name
+         */
+        public static Set<Field> projection(String fields, boolean summaryOnly) {
+            if (summaryOnly) {
+                return EnumSet.noneOf(Field.class);
+            }
+            return fields == null ? null : parse(fields);
+        }
+
+        private static Field fromName(String name) {
+            for (Field field : values()) {
+                if (field.name.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Invalid bond field: " + name);
+        }
+    }
+
     // Fields from BondAnalysisResponse
     private String isin;
     private double ytm;
@@ -19,6 +98,12 @@ public class BondInPortfolioAnalysisResponse {
     // Additional fields for portfolio context
     private int quantity;
     private double bondWeightInPortfolio;
+    // Coupon accrued since the last payment date, in cents
+    private double accruedInterest;
+    // marketValue (clean price) plus accruedInterest, in cents
+    private double dirtyPrice;
+    // Z-spread over the current yield curve in bps, null without a curve or a spread that reprices the bond
+    private Double zSpread;
 
     public BondInPortfolioAnalysisResponse() {
     }
@@ -27,6 +112,15 @@ public class BondInPortfolioAnalysisResponse {
                                            LocalDate maturityDate, LocalDate issueDate, int couponRate,
                                            int faceValue, int marketValue, String paymentTerm,
                                            int quantity, double bondWeightInPortfolio) {
+        this(isin, ytm, macaulayDuration, modifiedDuration, maturityDate, issueDate, couponRate, faceValue,
+                marketValue, paymentTerm, quantity, bondWeightInPortfolio, 0.0, marketValue, null);
+    }
+
+    public BondInPortfolioAnalysisResponse(String isin, double ytm, double macaulayDuration, double modifiedDuration,
+                                           LocalDate maturityDate, LocalDate issueDate, int couponRate,
+                                           int faceValue, int marketValue, String paymentTerm,
+                                           int quantity, double bondWeightInPortfolio, double accruedInterest,
+                                           double dirtyPrice, Double zSpread) {
         this.isin = isin;
         this.ytm = ytm;
         this.macaulayDuration = macaulayDuration;
@@ -39,6 +133,9 @@ public class BondInPortfolioAnalysisResponse {
         this.paymentTerm = paymentTerm;
         this.quantity = quantity;
         this.bondWeightInPortfolio = bondWeightInPortfolio;
+        this.accruedInterest = accruedInterest;
+        this.dirtyPrice = dirtyPrice;
+        this.zSpread = zSpread;
     }
 
     public String getIsin() {
@@ -136,5 +233,30 @@ public class BondInPortfolioAnalysisResponse {
     public void setBondWeightInPortfolio(double bondWeightInPortfolio) {
         this.bondWeightInPortfolio = bondWeightInPortfolio;
     }
-}
 
+    public double getAccruedInterest() {
+        return accruedInterest;
+    }
+
+    public void setAccruedInterest(double accruedInterest) {
+        this.accruedInterest = accruedInterest;
+    }
+
+    public double getDirtyPrice() {
+        return dirtyPrice;
+    }
+
+    public void setDirtyPrice(double dirtyPrice) {
+        this.dirtyPrice = dirtyPrice;
+    }
+
+    // Named explicitly, the bean name of getZSpread would be zspread
+    @JsonProperty("zSpread")
+    public Double getZSpread() {
+        return zSpread;
+    }
+
+    public void setZSpread(Double zSpread) {
+        this.zSpread = zSpread;
+    }
+}
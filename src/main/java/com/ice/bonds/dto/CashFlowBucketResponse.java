@@ -0,0 +1,79 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Cash flows of a portfolio falling in one ladder bucket (a day, month or year), times position quantity.
+ */
+public class CashFlowBucketResponse {
+
+    // First and last day of the bucket, inclusive
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // Amounts in cents
+    private double couponAmount;
+    private double principalAmount;
+    private double totalAmount;
+
+    // Position payment dates in the bucket
+    private int flowCount;
+
+    public CashFlowBucketResponse(LocalDate startDate, LocalDate endDate, double couponAmount,
+                                  double principalAmount, double totalAmount, int flowCount) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.couponAmount = couponAmount;
+        this.principalAmount = principalAmount;
+        this.totalAmount = totalAmount;
+        this.flowCount = flowCount;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public double getCouponAmount() {
+        return couponAmount;
+    }
+
+    public void setCouponAmount(double couponAmount) {
+        this.couponAmount = couponAmount;
+    }
+
+    public double getPrincipalAmount() {
+        return principalAmount;
+    }
+
+    public void setPrincipalAmount(double principalAmount) {
+        this.principalAmount = principalAmount;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getFlowCount() {
+        return flowCount;
+    }
+
+    public void setFlowCount(int flowCount) {
+        this.flowCount = flowCount;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Projected cash flows of a portfolio aggregated into daily, monthly or yearly buckets.
+ * Only buckets with at least one flow are listed, in date order.
+ */
+public class CashFlowLadderResponse {
+
+    // daily, monthly or yearly
+    private String bucket;
+
+    // Flows before this date are not projected, a payment due on it is
+    private LocalDate asOfDate;
+    private int positions;
+
+    // Amounts in cents
+    private double totalCoupon;
+    private double totalPrincipal;
+
+    private List<CashFlowBucketResponse> buckets;
+
+    public CashFlowLadderResponse(String bucket, LocalDate asOfDate, int positions, double totalCoupon,
+                                  double totalPrincipal, List<CashFlowBucketResponse> buckets) {
+        this.bucket = bucket;
+        this.asOfDate = asOfDate;
+        this.positions = positions;
+        this.totalCoupon = totalCoupon;
+        this.totalPrincipal = totalPrincipal;
+        this.buckets = buckets;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    public void setPositions(int positions) {
+        this.positions = positions;
+    }
+
+    public double getTotalCoupon() {
+        return totalCoupon;
+    }
+
+    public void setTotalCoupon(double totalCoupon) {
+        this.totalCoupon = totalCoupon;
+    }
+
+    public double getTotalPrincipal() {
+        return totalPrincipal;
+    }
+
+    public void setTotalPrincipal(double totalPrincipal) {
+        this.totalPrincipal = totalPrincipal;
+    }
+
+    public List<CashFlowBucketResponse> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<CashFlowBucketResponse> buckets) {
+        this.buckets = buckets;
+    }
+}
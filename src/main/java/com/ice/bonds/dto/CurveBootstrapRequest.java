@@ -0,0 +1,39 @@
+package com.ice.bonds.dto;
+
+import java.util.List;
+
+/**
+ * Benchmark bonds to bootstrap the discount curve from, one pillar at each one's maturity.
+ */
+public class CurveBootstrapRequest {
+
+    // linear or log-linear
+    private String interpolation = "log-linear";
+
+    // Distinct ISINs and maturities, each priced by its marketValue
+    private List<BondDTORequest> benchmarks;
+
+    public CurveBootstrapRequest() {
+    }
+
+    public CurveBootstrapRequest(String interpolation, List<BondDTORequest> benchmarks) {
+        this.interpolation = interpolation;
+        this.benchmarks = benchmarks;
+    }
+
+    public String getInterpolation() {
+        return interpolation;
+    }
+
+    public void setInterpolation(String interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    public List<BondDTORequest> getBenchmarks() {
+        return benchmarks;
+    }
+
+    public void setBenchmarks(List<BondDTORequest> benchmarks) {
+        this.benchmarks = benchmarks;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Historical VaR and expected shortfall of a stored portfolio, one level per requested confidence
+ * in request order.
+ */
+public class HistoricalVaRResponse {
+
+    private UUID portfolioId;
+
+    // Flows before this date are not priced, a payment due on it is
+    private LocalDate asOfDate;
+
+    // full revaluation or duration-convexity approximation
+    private String mode;
+
+    // Historical days, one scenario each
+    private int scenarios;
+
+    private LocalDate historyStart;
+
+    private LocalDate historyEnd;
+
+    // Annual (effective) yield in basis points the history's changes are applied to, the portfolio IRR
+    private double baseYield;
+
+    // Cents, the netted flows priced at baseYield
+    private double presentValue;
+
+    private List<RiskLevelResponse> levels;
+
+    public HistoricalVaRResponse(UUID portfolioId, LocalDate asOfDate, String mode, int scenarios,
+                                 LocalDate historyStart, LocalDate historyEnd, double baseYield, double presentValue,
+                                 List<RiskLevelResponse> levels) {
+        this.portfolioId = portfolioId;
+        this.asOfDate = asOfDate;
+        this.mode = mode;
+        this.scenarios = scenarios;
+        this.historyStart = historyStart;
+        this.historyEnd = historyEnd;
+        this.baseYield = baseYield;
+        this.presentValue = presentValue;
+        this.levels = levels;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(UUID portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(int scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public LocalDate getHistoryStart() {
+        return historyStart;
+    }
+
+    public void setHistoryStart(LocalDate historyStart) {
+        this.historyStart = historyStart;
+    }
+
+    public LocalDate getHistoryEnd() {
+        return historyEnd;
+    }
+
+    public void setHistoryEnd(LocalDate historyEnd) {
+        this.historyEnd = historyEnd;
+    }
+
+    public double getBaseYield() {
+        return baseYield;
+    }
+
+    public void setBaseYield(double baseYield) {
+        this.baseYield = baseYield;
+    }
+
+    public double getPresentValue() {
+        return presentValue;
+    }
+
+    public void setPresentValue(double presentValue) {
+        this.presentValue = presentValue;
+    }
+
+    public List<RiskLevelResponse> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(List<RiskLevelResponse> levels) {
+        this.levels = levels;
+    }
+}
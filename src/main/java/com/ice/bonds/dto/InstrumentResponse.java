@@ -0,0 +1,79 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Static terms of an instrument from the instrument master.
+ */
+public class InstrumentResponse {
+
+    private String isin;
+    private LocalDate issueDate;
+    private LocalDate maturityDate;
+
+    // Coupon rate in basis points
+    private int couponRate;
+
+    // Face value in cents
+    private int faceValue;
+
+    private String paymentTerm;
+
+    public InstrumentResponse(String isin, LocalDate issueDate, LocalDate maturityDate, int couponRate,
+                              int faceValue, String paymentTerm) {
+        this.isin = isin;
+        this.issueDate = issueDate;
+        this.maturityDate = maturityDate;
+        this.couponRate = couponRate;
+        this.faceValue = faceValue;
+        this.paymentTerm = paymentTerm;
+    }
+
+    public String getIsin() {
+        return isin;
+    }
+
+    public void setIsin(String isin) {
+        this.isin = isin;
+    }
+
+    public LocalDate getIssueDate() {
+        return issueDate;
+    }
+
+    public void setIssueDate(LocalDate issueDate) {
+        this.issueDate = issueDate;
+    }
+
+    public LocalDate getMaturityDate() {
+        return maturityDate;
+    }
+
+    public void setMaturityDate(LocalDate maturityDate) {
+        this.maturityDate = maturityDate;
+    }
+
+    public int getCouponRate() {
+        return couponRate;
+    }
+
+    public void setCouponRate(int couponRate) {
+        this.couponRate = couponRate;
+    }
+
+    public int getFaceValue() {
+        return faceValue;
+    }
+
+    public void setFaceValue(int faceValue) {
+        this.faceValue = faceValue;
+    }
+
+    public String getPaymentTerm() {
+        return paymentTerm;
+    }
+
+    public void setPaymentTerm(String paymentTerm) {
+        this.paymentTerm = paymentTerm;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ice.bonds.dto;
+
+import java.util.List;
+
+/**
+ * Exposure to one ISIN across every stored portfolio and account.
+ */
+public class IsinExposureResponse {
+
+    private String isin;
+    private long totalQuantity;
+
+    // Market value in cents of all positions in the ISIN
+    private long totalMarketValue;
+
+    // Durations of the positions weighted by their market value, in years
+    private double weightedMacaulayDuration;
+    private double weightedModifiedDuration;
+
+    private List<IsinHoldingResponse> holdings;
+
+    public IsinExposureResponse(String isin, long totalQuantity, long totalMarketValue,
+                                double weightedMacaulayDuration, double weightedModifiedDuration,
+                                List<IsinHoldingResponse> holdings) {
+        this.isin = isin;
+        this.totalQuantity = totalQuantity;
+        this.totalMarketValue = totalMarketValue;
+        this.weightedMacaulayDuration = weightedMacaulayDuration;
+        this.weightedModifiedDuration = weightedModifiedDuration;
+        this.holdings = holdings;
+    }
+
+    public String getIsin() {
+        return isin;
+    }
+
+    public void setIsin(String isin) {
+        this.isin = isin;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public long getTotalMarketValue() {
+        return totalMarketValue;
+    }
+
+    public void setTotalMarketValue(long totalMarketValue) {
+        this.totalMarketValue = totalMarketValue;
+    }
+
+    public double getWeightedMacaulayDuration() {
+        return weightedMacaulayDuration;
+    }
+
+    public void setWeightedMacaulayDuration(double weightedMacaulayDuration) {
+        this.weightedMacaulayDuration = weightedMacaulayDuration;
+    }
+
+    public double getWeightedModifiedDuration() {
+        return weightedModifiedDuration;
+    }
+
+    public void setWeightedModifiedDuration(double weightedModifiedDuration) {
+        this.weightedModifiedDuration = weightedModifiedDuration;
+    }
+
+    public List<IsinHoldingResponse> getHoldings() {
+        return holdings;
+    }
+
+    public void setHoldings(List<IsinHoldingResponse> holdings) {
+        this.holdings = holdings;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ice.bonds.dto;
+
+import java.util.UUID;
+
+/**
+ * One stored portfolio's position in an ISIN, see IsinExposureResponse.
+ */
+public class IsinHoldingResponse {
+
+    private UUID portfolioId;
+    private String accountId;
+    private int quantity;
+
+    // Market value in cents of the whole position (marketValue x quantity)
+    private long positionMarketValue;
+
+    private double bondWeightInPortfolio;
+    private double macaulayDuration;
+    private double modifiedDuration;
+
+    // What the position adds to the portfolio's weighted durations (weight x duration), in years
+    private double macaulayDurationContribution;
+    private double modifiedDurationContribution;
+
+    public IsinHoldingResponse(UUID portfolioId, String accountId, int quantity, long positionMarketValue,
+                               double bondWeightInPortfolio, double macaulayDuration, double modifiedDuration) {
+        this.portfolioId = portfolioId;
+        this.accountId = accountId;
+        this.quantity = quantity;
+        this.positionMarketValue = positionMarketValue;
+        this.bondWeightInPortfolio = bondWeightInPortfolio;
+        this.macaulayDuration = macaulayDuration;
+        this.modifiedDuration = modifiedDuration;
+        this.macaulayDurationContribution = bondWeightInPortfolio * macaulayDuration;
+        this.modifiedDurationContribution = bondWeightInPortfolio * modifiedDuration;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(UUID portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getPositionMarketValue() {
+        return positionMarketValue;
+    }
+
+    public void setPositionMarketValue(long positionMarketValue) {
+        this.positionMarketValue = positionMarketValue;
+    }
+
+    public double getBondWeightInPortfolio() {
+        return bondWeightInPortfolio;
+    }
+
+    public void setBondWeightInPortfolio(double bondWeightInPortfolio) {
+        this.bondWeightInPortfolio = bondWeightInPortfolio;
+    }
+
+    public double getMacaulayDuration() {
+        return macaulayDuration;
+    }
+
+    public void setMacaulayDuration(double macaulayDuration) {
+        this.macaulayDuration = macaulayDuration;
+    }
+
+    public double getModifiedDuration() {
+        return modifiedDuration;
+    }
+
+    public void setModifiedDuration(double modifiedDuration) {
+        this.modifiedDuration = modifiedDuration;
+    }
+
+    public double getMacaulayDurationContribution() {
+        return macaulayDurationContribution;
+    }
+
+    public void setMacaulayDurationContribution(double macaulayDurationContribution) {
+        this.macaulayDurationContribution = macaulayDurationContribution;
+    }
+
+    public double getModifiedDurationContribution() {
+        return modifiedDurationContribution;
+    }
+
+    public void setModifiedDurationContribution(double modifiedDurationContribution) {
+        this.modifiedDurationContribution = modifiedDurationContribution;
+    }
+}
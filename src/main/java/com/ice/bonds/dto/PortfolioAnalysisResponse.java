@@ -1,6 +1,10 @@
 package com.ice.bonds.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public class PortfolioAnalysisResponse {
@@ -11,16 +15,51 @@ public class PortfolioAnalysisResponse {
     private double weightedMacaulayDuration;
     private double weightedModifiedDuration;
     private long totalPortfolioValue;
+    private double weightedYieldToMaturity;
+    // In bps, null when no yield discounts the flows to the portfolio's value
+    private Double internalRateOfReturn;
+    // Market value weighted Z-spread of the bonds that have one, in bps, null without a curve
+    private Double weightedZSpread;
+    // Fields serialized for each bond, null for all of them. Bonds is null when the projection is empty
+    private Set<BondInPortfolioAnalysisResponse.Field> bondFields;
 
     public PortfolioAnalysisResponse(UUID id, String accountId, List<BondInPortfolioAnalysisResponse> bonds,
                                      double weightedMacaulayDuration, double weightedModifiedDuration,
                                      long totalPortfolioValue) {
+        this(id, accountId, bonds, weightedMacaulayDuration, weightedModifiedDuration, totalPortfolioValue, 0.0, 0.0);
+    }
+
+    public PortfolioAnalysisResponse(UUID id, String accountId, List<BondInPortfolioAnalysisResponse> bonds,
+                                     double weightedMacaulayDuration, double weightedModifiedDuration,
+                                     long totalPortfolioValue, double weightedYieldToMaturity,
+                                     double internalRateOfReturn) {
+        this(id, accountId, bonds, weightedMacaulayDuration, weightedModifiedDuration, totalPortfolioValue,
+                weightedYieldToMaturity, internalRateOfReturn, null);
+    }
+
+    public PortfolioAnalysisResponse(UUID id, String accountId, List<BondInPortfolioAnalysisResponse> bonds,
+                                     double weightedMacaulayDuration, double weightedModifiedDuration,
+                                     long totalPortfolioValue, double weightedYieldToMaturity,
+                                     double internalRateOfReturn, Double weightedZSpread) {
+        this(id, accountId, bonds, weightedMacaulayDuration, weightedModifiedDuration, totalPortfolioValue,
+                weightedYieldToMaturity, internalRateOfReturn, weightedZSpread, null);
+    }
+
+    public PortfolioAnalysisResponse(UUID id, String accountId, List<BondInPortfolioAnalysisResponse> bonds,
+                                     double weightedMacaulayDuration, double weightedModifiedDuration,
+                                     long totalPortfolioValue, double weightedYieldToMaturity,
+                                     double internalRateOfReturn, Double weightedZSpread,
+                                     Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
         this.id = id;
         this.accountId = accountId;
         this.bonds = bonds;
         this.weightedMacaulayDuration = weightedMacaulayDuration;
         this.weightedModifiedDuration = weightedModifiedDuration;
         this.totalPortfolioValue = totalPortfolioValue;
+        this.weightedYieldToMaturity = weightedYieldToMaturity;
+        this.internalRateOfReturn = Double.isNaN(internalRateOfReturn) ? null : internalRateOfReturn;
+        this.weightedZSpread = weightedZSpread;
+        this.bondFields = bondFields;
     }
 
     public UUID getId() {
@@ -39,6 +78,8 @@ public class PortfolioAnalysisResponse {
         this.accountId = accountId;
     }
 
+    // Left out of summary only responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<BondInPortfolioAnalysisResponse> getBonds() {
         return bonds;
     }
@@ -70,5 +111,37 @@ public class PortfolioAnalysisResponse {
     public void setTotalPortfolioValue(long totalPortfolioValue) {
         this.totalPortfolioValue = totalPortfolioValue;
     }
-}
 
+    public double getWeightedYieldToMaturity() {
+        return weightedYieldToMaturity;
+    }
+
+    public void setWeightedYieldToMaturity(double weightedYieldToMaturity) {
+        this.weightedYieldToMaturity = weightedYieldToMaturity;
+    }
+
+    public Double getInternalRateOfReturn() {
+        return internalRateOfReturn;
+    }
+
+    public void setInternalRateOfReturn(Double internalRateOfReturn) {
+        this.internalRateOfReturn = internalRateOfReturn;
+    }
+
+    public Double getWeightedZSpread() {
+        return weightedZSpread;
+    }
+
+    public void setWeightedZSpread(Double weightedZSpread) {
+        this.weightedZSpread = weightedZSpread;
+    }
+
+    @JsonIgnore
+    public Set<BondInPortfolioAnalysisResponse.Field> getBondFields() {
+        return bondFields;
+    }
+
+    public void setBondFields(Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        this.bondFields = bondFields;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ice.bonds.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class PortfolioJobResponse {
+
+    private UUID jobId;
+    private String status;
+    private int analyzedBonds;
+    private int totalBonds;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private String error;
+
+    public PortfolioJobResponse(UUID jobId, String status, int analyzedBonds, int totalBonds,
+                                Instant submittedAt, Instant completedAt, String error) {
+        this.jobId = jobId;
+        this.status = status;
+        this.analyzedBonds = analyzedBonds;
+        this.totalBonds = totalBonds;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+        this.error = error;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAnalyzedBonds() {
+        return analyzedBonds;
+    }
+
+    public void setAnalyzedBonds(int analyzedBonds) {
+        this.analyzedBonds = analyzedBonds;
+    }
+
+    public int getTotalBonds() {
+        return totalBonds;
+    }
+
+    public void setTotalBonds(int totalBonds) {
+        this.totalBonds = totalBonds;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
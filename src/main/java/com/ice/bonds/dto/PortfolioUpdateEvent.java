@@ -0,0 +1,88 @@
+package com.ice.bonds.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Incremental update pushed to live portfolio subscribers.
+ * Carries the new portfolio aggregates and only the positions that changed since the previous event.
+ * Weights of unchanged positions scale with totalPortfolioValue.
+ */
+public class PortfolioUpdateEvent {
+
+    private UUID portfolioId;
+    private long version;
+    private double weightedMacaulayDuration;
+    private double weightedModifiedDuration;
+    private long totalPortfolioValue;
+    private List<BondInPortfolioAnalysisResponse> changedBonds;
+    private List<String> removedIsins;
+
+    public PortfolioUpdateEvent(UUID portfolioId, long version, double weightedMacaulayDuration,
+                                double weightedModifiedDuration, long totalPortfolioValue,
+                                List<BondInPortfolioAnalysisResponse> changedBonds, List<String> removedIsins) {
+        this.portfolioId = portfolioId;
+        this.version = version;
+        this.weightedMacaulayDuration = weightedMacaulayDuration;
+        this.weightedModifiedDuration = weightedModifiedDuration;
+        this.totalPortfolioValue = totalPortfolioValue;
+        this.changedBonds = changedBonds;
+        this.removedIsins = removedIsins;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(UUID portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public double getWeightedMacaulayDuration() {
+        return weightedMacaulayDuration;
+    }
+
+    public void setWeightedMacaulayDuration(double weightedMacaulayDuration) {
+        this.weightedMacaulayDuration = weightedMacaulayDuration;
+    }
+
+    public double getWeightedModifiedDuration() {
+        return weightedModifiedDuration;
+    }
+
+    public void setWeightedModifiedDuration(double weightedModifiedDuration) {
+        this.weightedModifiedDuration = weightedModifiedDuration;
+    }
+
+    public long getTotalPortfolioValue() {
+        return totalPortfolioValue;
+    }
+
+    public void setTotalPortfolioValue(long totalPortfolioValue) {
+        this.totalPortfolioValue = totalPortfolioValue;
+    }
+
+    public List<BondInPortfolioAnalysisResponse> getChangedBonds() {
+        return changedBonds;
+    }
+
+    public void setChangedBonds(List<BondInPortfolioAnalysisResponse> changedBonds) {
+        this.changedBonds = changedBonds;
+    }
+
+    public List<String> getRemovedIsins() {
+        return removedIsins;
+    }
+
+    public void setRemovedIsins(List<String> removedIsins) {
+        this.removedIsins = removedIsins;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A stored portfolio's netted cash flows priced at a base yield and at parallel shocks of it,
+ * one scenario per shock in request order.
+ */
+public class PortfolioValuationResponse {
+
+    private UUID portfolioId;
+
+    // Flows before this date are not priced, a payment due on it is
+    private LocalDate asOfDate;
+
+    // Annual (effective) yield in basis points, the portfolio IRR unless one was given
+    private double baseYield;
+
+    private List<YieldScenarioResponse> scenarios;
+
+    public PortfolioValuationResponse(UUID portfolioId, LocalDate asOfDate, double baseYield,
+                                      List<YieldScenarioResponse> scenarios) {
+        this.portfolioId = portfolioId;
+        this.asOfDate = asOfDate;
+        this.baseYield = baseYield;
+        this.scenarios = scenarios;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(UUID portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public double getBaseYield() {
+        return baseYield;
+    }
+
+    public void setBaseYield(double baseYield) {
+        this.baseYield = baseYield;
+    }
+
+    public List<YieldScenarioResponse> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<YieldScenarioResponse> scenarios) {
+        this.scenarios = scenarios;
+    }
+}
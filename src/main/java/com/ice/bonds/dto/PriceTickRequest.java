@@ -0,0 +1,37 @@
+package com.ice.bonds.dto;
+
+/**
+ * A new market price for every stored position with the given ISIN.
+ */
+public class PriceTickRequest {
+
+    private String isin;
+
+    // New market value in cents, per bond like BondDTORequest.marketValue
+    // Must be a whole number string without decimals or commas
+    private String marketValue;
+
+    public PriceTickRequest() {
+    }
+
+    public PriceTickRequest(String isin, String marketValue) {
+        this.isin = isin;
+        this.marketValue = marketValue;
+    }
+
+    public String getIsin() {
+        return isin;
+    }
+
+    public void setIsin(String isin) {
+        this.isin = isin;
+    }
+
+    public String getMarketValue() {
+        return marketValue;
+    }
+
+    public void setMarketValue(String marketValue) {
+        this.marketValue = marketValue;
+    }
+}
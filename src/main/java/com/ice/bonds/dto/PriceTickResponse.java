@@ -0,0 +1,71 @@
+package com.ice.bonds.dto;
+
+/**
+ * Outcome of applying a batch of price ticks to the stored portfolios.
+ */
+public class PriceTickResponse {
+
+    // Ticks in the request
+    private int ticksReceived;
+
+    // Distinct ISINs in the request, the last tick of an ISIN wins
+    private int isinsPriced;
+
+    // Stored positions re-analyzed with a new price
+    private int positionsRepriced;
+
+    // Stored positions left at their old price, they cannot be analyzed at the new one (e.g. matured)
+    private int positionsRejected;
+
+    // Stored portfolios holding at least one repriced position
+    private int portfoliosUpdated;
+
+    public PriceTickResponse(int ticksReceived, int isinsPriced, int positionsRepriced, int positionsRejected,
+                             int portfoliosUpdated) {
+        this.ticksReceived = ticksReceived;
+        this.isinsPriced = isinsPriced;
+        this.positionsRepriced = positionsRepriced;
+        this.positionsRejected = positionsRejected;
+        this.portfoliosUpdated = portfoliosUpdated;
+    }
+
+    public int getTicksReceived() {
+        return ticksReceived;
+    }
+
+    public void setTicksReceived(int ticksReceived) {
+        this.ticksReceived = ticksReceived;
+    }
+
+    public int getIsinsPriced() {
+        return isinsPriced;
+    }
+
+    public void setIsinsPriced(int isinsPriced) {
+        this.isinsPriced = isinsPriced;
+    }
+
+    public int getPositionsRepriced() {
+        return positionsRepriced;
+    }
+
+    public void setPositionsRepriced(int positionsRepriced) {
+        this.positionsRepriced = positionsRepriced;
+    }
+
+    public int getPositionsRejected() {
+        return positionsRejected;
+    }
+
+    public void setPositionsRejected(int positionsRejected) {
+        this.positionsRejected = positionsRejected;
+    }
+
+    public int getPortfoliosUpdated() {
+        return portfoliosUpdated;
+    }
+
+    public void setPortfoliosUpdated(int portfoliosUpdated) {
+        this.portfoliosUpdated = portfoliosUpdated;
+    }
+}
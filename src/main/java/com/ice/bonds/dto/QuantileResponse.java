@@ -0,0 +1,34 @@
+package com.ice.bonds.dto;
+
+/**
+ * One quantile of a simulated present value distribution.
+ */
+public class QuantileResponse {
+
+    // e.g. 0.05, the value 5% of the paths fall below
+    private double probability;
+
+    // Cents
+    private double presentValue;
+
+    public QuantileResponse(double probability, double presentValue) {
+        this.probability = probability;
+        this.presentValue = presentValue;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    public void setProbability(double probability) {
+        this.probability = probability;
+    }
+
+    public double getPresentValue() {
+        return presentValue;
+    }
+
+    public void setPresentValue(double presentValue) {
+        this.presentValue = presentValue;
+    }
+}
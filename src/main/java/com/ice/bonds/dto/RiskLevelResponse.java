@@ -0,0 +1,46 @@
+package com.ice.bonds.dto;
+
+/**
+ * Historical VaR and expected shortfall at one confidence level. Losses are positive.
+ */
+public class RiskLevelResponse {
+
+    // e.g. 0.99
+    private double confidence;
+
+    // Cents, the loss exceeded in a fraction 1 - confidence of the historical days
+    private double valueAtRisk;
+
+    // Cents, the average loss over those days
+    private double expectedShortfall;
+
+    public RiskLevelResponse(double confidence, double valueAtRisk, double expectedShortfall) {
+        this.confidence = confidence;
+        this.valueAtRisk = valueAtRisk;
+        this.expectedShortfall = expectedShortfall;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+
+    public double getValueAtRisk() {
+        return valueAtRisk;
+    }
+
+    public void setValueAtRisk(double valueAtRisk) {
+        this.valueAtRisk = valueAtRisk;
+    }
+
+    public double getExpectedShortfall() {
+        return expectedShortfall;
+    }
+
+    public void setExpectedShortfall(double expectedShortfall) {
+        this.expectedShortfall = expectedShortfall;
+    }
+}
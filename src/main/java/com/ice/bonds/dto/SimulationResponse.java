@@ -0,0 +1,170 @@
+package com.ice.bonds.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Monte Carlo present value distribution of a stored portfolio under a short-rate model, one quantile
+ * per requested probability in request order.
+ */
+public class SimulationResponse {
+
+    private UUID portfolioId;
+
+    // Flows before this date are not priced, a payment due on it is
+    private LocalDate asOfDate;
+
+    // vasicek or hull-white
+    private String model;
+
+    private int paths;
+
+    // The same seed gives the same distribution
+    private long seed;
+
+    // Steps per path, up to the last flow
+    private int steps;
+
+    private int stepDays;
+
+    // Annual (effective) yield in basis points the short rate starts from, the portfolio IRR
+    private double baseYield;
+
+    // Cents, the flows priced at baseYield
+    private double presentValue;
+
+    // Cents, average over the paths
+    private double meanPresentValue;
+
+    // Cents
+    private double minPresentValue;
+
+    // Cents
+    private double maxPresentValue;
+
+    // Within bonds.simulation.relative-accuracy of the exact quantile of the paths
+    private List<QuantileResponse> quantiles;
+
+    public SimulationResponse(UUID portfolioId, LocalDate asOfDate, String model, int paths, long seed, int steps,
+                              int stepDays, double baseYield, double presentValue, double meanPresentValue,
+                              double minPresentValue, double maxPresentValue, List<QuantileResponse> quantiles) {
+        this.portfolioId = portfolioId;
+        this.asOfDate = asOfDate;
+        this.model = model;
+        this.paths = paths;
+        this.seed = seed;
+        this.steps = steps;
+        this.stepDays = stepDays;
+        this.baseYield = baseYield;
+        this.presentValue = presentValue;
+        this.meanPresentValue = meanPresentValue;
+        this.minPresentValue = minPresentValue;
+        this.maxPresentValue = maxPresentValue;
+        this.quantiles = quantiles;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(UUID portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getAsOfDate() {
+        return asOfDate;
+    }
+
+    public void setAsOfDate(LocalDate asOfDate) {
+        this.asOfDate = asOfDate;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public void setPaths(int paths) {
+        this.paths = paths;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public void setSteps(int steps) {
+        this.steps = steps;
+    }
+
+    public int getStepDays() {
+        return stepDays;
+    }
+
+    public void setStepDays(int stepDays) {
+        this.stepDays = stepDays;
+    }
+
+    public double getBaseYield() {
+        return baseYield;
+    }
+
+    public void setBaseYield(double baseYield) {
+        this.baseYield = baseYield;
+    }
+
+    public double getPresentValue() {
+        return presentValue;
+    }
+
+    public void setPresentValue(double presentValue) {
+        this.presentValue = presentValue;
+    }
+
+    public double getMeanPresentValue() {
+        return meanPresentValue;
+    }
+
+    public void setMeanPresentValue(double meanPresentValue) {
+        this.meanPresentValue = meanPresentValue;
+    }
+
+    public double getMinPresentValue() {
+        return minPresentValue;
+    }
+
+    public void setMinPresentValue(double minPresentValue) {
+        this.minPresentValue = minPresentValue;
+    }
+
+    public double getMaxPresentValue() {
+        return maxPresentValue;
+    }
+
+    public void setMaxPresentValue(double maxPresentValue) {
+        this.maxPresentValue = maxPresentValue;
+    }
+
+    public List<QuantileResponse> getQuantiles() {
+        return quantiles;
+    }
+
+    public void setQuantiles(List<QuantileResponse> quantiles) {
+        this.quantiles = quantiles;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ice.bonds.dto;
+
+import java.util.List;
+
+/**
+ * A discount curve by its pillars: zero rates or discount factors at tenors, one of the two.
+ */
+public class YieldCurveRequest {
+
+    // linear, log-linear or monotone-cubic
+    private String interpolation = "monotone-cubic";
+
+    // Years, positive and ascending
+    private List<Double> tenors;
+
+    // Continuously compounded, in basis points
+    private List<Double> zeroRates;
+
+    // Above 0
+    private List<Double> discountFactors;
+
+    public YieldCurveRequest() {
+    }
+
+    public String getInterpolation() {
+        return interpolation;
+    }
+
+    public void setInterpolation(String interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    public List<Double> getTenors() {
+        return tenors;
+    }
+
+    public void setTenors(List<Double> tenors) {
+        this.tenors = tenors;
+    }
+
+    public List<Double> getZeroRates() {
+        return zeroRates;
+    }
+
+    public void setZeroRates(List<Double> zeroRates) {
+        this.zeroRates = zeroRates;
+    }
+
+    public List<Double> getDiscountFactors() {
+        return discountFactors;
+    }
+
+    public void setDiscountFactors(List<Double> discountFactors) {
+        this.discountFactors = discountFactors;
+    }
+}
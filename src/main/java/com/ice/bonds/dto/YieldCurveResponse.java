@@ -0,0 +1,60 @@
+package com.ice.bonds.dto;
+
+import java.util.List;
+
+/**
+ * Pillars of the current discount curve.
+ */
+public class YieldCurveResponse {
+
+    // linear, log-linear or monotone-cubic
+    private String interpolation;
+
+    // Years
+    private List<Double> tenors;
+
+    // Continuously compounded, in basis points
+    private List<Double> zeroRates;
+
+    private List<Double> discountFactors;
+
+    public YieldCurveResponse(String interpolation, List<Double> tenors, List<Double> zeroRates,
+                              List<Double> discountFactors) {
+        this.interpolation = interpolation;
+        this.tenors = tenors;
+        this.zeroRates = zeroRates;
+        this.discountFactors = discountFactors;
+    }
+
+    public String getInterpolation() {
+        return interpolation;
+    }
+
+    public void setInterpolation(String interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    public List<Double> getTenors() {
+        return tenors;
+    }
+
+    public void setTenors(List<Double> tenors) {
+        this.tenors = tenors;
+    }
+
+    public List<Double> getZeroRates() {
+        return zeroRates;
+    }
+
+    public void setZeroRates(List<Double> zeroRates) {
+        this.zeroRates = zeroRates;
+    }
+
+    public List<Double> getDiscountFactors() {
+        return discountFactors;
+    }
+
+    public void setDiscountFactors(List<Double> discountFactors) {
+        this.discountFactors = discountFactors;
+    }
+}
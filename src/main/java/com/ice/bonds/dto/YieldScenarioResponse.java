@@ -0,0 +1,81 @@
+package com.ice.bonds.dto;
+
+/**
+ * A portfolio's netted cash flows priced at one flat yield.
+ */
+public class YieldScenarioResponse {
+
+    // Basis points added to the base yield
+    private double shock;
+
+    // Annual (effective) yield in basis points, base yield plus shock
+    private double yield;
+
+    // Cents
+    private double presentValue;
+
+    // Years
+    private double macaulayDuration;
+    private double modifiedDuration;
+
+    // Years squared
+    private double convexity;
+
+    public YieldScenarioResponse(double shock, double yield, double presentValue, double macaulayDuration,
+                                 double modifiedDuration, double convexity) {
+        this.shock = shock;
+        this.yield = yield;
+        this.presentValue = presentValue;
+        this.macaulayDuration = macaulayDuration;
+        this.modifiedDuration = modifiedDuration;
+        this.convexity = convexity;
+    }
+
+    public double getShock() {
+        return shock;
+    }
+
+    public void setShock(double shock) {
+        this.shock = shock;
+    }
+
+    public double getYield() {
+        return yield;
+    }
+
+    public void setYield(double yield) {
+        this.yield = yield;
+    }
+
+    public double getPresentValue() {
+        return presentValue;
+    }
+
+    public void setPresentValue(double presentValue) {
+        this.presentValue = presentValue;
+    }
+
+    public double getMacaulayDuration() {
+        return macaulayDuration;
+    }
+
+    public void setMacaulayDuration(double macaulayDuration) {
+        this.macaulayDuration = macaulayDuration;
+    }
+
+    public double getModifiedDuration() {
+        return modifiedDuration;
+    }
+
+    public void setModifiedDuration(double modifiedDuration) {
+        this.modifiedDuration = modifiedDuration;
+    }
+
+    public double getConvexity() {
+        return convexity;
+    }
+
+    public void setConvexity(double convexity) {
+        this.convexity = convexity;
+    }
+}
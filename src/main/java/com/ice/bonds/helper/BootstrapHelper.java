@@ -0,0 +1,261 @@
+package com.ice.bonds.helper;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.YieldCurve;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a YieldCurve from benchmark bond prices, one pillar per benchmark at its maturity.
+ *
+ * The pillars are solved in maturity order: benchmark i's flows up to the previous maturity are
+ * discounted on the pillars already solved, and only the zero rate at its own maturity is solved for,
+ * by Newton's method, so that its flows are worth its dirty price, its clean price plus accrued
+ * interest. This needs an interpolation where the discount factor between two pillars depends on
+ * those two pillars only, LINEAR or LOG_LINEAR.
+ *
+ * A benchmark's price moves only its own pillar and the ones after it, so after a tick the curve is
+ * solved again from the first ticked pillar forward, each pillar starting from its last solution.
+ *
+ * The flows are the ones CashFlowHelper produces over the benchmarks' CommonHelper schedules,
+ * generated once when the bootstrap is created; a solve only evaluates exponentials.
+ */
+@Component
+public class BootstrapHelper {
+
+    private static final int MAX_NEWTON_ITERATIONS = 100;
+    private static final double NEWTON_TOLERANCE = 1e-12;
+
+    private final CashFlowHelper cashFlowHelper;
+    private final YTMHelper ytmHelper;
+
+    public BootstrapHelper(CashFlowHelper cashFlowHelper, YTMHelper ytmHelper) {
+        this.cashFlowHelper = cashFlowHelper;
+        this.ytmHelper = ytmHelper;
+    }
+
+    /**
+     * @param benchmarks Benchmark bonds with distinct ISINs and maturities, priced by their marketValue,
+     * the clean price in cents per bond. The bootstrap keeps them and sets their marketValue on setPrice
+     * @param interpolation LINEAR or LOG_LINEAR
+     * @param today Valuation date, the curve's time 0
+     * @return A bootstrap with every pillar solved
+     * @throws IllegalArgumentException if there are no benchmarks, two share an ISIN or a maturity, one
+     * has matured, has no valid schedule or a price that is not positive, or the interpolation is not local
+     * @throws IllegalStateException if a pillar does not converge
+     */
+    public Bootstrap bootstrap(List<Bond> benchmarks, YieldCurve.Interpolation interpolation, LocalDate today) {
+        if (interpolation == YieldCurve.Interpolation.MONOTONE_CUBIC) {
+            throw new IllegalArgumentException("Bootstrapping needs linear or log-linear interpolation, monotone-cubic"
+                    + " tangents depend on the pillars after each segment");
+        }
+        if (benchmarks.isEmpty()) {
+            throw new IllegalArgumentException("Bootstrapping needs at least one benchmark");
+        }
+        List<Bond> sorted = new ArrayList<>(benchmarks);
+        sorted.sort(Comparator.comparing(Bond::getMaturityDate));
+        return new Bootstrap(cashFlowHelper, ytmHelper, sorted, interpolation, today);
+    }
+
+    /**
+     * Solved pillars of one set of benchmarks, and their flows. Not thread-safe.
+     *
+     * Each flow is discounted between the pillars of its segment, j - 1 and j (j = 0 before the first
+     * pillar), as DF = e^(a × z[j-1] + b × z[j]):
+     * LINEAR, z(t) = (1 - w) × z[j-1] + w × z[j]: a = -(1 - w) × t, b = -w × t
+     * LOG_LINEAR, ln DF(t) = -(1 - w) × z[j-1] × T[j-1] - w × z[j] × T[j]: a = -(1 - w) × T[j-1], b = -w × T[j]
+     * with w = (t - T[j-1]) / (T[j] - T[j-1]), and a = 0, b = -t before the first pillar, the flat
+     * extrapolation of YieldCurve.
+     */
+    public static final class Bootstrap {
+
+        private final YieldCurve.Interpolation interpolation;
+        private final LocalDate today;
+        private final Bond[] benchmarks;
+        private final Map<String, Integer> pillarsByIsin;
+        private final double[] tenors;
+        private final double[] zeroRates;
+        private final double[] accruedInterest;
+        // Dirty prices
+        private final double[] prices;
+        // Benchmark i's flows are [flowOffsets[i], flowOffsets[i + 1])
+        private final int[] flowOffsets;
+        private final int[] segments;
+        private final double[] amounts;
+        private final double[] previousWeights;
+        private final double[] pillarWeights;
+        // First pillar to solve again, tenors.length when the curve is up to date
+        private int firstStale;
+        private YieldCurve curve;
+
+        private Bootstrap(CashFlowHelper cashFlowHelper, YTMHelper ytmHelper, List<Bond> sorted,
+                          YieldCurve.Interpolation interpolation, LocalDate today) {
+            this.interpolation = interpolation;
+            this.today = today;
+            int count = sorted.size();
+            this.benchmarks = sorted.toArray(new Bond[0]);
+            this.pillarsByIsin = new HashMap<>(count * 2);
+            this.tenors = new double[count];
+            this.zeroRates = new double[count];
+            this.accruedInterest = new double[count];
+            this.prices = new double[count];
+            this.flowOffsets = new int[count + 1];
+            long todayEpochDay = today.toEpochDay();
+
+            List<double[]> flows = new ArrayList<>();
+            for (int pillar = 0; pillar < count; pillar++) {
+                Bond benchmark = benchmarks[pillar];
+                if (pillarsByIsin.put(benchmark.getISIN(), pillar) != null) {
+                    throw new IllegalArgumentException("Duplicate benchmark: " + benchmark.getISIN());
+                }
+                tenors[pillar] = (benchmark.getMaturityDate().toEpochDay() - todayEpochDay) / 365.25;
+                if (!(tenors[pillar] > 0)) {
+                    throw new IllegalArgumentException("Benchmark " + benchmark.getISIN() + " matures today or before");
+                }
+                if (pillar > 0 && tenors[pillar] == tenors[pillar - 1]) {
+                    throw new IllegalArgumentException("Benchmarks " + benchmarks[pillar - 1].getISIN() + " and "
+                            + benchmark.getISIN() + " mature on the same day");
+                }
+                accruedInterest[pillar] = ytmHelper.calculateAccruedInterest(today, benchmark);
+                prices[pillar] = validPrice(benchmark, benchmark.getMarketValue()) + accruedInterest[pillar];
+                flowOffsets[pillar] = flows.size();
+                try {
+                    CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(benchmark, today);
+                    do {
+                        flows.add(new double[]{(cursor.getEpochDay() - todayEpochDay) / 365.25,
+                                cursor.getCoupon() + cursor.getPrincipal()});
+                    } while (cursor.next());
+                } catch (IllegalStateException e) {
+                    throw new IllegalArgumentException("Benchmark " + benchmark.getISIN() + ": " + e.getMessage());
+                }
+            }
+            flowOffsets[count] = flows.size();
+
+            this.segments = new int[flows.size()];
+            this.amounts = new double[flows.size()];
+            this.previousWeights = new double[flows.size()];
+            this.pillarWeights = new double[flows.size()];
+            for (int flow = 0; flow < flows.size(); flow++) {
+                double time = flows.get(flow)[0];
+                amounts[flow] = flows.get(flow)[1];
+                int segment = 0;
+                while (time > tenors[segment]) {
+                    segment++;
+                }
+                segments[flow] = segment;
+                if (segment == 0) {
+                    pillarWeights[flow] = -time;
+                    continue;
+                }
+                double weight = (time - tenors[segment - 1]) / (tenors[segment] - tenors[segment - 1]);
+                if (interpolation == YieldCurve.Interpolation.LINEAR) {
+                    previousWeights[flow] = -(1 - weight) * time;
+                    pillarWeights[flow] = -weight * time;
+                } else {
+                    previousWeights[flow] = -(1 - weight) * tenors[segment - 1];
+                    pillarWeights[flow] = -weight * tenors[segment];
+                }
+            }
+            solve();
+        }
+
+        /**
+         * @return Valuation date the bootstrap was created for
+         */
+        public LocalDate getToday() {
+            return today;
+        }
+
+        /**
+         * @return The benchmarks, by maturity
+         */
+        public List<Bond> getBenchmarks() {
+            return List.of(benchmarks);
+        }
+
+        /**
+         * Sets a benchmark's price, for the next getCurve to solve its pillar and the ones after it.
+         *
+         * @param isin The benchmark's ISIN
+         * @param price Clean price, cents per bond
+         * @return false if the ISIN is not a benchmark
+         * @throws IllegalArgumentException if the price is not positive
+         */
+        public boolean setPrice(String isin, int price) {
+            Integer pillar = pillarsByIsin.get(isin);
+            if (pillar == null) {
+                return false;
+            }
+            prices[pillar] = validPrice(benchmarks[pillar], price) + accruedInterest[pillar];
+            benchmarks[pillar].setMarketValue(price);
+            firstStale = Math.min(firstStale, pillar);
+            return true;
+        }
+
+        /**
+         * @return The curve at the current prices, solving the pillars from the first price set since the last call
+         * @throws IllegalStateException if a pillar does not converge
+         */
+        public YieldCurve getCurve() {
+            if (firstStale < tenors.length) {
+                solve();
+            }
+            return curve;
+        }
+
+        private void solve() {
+            for (int pillar = firstStale; pillar < tenors.length; pillar++) {
+                zeroRates[pillar] = solvePillar(pillar);
+            }
+            firstStale = tenors.length;
+            curve = YieldCurve.fromZeroRates(tenors, zeroRates, interpolation);
+        }
+
+        private double solvePillar(int pillar) {
+            int first = flowOffsets[pillar];
+            int end = flowOffsets[pillar + 1];
+            // Flows before the previous pillar are discounted on solved pillars only
+            double knownValue = 0.0;
+            int flow = first;
+            for (; flow < end && segments[flow] < pillar; flow++) {
+                int segment = segments[flow];
+                double previous = segment == 0 ? 0.0 : zeroRates[segment - 1];
+                knownValue += amounts[flow] * Math.exp(previousWeights[flow] * previous + pillarWeights[flow] * zeroRates[segment]);
+            }
+            double previous = pillar == 0 ? 0.0 : zeroRates[pillar - 1];
+            // Warm start from the last solution, or the previous pillar the first time
+            double rate = curve != null ? zeroRates[pillar] : previous;
+            for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+                double value = knownValue;
+                double derivative = 0.0;
+                for (int f = flow; f < end; f++) {
+                    double discounted = amounts[f] * Math.exp(previousWeights[f] * previous + pillarWeights[f] * rate);
+                    value += discounted;
+                    derivative += pillarWeights[f] * discounted;
+                }
+                double step = (value - prices[pillar]) / derivative;
+                rate -= step;
+                if (Math.abs(step) < NEWTON_TOLERANCE) {
+                    return rate;
+                }
+                if (!Double.isFinite(step)) {
+                    break;
+                }
+            }
+            throw new IllegalStateException("Curve bootstrap did not converge at " + benchmarks[pillar].getISIN());
+        }
+
+        private static double validPrice(Bond benchmark, double price) {
+            if (!(price > 0)) {
+                throw new IllegalArgumentException("Invalid price for benchmark " + benchmark.getISIN() + ": " + price);
+            }
+            return price;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ice.bonds.helper;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Dated cash flows of a bond, for projections that need the payment dates and not just their
+ * distance from today.
+ *
+ * Produces the same flows as DurationHelper.generateCashFlows: coupons on the payment dates from
+ * findNextPaymentDate up to and including maturity, principal added to the coupon paid at maturity,
+ * a single principal flow for a zero coupon bond. The flows are produced one at a time by a Cursor,
+ * so many bonds can be merged in date order without holding every flow in memory. A cursor steps
+ * through the bond's cached CommonHelper.paymentSchedule, so no dates are computed per flow.
+ *
+ * An amortizing bond repays an installment of principal on every payment date, with the coupon on the
+ * principal outstanding. Floating rate notes are projected at their current coupon, callable bonds to
+ * maturity, as if never called.
+ */
+@Component
+public class CashFlowHelper {
+
+    private final CommonHelper commonHelper;
+
+    public CashFlowHelper(CommonHelper commonHelper) {
+        this.commonHelper = commonHelper;
+    }
+
+    /**
+     * @param bond The bond
+     * @param today Flows before this date are skipped, a payment due today is included
+     * @return A cursor positioned on the bond's first remaining flow
+     * @throws IllegalArgumentException if the bond has already matured
+     * @throws IllegalStateException if a coupon paying bond has no coupon left, as in generateCashFlows,
+     * or an amortizing bond's schedule does not end on maturity
+     */
+    public Cursor cursor(Bond bond, LocalDate today) {
+        if (bond.getMaturityDate().isBefore(today)) {
+            throw new IllegalArgumentException("Bond has already matured");
+        }
+        int couponFrequency = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        boolean amortizing = bond.getType() instanceof BondType.Amortizing;
+        if (bond.getCouponRate() == 0 && !amortizing) {
+            return new Cursor(bond, new int[]{Math.toIntExact(bond.getMaturityDate().toEpochDay())}, 0, 0.0, null, couponFrequency);
+        }
+        int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), couponFrequency);
+        int first = CommonHelper.firstPaymentOnOrAfter(schedule, today.toEpochDay());
+        if (first == schedule.length) {
+            throw new IllegalStateException("No cash flows generated for the coupon paying bond.");
+        }
+        if (amortizing && schedule[schedule.length - 1] != bond.getMaturityDate().toEpochDay()) {
+            throw new IllegalStateException("Amortizing bond schedule does not end on the maturity date");
+        }
+        // couponRate is in basis points, amounts are in cents like faceValue
+        double couponPayment = bond.getFaceValue() * (bond.getCouponRate() / 10000.0) / couponFrequency;
+        return new Cursor(bond, schedule, first, couponPayment, amortizing ? commonHelper : null, couponFrequency);
+    }
+
+    /**
+     * Walks a bond's remaining flows in date order, over its payment schedule. Not thread-safe.
+     */
+    public static final class Cursor {
+
+        private final Bond bond;
+        private final int[] schedule;
+        // Only set for an amortizing bond, whose coupon and principal change with every payment
+        private final CommonHelper amortization;
+        private final int couponFrequency;
+        private int index;
+        private double coupon;
+        private double principal;
+
+        private Cursor(Bond bond, int[] schedule, int first, double couponPayment, CommonHelper amortization,
+                       int couponFrequency) {
+            this.bond = bond;
+            this.schedule = schedule;
+            this.coupon = couponPayment;
+            this.amortization = amortization;
+            this.couponFrequency = couponFrequency;
+            moveTo(first);
+        }
+
+        public Bond getBond() {
+            return bond;
+        }
+
+        public LocalDate getDate() {
+            return LocalDate.ofEpochDay(schedule[index]);
+        }
+
+        /**
+         * @return getDate() as an epoch day, for cheap ordering
+         */
+        public long getEpochDay() {
+            return schedule[index];
+        }
+
+        /**
+         * @return Coupon paid on getDate() for one bond, in cents
+         */
+        public double getCoupon() {
+            return coupon;
+        }
+
+        /**
+         * @return Principal repaid on getDate() for one bond in cents, 0 before maturity unless amortizing
+         */
+        public double getPrincipal() {
+            return principal;
+        }
+
+        /**
+         * Moves to the next flow.
+         *
+         * @return false if the current flow was the last one
+         * @throws IllegalStateException if the last coupon does not fall on the maturity date, as in generateCashFlows
+         */
+        public boolean next() {
+            if (index == schedule.length - 1) {
+                return false;
+            }
+            moveTo(index + 1);
+            return true;
+        }
+
+        private void moveTo(int paymentIndex) {
+            index = paymentIndex;
+            if (amortization != null) {
+                coupon = amortization.amortizingCoupon(bond, paymentIndex, schedule.length, couponFrequency);
+                principal = amortization.amortizingPrincipal(bond, schedule.length);
+                return;
+            }
+            if (paymentIndex < schedule.length - 1) {
+                principal = 0.0;
+                return;
+            }
+            if (schedule[paymentIndex] != bond.getMaturityDate().toEpochDay()) {
+                throw new IllegalStateException("Principal Addition to final Cash Flow failed, last cash flow date does not match maturity date");
+            }
+            principal = bond.getFaceValue();
+        }
+    }
+}
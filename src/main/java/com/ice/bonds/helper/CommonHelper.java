@@ -1,11 +1,88 @@
 package com.ice.bonds.helper;
 
+import com.ice.bonds.model.Bond;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 @Component
 public class CommonHelper {
+
+    public static final int DEFAULT_SCHEDULE_CACHE_SIZE = 16384;
+
+    private final PaymentScheduleCache scheduleCache;
+
+    public CommonHelper() {
+        this(DEFAULT_SCHEDULE_CACHE_SIZE);
+    }
+
+    /**
+     * @param scheduleCacheSize Payment schedules kept across requests, 0 rebuilds them on every call
+     */
+    @Autowired
+    public CommonHelper(@Value("${bonds.schedules.cache-size:" + DEFAULT_SCHEDULE_CACHE_SIZE + "}") int scheduleCacheSize) {
+        this.scheduleCache = new PaymentScheduleCache(scheduleCacheSize);
+    }
+
+    /**
+     * Every payment date of a bond, the same dates findNextPaymentDate walks through: issueDate plus one
+     * period, then advanced cumulatively by plusMonths, up to and including maturationDate. The schedule
+     * does not depend on the valuation date, coupon or price, so it is built once per issue date,
+     * maturity and term and then shared by every request; use firstPaymentOnOrAfter to find where a
+     * valuation date falls in it.
+     *
+     * @param issueDate Date when the bond was issued
+     * @param maturationDate Date when the bond matures
+     * @param periodsPerPaymentTerm Number of payment periods per year
+     * @return Ascending payment dates as epoch days, shared between callers and must not be modified.
+     * The last one is not maturationDate if the schedule does not land on it.
+     */
+    public int[] paymentSchedule(LocalDate issueDate, LocalDate maturationDate, int periodsPerPaymentTerm) {
+        return scheduleCache.paymentDays(issueDate, maturationDate, 12 / periodsPerPaymentTerm);
+    }
+
+    /**
+     * @param schedule A paymentSchedule
+     * @param epochDay Valuation date as an epoch day
+     * @return Index of the first payment on or after epochDay, schedule.length if there is none.
+     * A payment due on epochDay is included, like findNextPaymentDate.
+     */
+    public static int firstPaymentOnOrAfter(int[] schedule, long epochDay) {
+        if (epochDay > Integer.MAX_VALUE) {
+            return schedule.length;
+        }
+        int index = Arrays.binarySearch(schedule, (int) Math.max(epochDay, Integer.MIN_VALUE));
+        return index >= 0 ? index : -index - 1;
+    }
+    /**
+     * Principal an amortizing bond repays on each payment date: an equal share of the face value.
+     *
+     * @param bond An amortizing bond
+     * @param payments Number of payment dates from issue to maturity, the length of its paymentSchedule
+     * @return Principal per payment date in cents
+     */
+    public double amortizingPrincipal(Bond bond, int payments) {
+        return (double) bond.getFaceValue() / payments;
+    }
+
+    /**
+     * Coupon an amortizing bond pays on a payment date, on the principal outstanding before it.
+     *
+     * @param bond An amortizing bond
+     * @param paymentIndex Index of the payment date in the bond's paymentSchedule
+     * @param payments Length of the paymentSchedule
+     * @param periodsPerPaymentTerm Number of payment periods per year
+     * @return Coupon in cents
+     */
+    public double amortizingCoupon(Bond bond, int paymentIndex, int payments, int periodsPerPaymentTerm) {
+        double outstanding = bond.getFaceValue() * (double) (payments - paymentIndex) / payments;
+        // couponRate is in basis points
+        return outstanding * (bond.getCouponRate() / 10000.0) / periodsPerPaymentTerm;
+    }
+
     /**
      * Calculates the number of remaining payment periods for a bond.
      * Uses day-based calculation for precision.
@@ -29,19 +106,9 @@ public class CommonHelper {
             throw new IllegalArgumentException("Bond Matured. Maturation date must be in the future");
         }
 
-        int monthsPerPeriod = 12 / periodsPerPaymentTerm;
-        int remainingPeriods = 0;
-
-        // Use findNextPaymentDate to get the first payment on or after currentDate
-        LocalDate paymentDate = findNextPaymentDate(issueDate, currentDate, periodsPerPaymentTerm);
-
-        // Count all payment dates from there up to and including maturity
-        while (!paymentDate.isAfter(maturationDate)) {
-            remainingPeriods++;
-            paymentDate = paymentDate.plusMonths(monthsPerPeriod);
-        }
-
-        return remainingPeriods;
+        // Count all payment dates from the first one on or after currentDate up to and including maturity
+        int[] schedule = paymentSchedule(issueDate, maturationDate, periodsPerPaymentTerm);
+        return schedule.length - firstPaymentOnOrAfter(schedule, currentDate.toEpochDay());
     }
 
     /**
@@ -71,6 +138,46 @@ public class CommonHelper {
         return (double) daysSinceLastPayment / daysInPeriod;
     }
 
+    /**
+     * Same as calculateFractionalPeriod(issueDate, currentDate, periodsPerPaymentTerm), with the next
+     * payment date looked up in the bond's cached paymentSchedule instead of walked from the issue date.
+     *
+     * @param issueDate Date when the bond was issued
+     * @param maturationDate Date when the bond matures
+     * @param currentDate Current date (typically LocalDate.now())
+     * @param periodsPerPaymentTerm Number of payment periods per year
+     * @return Fraction of the current period elapsed (0.0 to 1.0)
+     */
+    public double calculateFractionalPeriod(LocalDate issueDate, LocalDate maturationDate, LocalDate currentDate,
+                                            int periodsPerPaymentTerm) {
+        int[] schedule = paymentSchedule(issueDate, maturationDate, periodsPerPaymentTerm);
+        int next = firstPaymentOnOrAfter(schedule, currentDate.toEpochDay());
+        if (next == schedule.length) {
+            // Past the last payment before maturity, the schedule does not reach the next payment date
+            return calculateFractionalPeriod(issueDate, currentDate, periodsPerPaymentTerm);
+        }
+        return fractionalPeriod(schedule, next, currentDate.toEpochDay(), periodsPerPaymentTerm);
+    }
+
+    /**
+     * calculateFractionalPeriod for a position already looked up in a paymentSchedule, so a caller that
+     * has found the next payment, for its flows or its accrued interest, does not search again.
+     *
+     * @param schedule A paymentSchedule
+     * @param next Index of the next payment, from firstPaymentOnOrAfter, below schedule.length
+     * @param epochDay Current date as an epoch day
+     * @param periodsPerPaymentTerm Number of payment periods per year
+     * @return Fraction of the current period elapsed (0.0 to 1.0)
+     */
+    public static double fractionalPeriod(int[] schedule, int next, long epochDay, int periodsPerPaymentTerm) {
+        long lastPaymentDay = LocalDate.ofEpochDay(schedule[next]).minusMonths(12 / periodsPerPaymentTerm).toEpochDay();
+
+        long daysSinceLastPayment = epochDay - lastPaymentDay;
+        long daysInPeriod = schedule[next] - lastPaymentDay;
+
+        return (double) daysSinceLastPayment / daysInPeriod;
+    }
+
     /**
      * Finds the next payment date on or after the given current date.
      * If currentDate is a payment date, it returns currentDate (consistent with calculateRemainingPeriods
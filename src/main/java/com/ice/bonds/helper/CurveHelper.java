@@ -0,0 +1,284 @@
+package com.ice.bonds.helper;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.YieldCurve;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bond present values, durations and Z-spreads against a YieldCurve instead of one flat yield.
+ *
+ * Every flow is discounted at the curve's zero rate for its date plus a constant spread:
+ * PV = Σ CF(t) × e^(-(z(t) + s) × t), t = days / 365.25. The flows are read by CashFlowHelper cursors,
+ * straight from the bond's cached CommonHelper.paymentSchedule.
+ *
+ * Z-spreads of many bonds are solved together by zSpreads: each batch's flows are generated once, by
+ * CashFlowHelper cursors, into flat arrays already discounted on the curve, and every Newton iteration
+ * updates the spreads of all the batch's unconverged bonds in one pass.
+ */
+@Component
+public class CurveHelper {
+
+    private static final int MAX_NEWTON_ITERATIONS = 100;
+    private static final double NEWTON_TOLERANCE = 1e-12;
+    private static final int SPREAD_BATCH_SIZE = 1024;
+
+    private final CommonHelper commonHelper;
+    private final CashFlowHelper cashFlowHelper;
+
+    public CurveHelper(CommonHelper commonHelper, CashFlowHelper cashFlowHelper) {
+        this.commonHelper = commonHelper;
+        this.cashFlowHelper = cashFlowHelper;
+    }
+
+    /**
+     * @param curve The curve
+     * @param today Valuation date, the curve's time 0
+     * @return A pricer to reuse across bonds
+     */
+    public Pricer pricer(YieldCurve curve, LocalDate today) {
+        return new Pricer(cashFlowHelper, curve, today);
+    }
+
+    /**
+     * Starting point for a Z-spread solve: the bond's yield to maturity, as a continuously compounded
+     * rate, minus the curve's zero rate at maturity.
+     *
+     * @param bond An analyzed bond, with its yieldToMaturity
+     * @param curve The curve
+     * @param today Valuation date
+     * @return Spread guess, continuously compounded decimal
+     */
+    public double spreadGuess(Bond bond, YieldCurve curve, LocalDate today) {
+        int couponFrequency = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        double ytm = couponFrequency * Math.log1p(bond.getYieldToMaturity() / 10000.0 / couponFrequency);
+        return ytm - curve.zeroRate((bond.getMaturityDate().toEpochDay() - today.toEpochDay()) / 365.25);
+    }
+
+    /**
+     * Solves the Z-spreads of many bonds, SPREAD_BATCH_SIZE at a time. Each bond starts from
+     * spreadGuess, and each Newton iteration first prices every unconverged bond of the batch at its
+     * current spread, then updates all their spreads at once, s += (PV(s) - price) / Σ t × CF(t) × DF(t).
+     * The flows are discounted on the curve once per batch, an iteration only applies e^(-s × t).
+     *
+     * @param bonds Analyzed bonds, with their yieldToMaturity
+     * @param prices Price to solve for per bond, in cents per bond
+     * @param curve The curve
+     * @param today Valuation date
+     * @return Continuously compounded spread per bond, decimal, NaN for a bond already matured, without
+     * a valid schedule, or whose spread does not converge
+     */
+    public double[] zSpreads(List<Bond> bonds, double[] prices, YieldCurve curve, LocalDate today) {
+        if (prices.length != bonds.size()) {
+            throw new IllegalArgumentException("One price per bond needed, got " + prices.length
+                    + " prices for " + bonds.size() + " bonds");
+        }
+        double[] spreads = new double[bonds.size()];
+        SpreadBatch batch = new SpreadBatch();
+        for (int start = 0; start < bonds.size(); start += SPREAD_BATCH_SIZE) {
+            int end = Math.min(start + SPREAD_BATCH_SIZE, bonds.size());
+            batch.load(bonds, start, end, curve, today);
+            batch.solve(prices, spreads);
+        }
+        return spreads;
+    }
+
+    /**
+     * Flows of one batch of bonds, flattened: bond i's flows are [offsets[i], offsets[i + 1]), each a
+     * time and its amount already discounted on the curve. Reused across batches.
+     */
+    private final class SpreadBatch {
+
+        private int start;
+        private int size;
+        private final int[] offsets = new int[SPREAD_BATCH_SIZE + 1];
+        private double[] times = new double[SPREAD_BATCH_SIZE * 8];
+        private double[] discounted = new double[SPREAD_BATCH_SIZE * 8];
+        private final double[] guesses = new double[SPREAD_BATCH_SIZE];
+        private final int[] active = new int[SPREAD_BATCH_SIZE];
+        private final double[] presentValues = new double[SPREAD_BATCH_SIZE];
+        private final double[] timeWeighted = new double[SPREAD_BATCH_SIZE];
+
+        void load(List<Bond> bonds, int start, int end, YieldCurve curve, LocalDate today) {
+            this.start = start;
+            this.size = end - start;
+            long todayEpochDay = today.toEpochDay();
+            int flows = 0;
+            for (int i = 0; i < size; i++) {
+                Bond bond = bonds.get(start + i);
+                offsets[i] = flows;
+                CashFlowHelper.Cursor cursor;
+                try {
+                    cursor = cashFlowHelper.cursor(bond, today);
+                    double guess = spreadGuess(bond, curve, today);
+                    guesses[i] = Double.isFinite(guess) ? guess : 0.0;
+                    do {
+                        if (flows == times.length) {
+                            times = Arrays.copyOf(times, flows * 2);
+                            discounted = Arrays.copyOf(discounted, flows * 2);
+                        }
+                        double time = (cursor.getEpochDay() - todayEpochDay) / 365.25;
+                        times[flows] = time;
+                        discounted[flows] = (cursor.getCoupon() + cursor.getPrincipal()) * curve.discountFactor(time);
+                        flows++;
+                    } while (cursor.next());
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    // Matured or broken schedule: no flows, no spread
+                    flows = offsets[i];
+                    guesses[i] = Double.NaN;
+                }
+            }
+            offsets[size] = flows;
+        }
+
+        void solve(double[] prices, double[] spreads) {
+            int activeCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (Double.isNaN(guesses[i])) {
+                    spreads[start + i] = Double.NaN;
+                    continue;
+                }
+                spreads[start + i] = guesses[i];
+                active[activeCount++] = i;
+            }
+            for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS && activeCount > 0; iteration++) {
+                for (int a = 0; a < activeCount; a++) {
+                    int i = active[a];
+                    double spread = spreads[start + i];
+                    double pv = 0.0;
+                    double tw = 0.0;
+                    for (int flow = offsets[i]; flow < offsets[i + 1]; flow++) {
+                        double value = discounted[flow] * Math.exp(-spread * times[flow]);
+                        pv += value;
+                        tw += times[flow] * value;
+                    }
+                    presentValues[a] = pv;
+                    timeWeighted[a] = tw;
+                }
+                // The Newton update of the whole batch, keeping only the bonds still moving
+                int remaining = 0;
+                for (int a = 0; a < activeCount; a++) {
+                    int i = active[a];
+                    double step = (presentValues[a] - prices[start + i]) / timeWeighted[a];
+                    spreads[start + i] += step;
+                    if (!Double.isFinite(step)) {
+                        spreads[start + i] = Double.NaN;
+                    } else if (Math.abs(step) >= NEWTON_TOLERANCE) {
+                        active[remaining++] = i;
+                    }
+                }
+                activeCount = remaining;
+            }
+            for (int a = 0; a < activeCount; a++) {
+                spreads[start + active[a]] = Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * Prices bonds one after the other against one curve, keeping the last bond's results. Pricing
+     * only allocates the bond's CashFlowHelper.Cursor, so one pricer per thread can go through any
+     * number of bonds. Not thread-safe.
+     *
+     * Results are per bond, for one unit, in cents:
+     * PV = Σ CF(t) × DF(t)
+     * Duration = Σ t × CF(t) × DF(t) / PV, the curve (Fisher-Weil) duration, also -dPV/ds / PV
+     * Convexity = Σ t² × CF(t) × DF(t) / PV, d²PV/ds² / PV
+     */
+    public static final class Pricer {
+
+        private final CashFlowHelper cashFlowHelper;
+        private final YieldCurve curve;
+        private final LocalDate today;
+        private final long todayEpochDay;
+        private double presentValue;
+        private double timeWeighted;
+        private double timeSquaredWeighted;
+
+        private Pricer(CashFlowHelper cashFlowHelper, YieldCurve curve, LocalDate today) {
+            this.cashFlowHelper = cashFlowHelper;
+            this.curve = curve;
+            this.today = today;
+            this.todayEpochDay = today.toEpochDay();
+        }
+
+        /**
+         * Prices a bond's remaining flows from today, a payment due today at its face amount.
+         *
+         * @param bond The bond
+         * @param spread Continuously compounded spread over the curve, decimal
+         * @return This pricer, holding the bond's results
+         * @throws IllegalArgumentException if the bond has already matured
+         * @throws IllegalStateException if the bond's schedule has no flow left or does not end on maturity,
+         * as in CashFlowHelper.cursor
+         */
+        public Pricer price(Bond bond, double spread) {
+            presentValue = 0.0;
+            timeWeighted = 0.0;
+            timeSquaredWeighted = 0.0;
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+            do {
+                addFlow(cursor.getEpochDay(), cursor.getCoupon() + cursor.getPrincipal(), spread);
+            } while (cursor.next());
+            return this;
+        }
+
+        /**
+         * Solves for the Z-spread: the constant spread over the curve at which the bond's flows are
+         * worth price, by Newton's method on PV(s) with dPV/ds = -Σ t × CF(t) × DF(t).
+         *
+         * @param bond The bond
+         * @param price Price to solve for, in cents per bond
+         * @param guess Starting spread, e.g. CurveHelper.spreadGuess
+         * @return Continuously compounded spread, decimal
+         * @throws IllegalStateException if the spread does not converge
+         */
+        public double zSpread(Bond bond, double price, double guess) {
+            double spread = Double.isFinite(guess) ? guess : 0.0;
+            for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+                price(bond, spread);
+                double step = (presentValue - price) / timeWeighted;
+                spread += step;
+                if (Math.abs(step) < NEWTON_TOLERANCE) {
+                    return spread;
+                }
+                if (!Double.isFinite(step)) {
+                    break;
+                }
+            }
+            throw new IllegalStateException("Z-spread did not converge");
+        }
+
+        /**
+         * @return PV of the last bond priced, cents
+         */
+        public double getPresentValue() {
+            return presentValue;
+        }
+
+        /**
+         * @return Curve duration of the last bond priced, years
+         */
+        public double getDuration() {
+            return presentValue == 0.0 ? 0.0 : timeWeighted / presentValue;
+        }
+
+        /**
+         * @return Curve convexity of the last bond priced, years squared
+         */
+        public double getConvexity() {
+            return presentValue == 0.0 ? 0.0 : timeSquaredWeighted / presentValue;
+        }
+
+        private void addFlow(long epochDay, double amount, double spread) {
+            double time = (epochDay - todayEpochDay) / 365.25;
+            double discounted = amount * curve.discountFactor(time, spread);
+            presentValue += discounted;
+            timeWeighted += time * discounted;
+            timeSquaredWeighted += time * time * discounted;
+        }
+    }
+}
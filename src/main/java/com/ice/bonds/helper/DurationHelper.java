@@ -4,16 +4,26 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import com.ice.bonds.metrics.AnalyticsMetrics;
 import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DurationHelper {
 
     private final CommonHelper commonHelper;
+    private final AnalyticsMetrics metrics;
 
     public DurationHelper(CommonHelper commonHelper) {
+        this(commonHelper, AnalyticsMetrics.disabled());
+    }
+
+    @Autowired
+    public DurationHelper(CommonHelper commonHelper, AnalyticsMetrics metrics) {
         this.commonHelper = commonHelper;
+        this.metrics = metrics;
     }
 
     /**
@@ -36,6 +46,15 @@ public class DurationHelper {
      * Currently supports ACT/ACT day count convention, TODO support needed for other day count conventions, see Macaulay Duration and YTM calculations
      */
     public double calculateMacaulayDuration(Bond bond, double ytm) {
+        return calculateMacaulayDuration(bond, ytm, AnalyticsMetrics.NOT_SAMPLED);
+    }
+
+    /**
+     * As above, counting the bond's cash flows in the metrics if it is sampled.
+     *
+     * @param sample Value from AnalyticsMetrics.startBondSample()
+     */
+    public double calculateMacaulayDuration(Bond bond, double ytm, long sample) {
         LocalDate today = LocalDate.now();
 
         double ytmDecimal = ytm / 10000.0;
@@ -44,7 +63,137 @@ public class DurationHelper {
 
         // Generate all cash flow dates and amounts
         List<CashFlow> cashFlows = generateCashFlows(bond, today, couponFrequency);
+        metrics.recordCashFlows(sample, cashFlows.size());
+
+        return macaulayDuration(cashFlows, ytmDecimal, couponFrequency);
+    }
+
+    /**
+     * Macaulay Duration of a callable bond to its call date: the coupons up to callDate and the call
+     * price instead of the face value, for when the call is the bond's worst case.
+     *
+     * @param bond The bond
+     * @param callable The bond's call, callDate on one of its coupon payment dates
+     * @param ytc Annualized yield to call in basis points
+     * @return Macaulay Duration to the call date in years
+     */
+    public double calculateMacaulayDurationToCall(Bond bond, BondType.Callable callable, double ytc) {
+        return calculateMacaulayDurationToCall(bond, callable, ytc, AnalyticsMetrics.NOT_SAMPLED);
+    }
+
+    /**
+     * As above, counting the bond's cash flows in the metrics if it is sampled.
+     *
+     * @param sample Value from AnalyticsMetrics.startBondSample()
+     */
+    public double calculateMacaulayDurationToCall(Bond bond, BondType.Callable callable, double ytc, long sample) {
+        LocalDate today = LocalDate.now();
+        int couponFrequency = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+
+        List<CashFlow> cashFlows = generateCashFlows(bond, today, couponFrequency, callable.callDate(), callable.callPrice());
+        metrics.recordCashFlows(sample, cashFlows.size());
+
+        return macaulayDuration(cashFlows, ytc / 10000.0, couponFrequency);
+    }
+
+    /**
+     * Macaulay Duration of a zero coupon bond, in closed form: with a single cash flow at maturity the
+     * weighted average time is the time to maturity, whatever the yield.
+     *
+     * @param bond A zero coupon bond
+     * @return Years to maturity
+     */
+    public double calculateZeroCouponDuration(Bond bond) {
+        return calculateZeroCouponDuration(bond, AnalyticsMetrics.NOT_SAMPLED);
+    }
+
+    /**
+     * As above, counting the bond's cash flows in the metrics if it is sampled.
+     *
+     * @param sample Value from AnalyticsMetrics.startBondSample()
+     */
+    public double calculateZeroCouponDuration(Bond bond, long sample) {
+        long daysToMaturity = ChronoUnit.DAYS.between(LocalDate.now(), bond.getMaturityDate());
+        if (daysToMaturity < 0) {
+            throw new IllegalArgumentException("Bond has already matured");
+        }
+        metrics.recordCashFlows(sample, 1);
+        return daysToMaturity / 365.25;
+    }
+
+    /**
+     * Simplified Macaulay Duration of a floating rate note: the coupon is reset to the market rate every
+     * period, so the note prices back to par on its next payment date and is only exposed to rates
+     * until then. Duration is the time to the next payment.
+     *
+     * @param bond A floating rate bond
+     * @return Years to the next coupon payment
+     */
+    public double calculateFloatingRateDuration(Bond bond) {
+        return calculateFloatingRateDuration(bond, AnalyticsMetrics.NOT_SAMPLED);
+    }
 
+    /**
+     * As above, counting the bond's cash flows in the metrics if it is sampled.
+     *
+     * @param sample Value from AnalyticsMetrics.startBondSample()
+     */
+    public double calculateFloatingRateDuration(Bond bond, long sample) {
+        LocalDate today = LocalDate.now();
+        if (bond.getMaturityDate().isBefore(today)) {
+            throw new IllegalArgumentException("Bond has already matured");
+        }
+        int couponFrequency = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), couponFrequency);
+        int next = CommonHelper.firstPaymentOnOrAfter(schedule, today.toEpochDay());
+        if (next == schedule.length) {
+            throw new IllegalStateException("No cash flows generated for the coupon paying bond.");
+        }
+        metrics.recordCashFlows(sample, 1);
+        return (schedule[next] - today.toEpochDay()) / 365.25;
+    }
+
+    /**
+     * Macaulay Duration of an amortizing bond over its remaining installments and the coupons on the
+     * outstanding principal, discounted like calculateMacaulayDuration.
+     *
+     * @param bond An amortizing bond
+     * @param ytm Annualized yield to maturity in basis points, see YTMHelper.calculateAmortizingYTM
+     * @return Macaulay Duration in years
+     */
+    public double calculateAmortizingDuration(Bond bond, double ytm) {
+        return calculateAmortizingDuration(bond, ytm, AnalyticsMetrics.NOT_SAMPLED);
+    }
+
+    /**
+     * As above, counting the bond's cash flows in the metrics if it is sampled.
+     *
+     * @param sample Value from AnalyticsMetrics.startBondSample()
+     */
+    public double calculateAmortizingDuration(Bond bond, double ytm, long sample) {
+        LocalDate today = LocalDate.now();
+        if (bond.getMaturityDate().isBefore(today)) {
+            throw new IllegalArgumentException("Bond has already matured");
+        }
+        int couponFrequency = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), couponFrequency);
+        if (schedule.length == 0 || schedule[schedule.length - 1] != bond.getMaturityDate().toEpochDay()) {
+            throw new IllegalStateException("Amortizing bond schedule does not end on the maturity date");
+        }
+
+        long todayEpochDay = today.toEpochDay();
+        double principal = commonHelper.amortizingPrincipal(bond, schedule.length);
+        List<CashFlow> cashFlows = new ArrayList<>(schedule.length);
+        for (int i = CommonHelper.firstPaymentOnOrAfter(schedule, todayEpochDay); i < schedule.length; i++) {
+            cashFlows.add(new CashFlow(schedule[i] - todayEpochDay,
+                    principal + commonHelper.amortizingCoupon(bond, i, schedule.length, couponFrequency)));
+        }
+        metrics.recordCashFlows(sample, cashFlows.size());
+
+        return macaulayDuration(cashFlows, ytm / 10000.0, couponFrequency);
+    }
+
+    private static double macaulayDuration(List<CashFlow> cashFlows, double ytmDecimal, int couponFrequency) {
         // Calculate days per period based on coupon frequency
         double daysPerPeriod = 365.25 / couponFrequency;
 
@@ -106,9 +255,17 @@ public class DurationHelper {
      * must all use the same logic regarding whether to include currentDate as a payment date
      */
     private List<CashFlow> generateCashFlows(Bond bond, LocalDate today, int couponFrequency) {
+        return generateCashFlows(bond, today, couponFrequency, bond.getMaturityDate(), bond.getFaceValue());
+    }
+
+    /**
+     * generateCashFlows for a bond redeemed at redemptionValue on redemptionDate, its maturity or a call date
+     */
+    private List<CashFlow> generateCashFlows(Bond bond, LocalDate today, int couponFrequency,
+                                             LocalDate redemptionDate, int redemptionValue) {
         List<CashFlow> cashFlows = new ArrayList<>();
 
-        if (bond.getMaturityDate().isBefore(today)) {
+        if (redemptionDate.isBefore(today)) {
             throw new IllegalArgumentException("Bond has already matured");
         }
 
@@ -117,22 +274,17 @@ public class DurationHelper {
         double annualCouponAmount = bond.getFaceValue() * (bond.getCouponRate() / 10000.0);
         double couponPayment = annualCouponAmount / couponFrequency;
 
-        // Determine the payment schedule
-        // Assuming payments are made on anniversary of issue date
-        LocalDate nextPaymentDate = commonHelper.findNextPaymentDate(bond.getIssueDate(), today, couponFrequency);
-
         // Generate all coupon payments until maturity
         if(bond.getCouponRate() > 0) {
-            // Maturity date is inclusive as final payment date, but issue date is not considered a payment date
-            while (!nextPaymentDate.isAfter(bond.getMaturityDate())) {
-                long daysFromToday = ChronoUnit.DAYS.between(today, nextPaymentDate);
-
-                if (daysFromToday >= 0) {  // INCLUDE FUTURE PAYMENTS INCLUDING TODAY
-                    cashFlows.add(new CashFlow(daysFromToday, couponPayment));
-                }
-
-                // Move to next payment date
-                nextPaymentDate = nextPaymentDate.plusMonths(12 / couponFrequency);
+            // Determine the payment schedule
+            // Assuming payments are made on anniversary of issue date, maturity date is inclusive as final payment date,
+            // but issue date is not considered a payment date. The schedule is cached per issue date, maturity and term,
+            // the first payment on or after today is looked up in it rather than walked to from the issue date.
+            int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), redemptionDate, couponFrequency);
+            long todayEpochDay = today.toEpochDay();
+            for (int i = CommonHelper.firstPaymentOnOrAfter(schedule, todayEpochDay); i < schedule.length; i++) {
+                // INCLUDE FUTURE PAYMENTS INCLUDING TODAY
+                cashFlows.add(new CashFlow(schedule[i] - todayEpochDay, couponPayment));
             }
         }
 
@@ -141,18 +293,18 @@ public class DurationHelper {
         }
 
         // Add principal repayment at maturity
-        long daysToMaturity = ChronoUnit.DAYS.between(today, bond.getMaturityDate());
+        long daysToMaturity = ChronoUnit.DAYS.between(today, redemptionDate);
 
         if(cashFlows.isEmpty()){
             // No coupon payments, only principal repayment
-            cashFlows.add(new CashFlow(daysToMaturity, bond.getFaceValue()));
+            cashFlows.add(new CashFlow(daysToMaturity, redemptionValue));
         }
         else if (cashFlows.getLast().daysFromToday == daysToMaturity) {
 
             // Add principal to the last coupon payment (which should be at or before maturity)
             CashFlow lastFlow = cashFlows.getLast();
             cashFlows.set(cashFlows.size() - 1, //TODO Modification of last element. OK because this is a constrained private method. Future elaboration should reconsider mutability of this list.
-                    new CashFlow(lastFlow.daysFromToday, lastFlow.amount + bond.getFaceValue()));
+                    new CashFlow(lastFlow.daysFromToday, lastFlow.amount + redemptionValue));
         } else {
             throw new IllegalStateException("Principal Addition to final Cash Flow failed, last cash flow date does not match maturity date");
         }
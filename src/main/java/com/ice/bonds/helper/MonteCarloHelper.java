@@ -0,0 +1,92 @@
+package com.ice.bonds.helper;
+
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.QuantileSketch;
+import com.ice.bonds.model.ShortRateModel;
+import org.springframework.stereotype.Component;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Monte Carlo present values of a portfolio's netted cash flows along short-rate paths.
+ *
+ * Each path steps x(t) of the model by its exact Gaussian transition, one draw per step, and
+ * discounts the step's flows from the step start at the average of the short rate over the step:
+ * PV = Σ_k D_k × (Σ CF - r̄_k × Σ s × CF + ½ × r̄_k² × Σ s² × CF), D_(k+1) = D_k × e^(-r̄_k × Δ),
+ * from the flows' StepMoments, so a path costs the same whatever the number of flows or positions.
+ *
+ * Rates are continuously compounded decimals, times in years, amounts in cents.
+ */
+@Component
+public class MonteCarloHelper {
+
+    /**
+     * What every path of a model shares: φ at each step boundary and the transition of x.
+     * x_(k+1) = x_k × decay + shockScale × Z, shockScale = σ × √((1 - e^(-2aΔ)) / (2a))
+     *
+     * @param stepYears Δ, step length in years
+     * @param decay e^(-aΔ)
+     * @param shockScale Standard deviation of x_(k+1) given x_k
+     * @param deterministicRates φ(k × Δ) for k = 0 .. steps
+     */
+    public record PathGrid(double stepYears, double decay, double shockScale, double[] deterministicRates) {
+    }
+
+    /**
+     * @param model Short-rate model
+     * @param flows The flows' step moments, for the number of steps and their length
+     * @return The grid paths of this model over these steps are generated on
+     */
+    public PathGrid pathGrid(ShortRateModel model, PortfolioCashFlows.StepMoments flows) {
+        double stepYears = flows.stepDays() / 365.25;
+        double a = model.meanReversion();
+        double[] deterministicRates = new double[flows.steps() + 1];
+        for (int step = 0; step < deterministicRates.length; step++) {
+            deterministicRates[step] = model.deterministicRate(step * stepYears);
+        }
+        double shockScale = model.volatility() * Math.sqrt(-Math.expm1(-2 * a * stepYears) / (2 * a));
+        return new PathGrid(stepYears, Math.exp(-a * stepYears), shockScale, deterministicRates);
+    }
+
+    /**
+     * Generates paths and adds each path's present value to the sketch.
+     *
+     * @param flows The flows' step moments
+     * @param grid The model's grid over the same steps
+     * @param random Source of the Gaussian draws, consumed in path order
+     * @param paths Number of paths
+     * @param sketch Receives each path's present value
+     * @return Sum of the paths' present values
+     */
+    public double simulate(PortfolioCashFlows.StepMoments flows, PathGrid grid, RandomGenerator random, int paths,
+                           QuantileSketch sketch) {
+        double[] amounts = flows.amounts();
+        double[] timeWeighted = flows.timeWeighted();
+        double[] timeSquaredWeighted = flows.timeSquaredWeighted();
+        double[] deterministicRates = grid.deterministicRates();
+        double stepYears = grid.stepYears();
+        double decay = grid.decay();
+        double shockScale = grid.shockScale();
+        int steps = flows.steps();
+
+        double sum = 0.0;
+        for (int path = 0; path < paths; path++) {
+            double x = 0.0;
+            double rate = deterministicRates[0];
+            double discount = 1.0;
+            double pv = 0.0;
+            for (int step = 0; step < steps; step++) {
+                x = x * decay + shockScale * random.nextGaussian();
+                double nextRate = deterministicRates[step + 1] + x;
+                double average = 0.5 * (rate + nextRate);
+                pv += discount * (amounts[step] - average * timeWeighted[step]
+                        + 0.5 * average * average * timeSquaredWeighted[step]);
+                discount *= Math.exp(-average * stepYears);
+                rate = nextRate;
+            }
+            sketch.add(pv);
+            sum += pv;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ice.bonds.helper;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Bounded cache of payment schedules, shared by every request and valuation date.
+ *
+ * A schedule only depends on the issue date, the maturity date and the payment period: it is every
+ * date from issueDate.plusMonths(period), advanced cumulatively by plusMonths, up to and including
+ * maturity, stored as epoch days. Coupon, face value and price do not change it, so bonds with the
+ * same dates and term share one entry whatever they pay or trade at.
+ *
+ * The cache is direct-mapped: a fixed array of slots indexed by a hash of the key, a new schedule
+ * replaces whatever occupied its slot. Lookups take no lock. Entries are immutable and only reached
+ * through final fields, so a thread reading a slot another thread just wrote sees either the old
+ * entry or the complete new one.
+ */
+final class PaymentScheduleCache {
+
+    private static final int[] NO_PAYMENTS = new int[0];
+
+    private record Entry(int issueDay, int maturityDay, int monthsPerPeriod, int[] paymentDays) {
+    }
+
+    private final Entry[] slots;
+
+    /**
+     * @param size Number of schedules kept, rounded up to a power of two; 0 builds every schedule on demand
+     */
+    PaymentScheduleCache(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Schedule cache size must not be negative");
+        }
+        if (size == 0) {
+            this.slots = null;
+        } else {
+            int capacity = Integer.highestOneBit(size);
+            this.slots = new Entry[capacity < size ? capacity << 1 : capacity];
+        }
+    }
+
+    /**
+     * @return The payment dates as ascending epoch days; shared, must not be modified
+     */
+    int[] paymentDays(LocalDate issueDate, LocalDate maturityDate, int monthsPerPeriod) {
+        if (slots == null) {
+            return build(issueDate, maturityDate, monthsPerPeriod);
+        }
+        int issueDay = Math.toIntExact(issueDate.toEpochDay());
+        int maturityDay = Math.toIntExact(maturityDate.toEpochDay());
+        int slot = slot(issueDay, maturityDay, monthsPerPeriod);
+        Entry entry = slots[slot];
+        if (entry != null && entry.issueDay == issueDay && entry.maturityDay == maturityDay
+                && entry.monthsPerPeriod == monthsPerPeriod) {
+            return entry.paymentDays;
+        }
+        int[] paymentDays = build(issueDate, maturityDate, monthsPerPeriod);
+        slots[slot] = new Entry(issueDay, maturityDay, monthsPerPeriod, paymentDays);
+        return paymentDays;
+    }
+
+    int capacity() {
+        return slots == null ? 0 : slots.length;
+    }
+
+    private int slot(int issueDay, int maturityDay, int monthsPerPeriod) {
+        int hash = (issueDay * 31 + maturityDay) * 31 + monthsPerPeriod;
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+
+    private static int[] build(LocalDate issueDate, LocalDate maturityDate, int monthsPerPeriod) {
+        LocalDate paymentDate = issueDate.plusMonths(monthsPerPeriod);
+        if (paymentDate.isAfter(maturityDate)) {
+            return NO_PAYMENTS;
+        }
+        // Whole periods between the dates, plus one for the drift of a schedule clamped to a shorter month
+        int[] paymentDays = new int[(int) (ChronoUnit.MONTHS.between(issueDate, maturityDate) / monthsPerPeriod) + 1];
+        int count = 0;
+        while (!paymentDate.isAfter(maturityDate)) {
+            if (count == paymentDays.length) {
+                paymentDays = Arrays.copyOf(paymentDays, count * 2);
+            }
+            paymentDays[count++] = Math.toIntExact(paymentDate.toEpochDay());
+            paymentDate = paymentDate.plusMonths(monthsPerPeriod);
+        }
+        return count == paymentDays.length ? paymentDays : Arrays.copyOf(paymentDays, count);
+    }
+}
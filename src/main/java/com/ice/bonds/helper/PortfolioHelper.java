@@ -2,13 +2,19 @@ package com.ice.bonds.helper;
 
 import com.ice.bonds.model.Bond;
 import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.Collection;
+
 @Component
 public class PortfolioHelper {
 
+    private final CashFlowHelper cashFlowHelper;
 
-    public PortfolioHelper(){
+    public PortfolioHelper(CashFlowHelper cashFlowHelper){
+        this.cashFlowHelper = cashFlowHelper;
     }
 
     /**
@@ -57,6 +63,105 @@ public class PortfolioHelper {
         return weightedDurationSum / totalMarketValue;
     }
 
+    /**
+     * Calculate portfolio weighted average YTM, in basis points
+     * Formula: Σ(YTM_i × MarketValue_i) / Σ(MarketValue_i)
+     *
+     * Each YTM compounds at its own bond's payment frequency, so this is an approximation of the
+     * portfolio's yield; calculatePortfolioIRR is the exact one.
+     */
+    public double calculateWeightedAverageYTM(Portfolio portfolio) {
+        long totalMarketValue = 0;
+        double weightedYieldSum = 0.0;
+
+        for (Bond bond : portfolio.getBonds()) {
+            long bondMarketValue = bond.getTotalMarketValue();
+
+            weightedYieldSum += bond.getYieldToMaturity() * bondMarketValue;
+            totalMarketValue += bondMarketValue;
+        }
+
+        if (totalMarketValue == 0) {
+            return 0.0;
+        }
+
+        return weightedYieldSum / totalMarketValue;
+    }
+
+    /**
+     * Calculate the portfolio's internal rate of return: the single yield that discounts the merged
+     * cash flows of every position to the total dirty value, what the positions cost with their accrued
+     * interest, as the flows include every current coupon in full.
+     * Formula: Σ CF(d) / (1 + IRR)^(d / 365.25) = Σ(DirtyPrice_i × Quantity_i), d = days from today
+     *
+     * Bonds maturing before today are left out, flows and value.
+     *
+     * @param portfolio The portfolio, with analyzed bonds
+     * @param today Valuation date, flows due today are included
+     * @return Annual (effective) IRR in basis points, 0 for a portfolio without value or without flows after today,
+     * NaN if no yield discounts the flows to the dirty value
+     */
+    public double calculatePortfolioIRR(Portfolio portfolio, LocalDate today) {
+        return calculatePortfolioIRR(portfolio, aggregateCashFlows(portfolio.getBonds(), today), today);
+    }
+
+    /**
+     * calculatePortfolioIRR over the portfolio's already netted cash flows, one sweep per Newton or bisection iteration.
+     *
+     * @param portfolio The portfolio, with analyzed bonds
+     * @param cashFlows The netted flows of the same bonds
+     * @param today Valuation date, flows due today are included
+     * @return Annual (effective) IRR in basis points, 0 for a portfolio without value or without flows after today,
+     * NaN if no yield discounts the flows to the dirty value
+     */
+    public double calculatePortfolioIRR(Portfolio portfolio, PortfolioCashFlows cashFlows, LocalDate today) {
+        double totalDirtyValue = 0.0;
+        for (Bond bond : portfolio.getBonds()) {
+            if (!bond.getMaturityDate().isBefore(today)) {
+                totalDirtyValue += bond.getDirtyPrice() * bond.getQuantity();
+            }
+        }
+        if (totalDirtyValue == 0 || !cashFlows.hasFlowsAfter(today)) {
+            return 0.0;
+        }
+        return cashFlows.yieldFor(today, totalDirtyValue, calculateWeightedAverageYTM(portfolio) / 10000.0) * 10000;
+    }
+
+    /**
+     * Nets the remaining cash flows of the bonds, times their quantity, into one amount per day.
+     *
+     * @param bonds The positions
+     * @param today Flows before this date are left out
+     * @return The netted flows, anchored on today
+     */
+    public PortfolioCashFlows aggregateCashFlows(Collection<Bond> bonds, LocalDate today) {
+        PortfolioCashFlows cashFlows = new PortfolioCashFlows(today);
+        for (Bond bond : bonds) {
+            addCashFlows(cashFlows, bond, today, 1);
+        }
+        return cashFlows;
+    }
+
+    /**
+     * Adds a position's remaining cash flows, times its quantity, to netted flows, or takes them out.
+     * A bond maturing before today has no flow left and changes nothing.
+     *
+     * @param cashFlows The netted flows
+     * @param bond The position
+     * @param today Flows before this date are left out
+     * @param sign 1 to add the position, -1 to remove it
+     */
+    public void addCashFlows(PortfolioCashFlows cashFlows, Bond bond, LocalDate today, int sign) {
+        if (bond.getMaturityDate().isBefore(today) || bond.getQuantity() == 0) {
+            return;
+        }
+        double quantity = (double) sign * bond.getQuantity();
+        CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+        do {
+            cashFlows.add(cursor.getEpochDay(), (cursor.getCoupon() + cursor.getPrincipal()) * quantity);
+        } while (cursor.next());
+    }
+
     /**
      * Get total portfolio market value in cents
      */
@@ -0,0 +1,86 @@
+package com.ice.bonds.helper;
+
+import com.ice.bonds.model.PortfolioCashFlows;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Scenario profit and loss of a portfolio's netted cash flows under a yield change, and the tail
+ * statistics of a set of scenarios.
+ *
+ * Yields are annual (effective) in basis points like the portfolio IRR, amounts are in cents.
+ */
+@Component
+public class RiskHelper {
+
+    /**
+     * Full revaluation: the flows priced again at the shifted yield.
+     * Formula: P&L = PV(y + Δy) - PV(y)
+     *
+     * @param cashFlows The portfolio's netted flows
+     * @param today Valuation date
+     * @param base The flows valued at baseYield
+     * @param baseYield Yield before the change, in basis points
+     * @param change Yield change in basis points
+     * @return Profit (positive) or loss (negative) in cents
+     * @throws IllegalArgumentException if the shifted yield is -10000 bps or below
+     */
+    public double fullRevaluationPnl(PortfolioCashFlows cashFlows, LocalDate today, PortfolioCashFlows.Valuation base,
+                                     double baseYield, double change) {
+        return cashFlows.value(today, (baseYield + change) / 10000.0).presentValue() - base.presentValue();
+    }
+
+    /**
+     * Duration-convexity approximation, no pass over the flows.
+     * Formula: P&L = PV × (-ModifiedDuration × Δy + ½ × Convexity × Δy²)
+     *
+     * @param base The flows valued at the yield before the change
+     * @param change Yield change in basis points
+     * @return Profit (positive) or loss (negative) in cents
+     */
+    public double approximatePnl(PortfolioCashFlows.Valuation base, double change) {
+        double shift = change / 10000.0;
+        return base.presentValue() * (-base.modifiedDuration() * shift + 0.5 * base.convexity() * shift * shift);
+    }
+
+    /**
+     * Historical VaR: the loss exceeded in a fraction 1 - confidence of the scenarios, the k-th worst
+     * with k = ceil((1 - confidence) × scenarios), at least 1.
+     *
+     * @param sortedPnl Scenario P&L in ascending order, worst first
+     * @param confidence Confidence level, strictly between 0 and 1
+     * @return The loss in cents, negative if even the tail scenarios make a profit
+     */
+    public double valueAtRisk(double[] sortedPnl, double confidence) {
+        return -sortedPnl[tailSize(sortedPnl.length, confidence) - 1];
+    }
+
+    /**
+     * Historical expected shortfall: the average loss of the k worst scenarios, the ones at or beyond VaR.
+     *
+     * @param sortedPnl Scenario P&L in ascending order, worst first
+     * @param confidence Confidence level, strictly between 0 and 1
+     * @return The loss in cents, at least the VaR
+     */
+    public double expectedShortfall(double[] sortedPnl, double confidence) {
+        int tail = tailSize(sortedPnl.length, confidence);
+        double sum = 0.0;
+        for (int i = 0; i < tail; i++) {
+            sum += sortedPnl[i];
+        }
+        return -sum / tail;
+    }
+
+    private static int tailSize(int scenarios, double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Invalid confidence: " + confidence + ", must be between 0 and 1");
+        }
+        if (scenarios == 0) {
+            throw new IllegalArgumentException("No scenarios");
+        }
+        // The rounding guards against (1 - 0.99) × 100 = 1.0000000000000009 counting as 2 scenarios
+        double tail = Math.rint((1 - confidence) * scenarios * 1e9) / 1e9;
+        return Math.max(1, (int) Math.ceil(tail));
+    }
+}
@@ -1,6 +1,7 @@
 package com.ice.bonds.helper;
 
 import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -9,6 +10,9 @@ import java.time.temporal.ChronoUnit;
 @Component
 public class YTMHelper {
 
+    private static final int MAX_NEWTON_ITERATIONS = 100;
+    private static final double NEWTON_TOLERANCE = 1e-12;
+
     private final CommonHelper commonHelper;
 
     public YTMHelper(CommonHelper commonHelper) {
@@ -39,6 +43,9 @@ public class YTMHelper {
     *    interest before passing to this method.
     * N = REMAINING periods until maturity (not original term)
     *
+    * Also sets the bond's accruedInterest, the coupon times the same fractional period, so the accrued
+    * interest costs no schedule lookup of its own.
+    *
     * @param currentDate The current/settlement date
     * @param bond The bond object containing couponRate, faceValue, marketValue, issueDate, maturityDate, and paymentTerm
     * @return Approximate  annualized YTM in basis points (e.g., 500 for 5%)
@@ -47,12 +54,127 @@ public class YTMHelper {
      * //TODO : Day Count Convention Option, ACT/ACT default, 30/360 for Corporate/Municipal/Agency bonds, see findNextPaymentDate, MacCaulay Duration,  and calculateRemainingPeriods for details
     */
     public double calculateYTM(LocalDate currentDate, Bond bond) {
+        return calculateYTM(currentDate, bond, bond.getMaturityDate(), bond.getFaceValue());
+    }
+
+    /**
+     * Yield to call of a callable bond: the same approximation as calculateYTM, with the bond redeemed
+     * at callPrice on callDate instead of at face value on maturity.
+     *
+     * @param currentDate The current/settlement date
+     * @param bond The bond
+     * @param callable The bond's call
+     * @return Approximate annualized yield to call in basis points
+     * @throws IllegalArgumentException if callDate is not one of the bond's coupon payment dates, or is too close
+     */
+    public double calculateYieldToCall(LocalDate currentDate, Bond bond, BondType.Callable callable) {
+        int periodsPerPaymentTerm = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), callable.callDate(), periodsPerPaymentTerm);
+        if (schedule.length == 0 || schedule[schedule.length - 1] != callable.callDate().toEpochDay()) {
+            throw new IllegalArgumentException("Invalid callDate: " + callable.callDate() + " is not a coupon payment date");
+        }
+        return calculateYTM(currentDate, bond, callable.callDate(), callable.callPrice());
+    }
+
+    /**
+     * Exact YTM of a zero coupon bond, in closed form. The only cash flow is the face value at maturity,
+     * so no payment schedule is needed:
+     *
+     * YTM (per period) = (FV / PV)^(1 / N) - 1
+     *
+     * N = days to maturity / (365.25 / Payment Term), the same fractional periods calculateMacaulayDuration
+     * discounts with, so discounting the face value at this yield gives back the market value.
+     * Nothing accrues on a zero coupon bond, its accruedInterest is set to 0.
+     *
+     * @param currentDate The current/settlement date
+     * @param bond A zero coupon bond
+     * @return Annualized YTM in basis points
+     * @throws IllegalArgumentException if the bond has matured, matures today or has no market value
+     */
+    public double calculateZeroCouponYTM(LocalDate currentDate, Bond bond) {
+        int periodsPerPaymentTerm = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        long daysToMaturity = ChronoUnit.DAYS.between(currentDate, bond.getMaturityDate());
+        checkRemainingDays(daysToMaturity);
+        if (bond.getMarketValue() == 0) {
+            throw new IllegalArgumentException("Zero coupon bond with a market value of 0 has no yield");
+        }
+        bond.setAccruedInterest(0.0);
+        double periods = daysToMaturity / (365.25 / periodsPerPaymentTerm);
+        double ytmPerPeriod = Math.pow((double) bond.getFaceValue() / bond.getMarketValue(), 1.0 / periods) - 1;
+        return ytmPerPeriod * periodsPerPaymentTerm * 10000;
+    }
+
+    /**
+     * YTM of an amortizing bond, solved over its remaining cash flows: the principal installments and
+     * the coupons on the outstanding principal (see CommonHelper.amortizingCoupon). The yield is the
+     * root of
+     *
+     * PV = Σ CF(t) / (1 + YTM per period)^t,  t = days to payment / (365.25 / Payment Term)
+     *
+     * found by Newton's method from the coupon rate, with the same discounting as calculateAmortizingDuration.
+     * The remaining flows include the whole current coupon, so PV is the dirty price: the market value
+     * plus the accrued interest, which is set on the bond, from the next payment already found in the schedule.
+     *
+     * @param currentDate The current/settlement date
+     * @param bond An amortizing bond, market value is its clean price
+     * @return Annualized YTM in basis points
+     * @throws IllegalArgumentException if the bond has matured, matures today or has no market value
+     * @throws IllegalStateException if its schedule does not end on maturity or the yield does not converge
+     */
+    public double calculateAmortizingYTM(LocalDate currentDate, Bond bond) {
+        int periodsPerPaymentTerm = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        long daysToMaturity = ChronoUnit.DAYS.between(currentDate, bond.getMaturityDate());
+        checkRemainingDays(daysToMaturity);
+        if (bond.getMarketValue() == 0) {
+            throw new IllegalArgumentException("Amortizing bond with a market value of 0 has no yield");
+        }
+        int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), periodsPerPaymentTerm);
+        if (schedule.length == 0 || schedule[schedule.length - 1] != bond.getMaturityDate().toEpochDay()) {
+            throw new IllegalStateException("Amortizing bond schedule does not end on the maturity date");
+        }
+
+        int first = CommonHelper.firstPaymentOnOrAfter(schedule, currentDate.toEpochDay());
+        double principal = commonHelper.amortizingPrincipal(bond, schedule.length);
+        double daysPerPeriod = 365.25 / periodsPerPaymentTerm;
+        double[] periods = new double[schedule.length - first];
+        double[] amounts = new double[periods.length];
+        for (int i = first; i < schedule.length; i++) {
+            periods[i - first] = (schedule[i] - currentDate.toEpochDay()) / daysPerPeriod;
+            amounts[i - first] = principal + commonHelper.amortizingCoupon(bond, i, schedule.length, periodsPerPaymentTerm);
+        }
+
+        bond.setAccruedInterest(amortizingAccruedInterest(bond, schedule, first, currentDate, periodsPerPaymentTerm));
+        double price = bond.getDirtyPrice();
+        double ytmPerPeriod = bond.getCouponRate() / 10000.0 / periodsPerPaymentTerm;
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+            double pv = 0.0;
+            double derivative = 0.0;
+            for (int i = 0; i < periods.length; i++) {
+                double discounted = amounts[i] * Math.pow(1 + ytmPerPeriod, -periods[i]);
+                pv += discounted;
+                derivative -= periods[i] * discounted / (1 + ytmPerPeriod);
+            }
+            double step = (pv - price) / derivative;
+            double next = ytmPerPeriod - step;
+            // Stay above -100%, where the discount factors are undefined
+            ytmPerPeriod = next > -1 ? next : (ytmPerPeriod - 1) / 2;
+            if (Math.abs(step) < NEWTON_TOLERANCE) {
+                return ytmPerPeriod * periodsPerPaymentTerm * 10000;
+            }
+        }
+        throw new IllegalStateException("Amortizing bond YTM did not converge");
+    }
+
+    /**
+     * The general coupon bond approximation of calculateYTM, redeemed at redemptionValue on redemptionDate.
+     */
+    private double calculateYTM(LocalDate currentDate, Bond bond, LocalDate redemptionDate, int redemptionValue) {
 
         int couponRate = bond.getCouponRate();
         int faceValue = bond.getFaceValue();
         int marketValue = bond.getMarketValue();
         LocalDate issueDate = bond.getIssueDate();
-        LocalDate maturationDate = bond.getMaturityDate();
+        LocalDate maturationDate = redemptionDate;
         String paymentTerm = bond.getPaymentTerm();
 
         // find periods for payment term
@@ -61,14 +183,14 @@ public class YTMHelper {
         // Calculate coupon payment per period
         double couponPayment = (couponRate / 100.0) * faceValue / periodsPerPaymentTerm;
 
-//        // Calculate accrued interest
-//        double accruedInterest = calculateAccruedInterest(couponPayment, periodsPerPaymentTerm, issueDate, currentDate);
-
         // Calculate remaining periods to maturity
         int n = commonHelper.calculateRemainingPeriods(currentDate, issueDate, maturationDate, periodsPerPaymentTerm);
 
         // Calculate fractional period for more precision
-        double fractionalPeriod = commonHelper.calculateFractionalPeriod(issueDate, currentDate, periodsPerPaymentTerm);
+        double fractionalPeriod = commonHelper.calculateFractionalPeriod(issueDate, maturationDate, currentDate, periodsPerPaymentTerm);
+
+        // Accrued from the same fractional period, no schedule lookup of its own
+        bond.setAccruedInterest(couponPayment(bond, periodsPerPaymentTerm) * fractionalPeriod);
 
         // Adjust N by fractional period, to account for time elapsed in current period
         double adjustedN = n - fractionalPeriod;
@@ -82,7 +204,7 @@ public class YTMHelper {
         if (adjustedN == 0) {
             throw new IllegalArgumentException(
                     "Bond matures today - YTM is not meaningful for portfolio calculations. " +
-                            "Use direct price comparison (receives: " + (faceValue + couponPayment) +
+                            "Use direct price comparison (receives: " + (redemptionValue + couponPayment) +
                             " cents, pays: " + marketValue + " cents)");
         }
 
@@ -100,8 +222,8 @@ public class YTMHelper {
 
 
         // YTM formula: [C + (FV - PV) / N] / [(FV + PV) / 2]
-        double ytmPerPeriod = (couponPayment + ((faceValue - marketValue) / adjustedN))
-                / ((faceValue + marketValue) / 2.0);
+        double ytmPerPeriod = (couponPayment + ((redemptionValue - marketValue) / adjustedN))
+                / ((redemptionValue + marketValue) / 2.0);
 
         // Annualize by multiplying by periods per year
         return ytmPerPeriod * periodsPerPaymentTerm * 100; // Convert to basis points
@@ -109,36 +231,57 @@ public class YTMHelper {
 
 
     /**
-     * Calculates accrued interest since the last coupon payment.
-     *
-     * @param couponPayment Coupon payment amount in cents
-     * @param periodsPerPaymentTerm Payment frequency (1, 2, 4, 12)
-     * @param issueDate Date of bond issue date
-     * @param settlementDate Date of bond purchase/valuation (typically current date)
-     * @return Accrued interest in cents
-     * NOT NEEDED ASSUMING MARKET VALUE IS CLEAN PRICE
+     * The maturity checks of calculateYTM, for the kernels that work in days rather than periods.
      */
-    private double calculateAccruedInterest(double couponPayment,
-                                            int periodsPerPaymentTerm,
-                                            LocalDate issueDate,
-                                            LocalDate settlementDate) {
-
-        // Find the next payment date after settlement
-        LocalDate nextPaymentDate = commonHelper.findNextPaymentDate(issueDate, settlementDate, periodsPerPaymentTerm);
-
-        // Calculate the previous payment date by going back one period
-        int monthsPerPeriod = 12 / periodsPerPaymentTerm;
-        LocalDate lastPaymentDate = nextPaymentDate.minusMonths(monthsPerPeriod);
-
-        // Days in the current coupon period
-        long daysInPeriod = ChronoUnit.DAYS.between(lastPaymentDate, nextPaymentDate);
-
-        // Days accrued since last payment
-        long daysAccrued = ChronoUnit.DAYS.between(lastPaymentDate, settlementDate);
-
-        return couponPayment * (daysAccrued / (double) daysInPeriod);
+    private static void checkRemainingDays(long daysToMaturity) {
+        if (daysToMaturity < 0) {
+            throw new IllegalArgumentException("Bond Matured. Maturation date must be in the future");
+        }
+        if (daysToMaturity == 0) {
+            throw new IllegalArgumentException("Bond matures today - YTM is not meaningful for portfolio calculations.");
+        }
     }
 
+    /**
+     * Accrued interest of a bond on a date: the coupon of the current period times the fraction of the
+     * period elapsed, calculateFractionalPeriod over the cached payment schedule. The YTM kernels set the
+     * same amount on the bond from the schedule lookup they already make, this is for bonds that are
+     * priced without being analyzed.
+     *
+     * Dirty price = market value (clean price) + accrued interest. A coupon due today is still owed to
+     * the buyer (see calculateRemainingPeriods), so it is fully accrued.
+     *
+     * @param currentDate Date of bond purchase/valuation (typically current date)
+     * @param bond The bond
+     * @return Accrued interest in cents per bond, 0 for a zero coupon bond
+     * @throws IllegalArgumentException if the bond has matured
+     */
+    public double calculateAccruedInterest(LocalDate currentDate, Bond bond) {
+        if (bond.getMaturityDate().isBefore(currentDate)) {
+            throw new IllegalArgumentException("Bond Matured. Maturation date must be in the future");
+        }
+        int periodsPerPaymentTerm = commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm());
+        if (bond.getType() instanceof BondType.Amortizing) {
+            int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), periodsPerPaymentTerm);
+            int next = CommonHelper.firstPaymentOnOrAfter(schedule, currentDate.toEpochDay());
+            return next == schedule.length ? 0.0 : amortizingAccruedInterest(bond, schedule, next, currentDate, periodsPerPaymentTerm);
+        }
+        if (bond.getCouponRate() == 0) {
+            return 0.0;
+        }
+        return couponPayment(bond, periodsPerPaymentTerm) * commonHelper.calculateFractionalPeriod(
+                bond.getIssueDate(), bond.getMaturityDate(), currentDate, periodsPerPaymentTerm);
+    }
 
+    // Coupon per period in cents, couponRate is in basis points
+    private static double couponPayment(Bond bond, int periodsPerPaymentTerm) {
+        return bond.getFaceValue() * (bond.getCouponRate() / 10000.0) / periodsPerPaymentTerm;
+    }
 
+    // Coupon of the period ending on schedule[next], on the principal outstanding, times the fraction elapsed
+    private double amortizingAccruedInterest(Bond bond, int[] schedule, int next, LocalDate currentDate,
+                                             int periodsPerPaymentTerm) {
+        return commonHelper.amortizingCoupon(bond, next, schedule.length, periodsPerPaymentTerm)
+                * CommonHelper.fractionalPeriod(schedule, next, currentDate.toEpochDay(), periodsPerPaymentTerm);
+    }
 }
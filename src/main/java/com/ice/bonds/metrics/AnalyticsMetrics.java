@@ -0,0 +1,258 @@
+package com.ice.bonds.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and histograms for the analytics pipeline, exported through Actuator (/actuator/prometheus).
+ *
+ * Per-request meters (portfolio add, request parse, validation failures) are recorded every time.
+ * Per-bond meters (analyze, YTM, Macaulay duration, cash flows) run in a few microseconds, so they
+ * are sampled: one bond in bonds.metrics.bond-sample-interval is timed (1 = every bond), and all of
+ * a sampled bond's meters are recorded, the decision is carried by the startBondSample value.
+ *
+ * When disabled (bonds.metrics.enabled=false) no clock is read and every record call returns
+ * immediately, so the only remaining cost is a boolean check.
+ */
+@Component
+public class AnalyticsMetrics {
+
+    /**
+     * Start value for a bond that is not sampled, record calls ignore it.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int bondSampleInterval;
+
+    private final Timer analyzeBondTimer;
+    private final Timer ytmTimer;
+    private final Timer macaulayDurationTimer;
+    private final Timer addBondsTimer;
+    private final DistributionSummary bondsPerRequest;
+    private final DistributionSummary cashFlowsPerBond;
+    private final Timer priceBatchTimer;
+    private final Counter priceTicks;
+    private final Counter positionsRepriced;
+    private final Timer walSyncTimer;
+    private final DistributionSummary walBatchSize;
+
+    private final ConcurrentMap<String, Timer> parseTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> validationFailures = new ConcurrentHashMap<>();
+
+    public AnalyticsMetrics(MeterRegistry registry, boolean enabled) {
+        this(registry, enabled, 1);
+    }
+
+    @Autowired
+    public AnalyticsMetrics(MeterRegistry registry,
+                            @Value("${bonds.metrics.enabled:true}") boolean enabled,
+                            @Value("${bonds.metrics.bond-sample-interval:16}") int bondSampleInterval) {
+        if (bondSampleInterval < 1) {
+            throw new IllegalArgumentException("bonds.metrics.bond-sample-interval must be at least 1");
+        }
+        this.registry = registry;
+        this.enabled = enabled;
+        this.bondSampleInterval = bondSampleInterval;
+
+        this.analyzeBondTimer = Timer.builder("bonds.analyze")
+                .description("Time to analyze a single bond (YTM and durations)")
+                .register(registry);
+        this.ytmTimer = Timer.builder("bonds.ytm")
+                .description("Time spent in YTMHelper.calculateYTM")
+                .register(registry);
+        this.macaulayDurationTimer = Timer.builder("bonds.duration.macaulay")
+                .description("Time spent in DurationHelper.calculateMacaulayDuration")
+                .register(registry);
+        this.addBondsTimer = Timer.builder("bonds.portfolio.add")
+                .description("Time to add and analyze all bonds of a portfolio request")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.bondsPerRequest = DistributionSummary.builder("bonds.portfolio.size")
+                .description("Bonds per portfolio request")
+                .baseUnit("bonds")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cashFlowsPerBond = DistributionSummary.builder("bonds.cashflows")
+                .description("Cash flows generated per bond")
+                .baseUnit("cashflows")
+                .register(registry);
+        this.priceBatchTimer = Timer.builder("bonds.prices.apply")
+                .description("Time to apply a batch of price ticks to the stored portfolios")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.priceTicks = Counter.builder("bonds.prices.ticks")
+                .description("Price ticks received")
+                .register(registry);
+        this.positionsRepriced = Counter.builder("bonds.prices.repriced")
+                .description("Stored positions re-analyzed after a price tick")
+                .register(registry);
+        this.walSyncTimer = Timer.builder("bonds.wal.sync")
+                .description("Write and fsync of one write-ahead log batch")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.walBatchSize = DistributionSummary.builder("bonds.wal.batch")
+                .description("Records per write-ahead log fsync")
+                .baseUnit("records")
+                .register(registry);
+    }
+
+    /**
+     * Metrics that record nothing, for helpers constructed outside of Spring (e.g. unit tests).
+     */
+    public static AnalyticsMetrics disabled() {
+        return new AnalyticsMetrics(new SimpleMeterRegistry(), false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Start timestamp for a per-request record method, 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Decides whether the current bond is sampled.
+     *
+     * @return Start timestamp for the per-bond record methods, or NOT_SAMPLED
+     */
+    public long startBondSample() {
+        return enabled && sampled() ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * @param start Value from startBondSample()
+     * @return End timestamp, to use as the start of the next step, or NOT_SAMPLED
+     */
+    public long recordYtm(long start) {
+        return recordSample(ytmTimer, start);
+    }
+
+    /**
+     * @param start End timestamp of the previous step, or NOT_SAMPLED
+     * @return End timestamp, or NOT_SAMPLED
+     */
+    public long recordMacaulayDuration(long start) {
+        return recordSample(macaulayDurationTimer, start);
+    }
+
+    /**
+     * @param start Value from startBondSample()
+     */
+    public void recordAnalyzeBond(long start) {
+        recordSample(analyzeBondTimer, start);
+    }
+
+    /**
+     * @param start Start timestamp from start()
+     * @param bonds Number of bonds in the request
+     */
+    public void recordAddBonds(long start, int bonds) {
+        if (!enabled) {
+            return;
+        }
+        record(addBondsTimer, start);
+        bondsPerRequest.record(bonds);
+    }
+
+    /**
+     * @param format Request format (json, json-string, v2, columnar)
+     * @param start Start timestamp from start()
+     */
+    public void recordParse(String format, long start) {
+        if (!enabled) {
+            return;
+        }
+        Timer timer = parseTimers.computeIfAbsent(format, f -> Timer.builder("bonds.request.parse")
+                .description("Time to parse a request body")
+                .tag("format", f)
+                .publishPercentileHistogram()
+                .register(registry));
+        record(timer, start);
+    }
+
+    /**
+     * @param start Start timestamp from start()
+     * @param ticks Number of ticks in the batch
+     * @param repriced Number of stored positions re-analyzed
+     */
+    public void recordPriceBatch(long start, int ticks, int repriced) {
+        if (!enabled) {
+            return;
+        }
+        record(priceBatchTimer, start);
+        priceTicks.increment(ticks);
+        positionsRepriced.increment(repriced);
+    }
+
+    /**
+     * @param start Start timestamp from start()
+     * @param records Number of log records written by the batch
+     */
+    public void recordWalSync(long start, int records) {
+        if (!enabled) {
+            return;
+        }
+        record(walSyncTimer, start);
+        walBatchSize.record(records);
+    }
+
+    /**
+     * @param start Value from startBondSample(), so the count is sampled with the bond's timers
+     * @param count Cash flows generated for the bond
+     */
+    public void recordCashFlows(long start, int count) {
+        if (start != NOT_SAMPLED) {
+            cashFlowsPerBond.record(count);
+        }
+    }
+
+    /**
+     * @param field Name of the request field that failed validation
+     */
+    public void recordValidationFailure(String field) {
+        if (!enabled) {
+            return;
+        }
+        validationFailures.computeIfAbsent(field, f -> Counter.builder("bonds.validation.failures")
+                .description("Rejected bond requests by field")
+                .tag("field", f)
+                .register(registry))
+                .increment();
+    }
+
+    private boolean sampled() {
+        return bondSampleInterval == 1 || ThreadLocalRandom.current().nextInt(bondSampleInterval) == 0;
+    }
+
+    private long recordSample(Timer timer, long start) {
+        if (start == NOT_SAMPLED) {
+            return NOT_SAMPLED;
+        }
+        long end = System.nanoTime();
+        timer.record(end - start, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    private void record(Timer timer, long start) {
+        if (enabled) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.ice.bonds.model;
 
 import java.time.LocalDate;
 
-//TODO: How would this model or a future interface look if we wanted to support other bond types (e.g., Zero-Coupon, Floating Rate, etc.)
 public class Bond {
 
     //International Securities Identification Number
@@ -31,6 +30,9 @@ public class Bond {
     // Quantity of bonds held
     private int quantity;
 
+    // Kind of bond (see BondType), null means fixed coupon, or zero coupon if couponRate is 0
+    private BondType type;
+
     // Calculated fields
     private double yieldToMaturity;
 
@@ -43,6 +45,9 @@ public class Bond {
     // Weight of this bond in the portfolio
     private double bondWeightInPortfolio;
 
+    // Coupon accrued since the last payment date in cents, per bond
+    private double accruedInterest;
+
     public Bond() {
     }
 
@@ -84,6 +89,11 @@ public class Bond {
         return (long) marketValue * quantity;
     }
 
+    // Price paid for one bond, in cents: the market value (clean price) plus accrued interest
+    public double getDirtyPrice() {
+        return marketValue + accruedInterest;
+    }
+
     public String getISIN() {
         return ISIN;
     }
@@ -172,6 +182,20 @@ public class Bond {
         this.modifiedDuration = modifiedDuration;
     }
 
+    /**
+     * @return The bond's type, derived from couponRate unless one was set
+     */
+    public BondType getType() {
+        if (type != null) {
+            return type;
+        }
+        return getCouponRate() == 0 ? BondType.ZERO_COUPON : BondType.FIXED_COUPON;
+    }
+
+    public void setType(BondType type) {
+        this.type = type;
+    }
+
     public double getBondWeightInPortfolio() {
         return bondWeightInPortfolio;
     }
@@ -179,4 +203,12 @@ public class Bond {
     public void setBondWeightInPortfolio(double bondWeightInPortfolio) {
         this.bondWeightInPortfolio = bondWeightInPortfolio;
     }
+
+    public double getAccruedInterest() {
+        return accruedInterest;
+    }
+
+    public void setAccruedInterest(double accruedInterest) {
+        this.accruedInterest = accruedInterest;
+    }
 }
@@ -0,0 +1,76 @@
+package com.ice.bonds.model;
+
+import java.time.LocalDate;
+
+/**
+ * Kind of instrument a Bond is, which picks its analytics kernel in BondService.analyzeBond.
+ *
+ * The hierarchy is sealed so the kernels are chosen by an exhaustive pattern-matching switch: adding a
+ * type does not compile until every switch handles it.
+ */
+public sealed interface BondType {
+
+    FixedCoupon FIXED_COUPON = new FixedCoupon();
+    ZeroCoupon ZERO_COUPON = new ZeroCoupon();
+    FloatingRate FLOATING_RATE = new FloatingRate();
+    Amortizing AMORTIZING = new Amortizing();
+
+    /**
+     * @return Name accepted in the bondType request field
+     */
+    String name();
+
+    /**
+     * Coupon at couponRate every period, face value repaid at maturity.
+     */
+    record FixedCoupon() implements BondType {
+        @Override
+        public String name() {
+            return "fixed";
+        }
+    }
+
+    /**
+     * No coupon, face value repaid at maturity. Any bond with a couponRate of 0.
+     */
+    record ZeroCoupon() implements BondType {
+        @Override
+        public String name() {
+            return "zero";
+        }
+    }
+
+    /**
+     * Coupon reset every period, couponRate is the current coupon (index plus spread).
+     */
+    record FloatingRate() implements BondType {
+        @Override
+        public String name() {
+            return "floating";
+        }
+    }
+
+    /**
+     * Face value repaid in equal installments on every payment date from issue, with the coupon paid
+     * on the principal still outstanding.
+     */
+    record Amortizing() implements BondType {
+        @Override
+        public String name() {
+            return "amortizing";
+        }
+    }
+
+    /**
+     * Fixed coupon bond the issuer may redeem on callDate, a coupon payment date, at callPrice.
+     *
+     * @param callDate Call date
+     * @param callPrice Redemption price in cents if called
+     */
+    record Callable(LocalDate callDate, int callPrice) implements BondType {
+        @Override
+        public String name() {
+            return "callable";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ice.bonds.model;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reverse index from ISIN to the stored portfolios holding a position in it.
+ *
+ * Adding or removing a holding is O(1) and safe from any thread, an ISIN disappears from the index
+ * with its last holder. The index only says where to look: callers still check the position under
+ * the portfolio lock, since it can change between the lookup and the lock.
+ */
+public class HoldingsIndex {
+
+    private final ConcurrentMap<String, ConcurrentMap<UUID, StoredPortfolio>> holdersByIsin = new ConcurrentHashMap<>();
+
+    public void add(String isin, StoredPortfolio stored) {
+        // compute, not computeIfAbsent + put: remove() must not drop the map between the two
+        holdersByIsin.compute(isin, (key, holders) -> {
+            ConcurrentMap<UUID, StoredPortfolio> updated = holders == null ? new ConcurrentHashMap<>() : holders;
+            updated.put(stored.getPortfolio().getId(), stored);
+            return updated;
+        });
+    }
+
+    public void remove(String isin, UUID portfolioId) {
+        holdersByIsin.computeIfPresent(isin, (key, holders) -> {
+            holders.remove(portfolioId);
+            return holders.isEmpty() ? null : holders;
+        });
+    }
+
+    /**
+     * @param isin The ISIN
+     * @return Live view of the portfolios holding the ISIN by id, empty if none
+     */
+    public Map<UUID, StoredPortfolio> getHolders(String isin) {
+        Map<UUID, StoredPortfolio> holders = holdersByIsin.get(isin);
+        return holders == null ? Map.of() : holders;
+    }
+
+    /**
+     * @return Number of distinct ISINs held across the stored portfolios
+     */
+    public int size() {
+        return holdersByIsin.size();
+    }
+}
@@ -11,6 +11,8 @@ public class Portfolio {
     private double weightedMacaulayDuration;
     private double weightedModifiedDuration;
     private long totalPortfolioValue;
+    private double weightedYieldToMaturity;
+    private double internalRateOfReturn;
 
     public Portfolio(String accountId) {
         this.id = UUID.randomUUID();
@@ -72,4 +74,20 @@ public class Portfolio {
     public void setTotalPortfolioValue(long totalPortfolioValue) {
         this.totalPortfolioValue = totalPortfolioValue;
     }
-}
\ No newline at end of file
+
+    public double getWeightedYieldToMaturity() {
+        return weightedYieldToMaturity;
+    }
+
+    public void setWeightedYieldToMaturity(double weightedYieldToMaturity) {
+        this.weightedYieldToMaturity = weightedYieldToMaturity;
+    }
+
+    public double getInternalRateOfReturn() {
+        return internalRateOfReturn;
+    }
+
+    public void setInternalRateOfReturn(double internalRateOfReturn) {
+        this.internalRateOfReturn = internalRateOfReturn;
+    }
+}
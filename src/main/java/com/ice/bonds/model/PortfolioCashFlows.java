@@ -0,0 +1,290 @@
+package com.ice.bonds.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Cash flows of every position of a portfolio, netted into one amount per day.
+ *
+ * The amounts are a dense array indexed by days from an anchor date, so adding a position's flows is
+ * a pass over them with no sorting or searching, and removing it is adding them with the opposite
+ * sign. Pricing the whole portfolio at a flat yield is then one sweep over the days from the
+ * valuation date, whatever the number of positions: each day is discounted by a running factor,
+ * (1 + y)^(-1 / 365.25) per day, so no pow is taken per flow. Days before the valuation date are
+ * skipped, so flows already paid never need to be removed.
+ *
+ * Yields are annual (effective) decimals, times are days / 365.25 years, amounts are in cents.
+ *
+ * Not thread-safe, StoredPortfolio's lock guards it like the rest of the portfolio.
+ */
+public class PortfolioCashFlows {
+
+    private static final int MAX_NEWTON_ITERATIONS = 100;
+    private static final double NEWTON_TOLERANCE = 1e-12;
+    private static final int MAX_BRACKET_DOUBLINGS = 64;
+    private static final int INITIAL_DAYS = 366;
+
+    /**
+     * Present value of the flows at one yield and its sensitivities.
+     *
+     * @param presentValue Cents
+     * @param macaulayDuration Years
+     * @param modifiedDuration Years
+     * @param convexity Years squared
+     */
+    public record Valuation(double presentValue, double macaulayDuration, double modifiedDuration, double convexity) {
+    }
+
+    /**
+     * Flows grouped into steps of stepDays from the valuation date, with their first two moments in
+     * time from the start of the step, so a flow inside a step can be discounted from the step start
+     * by exp(-r × s) ≈ 1 - r × s + ½ × r² × s² without visiting it.
+     *
+     * @param stepDays Days per step
+     * @param amounts Σ CF per step, cents
+     * @param timeWeighted Σ s × CF per step, s in years from the step start
+     * @param timeSquaredWeighted Σ s² × CF per step
+     */
+    public record StepMoments(int stepDays, double[] amounts, double[] timeWeighted, double[] timeSquaredWeighted) {
+
+        public int steps() {
+            return amounts.length;
+        }
+    }
+
+    private long anchorDay;
+    private double[] amounts;
+    // Index after the last day written
+    private int length;
+
+    /**
+     * @param anchorDate First day of the array, flows before it can still be added
+     */
+    public PortfolioCashFlows(LocalDate anchorDate) {
+        this.anchorDay = anchorDate.toEpochDay();
+        this.amounts = new double[INITIAL_DAYS];
+    }
+
+    /**
+     * @return An independent copy, to price outside the portfolio lock
+     */
+    public PortfolioCashFlows copy() {
+        PortfolioCashFlows copy = new PortfolioCashFlows(LocalDate.ofEpochDay(anchorDay));
+        copy.amounts = Arrays.copyOf(amounts, length);
+        copy.length = length;
+        return copy;
+    }
+
+    /**
+     * Adds an amount paid on a day, negative to take one out.
+     *
+     * @param epochDay Payment day
+     * @param amount Cents
+     */
+    public void add(long epochDay, double amount) {
+        if (epochDay < anchorDay) {
+            int shift = Math.toIntExact(anchorDay - epochDay);
+            double[] shifted = new double[Math.max(amounts.length, length + shift)];
+            System.arraycopy(amounts, 0, shifted, shift, length);
+            amounts = shifted;
+            anchorDay = epochDay;
+            length += shift;
+        }
+        int index = Math.toIntExact(epochDay - anchorDay);
+        if (index >= amounts.length) {
+            amounts = Arrays.copyOf(amounts, Math.max(index + 1, amounts.length * 2));
+        }
+        amounts[index] += amount;
+        length = Math.max(length, index + 1);
+    }
+
+    /**
+     * @param epochDay A day
+     * @return Net amount paid on the day, in cents
+     */
+    public double getAmount(long epochDay) {
+        long index = epochDay - anchorDay;
+        return index < 0 || index >= length ? 0.0 : amounts[(int) index];
+    }
+
+    /**
+     * @param today Valuation date
+     * @return true if anything is paid after today
+     */
+    public boolean hasFlowsAfter(LocalDate today) {
+        for (int index = firstIndexAfter(today.toEpochDay()); index < length; index++) {
+            if (amounts[index] != 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prices the flows from today on at a flat yield: PV = Σ CF(t) / (1 + y)^t, with
+     *
+     * Macaulay duration = Σ t × CF(t) / (1 + y)^t / PV
+     * Modified duration = Macaulay duration / (1 + y)
+     * Convexity = Σ t × (t + 1) × CF(t) / (1 + y)^t / (PV × (1 + y)^2)
+     *
+     * @param today Valuation date, flows due today are included at their face amount
+     * @param annualYield Annual (effective) yield as a decimal, above -1
+     * @return The valuation, with 0 durations if nothing is left to pay
+     */
+    public Valuation value(LocalDate today, double annualYield) {
+        if (!(annualYield > -1)) {
+            throw new IllegalArgumentException("Invalid yield: " + annualYield * 10000 + " bps, must be above -10000");
+        }
+        long todayDay = today.toEpochDay();
+        int first = firstIndexAfter(todayDay - 1);
+        double dayFactor = Math.pow(1 + annualYield, -1 / 365.25);
+        long firstDays = anchorDay + first - todayDay;
+        double discount = Math.pow(dayFactor, firstDays);
+        double pv = 0.0;
+        double dayWeighted = 0.0;
+        double daySquaredWeighted = 0.0;
+        for (int index = first; index < length; index++) {
+            double discounted = amounts[index] * discount;
+            double days = firstDays + (index - first);
+            pv += discounted;
+            dayWeighted += days * discounted;
+            daySquaredWeighted += days * days * discounted;
+            discount *= dayFactor;
+        }
+        if (pv == 0.0) {
+            return new Valuation(0.0, 0.0, 0.0, 0.0);
+        }
+        double macaulayDuration = dayWeighted / 365.25 / pv;
+        double growth = 1 + annualYield;
+        // Σ t(t + 1) CF v^t = Σ t² CF v^t + Σ t CF v^t
+        double convexity = (daySquaredWeighted / (365.25 * 365.25) + dayWeighted / 365.25) / (pv * growth * growth);
+        return new Valuation(pv, macaulayDuration, macaulayDuration / growth, convexity);
+    }
+
+    /**
+     * Groups the flows from today on into steps of stepDays, step k covering the days
+     * [k × stepDays, (k + 1) × stepDays) after today. Trailing steps without flows are left out.
+     *
+     * @param today Valuation date, flows due today are in the first step
+     * @param stepDays Days per step, at least 1
+     * @return The step moments
+     */
+    public StepMoments stepMoments(LocalDate today, int stepDays) {
+        long todayDay = today.toEpochDay();
+        int first = firstIndexAfter(todayDay - 1);
+        int last = length;
+        while (last > first && amounts[last - 1] == 0.0) {
+            last--;
+        }
+        long firstDays = anchorDay + first - todayDay;
+        long lastDays = firstDays + (last - first) - 1;
+        int steps = last > first ? (int) (lastDays / stepDays) + 1 : 0;
+        double[] stepAmounts = new double[steps];
+        double[] timeWeighted = new double[steps];
+        double[] timeSquaredWeighted = new double[steps];
+        for (int index = first; index < last; index++) {
+            long days = firstDays + (index - first);
+            int step = (int) (days / stepDays);
+            double time = (days - (long) step * stepDays) / 365.25;
+            double amount = amounts[index];
+            stepAmounts[step] += amount;
+            timeWeighted[step] += time * amount;
+            timeSquaredWeighted[step] += time * time * amount;
+        }
+        return new StepMoments(stepDays, stepAmounts, timeWeighted, timeSquaredWeighted);
+    }
+
+    /**
+     * Solves for the flat yield at which the flows from today on are worth price, by Newton's method.
+     * When Newton does not converge, e.g. from a far guess for flows due within days of a deep discount,
+     * the yield is bracketed and bisected instead.
+     *
+     * @param today Valuation date, flows due today are included, some must be paid after it
+     * @param price Present value to solve for, in cents
+     * @param guess Starting yield, annual decimal
+     * @return Annual (effective) yield as a decimal, NaN if no yield prices the flows at price
+     */
+    public double yieldFor(LocalDate today, double price, double guess) {
+        long todayDay = today.toEpochDay();
+        int first = firstIndexAfter(todayDay - 1);
+        // Trailing days without flows only cost time in the sweep
+        int last = length;
+        while (last > first && amounts[last - 1] == 0.0) {
+            last--;
+        }
+        long firstDays = anchorDay + first - todayDay;
+
+        double rate = guess > -1 ? guess : 0.0;
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+            double dayFactor = Math.pow(1 + rate, -1 / 365.25);
+            double discount = Math.pow(dayFactor, firstDays);
+            double pv = 0.0;
+            double dayWeightedPv = 0.0;
+            for (int index = first; index < last; index++) {
+                double discounted = amounts[index] * discount;
+                pv += discounted;
+                dayWeightedPv += (firstDays + index - first) * discounted;
+                discount *= dayFactor;
+            }
+            // dPV/dr = -Σ (d / 365.25) CF(d) v^d / (1 + r)
+            double derivative = -dayWeightedPv / 365.25 / (1 + rate);
+            double step = (pv - price) / derivative;
+            double next = rate - step;
+            // Stay above -100%, where the discount factors are undefined
+            rate = next > -1 ? next : (rate - 1) / 2;
+            if (Math.abs(step) < NEWTON_TOLERANCE) {
+                return rate;
+            }
+            if (Double.isNaN(step)) {
+                break;
+            }
+        }
+        return bisect(first, last, firstDays, price);
+    }
+
+    /**
+     * Bisection on the log yield x = ln(1 + y), where PV(x) = Σ CF(d) × e^(-x × d / 365.25) is
+     * defined for every x, so the bracket can widen without ever crossing -100%.
+     *
+     * @return Annual (effective) yield as a decimal, NaN if price cannot be bracketed
+     */
+    private double bisect(int first, int last, long firstDays, double price) {
+        double low = -1.0;
+        double high = 1.0;
+        for (int i = 0; i < MAX_BRACKET_DOUBLINGS && presentValue(first, last, firstDays, low) < price; i++) {
+            low *= 2;
+        }
+        for (int i = 0; i < MAX_BRACKET_DOUBLINGS && presentValue(first, last, firstDays, high) > price; i++) {
+            high *= 2;
+        }
+        if (!(presentValue(first, last, firstDays, low) >= price && presentValue(first, last, firstDays, high) <= price)) {
+            return Double.NaN;
+        }
+        while (true) {
+            double mid = (low + high) / 2;
+            if (high - low < NEWTON_TOLERANCE * Math.max(1.0, Math.abs(mid)) || mid <= low || mid >= high) {
+                return Math.expm1(mid);
+            }
+            if (presentValue(first, last, firstDays, mid) > price) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+    }
+
+    private double presentValue(int first, int last, long firstDays, double logYield) {
+        double dayFactor = Math.exp(-logYield / 365.25);
+        double discount = Math.exp(-logYield * firstDays / 365.25);
+        double pv = 0.0;
+        for (int index = first; index < last; index++) {
+            pv += amounts[index] * discount;
+            discount *= dayFactor;
+        }
+        return pv;
+    }
+
+    private int firstIndexAfter(long epochDay) {
+        return (int) Math.min(Math.max(epochDay + 1 - anchorDay, 0), length);
+    }
+}
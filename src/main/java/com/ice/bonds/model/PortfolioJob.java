@@ -0,0 +1,98 @@
+package com.ice.bonds.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An asynchronous portfolio analysis job.
+ * Status, progress and the outcome are written by the worker thread and read by pollers,
+ * so every mutable field is volatile.
+ */
+public class PortfolioJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final UUID id;
+    private final int totalBonds;
+    private final Instant submittedAt;
+    private volatile Status status;
+    private volatile int analyzedBonds;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile Portfolio result;
+    private volatile String error;
+
+    public PortfolioJob(int totalBonds, Instant submittedAt) {
+        this.id = UUID.randomUUID();
+        this.totalBonds = totalBonds;
+        this.submittedAt = submittedAt;
+        this.status = Status.QUEUED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int getTotalBonds() {
+        return totalBonds;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAnalyzedBonds() {
+        return analyzedBonds;
+    }
+
+    public void setAnalyzedBonds(int analyzedBonds) {
+        this.analyzedBonds = analyzedBonds;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Portfolio getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        Status current = status;
+        return current == Status.COMPLETED || current == Status.FAILED;
+    }
+
+    public void markRunning(Instant now) {
+        this.startedAt = now;
+        this.status = Status.RUNNING;
+    }
+
+    public void markCompleted(Portfolio result, Instant now) {
+        this.result = result;
+        this.completedAt = now;
+        this.status = Status.COMPLETED;
+    }
+
+    public void markFailed(String error, Instant now) {
+        this.error = error;
+        this.completedAt = now;
+        this.status = Status.FAILED;
+    }
+}
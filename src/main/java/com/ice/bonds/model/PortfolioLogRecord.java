@@ -0,0 +1,145 @@
+package com.ice.bonds.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A change to one stored portfolio, as written to the write-ahead log, or a portfolio's full state
+ * as written to a snapshot.
+ *
+ * Bonds carry the position inputs only (static terms, market value, quantity), the analytics are
+ * recomputed when a record is replayed.
+ */
+public class PortfolioLogRecord {
+
+    public enum Type {
+        /** New portfolio with its initial positions */
+        CREATE,
+        /** Positions added or replaced by ISIN */
+        UPSERT,
+        /** Position removed */
+        REMOVE,
+        /** Portfolio deleted */
+        DELETE,
+        /** New market values of the positions repriced by a batch of price ticks */
+        PRICES,
+        /** Full portfolio state in a snapshot, lsn is the last log record applied to it */
+        SNAPSHOT
+    }
+
+    private final Type type;
+    private final UUID portfolioId;
+    private long lsn;
+    private String accountId;
+    private long version;
+    private List<Bond> bonds = List.of();
+    private String isin;
+    private Map<String, Integer> prices = Map.of();
+
+    private PortfolioLogRecord(Type type, UUID portfolioId) {
+        this.type = type;
+        this.portfolioId = portfolioId;
+    }
+
+    public static PortfolioLogRecord create(UUID portfolioId, String accountId, List<Bond> bonds) {
+        PortfolioLogRecord record = new PortfolioLogRecord(Type.CREATE, portfolioId);
+        record.accountId = accountId;
+        record.bonds = bonds;
+        return record;
+    }
+
+    public static PortfolioLogRecord upsert(UUID portfolioId, List<Bond> bonds) {
+        PortfolioLogRecord record = new PortfolioLogRecord(Type.UPSERT, portfolioId);
+        record.bonds = bonds;
+        return record;
+    }
+
+    public static PortfolioLogRecord remove(UUID portfolioId, String isin) {
+        PortfolioLogRecord record = new PortfolioLogRecord(Type.REMOVE, portfolioId);
+        record.isin = isin;
+        return record;
+    }
+
+    public static PortfolioLogRecord delete(UUID portfolioId) {
+        return new PortfolioLogRecord(Type.DELETE, portfolioId);
+    }
+
+    /**
+     * @param prices New market value in cents by ISIN
+     */
+    public static PortfolioLogRecord prices(UUID portfolioId, Map<String, Integer> prices) {
+        PortfolioLogRecord record = new PortfolioLogRecord(Type.PRICES, portfolioId);
+        record.prices = prices;
+        return record;
+    }
+
+    public static PortfolioLogRecord snapshot(UUID portfolioId, String accountId, long version, long lastLsn,
+                                              List<Bond> bonds) {
+        PortfolioLogRecord record = new PortfolioLogRecord(Type.SNAPSHOT, portfolioId);
+        record.accountId = accountId;
+        record.version = version;
+        record.lsn = lastLsn;
+        record.bonds = bonds;
+        return record;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getPortfolioId() {
+        return portfolioId;
+    }
+
+    /**
+     * @return Log sequence number, assigned when the record is appended to the log
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    public void setLsn(long lsn) {
+        this.lsn = lsn;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public List<Bond> getBonds() {
+        return bonds;
+    }
+
+    public void setBonds(List<Bond> bonds) {
+        this.bonds = bonds;
+    }
+
+    public String getIsin() {
+        return isin;
+    }
+
+    public void setIsin(String isin) {
+        this.isin = isin;
+    }
+
+    public Map<String, Integer> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(Map<String, Integer> prices) {
+        this.prices = prices;
+    }
+}
@@ -0,0 +1,183 @@
+package com.ice.bonds.model;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantiles of a distribution with bounded memory and a relative error guarantee.
+ *
+ * Values are counted in logarithmic buckets, bucket i holding |x| in (γ^(i-1), γ^i] with
+ * γ = (1 + α) / (1 - α), so any quantile is returned within a relative error α of a value at its rank
+ * (DDSketch). Memory depends on the spread of the values, log(max / min) / log(γ) buckets, not on
+ * how many were added: about 7,000 buckets cover values spanning a factor 1,000 at α = 0.0005.
+ * Sketches with the same α merge exactly by adding the bucket counts, so parallel producers can each
+ * keep their own and merge at the end, in any order, to the same result.
+ *
+ * Negative values are counted in a mirrored store, values within MIN_INDEXABLE of 0 as 0.
+ *
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param relativeAccuracy α, between 0 and 1 exclusive
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Invalid relative accuracy: " + relativeAccuracy
+                    + ", must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    /**
+     * @param value A finite value
+     */
+    public void add(double value) {
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value));
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value));
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value counted by another sketch.
+     *
+     * @param other A sketch with the same relative accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of relative accuracy "
+                    + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param probability Between 0 and 1, 0 is the minimum and 1 the maximum
+     * @return The value at rank probability × (count - 1), within the relative accuracy
+     * @throws IllegalStateException if nothing was added
+     */
+    public double quantile(double probability) {
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("Invalid probability: " + probability + ", must be between 0 and 1");
+        }
+        if (count == 0) {
+            throw new IllegalStateException("No values in the sketch");
+        }
+        long rank = (long) (probability * (count - 1));
+        double value;
+        if (rank < negative.total) {
+            // Most negative first: the largest magnitudes
+            value = -bucketValue(negative.indexAtRank(negative.total - 1 - rank));
+        } else if (rank < negative.total + zeroCount) {
+            value = 0.0;
+        } else {
+            value = bucketValue(positive.indexAtRank(rank - negative.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    // Midpoint of the bucket in relative terms: 2γ^i / (γ + 1)
+    private double bucketValue(int index) {
+        return Math.exp(index * logGamma) * (1 - relativeAccuracy);
+    }
+
+    /**
+     * Bucket counts in a dense array from the lowest index seen, grown at either end like PortfolioCashFlows.
+     */
+    private static final class Buckets {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index) {
+            grow(index, index);
+            counts[index - offset]++;
+            total++;
+        }
+
+        void merge(Buckets other) {
+            if (other.total == 0) {
+                return;
+            }
+            grow(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+            total += other.total;
+        }
+
+        int indexAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        private void grow(int low, int high) {
+            if (counts.length == 0) {
+                counts = new long[Math.max(64, high - low + 1)];
+                offset = low;
+                return;
+            }
+            int newOffset = Math.min(offset, low);
+            int newEnd = Math.max(offset + counts.length, high + 1);
+            if (newOffset == offset && newEnd == offset + counts.length) {
+                return;
+            }
+            // Double when growing so a drifting range is not copied on every new bucket
+            int size = Math.max(newEnd - newOffset, counts.length * 2);
+            if (newOffset < offset) {
+                newOffset = Math.min(newOffset, newEnd - size);
+            }
+            long[] grown = new long[size];
+            System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+            counts = grown;
+            offset = newOffset;
+        }
+    }
+}
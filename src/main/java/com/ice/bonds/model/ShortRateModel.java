@@ -0,0 +1,97 @@
+package com.ice.bonds.model;
+
+/**
+ * One-factor Gaussian short-rate model for Monte Carlo rate paths.
+ *
+ * Both models are written as r(t) = φ(t) + x(t), where x is an Ornstein-Uhlenbeck process starting at
+ * 0, dx = -a × x dt + σ dW, and φ is deterministic. Only φ differs between them, so one path generator
+ * serves both and x can be stepped with its exact Gaussian transition however long the step.
+ *
+ * Rates are continuously compounded decimals, times are in years.
+ */
+public sealed interface ShortRateModel {
+
+    /**
+     * @return Mean reversion speed a, per year
+     */
+    double meanReversion();
+
+    /**
+     * @return Volatility σ of the short rate, per √year
+     */
+    double volatility();
+
+    /**
+     * @param time Years from today
+     * @return φ(t), the short rate where x(t) = 0
+     */
+    double deterministicRate(double time);
+
+    /**
+     * @return Name accepted in the model request parameter
+     */
+    String name();
+
+    /**
+     * dr = a × (θ - r) dt + σ dW from r(0) = r0.
+     * φ(t) = θ + (r0 - θ) × e^(-a × t)
+     *
+     * @param meanReversion a, above 0
+     * @param volatility σ, 0 or above
+     * @param initialRate r0
+     * @param longTermRate θ
+     */
+    record Vasicek(double meanReversion, double volatility, double initialRate, double longTermRate)
+            implements ShortRateModel {
+
+        public Vasicek {
+            validate(meanReversion, volatility);
+        }
+
+        @Override
+        public double deterministicRate(double time) {
+            return longTermRate + (initialRate - longTermRate) * Math.exp(-meanReversion * time);
+        }
+
+        @Override
+        public String name() {
+            return "vasicek";
+        }
+    }
+
+    /**
+     * dr = (θ(t) - a × r) dt + σ dW with θ(t) fitted to a flat initial forward curve f, so the
+     * expected discount factor of every date is e^(-f × t), today's curve.
+     * φ(t) = f + σ² / (2a²) × (1 - e^(-a × t))²
+     *
+     * @param meanReversion a, above 0
+     * @param volatility σ, 0 or above
+     * @param forwardRate f, also r(0)
+     */
+    record HullWhite(double meanReversion, double volatility, double forwardRate) implements ShortRateModel {
+
+        public HullWhite {
+            validate(meanReversion, volatility);
+        }
+
+        @Override
+        public double deterministicRate(double time) {
+            double decay = 1 - Math.exp(-meanReversion * time);
+            return forwardRate + volatility * volatility / (2 * meanReversion * meanReversion) * decay * decay;
+        }
+
+        @Override
+        public String name() {
+            return "hull-white";
+        }
+    }
+
+    private static void validate(double meanReversion, double volatility) {
+        if (!(meanReversion > 0)) {
+            throw new IllegalArgumentException("Invalid mean reversion: " + meanReversion + ", must be above 0");
+        }
+        if (!(volatility >= 0)) {
+            throw new IllegalArgumentException("Invalid volatility: " + volatility + ", cannot be negative");
+        }
+    }
+}
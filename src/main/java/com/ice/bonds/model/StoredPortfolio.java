@@ -0,0 +1,232 @@
+package com.ice.bonds.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A portfolio kept on the server between requests, holding at most one position per ISIN.
+ *
+ * Keeps running sums of the market value and duration- and yield-weighted market value of its positions,
+ * so a repriced position updates the portfolio aggregates in O(1) instead of a pass over every bond.
+ * Position weights depend on the total value and would change for every bond on every tick, so they
+ * are only recomputed when the portfolio is read (see isWeightsStale()). So is the portfolio IRR, a
+ * solve over the merged cash flows of every position (see isIrrStale()).
+ *
+ * The merged cash flows are kept as PortfolioCashFlows, updated with the flows of each position added,
+ * replaced or removed, so the IRR and flat-yield valuations never walk the positions' schedules.
+ * Prices do not change the flows, ticks leave them alone.
+ *
+ * The positions' Z-spreads over the current curve are kept once solved (see getZSpreads()), until a
+ * position changes or is repriced, the curve is replaced or the day rolls over.
+ *
+ * Not thread-safe, PortfolioStoreService synchronizes on the instance for every read and write.
+ */
+public class StoredPortfolio {
+
+    /**
+     * Incremental updates allowed before the sums are recomputed from scratch, bounds floating point drift.
+     */
+    private static final int RESUM_INTERVAL = 1024;
+
+    private final Portfolio portfolio;
+    private final Map<String, Bond> bondsByIsin = new LinkedHashMap<>();
+    private long version;
+    private long lastLsn;
+
+    private long totalValue;
+    private double macaulayValueSum;
+    private double modifiedValueSum;
+    private double yieldValueSum;
+    private int incrementalUpdates;
+    private boolean weightsStale;
+    private boolean irrStale;
+    private PortfolioCashFlows cashFlows;
+    private int cashFlowUpdates;
+    private double[] zSpreads;
+    private YieldCurve zSpreadCurve;
+    private long zSpreadDay;
+
+    public StoredPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    /**
+     * @return Incremented on every change, starting at 1 once created
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void incrementVersion() {
+        version++;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return Sequence number of the last write-ahead log record applied, 0 without persistence
+     */
+    public long getLastLsn() {
+        return lastLsn;
+    }
+
+    public void setLastLsn(long lastLsn) {
+        this.lastLsn = lastLsn;
+    }
+
+    public Bond getBond(String isin) {
+        return bondsByIsin.get(isin);
+    }
+
+    public Collection<Bond> getBonds() {
+        return bondsByIsin.values();
+    }
+
+    /**
+     * Adds the bond or replaces the position with the same ISIN, keeping its place in the portfolio.
+     */
+    public void putBond(Bond bond) {
+        bondsByIsin.put(bond.getISIN(), bond);
+    }
+
+    public Bond removeBond(String isin) {
+        return bondsByIsin.remove(isin);
+    }
+
+    /**
+     * Rebuilds the portfolio's bond list from the positions, call after adding or removing positions.
+     */
+    public void syncPortfolioBonds() {
+        portfolio.setBonds(new ArrayList<>(bondsByIsin.values()));
+        zSpreads = null;
+    }
+
+    /**
+     * Recomputes the running sums from the current positions, after a full re-analysis of the portfolio.
+     */
+    public void resetSums() {
+        totalValue = 0;
+        macaulayValueSum = 0.0;
+        modifiedValueSum = 0.0;
+        yieldValueSum = 0.0;
+        for (Bond bond : bondsByIsin.values()) {
+            addContribution(bond, 1);
+        }
+        incrementalUpdates = 0;
+        weightsStale = false;
+    }
+
+    /**
+     * Removes a position's contribution from the running sums, call before changing the bond in place.
+     */
+    public void subtractContribution(Bond bond) {
+        addContribution(bond, -1);
+    }
+
+    /**
+     * Adds a position's contribution to the running sums and publishes the new aggregates
+     * to the portfolio. Call after changing the bond in place.
+     */
+    public void addContributionAndPublish(Bond bond) {
+        addContribution(bond, 1);
+        if (++incrementalUpdates >= RESUM_INTERVAL) {
+            resetSums();
+        }
+        portfolio.setTotalPortfolioValue(totalValue);
+        portfolio.setWeightedMacaulayDuration(totalValue == 0 ? 0.0 : macaulayValueSum / totalValue);
+        portfolio.setWeightedModifiedDuration(totalValue == 0 ? 0.0 : modifiedValueSum / totalValue);
+        portfolio.setWeightedYieldToMaturity(totalValue == 0 ? 0.0 : yieldValueSum / totalValue);
+        weightsStale = true;
+        irrStale = true;
+        zSpreads = null;
+    }
+
+    /**
+     * @return true if positions were repriced since the bond weights were last computed
+     */
+    public boolean isWeightsStale() {
+        return weightsStale;
+    }
+
+    public void markWeightsFresh() {
+        weightsStale = false;
+    }
+
+    /**
+     * @return Netted cash flows of the positions, null until first built
+     */
+    public PortfolioCashFlows getCashFlows() {
+        return cashFlows;
+    }
+
+    /**
+     * Replaces the netted cash flows with ones built from the current positions.
+     */
+    public void resetCashFlows(PortfolioCashFlows cashFlows) {
+        this.cashFlows = cashFlows;
+        cashFlowUpdates = 0;
+    }
+
+    /**
+     * Counts a position whose flows were added to or taken out of the netted cash flows.
+     */
+    public void countCashFlowUpdate() {
+        cashFlowUpdates++;
+    }
+
+    /**
+     * @return true if the netted cash flows were never built, or updated often enough since to be
+     * rebuilt, which bounds floating point drift like the running sums
+     */
+    public boolean isCashFlowRebuildDue() {
+        return cashFlows == null || cashFlowUpdates >= RESUM_INTERVAL;
+    }
+
+    /**
+     * @return true if positions were changed or repriced since the IRR was last computed
+     */
+    public boolean isIrrStale() {
+        return irrStale;
+    }
+
+    public void markIrrStale() {
+        irrStale = true;
+    }
+
+    public void markIrrFresh() {
+        irrStale = false;
+    }
+
+    /**
+     * @param curve The curve the spreads are over
+     * @param today The day they were solved for
+     * @return The positions' Z-spreads in portfolio bond order, as set by setZSpreads, or null if the
+     * positions changed since or they were solved over another curve or day
+     */
+    public double[] getZSpreads(YieldCurve curve, LocalDate today) {
+        return zSpreads != null && curve == zSpreadCurve && today.toEpochDay() == zSpreadDay ? zSpreads : null;
+    }
+
+    public void setZSpreads(YieldCurve curve, LocalDate today, double[] zSpreads) {
+        this.zSpreads = zSpreads;
+        this.zSpreadCurve = curve;
+        this.zSpreadDay = today.toEpochDay();
+    }
+
+    private void addContribution(Bond bond, int sign) {
+        long value = bond.getTotalMarketValue();
+        totalValue += sign * value;
+        macaulayValueSum += sign * bond.getMacaulayDuration() * value;
+        modifiedValueSum += sign * bond.getModifiedDuration() * value;
+        yieldValueSum += sign * bond.getYieldToMaturity() * value;
+    }
+}
@@ -0,0 +1,262 @@
+package com.ice.bonds.model;
+
+/**
+ * Zero-coupon yield curve: zero rates at pillar tenors, interpolated between them.
+ *
+ * Each segment between two pillars is stored as the coefficients of a cubic in the time since its
+ * first pillar, computed once when the curve is built, so a lookup is a grid index, rarely a step or
+ * two forward, and a Horner evaluation. The grid splits the pillar range into GRID_CELLS_PER_PILLAR
+ * equal cells per pillar, each knowing the segment it starts in. Lookups allocate nothing and the
+ * curve is immutable, so any number of threads can price against one curve.
+ *
+ * Beyond the first and last pillars the zero rate is extrapolated flat.
+ *
+ * Zero rates are continuously compounded decimals, DF(t) = e^(-z(t) × t), tenors are in years
+ * (days / 365.25).
+ */
+public class YieldCurve {
+
+    private static final int GRID_CELLS_PER_PILLAR = 4;
+
+    public enum Interpolation {
+        // Linear in the zero rate
+        LINEAR,
+        // Linear in ln DF(t), piecewise constant forward rates
+        LOG_LINEAR,
+        // Fritsch-Carlson monotone cubic Hermite in the zero rate, no overshoot between pillars
+        MONOTONE_CUBIC;
+
+        /**
+         * @param interpolation linear, log-linear or monotone-cubic, any case
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Interpolation parse(String interpolation) {
+            return switch (interpolation.toLowerCase()) {
+                case "linear" -> LINEAR;
+                case "log-linear" -> LOG_LINEAR;
+                case "monotone-cubic" -> MONOTONE_CUBIC;
+                default -> throw new IllegalArgumentException("Invalid interpolation: " + interpolation);
+            };
+        }
+
+        /**
+         * @return Name accepted by parse
+         */
+        public String getName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final Interpolation interpolation;
+    private final double[] tenors;
+    private final double[] zeroRates;
+    // Segment i: q(t) = c[4i] + c[4i+1] dt + c[4i+2] dt² + c[4i+3] dt³, dt = t - tenors[i],
+    // q the zero rate, or ln DF for LOG_LINEAR
+    private final double[] coefficients;
+    private final double cellsPerYear;
+    private final int[] cellSegments;
+
+    private YieldCurve(double[] tenors, double[] zeroRates, Interpolation interpolation) {
+        if (tenors.length == 0 || tenors.length != zeroRates.length) {
+            throw new IllegalArgumentException("A yield curve needs at least one pillar and one rate per tenor, got "
+                    + tenors.length + " tenors and " + zeroRates.length + " rates");
+        }
+        for (int i = 0; i < tenors.length; i++) {
+            if (!(tenors[i] > 0) || Double.isInfinite(tenors[i]) || (i > 0 && tenors[i] <= tenors[i - 1])) {
+                throw new IllegalArgumentException("Invalid tenor " + tenors[i] + ", tenors must be positive and ascending");
+            }
+            if (!Double.isFinite(zeroRates[i])) {
+                throw new IllegalArgumentException("Invalid zero rate at tenor " + tenors[i] + ": " + zeroRates[i]);
+            }
+        }
+        this.interpolation = interpolation;
+        this.tenors = tenors.clone();
+        this.zeroRates = zeroRates.clone();
+        this.coefficients = coefficients(this.tenors, this.zeroRates, interpolation);
+
+        int cells = GRID_CELLS_PER_PILLAR * tenors.length;
+        double range = tenors[tenors.length - 1] - tenors[0];
+        this.cellsPerYear = range > 0 ? cells / range : 0.0;
+        this.cellSegments = new int[cells];
+        int segment = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            double start = tenors[0] + cell / cellsPerYear;
+            while (segment < tenors.length - 2 && tenors[segment + 1] <= start) {
+                segment++;
+            }
+            cellSegments[cell] = segment;
+        }
+    }
+
+    /**
+     * @param tenors Pillar tenors in years, positive and ascending
+     * @param zeroRates Continuously compounded zero rate at each tenor, decimal
+     * @param interpolation Interpolation between the pillars
+     * @throws IllegalArgumentException if the pillars are invalid
+     */
+    public static YieldCurve fromZeroRates(double[] tenors, double[] zeroRates, Interpolation interpolation) {
+        return new YieldCurve(tenors, zeroRates, interpolation);
+    }
+
+    /**
+     * @param tenors Pillar tenors in years, positive and ascending
+     * @param discountFactors Discount factor at each tenor, above 0
+     * @param interpolation Interpolation between the pillars
+     * @throws IllegalArgumentException if the pillars are invalid
+     */
+    public static YieldCurve fromDiscountFactors(double[] tenors, double[] discountFactors, Interpolation interpolation) {
+        if (tenors.length != discountFactors.length) {
+            throw new IllegalArgumentException("A yield curve needs one discount factor per tenor, got "
+                    + tenors.length + " tenors and " + discountFactors.length + " discount factors");
+        }
+        double[] zeroRates = new double[discountFactors.length];
+        for (int i = 0; i < discountFactors.length; i++) {
+            if (!(discountFactors[i] > 0)) {
+                throw new IllegalArgumentException("Invalid discount factor at tenor " + tenors[i] + ": "
+                        + discountFactors[i] + ", must be above 0");
+            }
+            zeroRates[i] = -Math.log(discountFactors[i]) / tenors[i];
+        }
+        return new YieldCurve(tenors, zeroRates, interpolation);
+    }
+
+    /**
+     * @param time Years from today
+     * @return Continuously compounded zero rate, decimal
+     */
+    public double zeroRate(double time) {
+        int last = tenors.length - 1;
+        if (time <= tenors[0]) {
+            return zeroRates[0];
+        }
+        if (time >= tenors[last]) {
+            return zeroRates[last];
+        }
+        int segment = segment(time);
+        double value = evaluate(segment, time - tenors[segment]);
+        return interpolation == Interpolation.LOG_LINEAR ? -value / time : value;
+    }
+
+    /**
+     * @param time Years from today
+     * @return DF(t) = e^(-z(t) × t)
+     */
+    public double discountFactor(double time) {
+        return discountFactor(time, 0.0);
+    }
+
+    /**
+     * Discount factor with a constant spread over the curve, as used for the Z-spread.
+     *
+     * @param time Years from today
+     * @param spread Continuously compounded spread, decimal
+     * @return e^(-(z(t) + spread) × t)
+     */
+    public double discountFactor(double time, double spread) {
+        int last = tenors.length - 1;
+        if (time <= tenors[0]) {
+            return Math.exp(-(zeroRates[0] + spread) * time);
+        }
+        if (time >= tenors[last]) {
+            return Math.exp(-(zeroRates[last] + spread) * time);
+        }
+        int segment = segment(time);
+        double value = evaluate(segment, time - tenors[segment]);
+        return interpolation == Interpolation.LOG_LINEAR
+                ? Math.exp(value - spread * time)
+                : Math.exp(-(value + spread) * time);
+    }
+
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    public int size() {
+        return tenors.length;
+    }
+
+    /**
+     * @return Tenor of a pillar in years
+     */
+    public double getTenor(int pillar) {
+        return tenors[pillar];
+    }
+
+    /**
+     * @return Zero rate of a pillar, continuously compounded decimal
+     */
+    public double getZeroRate(int pillar) {
+        return zeroRates[pillar];
+    }
+
+    // Segment containing time, tenors[0] < time < tenors[last]
+    private int segment(double time) {
+        int cell = Math.min((int) ((time - tenors[0]) * cellsPerYear), cellSegments.length - 1);
+        int segment = cellSegments[cell];
+        while (time >= tenors[segment + 1]) {
+            segment++;
+        }
+        return segment;
+    }
+
+    private double evaluate(int segment, double dt) {
+        int base = 4 * segment;
+        return coefficients[base] + dt * (coefficients[base + 1]
+                + dt * (coefficients[base + 2] + dt * coefficients[base + 3]));
+    }
+
+    private static double[] coefficients(double[] tenors, double[] zeroRates, Interpolation interpolation) {
+        int segments = tenors.length - 1;
+        double[] coefficients = new double[4 * Math.max(segments, 0)];
+        if (segments == 0) {
+            return coefficients;
+        }
+        double[] values = new double[tenors.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = interpolation == Interpolation.LOG_LINEAR ? -zeroRates[i] * tenors[i] : zeroRates[i];
+        }
+        double[] slopes = new double[segments];
+        for (int i = 0; i < segments; i++) {
+            slopes[i] = (values[i + 1] - values[i]) / (tenors[i + 1] - tenors[i]);
+        }
+        if (interpolation != Interpolation.MONOTONE_CUBIC) {
+            for (int i = 0; i < segments; i++) {
+                coefficients[4 * i] = values[i];
+                coefficients[4 * i + 1] = slopes[i];
+            }
+            return coefficients;
+        }
+
+        // Fritsch-Carlson: tangents from the neighbouring slopes, 0 at a local extremum, then limited
+        // so each segment stays monotone
+        double[] tangents = new double[tenors.length];
+        tangents[0] = slopes[0];
+        tangents[segments] = slopes[segments - 1];
+        for (int i = 1; i < segments; i++) {
+            tangents[i] = slopes[i - 1] * slopes[i] <= 0 ? 0.0 : (slopes[i - 1] + slopes[i]) / 2;
+        }
+        for (int i = 0; i < segments; i++) {
+            if (slopes[i] == 0.0) {
+                tangents[i] = 0.0;
+                tangents[i + 1] = 0.0;
+                continue;
+            }
+            double alpha = tangents[i] / slopes[i];
+            double beta = tangents[i + 1] / slopes[i];
+            double norm = alpha * alpha + beta * beta;
+            if (norm > 9) {
+                double tau = 3 / Math.sqrt(norm);
+                tangents[i] = tau * alpha * slopes[i];
+                tangents[i + 1] = tau * beta * slopes[i];
+            }
+        }
+        for (int i = 0; i < segments; i++) {
+            double h = tenors[i + 1] - tenors[i];
+            coefficients[4 * i] = values[i];
+            coefficients[4 * i + 1] = tangents[i];
+            coefficients[4 * i + 2] = (3 * slopes[i] - 2 * tangents[i] - tangents[i + 1]) / h;
+            coefficients[4 * i + 3] = (tangents[i] + tangents[i + 1] - 2 * slopes[i]) / (h * h);
+        }
+        return coefficients;
+    }
+}
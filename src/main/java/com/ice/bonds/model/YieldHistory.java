@@ -0,0 +1,48 @@
+package com.ice.bonds.model;
+
+import java.time.LocalDate;
+
+/**
+ * Daily changes of a flat market yield, one per historical day in date order, the scenarios of a
+ * historical VaR. Changes are in basis points and applied as parallel shifts.
+ */
+public class YieldHistory {
+
+    private final int[] epochDays;
+    private final double[] changes;
+
+    /**
+     * @param epochDays Historical days, ascending
+     * @param changes Yield change in basis points on each day
+     * @throws IllegalArgumentException if the arrays differ in length or the days are not ascending
+     */
+    public YieldHistory(int[] epochDays, double[] changes) {
+        if (epochDays.length != changes.length) {
+            throw new IllegalArgumentException("Yield history has " + epochDays.length + " days but "
+                    + changes.length + " changes");
+        }
+        for (int i = 1; i < epochDays.length; i++) {
+            if (epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("Yield history days are not ascending at "
+                        + LocalDate.ofEpochDay(epochDays[i]));
+            }
+        }
+        this.epochDays = epochDays;
+        this.changes = changes;
+    }
+
+    public int size() {
+        return changes.length;
+    }
+
+    public LocalDate getDate(int day) {
+        return LocalDate.ofEpochDay(epochDays[day]);
+    }
+
+    /**
+     * @return Yield change of the day in basis points
+     */
+    public double getChange(int day) {
+        return changes[day];
+    }
+}
@@ -0,0 +1,286 @@
+package com.ice.bonds.persistence;
+
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.PortfolioLogRecord;
+import com.ice.bonds.serialization.PortfolioLogCodec;
+import com.ice.bonds.service.PortfolioStoreService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Makes the stored portfolios survive a restart: every change is appended to a WriteAheadLog before
+ * the request returns, and a snapshot of the whole store is written every bonds.persistence.snapshot-interval
+ * so the log can be truncated. Startup loads the latest snapshot and replays the log after it.
+ *
+ * Snapshot file layout, big-endian:
+ *   int    magic            "BNDS"
+ *   short  format version   1
+ *   long   lsn              the log is replayed from the record after this one
+ *   int    count
+ *   count * (int bodyLength, int checksum (CRC-32C of body), byte[bodyLength] body)
+ *
+ * Bodies are SNAPSHOT records encoded by PortfolioLogCodec. Snapshots are written to a temporary file
+ * and renamed once complete, a corrupt snapshot therefore fails startup instead of being skipped.
+ *
+ * Disabled by default (bonds.persistence.enabled), the store is then in memory only.
+ */
+@Service
+public class PortfolioPersistenceService implements PortfolioStoreService.Journal {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioPersistenceService.class);
+
+    static final int SNAPSHOT_MAGIC = 0x424E4453; // "BNDS"
+    static final short SNAPSHOT_VERSION = 1;
+    static final int SNAPSHOT_HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES;
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final PortfolioStoreService portfolioStoreService;
+    private final PortfolioLogCodec codec;
+    private final Path directory;
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotter;
+
+    public PortfolioPersistenceService(PortfolioStoreService portfolioStoreService, PortfolioLogCodec codec,
+                                       AnalyticsMetrics metrics,
+                                       @Value("${bonds.persistence.enabled:false}") boolean enabled,
+                                       @Value("${bonds.persistence.directory:data}") String directory,
+                                       @Value("${bonds.persistence.fsync:true}") boolean fsync,
+                                       @Value("${bonds.persistence.snapshot-interval:PT5M}") Duration snapshotInterval) {
+        this.portfolioStoreService = portfolioStoreService;
+        this.codec = codec;
+        this.directory = Path.of(directory);
+        if (!enabled) {
+            this.wal = null;
+            this.snapshotter = null;
+            return;
+        }
+        if (snapshotInterval.isNegative() || snapshotInterval.isZero()) {
+            throw new IllegalArgumentException("bonds.persistence.snapshot-interval must be positive");
+        }
+
+        long start = System.nanoTime();
+        try {
+            long snapshotLsn = loadSnapshot();
+            int portfolios = portfolioStoreService.size();
+            long[] replayed = new long[1];
+            this.wal = WriteAheadLog.open(this.directory, fsync, snapshotLsn, (lsn, body) -> {
+                portfolioStoreService.replay(codec.decode(lsn, body));
+                replayed[0]++;
+            }, metrics);
+            logger.info("Recovered {} portfolios from snapshot at lsn {} and {} log records in {} ms, {} portfolios stored",
+                    portfolios, snapshotLsn, replayed[0], (System.nanoTime() - start) / 1_000_000,
+                    portfolioStoreService.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover stored portfolios from " + directory, e);
+        }
+        portfolioStoreService.setJournal(this);
+
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Portfolio snapshot failed, the write-ahead log keeps growing until one succeeds", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long append(PortfolioLogRecord record) {
+        long lsn = wal.append(codec.encode(record));
+        record.setLsn(lsn);
+        return lsn;
+    }
+
+    @Override
+    public void awaitDurable(long lsn) {
+        wal.awaitDurable(lsn);
+    }
+
+    /**
+     * Writes a snapshot of every stored portfolio, then deletes the older snapshots and the log
+     * segments it covers. Changes keep flowing while it runs, each portfolio is copied under its own lock.
+     *
+     * @return The lsn the snapshot covers, 0 if persistence is disabled
+     * @throws IOException if the snapshot cannot be written, the previous one and the log are kept
+     */
+    public synchronized long snapshot() throws IOException {
+        if (wal == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        // Every change up to this lsn was applied before it was logged, so the copy below includes it
+        long snapshotLsn = wal.getLastLsn();
+        wal.roll();
+
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, snapshotLsn, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        int count;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+            out.writeLong(snapshotLsn);
+            out.writeInt(0); // count, patched below
+            int[] written = new int[1];
+            try {
+                portfolioStoreService.snapshot(record -> {
+                    byte[] body = codec.encode(record);
+                    CRC32C crc = new CRC32C();
+                    crc.update(body);
+                    try {
+                        out.writeInt(body.length);
+                        out.writeInt((int) crc.getValue());
+                        out.write(body);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    written[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            count = written[0];
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, count), SNAPSHOT_HEADER_BYTES - Integer.BYTES);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+
+        for (Path older : listSnapshots()) {
+            if (!older.equals(target)) {
+                Files.deleteIfExists(older);
+            }
+        }
+        int segments = wal.deleteSegmentsUpTo(snapshotLsn);
+        logger.info("Snapshot of {} portfolios at lsn {} written in {} ms, {} log segments deleted",
+                count, snapshotLsn, (System.nanoTime() - start) / 1_000_000, segments);
+        return snapshotLsn;
+    }
+
+    /**
+     * Takes a last snapshot so the next startup has no log to replay, then closes the log.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (wal == null) {
+            return;
+        }
+        snapshotter.shutdownNow();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Final portfolio snapshot failed, the next startup replays the write-ahead log", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            wal.close();
+        } catch (IOException e) {
+            logger.error("Closing the write-ahead log failed", e);
+        }
+    }
+
+    /**
+     * Restores the portfolios of the latest snapshot, if any.
+     *
+     * @return The lsn the snapshot covers, 0 without a snapshot
+     */
+    private long loadSnapshot() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            // Left behind by a crash during a snapshot
+            for (Path temp : files.filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX)
+                    && path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX + ".tmp")).toList()) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        List<Path> snapshots = listSnapshots();
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.getLast();
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER_BYTES || buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a portfolio snapshot: " + latest);
+            }
+            short version = buffer.getShort();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported portfolio snapshot version " + version + ": " + latest);
+            }
+            long snapshotLsn = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < 2 * Integer.BYTES) {
+                    throw new IOException("Truncated portfolio snapshot " + latest + " at record " + i);
+                }
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Truncated portfolio snapshot " + latest + " at record " + i);
+                }
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                CRC32C crc = new CRC32C();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("Corrupt portfolio snapshot " + latest + " at record " + i);
+                }
+                buffer.position(buffer.position() + length);
+                portfolioStoreService.restore(codec.decode(snapshotLsn, body));
+            }
+            return snapshotLsn;
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded names sort in lsn order
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX)
+                            && path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.ice.bonds.persistence;
+
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records, split in segment files named after the sequence number (lsn)
+ * of their first record.
+ *
+ * Frame layout, big-endian:
+ *   int    bodyLength
+ *   long   lsn              consecutive, starting at 1
+ *   int    checksum         CRC-32C of lsn and body
+ *   byte[bodyLength] body
+ *
+ * Group commit: append() copies the record into the pending batch and returns its lsn. A single
+ * flusher thread writes the batch and fsyncs it while the next batch fills up, so one fsync covers
+ * every record appended during the previous one. awaitDurable(lsn) blocks until the record is on disk.
+ *
+ * A crash can leave a torn frame at the end of the last segment, open() truncates it.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    /**
+     * Receives the records found by open(), in lsn order.
+     */
+    public interface RecordHandler {
+        void accept(long lsn, ByteBuffer body);
+    }
+
+    static final String SEGMENT_PREFIX = "wal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final int FRAME_HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    static final int MAX_BODY_BYTES = 64 << 20;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final AnalyticsMetrics metrics;
+    private final Thread flusher;
+
+    // Guarded by this
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private int pendingRecords;
+    private long pendingFirstLsn;
+    private long lastLsn;
+    private long durableLsn;
+    private boolean rollRequested;
+    private boolean closed;
+    private IOException failure;
+
+    // Only used by the flusher thread once open() returns
+    private FileChannel channel;
+
+    private WriteAheadLog(Path directory, boolean fsync, AnalyticsMetrics metrics, long lastLsn) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.metrics = metrics;
+        this.lastLsn = lastLsn;
+        this.durableLsn = lastLsn;
+        this.channel = openSegment(lastLsn + 1);
+        this.flusher = new Thread(this::flushLoop, "portfolio-wal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Reads the existing segments of the directory, then opens a new segment for appends.
+     *
+     * @param directory Directory holding the segments, created if missing
+     * @param fsync false to leave flushing to the OS, records then survive a process crash but not a power loss
+     * @param afterLsn Records up to this lsn are already reflected in the caller's state (snapshot) and skipped
+     * @param handler Receives every record after afterLsn
+     * @param metrics Records the fsync batches
+     * @return The log, ready for appends after the last record found
+     * @throws IOException if the directory cannot be read or a segment before the last one is corrupt
+     */
+    public static WriteAheadLog open(Path directory, boolean fsync, long afterLsn, RecordHandler handler,
+                                     AnalyticsMetrics metrics) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        long lastLsn = afterLsn;
+        for (int i = 0; i < segments.size(); i++) {
+            lastLsn = Math.max(lastLsn, readSegment(segments.get(i), i == segments.size() - 1, afterLsn, handler));
+        }
+        return new WriteAheadLog(directory, fsync, metrics, lastLsn);
+    }
+
+    /**
+     * Appends a record to the pending batch. Returns without waiting for the disk.
+     *
+     * @param body The record
+     * @return The record's lsn, pass it to awaitDurable
+     * @throws UncheckedIOException if an earlier write failed, the log accepts nothing after that
+     */
+    public synchronized long append(byte[] body) {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        long lsn = ++lastLsn;
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, lsn));
+        crc.update(body);
+
+        int frameBytes = FRAME_HEADER_BYTES + body.length;
+        if (pending.remaining() < frameBytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + frameBytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        if (pendingRecords == 0) {
+            pendingFirstLsn = lsn;
+        }
+        pending.putInt(body.length).putLong(lsn).putInt((int) crc.getValue()).put(body);
+        pendingRecords++;
+        notifyAll();
+        return lsn;
+    }
+
+    /**
+     * Blocks until the record and every record before it are written (and fsynced, if enabled).
+     *
+     * @param lsn The record's lsn, from append
+     * @throws UncheckedIOException if the write failed
+     */
+    public synchronized void awaitDurable(long lsn) {
+        boolean interrupted = false;
+        while (durableLsn < lsn && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durableLsn < lsn) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    /**
+     * @return Lsn of the last appended record
+     */
+    public synchronized long getLastLsn() {
+        return lastLsn;
+    }
+
+    /**
+     * Starts a new segment with the next batch, so the current one can be deleted once a snapshot covers it.
+     */
+    public synchronized void roll() {
+        rollRequested = true;
+    }
+
+    /**
+     * Deletes the segments holding only records up to the lsn. The segment being written is kept.
+     *
+     * @param lsn Lsn covered by a durable snapshot
+     * @return Number of segments deleted
+     */
+    public int deleteSegmentsUpTo(long lsn) throws IOException {
+        List<Path> segments = listSegments(directory);
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) <= lsn + 1) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Writes the pending records and stops the flusher.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void flushLoop() {
+        ByteBuffer writing = ByteBuffer.allocate(1 << 16);
+        while (true) {
+            long firstLsn;
+            long batchLastLsn;
+            int records;
+            boolean roll;
+            synchronized (this) {
+                while (pendingRecords == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Only close() stops the flusher, pending records must not be dropped
+                    }
+                }
+                if (pendingRecords == 0) {
+                    return;
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                pending.clear();
+                writing = batch;
+                firstLsn = pendingFirstLsn;
+                batchLastLsn = lastLsn;
+                records = pendingRecords;
+                pendingRecords = 0;
+                roll = rollRequested;
+                rollRequested = false;
+            }
+            try {
+                long start = metrics.start();
+                if (roll) {
+                    channel.close();
+                    channel = openSegment(firstLsn);
+                }
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                metrics.recordWalSync(start, records);
+                synchronized (this) {
+                    durableLsn = batchLastLsn;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                logger.error("Write-ahead log write failed, rejecting further changes", e);
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private FileChannel openSegment(long firstLsn) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        FileChannel segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (fsync) {
+            // Make the new directory entry durable before records are acknowledged from it
+            try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException e) {
+                // Not supported on every platform, the segment's own fsync still covers its content
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * @return The last lsn in the segment, 0 if it is empty
+     */
+    private static long readSegment(Path segment, boolean last, long afterLsn, RecordHandler handler) throws IOException {
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long lastLsn = 0;
+            long expectedLsn = firstLsn(segment);
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                ByteBuffer body = readFrame(buffer, expectedLsn);
+                if (body == null) {
+                    if (!last) {
+                        throw new IOException("Corrupt write-ahead log segment " + segment + " at offset " + start);
+                    }
+                    logger.warn("Truncating torn write-ahead log tail of {} at offset {} ({} bytes)",
+                            segment, start, size - start);
+                    file.truncate(start);
+                    file.force(true);
+                    break;
+                }
+                lastLsn = expectedLsn;
+                if (lastLsn > afterLsn) {
+                    handler.accept(lastLsn, body);
+                }
+                expectedLsn++;
+            }
+            return lastLsn;
+        }
+    }
+
+    /**
+     * @return The frame's body positioned at 0, or null if the frame is incomplete or corrupt
+     */
+    private static ByteBuffer readFrame(ByteBuffer buffer, long expectedLsn) {
+        if (buffer.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        long lsn = buffer.getLong();
+        int checksum = buffer.getInt();
+        if (length < 0 || length > MAX_BODY_BYTES || length > buffer.remaining() || lsn != expectedLsn) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(buffer.position(), length);
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, lsn));
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        buffer.position(buffer.position() + length);
+        return body;
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded names sort in lsn order
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.model.Bond;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Column-oriented view of a portfolio request decoded from the binary columnar format.
+ *
+ * Every field is held in a primitive array indexed by row, so decoding a request allocates
+ * one array per column rather than one object per bond. A Bond model is only materialized
+ * when a row is handed to the analytics via toBond.
+ *
+ * Units match BondDTORequest: dates are epoch days, coupon in basis points, values in cents.
+ */
+public class BondColumns {
+
+    public static final int ISIN_LENGTH = 12;
+
+    // The dates a v1 YYYY-MM-DD string can hold, any other int is a valid LocalDate but not a bond date
+    private static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    private final int size;
+
+    // ISINs as ASCII, ISIN_LENGTH bytes per row
+    private final byte[] isin;
+    private final int[] issueEpochDay;
+    private final int[] maturityEpochDay;
+    private final int[] couponRate;
+    private final int[] faceValue;
+    private final int[] marketValue;
+    // Payment periods per year (1, 2, 4, 12)
+    private final byte[] periodsPerYear;
+    private final int[] quantity;
+
+    public BondColumns(int size) {
+        this.size = size;
+        this.isin = new byte[size * ISIN_LENGTH];
+        this.issueEpochDay = new int[size];
+        this.maturityEpochDay = new int[size];
+        this.couponRate = new int[size];
+        this.faceValue = new int[size];
+        this.marketValue = new int[size];
+        this.periodsPerYear = new byte[size];
+        this.quantity = new int[size];
+    }
+
+    /**
+     * Materializes a single row as a Bond model (unvalidated).
+     *
+     * @param row Row index
+     * @return A new Bond for the row
+     * @throws IllegalArgumentException if the payment term code is not supported or a date is outside
+     * 0000-01-01 to 9999-12-31
+     */
+    public Bond toBond(int row) {
+        return new Bond(
+                getIsin(row),
+                date(maturityEpochDay[row], "maturityDate"),
+                date(issueEpochDay[row], "issueDate"),
+                couponRate[row],
+                faceValue[row],
+                marketValue[row],
+                paymentTermName(periodsPerYear[row]),
+                quantity[row]
+        );
+    }
+
+    private static LocalDate date(int epochDay, String fieldName) {
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            throw new IllegalArgumentException("Invalid " + fieldName + ": epoch day " + epochDay
+                    + ". Date must be between 0000-01-01 and 9999-12-31");
+        }
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public String getIsin(int row) {
+        return new String(isin, row * ISIN_LENGTH, ISIN_LENGTH, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Maps a periods-per-year code back to the payment term names used by CommonHelper.
+     */
+    static String paymentTermName(int periodsPerYear) {
+        return switch (periodsPerYear) {
+            case 1 -> "annual";
+            case 2 -> "semiannual";
+            case 4 -> "quarterly";
+            case 12 -> "monthly";
+            default -> throw new IllegalArgumentException("Invalid payment term: " + periodsPerYear + " periods per year");
+        };
+    }
+
+    /**
+     * Maps a payment term name to its periods-per-year code, the inverse of paymentTermName.
+     */
+    static byte periodsPerYear(String paymentTerm) {
+        if (paymentTerm == null) {
+            throw new IllegalArgumentException("Invalid payment term: null");
+        }
+        return switch (paymentTerm.toLowerCase()) {
+            case "annual" -> 1;
+            case "semiannual" -> 2;
+            case "quarterly" -> 4;
+            case "monthly" -> 12;
+            default -> throw new IllegalArgumentException("Invalid payment term: " + paymentTerm);
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] getIsinBytes() {
+        return isin;
+    }
+
+    public int[] getIssueEpochDay() {
+        return issueEpochDay;
+    }
+
+    public int[] getMaturityEpochDay() {
+        return maturityEpochDay;
+    }
+
+    public int[] getCouponRate() {
+        return couponRate;
+    }
+
+    public int[] getFaceValue() {
+        return faceValue;
+    }
+
+    public int[] getMarketValue() {
+        return marketValue;
+    }
+
+    public byte[] getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+
+    public int[] getQuantity() {
+        return quantity;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Deserializes the v2 bond request schema straight into a Bond model.
+ *
+ * In v2 the numeric fields (couponRate, faceValue, marketValue, quantity) are native JSON integers
+ * and the dates are ISO strings parsed directly to LocalDate, so no intermediate string DTO is built.
+ *
+ * Structural rules match the v1 string validation in BondService: missing/null fields, decimals
+ * and values outside the int range are rejected with the same messages. ISIN and non-negativity
+ * are checked afterwards by BondService.validateBond.
+ *
+ * Errors are thrown as IllegalArgumentException, see BondV2Reader for unwrapping. Failures of a
+ * field are counted by field, like BondService's.
+ */
+public class BondV2Deserializer extends StdDeserializer<Bond> {
+
+    private static final int ISIN = 1;
+    private static final int ISSUE_DATE = 1 << 1;
+    private static final int MATURITY_DATE = 1 << 2;
+    private static final int COUPON_RATE = 1 << 3;
+    private static final int FACE_VALUE = 1 << 4;
+    private static final int MARKET_VALUE = 1 << 5;
+    private static final int PAYMENT_TERM = 1 << 6;
+    private static final int QUANTITY = 1 << 7;
+
+    private final AnalyticsMetrics metrics;
+
+    public BondV2Deserializer(AnalyticsMetrics metrics) {
+        super(Bond.class);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Bond deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            throw new IllegalArgumentException("Invalid bond: expected a JSON object");
+        }
+
+        Bond bond = new Bond();
+        bond.setBondWeightInPortfolio(1.0); // same default as the v1 conversion
+        int seen = 0;
+
+        for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "isin" -> {
+                    bond.setISIN(readString(p, "isin"));
+                    seen |= ISIN;
+                }
+                case "issueDate" -> {
+                    bond.setIssueDate(readDate(p, "issueDate"));
+                    seen |= ISSUE_DATE;
+                }
+                case "maturityDate" -> {
+                    bond.setMaturityDate(readDate(p, "maturityDate"));
+                    seen |= MATURITY_DATE;
+                }
+                case "couponRate" -> {
+                    bond.setCouponRate(readInt(p, "couponRate"));
+                    seen |= COUPON_RATE;
+                }
+                case "faceValue" -> {
+                    bond.setFaceValue(readInt(p, "faceValue"));
+                    seen |= FACE_VALUE;
+                }
+                case "marketValue" -> {
+                    bond.setMarketValue(readInt(p, "marketValue"));
+                    seen |= MARKET_VALUE;
+                }
+                case "paymentTerm" -> {
+                    bond.setPaymentTerm(readString(p, "paymentTerm"));
+                    seen |= PAYMENT_TERM;
+                }
+                case "quantity" -> {
+                    bond.setQuantity(readInt(p, "quantity"));
+                    seen |= QUANTITY;
+                }
+                default -> throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+
+        requirePresent(seen, ISIN, "isin");
+        requirePresent(seen, ISSUE_DATE, "issueDate");
+        requirePresent(seen, MATURITY_DATE, "maturityDate");
+        requirePresent(seen, COUPON_RATE, "couponRate");
+        requirePresent(seen, FACE_VALUE, "faceValue");
+        requirePresent(seen, MARKET_VALUE, "marketValue");
+        requirePresent(seen, PAYMENT_TERM, "paymentTerm");
+        requirePresent(seen, QUANTITY, "quantity");
+        return bond;
+    }
+
+    private void requirePresent(int seen, int flag, String fieldName) {
+        if ((seen & flag) == 0) {
+            throw failure(fieldName, "Invalid " + fieldName + ": value cannot be null or empty");
+        }
+    }
+
+    private String readString(JsonParser p, String fieldName) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING || p.getTextLength() == 0) {
+            throw failure(fieldName, "Invalid " + fieldName + ": value cannot be null or empty");
+        }
+        return p.getText();
+    }
+
+    private LocalDate readDate(JsonParser p, String fieldName) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING || p.getTextLength() == 0) {
+            throw failure(fieldName, "Invalid " + fieldName + ": date cannot be null or empty");
+        }
+        String text = p.getText();
+        try {
+            return LocalDate.parse(text, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            throw failure(fieldName, "Invalid " + fieldName + ": " + text + ". Date must be in YYYY-MM-DD format");
+        }
+    }
+
+    private int readInt(JsonParser p, String fieldName) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            if (p.getNumberType() != JsonParser.NumberType.INT) {
+                throw failure(fieldName, "Invalid " + fieldName + ": " + p.getText() + ". " + subject(fieldName) + " must be a valid integer");
+            }
+            return p.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            throw failure(fieldName, "Invalid " + fieldName + ": " + p.getText() + ". " + subject(fieldName) + " must be a whole number without decimals");
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            throw failure(fieldName, "Invalid " + fieldName + ": value cannot be null or empty");
+        }
+        throw failure(fieldName, "Invalid " + fieldName + ": " + p.getText() + ". Value must be a JSON number");
+    }
+
+    /**
+     * Counts a validation failure for the field and builds the exception to throw.
+     */
+    private IllegalArgumentException failure(String fieldName, String message) {
+        metrics.recordValidationFailure(fieldName);
+        return new IllegalArgumentException(message);
+    }
+
+    // How BondService's string checks name the field in their messages
+    private static String subject(String fieldName) {
+        return switch (fieldName) {
+            case "couponRate" -> "Coupon rate";
+            case "quantity" -> "Quantity";
+            default -> "Value";
+        };
+    }
+}
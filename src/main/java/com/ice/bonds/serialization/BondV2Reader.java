@@ -0,0 +1,81 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Reads v2 bond requests (native JSON numbers) using BondV2Deserializer.
+ *
+ * The deserializer is registered on a copy of the shared ObjectMapper so v1 parsing is unaffected.
+ * Validation errors raised inside the deserializer come back as IllegalArgumentException with the
+ * original message, so controllers return the same 400 bodies as for v1.
+ */
+@Component
+public class BondV2Reader {
+
+    private final ObjectReader bondReader;
+    private final ObjectReader bondListReader;
+    private final AnalyticsMetrics metrics;
+
+    public BondV2Reader(ObjectMapper objectMapper, AnalyticsMetrics metrics) {
+        this.metrics = metrics;
+        ObjectMapper v2Mapper = objectMapper.copy()
+                .registerModule(new SimpleModule("bonds-v2").addDeserializer(Bond.class, new BondV2Deserializer(metrics)));
+        this.bondReader = v2Mapper.readerFor(Bond.class);
+        this.bondListReader = v2Mapper.readerFor(new TypeReference<List<Bond>>() {});
+    }
+
+    /**
+     * @param body v2 bond JSON object
+     * @return The parsed (unvalidated) bond
+     * @throws IllegalArgumentException if the body is not valid v2 JSON
+     */
+    public Bond readBond(InputStream body) {
+        return read(bondReader, body);
+    }
+
+    /**
+     * @param body v2 JSON array of bond objects
+     * @return The parsed (unvalidated) bonds
+     * @throws IllegalArgumentException if the body is not valid v2 JSON, or an element is null
+     */
+    public List<Bond> readBonds(InputStream body) {
+        List<Bond> bonds = read(bondListReader, body);
+        if (bonds.contains(null)) {
+            throw new IllegalArgumentException("Invalid bond: expected a JSON object");
+        }
+        return bonds;
+    }
+
+    private <T> T read(ObjectReader reader, InputStream body) {
+        long start = metrics.start();
+        try {
+            T value = reader.readValue(body);
+            if (value == null) {
+                throw new IllegalArgumentException("Request body cannot be null or empty");
+            }
+            metrics.recordParse("v2", start);
+            return value;
+        } catch (JacksonException e) {
+            // Jackson wraps exceptions thrown inside element deserializers, surface the validation message
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IllegalArgumentException iae) {
+                    throw iae;
+                }
+            }
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read request body: " + e.getMessage());
+        }
+    }
+}
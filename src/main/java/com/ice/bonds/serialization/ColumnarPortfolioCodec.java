@@ -0,0 +1,159 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.Portfolio;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encoder/decoder for the binary columnar portfolio format (application/x-bonds-columnar).
+ *
+ * All values are big-endian. Each column is written contiguously for every row before the next
+ * column starts, so decoding is a bulk copy per column rather than a parse per field.
+ *
+ * Request layout:
+ *   int    magic            "BNDC"
+ *   short  version          1
+ *   int    n                number of bonds
+ *   byte[n*12]  isin        ASCII
+ *   int[n]      issueDate   epoch day
+ *   int[n]      maturityDate epoch day
+ *   int[n]      couponRate  basis points
+ *   int[n]      faceValue   cents
+ *   int[n]      marketValue cents
+ *   byte[n]     paymentTerm periods per year (1, 2, 4, 12)
+ *   int[n]      quantity
+ *
+ * Response layout:
+ *   int    magic            "BNDR"
+ *   short  version          1
+ *   long   id (most significant bits), long id (least significant bits)
+ *   long   totalPortfolioValue cents
+ *   double weightedMacaulayDuration, double weightedModifiedDuration
+ *   int    n
+ *   byte[n*12]  isin
+ *   double[n]   ytm (basis points)
+ *   double[n]   macaulayDuration (years)
+ *   double[n]   modifiedDuration (years)
+ *   double[n]   bondWeightInPortfolio
+ */
+@Component
+public class ColumnarPortfolioCodec {
+
+    public static final String MEDIA_TYPE = "application/x-bonds-columnar";
+
+    static final int REQUEST_MAGIC = 0x424E4443;  // "BNDC"
+    static final int RESPONSE_MAGIC = 0x424E4452; // "BNDR"
+    static final short VERSION = 1;
+
+    private static final int REQUEST_HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    // isin + 6 int columns + 1 byte column
+    private static final int REQUEST_ROW_BYTES = BondColumns.ISIN_LENGTH + 6 * Integer.BYTES + 1;
+
+    private final AnalyticsMetrics metrics;
+
+    public ColumnarPortfolioCodec(AnalyticsMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Decodes a columnar request body.
+     *
+     * @param body Raw request bytes
+     * @return The decoded columns
+     * @throws IllegalArgumentException if the header is wrong or the body is truncated
+     */
+    public BondColumns decode(byte[] body) {
+        long start = metrics.start();
+        if (body == null || body.length < REQUEST_HEADER_BYTES) {
+            throw new IllegalArgumentException("Invalid columnar request: body too short");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+
+        if (buffer.getInt() != REQUEST_MAGIC) {
+            throw new IllegalArgumentException("Invalid columnar request: bad magic number");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Invalid columnar request: unsupported version " + version);
+        }
+        int n = buffer.getInt();
+        if (n < 0 || (long) n * REQUEST_ROW_BYTES != buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid columnar request: declared " + n
+                    + " bonds but body has " + buffer.remaining() + " bytes of column data");
+        }
+
+        BondColumns columns = new BondColumns(n);
+        try {
+            buffer.get(columns.getIsinBytes());
+            readInts(buffer, columns.getIssueEpochDay());
+            readInts(buffer, columns.getMaturityEpochDay());
+            readInts(buffer, columns.getCouponRate());
+            readInts(buffer, columns.getFaceValue());
+            readInts(buffer, columns.getMarketValue());
+            buffer.get(columns.getPeriodsPerYear());
+            readInts(buffer, columns.getQuantity());
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid columnar request: body truncated");
+        }
+        metrics.recordParse("columnar", start);
+        return columns;
+    }
+
+    /**
+     * Encodes an analyzed portfolio as a columnar response.
+     *
+     * @param portfolio The analyzed portfolio
+     * @return Response bytes
+     */
+    public byte[] encode(Portfolio portfolio) {
+        List<Bond> bonds = portfolio.getBonds();
+        int n = bonds.size();
+
+        int headerBytes = Integer.BYTES + Short.BYTES + 3 * Long.BYTES + 2 * Double.BYTES + Integer.BYTES;
+        int rowBytes = BondColumns.ISIN_LENGTH + 4 * Double.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(headerBytes + n * rowBytes);
+
+        buffer.putInt(RESPONSE_MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(portfolio.getId().getMostSignificantBits());
+        buffer.putLong(portfolio.getId().getLeastSignificantBits());
+        buffer.putLong(portfolio.getTotalPortfolioValue());
+        buffer.putDouble(portfolio.getWeightedMacaulayDuration());
+        buffer.putDouble(portfolio.getWeightedModifiedDuration());
+        buffer.putInt(n);
+
+        for (Bond bond : bonds) {
+            putIsin(buffer, bond.getISIN());
+        }
+        for (Bond bond : bonds) {
+            buffer.putDouble(bond.getYieldToMaturity());
+        }
+        for (Bond bond : bonds) {
+            buffer.putDouble(bond.getMacaulayDuration());
+        }
+        for (Bond bond : bonds) {
+            buffer.putDouble(bond.getModifiedDuration());
+        }
+        for (Bond bond : bonds) {
+            buffer.putDouble(bond.getBondWeightInPortfolio());
+        }
+        return buffer.array();
+    }
+
+    private static void readInts(ByteBuffer buffer, int[] target) {
+        buffer.asIntBuffer().get(target);
+        buffer.position(buffer.position() + target.length * Integer.BYTES);
+    }
+
+    private static void putIsin(ByteBuffer buffer, String isin) {
+        // ISINs are validated to 12 ASCII characters before analysis
+        byte[] bytes = isin.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(bytes, 0, BondColumns.ISIN_LENGTH);
+    }
+}
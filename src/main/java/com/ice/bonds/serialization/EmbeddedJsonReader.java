@@ -0,0 +1,87 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reads request bodies that carry a JSON document serialized into a JSON string
+ * (the analyze-from-string endpoints).
+ *
+ * The embedded document is parsed in a single pass through JsonStringUnescapingReader, so the
+ * unescaped payload is never materialized as a String.
+ */
+@Component
+public class EmbeddedJsonReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bondReader;
+    private final ObjectReader bondListReader;
+    private final AnalyticsMetrics metrics;
+
+    public EmbeddedJsonReader(JsonCodecs jsonCodecs, AnalyticsMetrics metrics) {
+        this.objectMapper = jsonCodecs.getObjectMapper();
+        this.metrics = metrics;
+        // The string-wrapped endpoints have always rejected unknown properties
+        this.bondReader = jsonCodecs.getBondRequestReader().with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.bondListReader = jsonCodecs.getBondRequestListReader().with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @param body Request body containing a JSON string whose content is a bond object
+     * @return The embedded bond request
+     * @throws IllegalArgumentException if the body is not a JSON string, is empty, or the content is invalid
+     */
+    public BondDTORequest readBond(InputStream body) {
+        return read(body, bondReader);
+    }
+
+    /**
+     * @param body Request body containing a JSON string whose content is an array of bond objects
+     * @return The embedded bond requests
+     * @throws IllegalArgumentException if the body is not a JSON string, is empty, or the content is invalid
+     */
+    public List<BondDTORequest> readBonds(InputStream body) {
+        return read(body, bondListReader);
+    }
+
+    private <T> T read(InputStream body, ObjectReader reader) {
+        long start = metrics.start();
+        // JSON request bodies are UTF-8 (RFC 8259)
+        JsonStringUnescapingReader unescaping = new JsonStringUnescapingReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if (!unescaping.open()) {
+                throw new IllegalArgumentException("JSON string content cannot be null or empty");
+            }
+            try (JsonParser parser = objectMapper.createParser(unescaping)) {
+                // Validate that the embedded content is not empty or whitespace only
+                if (parser.nextToken() == null) {
+                    throw new IllegalArgumentException("JSON string content cannot be null or empty");
+                }
+                T value = reader.readValue(parser);
+                if (value == null) {
+                    throw new IllegalArgumentException("JSON string content cannot be null or empty");
+                }
+                unescaping.finish();
+                metrics.recordParse("json-string", start);
+                return value;
+            }
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
+        }
+    }
+}
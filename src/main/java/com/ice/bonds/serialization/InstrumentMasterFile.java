@@ -0,0 +1,237 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.model.Bond;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fixed-width binary instrument master, read through a memory-mapped buffer.
+ *
+ * Opening a file maps it and checks the header, nothing is parsed or copied to the heap: the page
+ * cache holds the data and a lookup touches one hash slot and one record. Instruments are identified
+ * by their record number (the id), and found by ISIN through an open-addressing hash table stored
+ * in the file. Bonds returned by bond() and find() are MappedBond views over their record.
+ *
+ * All values are big-endian, like the columnar format.
+ *
+ * Layout:
+ *   int    magic            "BNDI"
+ *   short  version          1
+ *   short  recordBytes      32
+ *   int    n                number of instruments
+ *   int    slots            hash table size, a power of two at least 2n
+ *   record[n]:
+ *     byte[12]  isin          ASCII
+ *     int       issueDate     epoch day
+ *     int       maturityDate  epoch day
+ *     int       couponRate    basis points
+ *     int       faceValue     cents
+ *     byte      paymentTerm   periods per year (1, 2, 4, 12)
+ *     byte[3]   padding
+ *   int[slots] hash table    id + 1 of the ISIN hashed to the slot (linear probing), 0 if empty
+ *
+ * The hash of an ISIN is String.hashCode(), which the JLS defines, spread like HashMap does.
+ */
+public final class InstrumentMasterFile {
+
+    static final int MAGIC = 0x424E4449; // "BNDI"
+    static final short VERSION = 1;
+
+    static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES;
+    static final int RECORD_BYTES = 32;
+
+    static final int ISSUE_DATE_OFFSET = BondColumns.ISIN_LENGTH;
+    static final int MATURITY_DATE_OFFSET = ISSUE_DATE_OFFSET + Integer.BYTES;
+    static final int COUPON_RATE_OFFSET = MATURITY_DATE_OFFSET + Integer.BYTES;
+    static final int FACE_VALUE_OFFSET = COUPON_RATE_OFFSET + Integer.BYTES;
+    static final int PAYMENT_TERM_OFFSET = FACE_VALUE_OFFSET + Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int slotMask;
+    private final int tableOffset;
+
+    private InstrumentMasterFile(ByteBuffer buffer, int size, int slots) {
+        this.buffer = buffer;
+        this.size = size;
+        this.slotMask = slots - 1;
+        this.tableOffset = HEADER_BYTES + size * RECORD_BYTES;
+    }
+
+    /**
+     * Maps an instrument master file read-only.
+     *
+     * @param path The file written by write()
+     * @return The mapped file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid instrument master
+     */
+    public static InstrumentMasterFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid instrument master " + path + ": " + length + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Invalid instrument master " + path + ": bad magic number");
+        }
+        short version = buffer.getShort(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Invalid instrument master " + path + ": unsupported version " + version);
+        }
+        short recordBytes = buffer.getShort(Integer.BYTES + Short.BYTES);
+        int n = buffer.getInt(Integer.BYTES + 2 * Short.BYTES);
+        int slots = buffer.getInt(Integer.BYTES + 2 * Short.BYTES + Integer.BYTES);
+        if (recordBytes != RECORD_BYTES || n < 0 || slots < 2 * (long) n || Integer.bitCount(slots) != 1
+                || HEADER_BYTES + (long) n * RECORD_BYTES + (long) slots * Integer.BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Invalid instrument master " + path + ": declared " + n
+                    + " instruments and " + slots + " slots but file has " + buffer.capacity() + " bytes");
+        }
+        return new InstrumentMasterFile(buffer, n, slots);
+    }
+
+    /**
+     * Writes the static terms of the bonds (ISIN, dates, coupon, face value, payment term) as an
+     * instrument master file. Market value and quantity are position data and are not written.
+     *
+     * @param path The file to create or replace
+     * @param bonds The instruments, their order gives the ids
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if an ISIN is not 12 ASCII characters or appears more than once,
+     *                                  or a payment term is not supported
+     */
+    public static void write(Path path, List<Bond> bonds) throws IOException {
+        int n = bonds.size();
+        int slots = Integer.highestOneBit(Math.max(2 * n - 1, 1)) << 1;
+        if (slots < 2 * n || HEADER_BYTES + (long) n * RECORD_BYTES + (long) slots * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many instruments for one file: " + n);
+        }
+
+        int[] table = new int[slots];
+        byte[] isin = new byte[BondColumns.ISIN_LENGTH];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(RECORD_BYTES);
+            out.writeInt(n);
+            out.writeInt(slots);
+            for (int id = 0; id < n; id++) {
+                Bond bond = bonds.get(id);
+                toAscii(bond.getISIN(), isin);
+                int slot = spread(bond.getISIN().hashCode()) & (slots - 1);
+                while (table[slot] != 0) {
+                    if (bonds.get(table[slot] - 1).getISIN().equals(bond.getISIN())) {
+                        throw new IllegalArgumentException("Duplicate ISIN in instrument master: " + bond.getISIN());
+                    }
+                    slot = (slot + 1) & (slots - 1);
+                }
+                table[slot] = id + 1;
+
+                out.write(isin);
+                out.writeInt((int) bond.getIssueDate().toEpochDay());
+                out.writeInt((int) bond.getMaturityDate().toEpochDay());
+                out.writeInt(bond.getCouponRate());
+                out.writeInt(bond.getFaceValue());
+                out.writeByte(BondColumns.periodsPerYear(bond.getPaymentTerm()));
+                out.write(new byte[RECORD_BYTES - PAYMENT_TERM_OFFSET - 1]);
+            }
+            for (int entry : table) {
+                out.writeInt(entry);
+            }
+        }
+    }
+
+    /**
+     * @return Number of instruments in the file
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the id of an instrument. Does not allocate.
+     *
+     * @param isin The ISIN
+     * @return The id, or -1 if the ISIN is not in the file
+     */
+    public int idOf(String isin) {
+        if (isin == null || isin.length() != BondColumns.ISIN_LENGTH || size == 0) {
+            return -1;
+        }
+        int slot = spread(isin.hashCode()) & slotMask;
+        int entry;
+        while ((entry = buffer.getInt(tableOffset + slot * Integer.BYTES)) != 0) {
+            if (isinEquals(entry - 1, isin)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param id Instrument id, from 0 to size() - 1
+     * @return A view of the instrument, with market value and quantity 0
+     * @throws IndexOutOfBoundsException if there is no such id
+     */
+    public MappedBond bond(int id) {
+        return new MappedBond(buffer, recordOffset(id));
+    }
+
+    /**
+     * @param isin The ISIN
+     * @return A view of the instrument, with market value and quantity 0, or empty if the ISIN is not in the file
+     */
+    public Optional<Bond> find(String isin) {
+        int id = idOf(isin);
+        return id < 0 ? Optional.empty() : Optional.of(bond(id));
+    }
+
+    private int recordOffset(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Instrument id " + id + " out of range for " + size + " instruments");
+        }
+        return HEADER_BYTES + id * RECORD_BYTES;
+    }
+
+    private boolean isinEquals(int id, String isin) {
+        int offset = HEADER_BYTES + id * RECORD_BYTES;
+        for (int i = 0; i < BondColumns.ISIN_LENGTH; i++) {
+            if (buffer.get(offset + i) != isin.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static void toAscii(String isin, byte[] target) {
+        if (isin == null || isin.length() != BondColumns.ISIN_LENGTH) {
+            throw new IllegalArgumentException("Invalid ISIN in instrument master: " + isin);
+        }
+        for (int i = 0; i < BondColumns.ISIN_LENGTH; i++) {
+            char c = isin.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Invalid ISIN in instrument master: " + isin);
+            }
+            target[i] = (byte) c;
+        }
+    }
+}
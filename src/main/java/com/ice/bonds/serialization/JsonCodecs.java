@@ -0,0 +1,127 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.ice.bonds.dto.BondAnalysisResponse;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pre-built, thread-safe ObjectReader/ObjectWriter instances for the bond DTOs.
+ *
+ * Building a reader or writer resolves and caches the (de)serializers for its root type once,
+ * so per-request parsing skips the root type lookup and TypeReference construction.
+ *
+ * Request readers ignore unknown properties, the same as the Spring MVC default JSON converter.
+ *
+ * A portfolio response with a bond projection is written by the pre-built writer with a filter
+ * provider of its own, so only the projected properties of each bond are serialized.
+ */
+@Component
+public class JsonCodecs {
+
+    /**
+     * Filter id of BondInPortfolioAnalysisResponse, see JacksonConfig
+     */
+    public static final String BOND_FIELDS_FILTER = "bondFields";
+
+    private final ObjectMapper objectMapper;
+
+    private final JavaType bondRequestType;
+    private final JavaType bondRequestListType;
+
+    private final ObjectReader bondRequestReader;
+    private final ObjectReader bondRequestListReader;
+    private final ObjectWriter bondAnalysisResponseWriter;
+    private final ObjectWriter portfolioAnalysisResponseWriter;
+
+    public JsonCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+
+        this.bondRequestType = objectMapper.constructType(BondDTORequest.class);
+        this.bondRequestListType = objectMapper.getTypeFactory().constructType(new TypeReference<List<BondDTORequest>>() {});
+
+        this.bondRequestReader = objectMapper.readerFor(bondRequestType)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.bondRequestListReader = objectMapper.readerFor(bondRequestListType)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.bondAnalysisResponseWriter = objectMapper.writerFor(BondAnalysisResponse.class);
+        this.portfolioAnalysisResponseWriter = objectMapper.writerFor(PortfolioAnalysisResponse.class);
+    }
+
+    /**
+     * @return Reader for a request body of the given type, or null if the type has no pre-built reader
+     */
+    public ObjectReader readerFor(Type type) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+        if (javaType.equals(bondRequestType)) {
+            return bondRequestReader;
+        }
+        if (javaType.equals(bondRequestListType)) {
+            return bondRequestListReader;
+        }
+        return null;
+    }
+
+    /**
+     * @return Writer for a response body of the given class, or null if the class has no pre-built writer
+     */
+    public ObjectWriter writerFor(Class<?> clazz) {
+        if (clazz == PortfolioAnalysisResponse.class) {
+            return portfolioAnalysisResponseWriter;
+        }
+        if (clazz == BondAnalysisResponse.class) {
+            return bondAnalysisResponseWriter;
+        }
+        return null;
+    }
+
+    /**
+     * @return Writer for a response body, the portfolio response writer with its bond projection if it has one,
+     * or null if the value's class has no pre-built writer
+     */
+    public ObjectWriter writerForValue(Object value) {
+        if (value instanceof PortfolioAnalysisResponse response && response.getBondFields() != null) {
+            Set<String> names = new HashSet<>();
+            for (BondInPortfolioAnalysisResponse.Field field : response.getBondFields()) {
+                names.add(field.getName());
+            }
+            return portfolioAnalysisResponseWriter.with(new SimpleFilterProvider()
+                    .addFilter(BOND_FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        }
+        return writerFor(value.getClass());
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public ObjectReader getBondRequestReader() {
+        return bondRequestReader;
+    }
+
+    public ObjectReader getBondRequestListReader() {
+        return bondRequestListReader;
+    }
+
+    public ObjectWriter getBondAnalysisResponseWriter() {
+        return bondAnalysisResponseWriter;
+    }
+
+    public ObjectWriter getPortfolioAnalysisResponseWriter() {
+        return portfolioAnalysisResponseWriter;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ice.bonds.serialization;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader over the contents of a single JSON string literal, unescaping as it goes.
+ *
+ * The analyze-from-string endpoints receive a JSON document that has been serialized into a JSON
+ * string. Wrapping the request body in this reader lets Jackson parse the embedded document
+ * directly, instead of first materializing the unescaped String and then parsing it again.
+ *
+ * Usage: call open() once, hand the reader to Jackson, then call finish() to make sure the outer
+ * string was properly terminated.
+ */
+public class JsonStringUnescapingReader extends Reader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPos;
+    private int bufferLen;
+
+    private boolean opened;
+    // Set once the closing quote of the outer string has been consumed
+    private boolean ended;
+
+    public JsonStringUnescapingReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Consumes leading whitespace and the opening quote of the outer string.
+     *
+     * @return true if positioned inside a string, false if the outer value is the JSON literal null
+     * @throws IOException if the outer value is not a JSON string
+     */
+    public boolean open() throws IOException {
+        if (opened) {
+            throw new IllegalStateException("Reader already opened");
+        }
+        opened = true;
+
+        int c = nextRaw();
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            c = nextRaw();
+        }
+        if (c == '"') {
+            return true;
+        }
+        if (c == 'n' && nextRaw() == 'u' && nextRaw() == 'l' && nextRaw() == 'l') {
+            ended = true;
+            return false;
+        }
+        throw new IOException("Expected a JSON string");
+    }
+
+    /**
+     * Drains any content the parser did not need and verifies the outer string is terminated.
+     *
+     * @throws IOException if the input ends before the closing quote or contains an invalid escape
+     */
+    public void finish() throws IOException {
+        char[] discard = new char[256];
+        while (read(discard, 0, discard.length) != -1) {
+            // keep reading until the closing quote
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (!opened) {
+            throw new IllegalStateException("Reader not opened");
+        }
+        if (ended) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        while (count < len) {
+            // Fast path: copy unescaped characters straight out of the buffer
+            if (bufferPos < bufferLen) {
+                char c = buffer[bufferPos];
+                if (c != '"' && c != '\\' && c >= 0x20) {
+                    cbuf[off + count++] = c;
+                    bufferPos++;
+                    continue;
+                }
+            }
+
+            int c = nextRaw();
+            if (c == -1) {
+                throw new IOException("Unexpected end of input inside JSON string");
+            }
+            if (c == '"') {
+                ended = true;
+                break;
+            }
+            if (c < 0x20) {
+                throw new IOException("Illegal unescaped control character in JSON string: 0x" + Integer.toHexString(c));
+            }
+            if (c == '\\') {
+                c = unescape();
+            }
+            cbuf[off + count++] = (char) c;
+
+            // Do not block on the underlying reader once we have something to return
+            if (bufferPos >= bufferLen && count > 0) {
+                break;
+            }
+        }
+        return count == 0 && ended ? -1 : count;
+    }
+
+    private int unescape() throws IOException {
+        int c = nextRaw();
+        return switch (c) {
+            case '"' -> '"';
+            case '\\' -> '\\';
+            case '/' -> '/';
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextRaw(), 16);
+                    if (digit < 0) {
+                        throw new IOException("Invalid \\u escape in JSON string");
+                    }
+                    value = (value << 4) | digit;
+                }
+                yield value;
+            }
+            case -1 -> throw new IOException("Unexpected end of input inside JSON string");
+            default -> throw new IOException("Invalid escape sequence in JSON string: \\" + (char) c);
+        };
+    }
+
+    private int nextRaw() throws IOException {
+        if (bufferPos >= bufferLen) {
+            bufferLen = in.read(buffer, 0, BUFFER_SIZE);
+            bufferPos = 0;
+            if (bufferLen <= 0) {
+                bufferLen = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
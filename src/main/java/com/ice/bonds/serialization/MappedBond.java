@@ -0,0 +1,105 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.model.Bond;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Flyweight Bond over one record of a mapped InstrumentMasterFile.
+ *
+ * The static terms are read from the mapped record, the ISIN and dates are decoded on first access
+ * and kept. They are read-only: their setters throw UnsupportedOperationException. Market value,
+ * quantity and the analytics are position data and behave as in Bond, so a view can be analyzed
+ * like any other bond once its market value and quantity are set.
+ */
+public class MappedBond extends Bond {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    private String isin;
+    private LocalDate issueDate;
+    private LocalDate maturityDate;
+
+    MappedBond(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    @Override
+    public String getISIN() {
+        if (isin == null) {
+            byte[] bytes = new byte[BondColumns.ISIN_LENGTH];
+            buffer.get(offset, bytes);
+            isin = new String(bytes, StandardCharsets.US_ASCII);
+        }
+        return isin;
+    }
+
+    @Override
+    public LocalDate getIssueDate() {
+        if (issueDate == null) {
+            issueDate = LocalDate.ofEpochDay(buffer.getInt(offset + InstrumentMasterFile.ISSUE_DATE_OFFSET));
+        }
+        return issueDate;
+    }
+
+    @Override
+    public LocalDate getMaturityDate() {
+        if (maturityDate == null) {
+            maturityDate = LocalDate.ofEpochDay(buffer.getInt(offset + InstrumentMasterFile.MATURITY_DATE_OFFSET));
+        }
+        return maturityDate;
+    }
+
+    @Override
+    public int getCouponRate() {
+        return buffer.getInt(offset + InstrumentMasterFile.COUPON_RATE_OFFSET);
+    }
+
+    @Override
+    public int getFaceValue() {
+        return buffer.getInt(offset + InstrumentMasterFile.FACE_VALUE_OFFSET);
+    }
+
+    @Override
+    public String getPaymentTerm() {
+        return BondColumns.paymentTermName(buffer.get(offset + InstrumentMasterFile.PAYMENT_TERM_OFFSET));
+    }
+
+    @Override
+    public void setISIN(String ISIN) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIssueDate(LocalDate issueDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setMaturityDate(LocalDate maturityDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCouponRate(int couponRate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFaceValue(int faceValue) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPaymentTerm(String paymentTerm) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Instrument master terms are read-only");
+    }
+}
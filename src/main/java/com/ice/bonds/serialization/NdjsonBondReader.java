@@ -0,0 +1,91 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ice.bonds.dto.BondDTORequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads newline-delimited JSON (application/x-ndjson) request bodies, one bond object per line.
+ *
+ * Reads are plain blocking reads of the request stream on the calling request thread. forEachBond
+ * hands each bond over as soon as its line is parsed, so a caller can write a result per line without
+ * holding the whole body; readBonds collects them for callers that need every bond first.
+ */
+@Component
+public class NdjsonBondReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bondReader;
+
+    public NdjsonBondReader(JsonCodecs jsonCodecs) {
+        this.objectMapper = jsonCodecs.getObjectMapper();
+        this.bondReader = jsonCodecs.getBondRequestReader();
+    }
+
+    /**
+     * @param body NDJSON request body, one bond object per line
+     * @return The bonds in request order
+     * @throws IllegalArgumentException on malformed input
+     */
+    public List<BondDTORequest> readBonds(InputStream body) {
+        List<BondDTORequest> bonds = new ArrayList<>();
+        forEachBond(body, bonds::add);
+        return bonds;
+    }
+
+    /**
+     * Parses the body one line at a time and passes each bond to the action before reading the next.
+     *
+     * @param body NDJSON request body, one bond object per line
+     * @param action Called with each bond in request order, exceptions it throws are passed through
+     * @throws IllegalArgumentException on malformed input, after the bonds before it were passed on
+     */
+    public void forEachBond(InputStream body, Consumer<BondDTORequest> action) {
+        try (JsonParser parser = createParser(body)) {
+            BondDTORequest bond;
+            while ((bond = next(parser)) != null) {
+                action.accept(bond);
+            }
+        } catch (IOException e) {
+            // Closing the parser, every bond has been read
+        }
+    }
+
+    private JsonParser createParser(InputStream body) {
+        try {
+            return objectMapper.createParser(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The next bond, or null at the end of the body
+     */
+    private BondDTORequest next(JsonParser parser) {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Invalid JSON format: each line must be a bond object");
+            }
+            return bondReader.readValue(parser);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
+        }
+    }
+}
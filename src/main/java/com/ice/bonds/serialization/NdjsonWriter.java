@@ -0,0 +1,72 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes newline-delimited JSON (application/x-ndjson) responses straight to the servlet response,
+ * one value per line, with the same writers as the JSON endpoints.
+ *
+ * Each line is flushed as it is written, so the client gets every result as soon as it is ready.
+ * Writes block the calling request thread; call them outside AnalyticsConcurrencyLimiter so a slow
+ * client never holds an analytics permit.
+ */
+@Component
+public class NdjsonWriter {
+
+    private final JsonCodecs jsonCodecs;
+
+    public NdjsonWriter(JsonCodecs jsonCodecs) {
+        this.jsonCodecs = jsonCodecs;
+    }
+
+    /**
+     * One NDJSON response body. The content type is set on the first line, so an error raised before
+     * anything was written can still be answered with a regular error response.
+     */
+    public final class Lines {
+
+        private final HttpServletResponse response;
+        private OutputStream out;
+
+        private Lines(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        /**
+         * @param value The value to write as one line
+         * @throws UncheckedIOException if the client has gone away
+         */
+        public void write(Object value) {
+            ObjectWriter writer = jsonCodecs.writerForValue(value);
+            if (writer == null) {
+                writer = jsonCodecs.getObjectMapper().writerFor(value.getClass());
+            }
+            try {
+                if (out == null) {
+                    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                    out = response.getOutputStream();
+                }
+                out.write(writer.writeValueAsBytes(value));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @param response The servlet response to write to
+     * @return The response body, nothing is written until the first line
+     */
+    public Lines open(HttpServletResponse response) {
+        return new Lines(response);
+    }
+}
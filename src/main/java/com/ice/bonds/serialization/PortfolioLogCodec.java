@@ -0,0 +1,245 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import com.ice.bonds.model.PortfolioLogRecord;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary encoding of PortfolioLogRecord bodies, for the write-ahead log and snapshots.
+ * Framing (length, sequence number, checksum) is left to the file that holds the records.
+ *
+ * All values are big-endian, strings are a short byte length followed by UTF-8.
+ *
+ * Body layout:
+ *   byte   type             PortfolioLogRecord.Type ordinal
+ *   long   portfolioId (most significant bits), long portfolioId (least significant bits)
+ *   CREATE:   string accountId, int n, bond[n]
+ *   UPSERT:   int n, bond[n]
+ *   REMOVE:   byte[12] isin
+ *   DELETE:   nothing
+ *   PRICES:   int n, n * (byte[12] isin, int marketValue)
+ *   SNAPSHOT: string accountId, long version, long lastLsn, int n, bond[n]
+ *
+ * Bond layout, position inputs only:
+ *   byte[12] isin, int issueDate (epoch day), int maturityDate (epoch day), int couponRate,
+ *   int faceValue, byte type and paymentTerm, int marketValue, int quantity
+ *   callable only: int callDate (epoch day), int callPrice
+ *
+ * The type and paymentTerm byte holds the periods per year in its low 4 bits and the bond type in its
+ * high 4 bits: 0 fixed or zero coupon (told apart by couponRate), 1 floating, 2 amortizing, 3 callable.
+ * Records written before bond types existed have 0 there and decode unchanged.
+ */
+@Component
+public class PortfolioLogCodec {
+
+    private static final PortfolioLogRecord.Type[] TYPES = PortfolioLogRecord.Type.values();
+
+    private static final int HEADER_BYTES = 1 + 2 * Long.BYTES;
+    private static final int BOND_BYTES = BondColumns.ISIN_LENGTH + 4 * Integer.BYTES + 1 + 2 * Integer.BYTES;
+    private static final int PRICE_BYTES = BondColumns.ISIN_LENGTH + Integer.BYTES;
+    private static final int CALL_BYTES = 2 * Integer.BYTES;
+
+    private static final int TYPE_FIXED_OR_ZERO = 0;
+    private static final int TYPE_FLOATING = 1;
+    private static final int TYPE_AMORTIZING = 2;
+    private static final int TYPE_CALLABLE = 3;
+
+    /**
+     * @param record The record, its ISINs already validated
+     * @return The encoded body
+     * @throws IllegalArgumentException if the account id is too long to encode
+     */
+    public byte[] encode(PortfolioLogRecord record) {
+        byte[] accountId = record.getAccountId() == null
+                ? new byte[0] : record.getAccountId().getBytes(StandardCharsets.UTF_8);
+        if (accountId.length > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid accountId: longer than 65535 bytes");
+        }
+        int size = HEADER_BYTES + switch (record.getType()) {
+            case CREATE -> Short.BYTES + accountId.length + bondsBytes(record.getBonds());
+            case UPSERT -> bondsBytes(record.getBonds());
+            case REMOVE -> BondColumns.ISIN_LENGTH;
+            case DELETE -> 0;
+            case PRICES -> Integer.BYTES + record.getPrices().size() * PRICE_BYTES;
+            case SNAPSHOT -> Short.BYTES + accountId.length + 2 * Long.BYTES + bondsBytes(record.getBonds());
+        };
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put((byte) record.getType().ordinal());
+        buffer.putLong(record.getPortfolioId().getMostSignificantBits());
+        buffer.putLong(record.getPortfolioId().getLeastSignificantBits());
+        switch (record.getType()) {
+            case CREATE -> {
+                putString(buffer, accountId);
+                putBonds(buffer, record.getBonds());
+            }
+            case UPSERT -> putBonds(buffer, record.getBonds());
+            case REMOVE -> putIsin(buffer, record.getIsin());
+            case DELETE -> {
+            }
+            case PRICES -> {
+                buffer.putInt(record.getPrices().size());
+                for (Map.Entry<String, Integer> price : record.getPrices().entrySet()) {
+                    putIsin(buffer, price.getKey());
+                    buffer.putInt(price.getValue());
+                }
+            }
+            case SNAPSHOT -> {
+                putString(buffer, accountId);
+                buffer.putLong(record.getVersion());
+                buffer.putLong(record.getLsn());
+                putBonds(buffer, record.getBonds());
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param lsn Log sequence number of the record, ignored for SNAPSHOT records which carry their own
+     * @param body The encoded body, consumed up to its limit
+     * @return The decoded record, bonds are new unanalyzed Bond models
+     * @throws IllegalArgumentException if the body is malformed
+     */
+    public PortfolioLogRecord decode(long lsn, ByteBuffer body) {
+        try {
+            int typeOrdinal = body.get();
+            if (typeOrdinal < 0 || typeOrdinal >= TYPES.length) {
+                throw new IllegalArgumentException("Invalid log record: unknown type " + typeOrdinal);
+            }
+            UUID portfolioId = new UUID(body.getLong(), body.getLong());
+            PortfolioLogRecord record = switch (TYPES[typeOrdinal]) {
+                case CREATE -> PortfolioLogRecord.create(portfolioId, getString(body), getBonds(body));
+                case UPSERT -> PortfolioLogRecord.upsert(portfolioId, getBonds(body));
+                case REMOVE -> PortfolioLogRecord.remove(portfolioId, getIsin(body));
+                case DELETE -> PortfolioLogRecord.delete(portfolioId);
+                case PRICES -> {
+                    int n = getCount(body, PRICE_BYTES);
+                    Map<String, Integer> prices = new LinkedHashMap<>();
+                    for (int i = 0; i < n; i++) {
+                        prices.put(getIsin(body), body.getInt());
+                    }
+                    yield PortfolioLogRecord.prices(portfolioId, prices);
+                }
+                case SNAPSHOT -> {
+                    String accountId = getString(body);
+                    long version = body.getLong();
+                    long lastLsn = body.getLong();
+                    yield PortfolioLogRecord.snapshot(portfolioId, accountId, version, lastLsn, getBonds(body));
+                }
+            };
+            if (record.getType() != PortfolioLogRecord.Type.SNAPSHOT) {
+                record.setLsn(lsn);
+            }
+            if (body.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid log record: " + body.remaining() + " trailing bytes");
+            }
+            return record;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid log record: body truncated");
+        }
+    }
+
+    private static int bondsBytes(List<Bond> bonds) {
+        int size = Integer.BYTES + bonds.size() * BOND_BYTES;
+        for (Bond bond : bonds) {
+            if (bond.getType() instanceof BondType.Callable) {
+                size += CALL_BYTES;
+            }
+        }
+        return size;
+    }
+
+    private static void putBonds(ByteBuffer buffer, List<Bond> bonds) {
+        buffer.putInt(bonds.size());
+        for (Bond bond : bonds) {
+            int type = switch (bond.getType()) {
+                case BondType.FixedCoupon() -> TYPE_FIXED_OR_ZERO;
+                case BondType.ZeroCoupon() -> TYPE_FIXED_OR_ZERO;
+                case BondType.FloatingRate() -> TYPE_FLOATING;
+                case BondType.Amortizing() -> TYPE_AMORTIZING;
+                case BondType.Callable callable -> TYPE_CALLABLE;
+            };
+            putIsin(buffer, bond.getISIN());
+            buffer.putInt((int) bond.getIssueDate().toEpochDay());
+            buffer.putInt((int) bond.getMaturityDate().toEpochDay());
+            buffer.putInt(bond.getCouponRate());
+            buffer.putInt(bond.getFaceValue());
+            buffer.put((byte) (type << 4 | BondColumns.periodsPerYear(bond.getPaymentTerm())));
+            buffer.putInt(bond.getMarketValue());
+            buffer.putInt(bond.getQuantity());
+            if (bond.getType() instanceof BondType.Callable callable) {
+                buffer.putInt((int) callable.callDate().toEpochDay());
+                buffer.putInt(callable.callPrice());
+            }
+        }
+    }
+
+    private static List<Bond> getBonds(ByteBuffer buffer) {
+        int n = getCount(buffer, BOND_BYTES);
+        List<Bond> bonds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String isin = getIsin(buffer);
+            LocalDate issueDate = LocalDate.ofEpochDay(buffer.getInt());
+            LocalDate maturityDate = LocalDate.ofEpochDay(buffer.getInt());
+            int couponRate = buffer.getInt();
+            int faceValue = buffer.getInt();
+            int typeAndTerm = buffer.get();
+            String paymentTerm = BondColumns.paymentTermName(typeAndTerm & 0x0F);
+            Bond bond = new Bond(isin, maturityDate, issueDate, couponRate, faceValue, buffer.getInt(), paymentTerm,
+                    buffer.getInt());
+            bond.setType(switch (typeAndTerm >>> 4 & 0x0F) {
+                case TYPE_FIXED_OR_ZERO -> null;
+                case TYPE_FLOATING -> BondType.FLOATING_RATE;
+                case TYPE_AMORTIZING -> BondType.AMORTIZING;
+                case TYPE_CALLABLE -> new BondType.Callable(LocalDate.ofEpochDay(buffer.getInt()), buffer.getInt());
+                default -> throw new IllegalArgumentException("Invalid log record: unknown bond type " + (typeAndTerm >>> 4 & 0x0F));
+            });
+            bonds.add(bond);
+        }
+        return bonds;
+    }
+
+    private static int getCount(ByteBuffer buffer, int elementBytes) {
+        int n = buffer.getInt();
+        if (n < 0 || (long) n * elementBytes > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid log record: declared " + n + " entries in "
+                    + buffer.remaining() + " bytes");
+        }
+        return n;
+    }
+
+    private static void putIsin(ByteBuffer buffer, String isin) {
+        // ISINs are validated to 12 ASCII characters before they reach the store
+        buffer.put(isin.getBytes(StandardCharsets.US_ASCII), 0, BondColumns.ISIN_LENGTH);
+    }
+
+    private static String getIsin(ByteBuffer buffer) {
+        byte[] isin = new byte[BondColumns.ISIN_LENGTH];
+        buffer.get(isin);
+        return new String(isin, StandardCharsets.US_ASCII);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] utf8) {
+        // Checked in encode() before the buffer is sized
+        buffer.putShort((short) utf8.length);
+        buffer.put(utf8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ice.bonds.serialization;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter for the bond DTOs backed by the pre-built readers/writers in JsonCodecs.
+ *
+ * Only claims the types JsonCodecs has a reader or writer for; everything else is left to the
+ * default Spring MVC JSON converter.
+ */
+public class TunedJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final JsonCodecs jsonCodecs;
+    private final AnalyticsMetrics metrics;
+
+    public TunedJsonHttpMessageConverter(JsonCodecs jsonCodecs, AnalyticsMetrics metrics) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonCodecs = jsonCodecs;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return jsonCodecs.readerFor(clazz) != null || jsonCodecs.writerFor(clazz) != null;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return jsonCodecs.readerFor(type) != null && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return jsonCodecs.writerFor(clazz) != null && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readWith(jsonCodecs.readerFor(type), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readWith(jsonCodecs.readerFor(clazz), inputMessage);
+    }
+
+    private Object readWith(ObjectReader reader, HttpInputMessage inputMessage) throws IOException {
+        long start = metrics.start();
+        try {
+            Object value = reader.readValue(inputMessage.getBody());
+            metrics.recordParse("json", start);
+            return value;
+        } catch (JacksonException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer = jsonCodecs.writerForValue(value);
+        try {
+            writer.writeValue(outputMessage.getBody(), value);
+        } catch (JacksonException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ice.bonds.serialization;
+
+import com.ice.bonds.model.YieldHistory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes yield histories, as CSV or as a binary file.
+ *
+ * CSV: one "date,change" line per day, the date as YYYY-MM-DD and the change in basis points, in
+ * date order. A header line and blank lines are skipped.
+ *
+ * Binary, big-endian like the other binary formats:
+ *   int    magic            "BNDY"
+ *   short  version          1
+ *   int    n                number of days
+ *   record[n]:
+ *     int     date          epoch day
+ *     double  change        basis points
+ *
+ * read() tells the two apart by the magic number.
+ */
+public final class YieldHistoryFile {
+
+    static final int MAGIC = 0x424E4459; // "BNDY"
+    static final short VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int RECORD_BYTES = Integer.BYTES + Double.BYTES;
+
+    private YieldHistoryFile() {
+    }
+
+    /**
+     * @param path A CSV or binary yield history
+     * @return The history
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid yield history
+     */
+    public static YieldHistory read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length >= Integer.BYTES && ByteBuffer.wrap(bytes).getInt() == MAGIC) {
+            return readBinary(path, ByteBuffer.wrap(bytes));
+        }
+        return readCsv(path, new String(bytes, StandardCharsets.UTF_8).lines().toList());
+    }
+
+    /**
+     * Writes a history in the binary format.
+     *
+     * @param path The file to create or replace
+     * @param history The history
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, YieldHistory history) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(history.size());
+            for (int day = 0; day < history.size(); day++) {
+                out.writeInt(Math.toIntExact(history.getDate(day).toEpochDay()));
+                out.writeDouble(history.getChange(day));
+            }
+        }
+    }
+
+    private static YieldHistory readBinary(Path path, ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES) {
+            throw new IllegalArgumentException("Invalid yield history " + path + ": " + buffer.capacity() + " bytes");
+        }
+        buffer.getInt();
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Invalid yield history " + path + ": unsupported version " + version);
+        }
+        int n = buffer.getInt();
+        if (n < 0 || HEADER_BYTES + (long) n * RECORD_BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Invalid yield history " + path + ": declared " + n
+                    + " days but file has " + buffer.capacity() + " bytes");
+        }
+        int[] epochDays = new int[n];
+        double[] changes = new double[n];
+        for (int day = 0; day < n; day++) {
+            epochDays[day] = buffer.getInt();
+            changes[day] = buffer.getDouble();
+        }
+        return new YieldHistory(epochDays, changes);
+    }
+
+    private static YieldHistory readCsv(Path path, List<String> lines) {
+        int[] epochDays = new int[lines.size()];
+        double[] changes = new double[lines.size()];
+        int n = 0;
+        for (int number = 0; number < lines.size(); number++) {
+            String line = lines.get(number).strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Invalid yield history " + path + " line " + (number + 1)
+                        + ": expected date,change");
+            }
+            try {
+                epochDays[n] = Math.toIntExact(LocalDate.parse(line.substring(0, comma).strip()).toEpochDay());
+                changes[n] = Double.parseDouble(line.substring(comma + 1).strip());
+            } catch (DateTimeParseException | NumberFormatException e) {
+                if (n == 0 && number == firstNonBlank(lines)) {
+                    // Header line
+                    continue;
+                }
+                throw new IllegalArgumentException("Invalid yield history " + path + " line " + (number + 1)
+                        + ": " + e.getMessage());
+            }
+            if (!Double.isFinite(changes[n])) {
+                throw new IllegalArgumentException("Invalid yield history " + path + " line " + (number + 1)
+                        + ": change is not a finite number");
+            }
+            n++;
+        }
+        return new YieldHistory(Arrays.copyOf(epochDays, n), Arrays.copyOf(changes, n));
+    }
+
+    private static int firstNonBlank(List<String> lines) {
+        for (int number = 0; number < lines.size(); number++) {
+            if (!lines.get(number).isBlank()) {
+                return number;
+            }
+        }
+        return -1;
+    }
+}
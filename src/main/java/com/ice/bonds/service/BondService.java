@@ -5,7 +5,9 @@ import com.ice.bonds.dto.BondDTORequest;
 import com.ice.bonds.helper.DurationHelper;
 import com.ice.bonds.helper.ISINHelper;
 import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
 import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -24,16 +26,18 @@ public class BondService {
     private final YTMHelper ytmHelper;
     private final DurationHelper durationHelper;
     private final ISINHelper isinHelper;
+    private final AnalyticsMetrics metrics;
 
     /**
      * Constructor for Spring dependency injection.
      * All helper beans are automatically injected by Spring.
      */
     public BondService(YTMHelper ytmHelper,
-                       DurationHelper durationHelper, ISINHelper isinHelper) {
+                       DurationHelper durationHelper, ISINHelper isinHelper, AnalyticsMetrics metrics) {
         this.ytmHelper = ytmHelper;
         this.durationHelper = durationHelper;
         this.isinHelper = isinHelper;
+        this.metrics = metrics;
     }
 
     /**
@@ -48,8 +52,27 @@ public class BondService {
 
         Bond bond = analyzeBond(bondDTORequest, LocalDate.now());
 
+        return mapToBondAnalysisResponse(bond);
+    }
+
+    /**
+     * Validates and analyzes a Bond model parsed from the v2 request schema.
+     *
+     * @param bond The parsed bond
+     * @return BondAnalysisResponse containing analysis results
+     * @throws IllegalArgumentException if any field is invalid
+     */
+    public BondAnalysisResponse analyzeBondWithResponse(Bond bond) {
+
+        validateBond(bond);
+        analyzeBond(bond, LocalDate.now());
+
+        return mapToBondAnalysisResponse(bond);
+    }
+
+    private BondAnalysisResponse mapToBondAnalysisResponse(Bond bond) {
         return new BondAnalysisResponse(
-                bondDTORequest.getIsin(),
+                bond.getISIN(),
                 bond.getYieldToMaturity(),
                 bond.getMacaulayDuration(),
                 bond.getModifiedDuration(),
@@ -58,7 +81,9 @@ public class BondService {
                 bond.getCouponRate(),
                 bond.getFaceValue(),
                 bond.getMarketValue(),
-                bond.getPaymentTerm()
+                bond.getPaymentTerm(),
+                bond.getAccruedInterest(),
+                bond.getDirtyPrice()
         );
     }
 
@@ -76,13 +101,58 @@ public class BondService {
         // Convert DTO to Bond model
         Bond bond = validateAndConvertToBond(bondDTORequest);
 
+        return analyzeBond(bond, currentDate);
+    }
+
+    /**
+     * Analyzes an already validated Bond model as of a specific date.
+     * MUTATES the bond by setting YTM, Macaulay Duration, and Modified Duration.
+     *
+     * The analytics kernel depends on the bond's type: zero coupon bonds have closed-form yield and
+     * duration, floating rate notes a duration to their next reset, amortizing bonds a yield solved over
+     * their installments, and callable bonds are analyzed to the call if it gives the lower yield
+     * (yield to worst), else to maturity like fixed coupon bonds.
+     *
+     * @param bond The validated bond (see validateAndConvertToBond or validateBond)
+     * @param currentDate The date to use for analysis (settlement date)
+     * @return The same bond with analysis results set
+     */
+    public Bond analyzeBond(Bond bond, LocalDate currentDate) {
+        long analyzeStart = metrics.startBondSample();
+        BondType type = bond.getType();
+        boolean toCall = false;
+
         // Calculate YTM (returns in basis points)
-        double ytm = ytmHelper.calculateYTM(currentDate, bond);
+        double ytm = switch (type) {
+            case BondType.FixedCoupon() -> ytmHelper.calculateYTM(currentDate, bond);
+            case BondType.ZeroCoupon() -> ytmHelper.calculateZeroCouponYTM(currentDate, bond);
+            case BondType.FloatingRate() -> ytmHelper.calculateYTM(currentDate, bond);
+            case BondType.Amortizing() -> ytmHelper.calculateAmortizingYTM(currentDate, bond);
+            case BondType.Callable callable -> {
+                double toMaturity = ytmHelper.calculateYTM(currentDate, bond);
+                if (!callable.callDate().isAfter(currentDate)) {
+                    yield toMaturity;
+                }
+                double yieldToCall = ytmHelper.calculateYieldToCall(currentDate, bond, callable);
+                toCall = yieldToCall < toMaturity;
+                yield Math.min(yieldToCall, toMaturity);
+            }
+        };
+        long ytmEnd = metrics.recordYtm(analyzeStart);
 
         bond.setYieldToMaturity(ytm);
 
         // Calculate Macaulay Duration (returns in years)
-        double macaulayDuration = durationHelper.calculateMacaulayDuration(bond, ytm);
+        double macaulayDuration = switch (type) {
+            case BondType.FixedCoupon() -> durationHelper.calculateMacaulayDuration(bond, ytm, analyzeStart);
+            case BondType.ZeroCoupon() -> durationHelper.calculateZeroCouponDuration(bond, analyzeStart);
+            case BondType.FloatingRate() -> durationHelper.calculateFloatingRateDuration(bond, analyzeStart);
+            case BondType.Amortizing() -> durationHelper.calculateAmortizingDuration(bond, ytm, analyzeStart);
+            case BondType.Callable callable -> toCall
+                    ? durationHelper.calculateMacaulayDurationToCall(bond, callable, ytm, analyzeStart)
+                    : durationHelper.calculateMacaulayDuration(bond, ytm, analyzeStart);
+        };
+        metrics.recordMacaulayDuration(ytmEnd);
 
         bond.setMacaulayDuration(macaulayDuration);
 
@@ -91,6 +161,7 @@ public class BondService {
 
         bond.setModifiedDuration(modifiedDuration);
 
+        metrics.recordAnalyzeBond(analyzeStart);
         return bond;
     }
 
@@ -110,7 +181,71 @@ public class BondService {
         int marketValue = validateValue(dto.getMarketValue(), "marketValue");
         int couponRate = validateCouponRate(dto.getCouponRate());
         int quantity = validateQuantity(dto.getQuantity());
-        return convertToBond(dto, faceValue, marketValue, couponRate, quantity);
+        validatePaymentTerm(dto.getPaymentTerm());
+        BondType type = validateBondType(dto, couponRate);
+        Bond bond = convertToBond(dto, faceValue, marketValue, couponRate, quantity);
+        bond.setType(type);
+        return bond;
+    }
+
+    /**
+     * Validates the optional bondType of a request, and the call terms of a callable bond.
+     *
+     * @param dto The bond DTO, dates already validated
+     * @param couponRate The validated coupon rate
+     * @return The bond type, or null for a fixed or zero coupon bond (told apart by the coupon rate)
+     * @throws IllegalArgumentException if the type is unknown, or its terms are invalid
+     */
+    public BondType validateBondType(BondDTORequest dto, int couponRate) {
+        String bondType = dto.getBondType();
+        if (bondType == null || bondType.isEmpty()) {
+            return null;
+        }
+        return switch (bondType.toLowerCase()) {
+            case "fixed" -> null;
+            case "zero" -> {
+                if (couponRate != 0) {
+                    throw validationFailure("bondType", "Invalid bondType: zero coupon bond must have a couponRate of 0");
+                }
+                yield null;
+            }
+            case "floating" -> BondType.FLOATING_RATE;
+            case "amortizing" -> BondType.AMORTIZING;
+            case "callable" -> {
+                validateDate(dto.getCallDate(), "callDate");
+                int callPrice = validateValue(dto.getCallPrice(), "callPrice");
+                LocalDate callDate = LocalDate.parse(dto.getCallDate(), DateTimeFormatter.ISO_LOCAL_DATE);
+                if (!callDate.isBefore(LocalDate.parse(dto.getMaturityDate(), DateTimeFormatter.ISO_LOCAL_DATE))) {
+                    throw validationFailure("callDate", "Invalid callDate: " + callDate + ". Call date must be before maturityDate");
+                }
+                yield new BondType.Callable(callDate, callPrice);
+            }
+            default -> throw validationFailure("bondType", "Invalid bondType: " + bondType);
+        };
+    }
+
+    /**
+     * Validates a Bond model that was built without going through a BondDTORequest
+     * (e.g. decoded from the binary columnar format or the v2 JSON schema). Numeric fields are already integers,
+     * so only the ISIN, presence of dates, non-negativity and the payment term are checked, with the messages of
+     * the string checks.
+     *
+     * @param bond The bond to validate
+     * @throws IllegalArgumentException if any field is invalid
+     */
+    public void validateBond(Bond bond) {
+        validateISIN(bond.getISIN());
+        if (bond.getIssueDate() == null) {
+            throw validationFailure("issueDate", "Invalid issueDate: date cannot be null or empty");
+        }
+        if (bond.getMaturityDate() == null) {
+            throw validationFailure("maturityDate", "Invalid maturityDate: date cannot be null or empty");
+        }
+        validateNonNegative(bond.getFaceValue(), "faceValue", "Value in cents must be non-negative");
+        validateNonNegative(bond.getMarketValue(), "marketValue", "Value in cents must be non-negative");
+        validateNonNegative(bond.getCouponRate(), "couponRate", "Coupon rate in basis points must be non-negative");
+        validateNonNegative(bond.getQuantity(), "quantity", "Quantity must be non-negative integer");
+        validatePaymentTerm(bond.getPaymentTerm());
     }
 
     /**
@@ -151,7 +286,7 @@ public class BondService {
      */
     public void validateISIN(String isin) {
         if (!isinHelper.isValidISIN(isin)) {
-            throw new IllegalArgumentException("Invalid ISIN: " + isin);
+            throw validationFailure("isin", "Invalid ISIN: " + isin);
         }
     }
 
@@ -164,12 +299,12 @@ public class BondService {
      */
     public void validateDate(String date, String fieldName) {
         if (date == null || date.isEmpty()) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": date cannot be null or empty");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": date cannot be null or empty");
         }
         try {
             LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE);
         } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": " + date + ". Date must be in YYYY-MM-DD format");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": " + date + ". Date must be in YYYY-MM-DD format");
         }
     }
 
@@ -184,22 +319,54 @@ public class BondService {
      */
     public int validateValue(String value, String fieldName) {
         if (value == null || value.isEmpty()) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": value cannot be null or empty");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": value cannot be null or empty");
         }
         if (value.contains(".")) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": " + value + ". Value must be a whole number without decimals");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": " + value + ". Value must be a whole number without decimals");
         }
         if (value.contains(",")) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": " + value + ". Value must not contain commas");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": " + value + ". Value must not contain commas");
         }
         try {
             int parsedValue = Integer.parseInt(value);
             if (parsedValue < 0) {
-                throw new IllegalArgumentException("Invalid " + fieldName + ": " + value + ". Value in cents must be non-negative");
+                throw validationFailure(fieldName, "Invalid " + fieldName + ": " + value + ". Value in cents must be non-negative");
             }
             return parsedValue;
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid " + fieldName + ": " + value + ". Value must be a valid integer");
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": " + value + ". Value must be a valid integer");
+        }
+    }
+
+    /**
+     * Counts a validation failure for the field and builds the exception to throw.
+     */
+    private IllegalArgumentException validationFailure(String fieldName, String message) {
+        metrics.recordValidationFailure(fieldName);
+        return new IllegalArgumentException(message);
+    }
+
+    private void validateNonNegative(int value, String fieldName, String rule) {
+        if (value < 0) {
+            throw validationFailure(fieldName, "Invalid " + fieldName + ": " + value + ". " + rule);
+        }
+    }
+
+    /**
+     * Validates a payment term is one CommonHelper.periodsPerPaymentTerm supports, so an unsupported
+     * term is counted like the other validation failures instead of failing the analysis.
+     *
+     * @param paymentTerm The payment term, any case
+     * @throws IllegalArgumentException if the payment term is null, empty or not supported
+     */
+    public void validatePaymentTerm(String paymentTerm) {
+        if (paymentTerm == null || paymentTerm.isEmpty()) {
+            throw validationFailure("paymentTerm", "Invalid paymentTerm: value cannot be null or empty");
+        }
+        switch (paymentTerm.toLowerCase()) {
+            case "annual", "semiannual", "quarterly", "monthly" -> {
+            }
+            default -> throw validationFailure("paymentTerm", "Invalid payment term: " + paymentTerm);
         }
     }
 
@@ -213,22 +380,22 @@ public class BondService {
      */
     public int validateCouponRate(String couponRate) {
         if (couponRate == null || couponRate.isEmpty()) {
-            throw new IllegalArgumentException("Invalid couponRate: value cannot be null or empty");
+            throw validationFailure("couponRate", "Invalid couponRate: value cannot be null or empty");
         }
         if (couponRate.contains(".")) {
-            throw new IllegalArgumentException("Invalid couponRate: " + couponRate + ". Coupon rate must be a whole number without decimals");
+            throw validationFailure("couponRate", "Invalid couponRate: " + couponRate + ". Coupon rate must be a whole number without decimals");
         }
         if (couponRate.contains(",")) {
-            throw new IllegalArgumentException("Invalid couponRate: " + couponRate + ". Coupon rate must not contain commas");
+            throw validationFailure("couponRate", "Invalid couponRate: " + couponRate + ". Coupon rate must not contain commas");
         }
         try {
             int parsedRate = Integer.parseInt(couponRate);
             if (parsedRate < 0) {
-                throw new IllegalArgumentException("Invalid couponRate: " + couponRate + ". Coupon rate in basis points must be non-negative");
+                throw validationFailure("couponRate", "Invalid couponRate: " + couponRate + ". Coupon rate in basis points must be non-negative");
             }
             return parsedRate;
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid couponRate: " + couponRate + ". Coupon rate must be a valid integer");
+            throw validationFailure("couponRate", "Invalid couponRate: " + couponRate + ". Coupon rate must be a valid integer");
         }
     }
 
@@ -242,22 +409,22 @@ public class BondService {
      */
     public int validateQuantity(String quantity) {
         if (quantity == null || quantity.isEmpty()) {
-            throw new IllegalArgumentException("Invalid quantity: value cannot be null or empty");
+            throw validationFailure("quantity", "Invalid quantity: value cannot be null or empty");
         }
         if (quantity.contains(".")) {
-            throw new IllegalArgumentException("Invalid quantity: " + quantity + ". Quantity must be a whole number without decimals");
+            throw validationFailure("quantity", "Invalid quantity: " + quantity + ". Quantity must be a whole number without decimals");
         }
         if (quantity.contains(",")) {
-            throw new IllegalArgumentException("Invalid quantity: " + quantity + ". Quantity must not contain commas");
+            throw validationFailure("quantity", "Invalid quantity: " + quantity + ". Quantity must not contain commas");
         }
         try {
             int parsedQuantity = Integer.parseInt(quantity);
             if (parsedQuantity < 0) {
-                throw new IllegalArgumentException("Invalid quantity: " + quantity + ". Quantity must be non-negative integer");
+                throw validationFailure("quantity", "Invalid quantity: " + quantity + ". Quantity must be non-negative integer");
             }
             return parsedQuantity;
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid quantity: " + quantity + ". Quantity must be a valid integer");
+            throw validationFailure("quantity", "Invalid quantity: " + quantity + ". Quantity must be a valid integer");
         }
     }
 }
@@ -0,0 +1,224 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.CashFlowBucketResponse;
+import com.ice.bonds.dto.CashFlowLadderResponse;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.model.Bond;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cash-flow ladder of a portfolio: the coupons and principal of every position, times its quantity,
+ * summed per day, month or year, for liquidity planning.
+ *
+ * The positions' schedules are merged in date order through a calendar queue holding one CashFlowHelper.Cursor
+ * per position, so a bucket is complete as soon as the earliest queued flow falls after it. Memory is
+ * one cursor per position whatever the number of flows, and the streaming variant emits each bucket
+ * once it is complete. A stored position that has matured since it was added has no flow left and is
+ * skipped, like in the portfolio's netted cash flows; a matured bond sent in a request is rejected.
+ */
+@Service
+public class CashFlowLadderService {
+
+    public enum Bucket {
+        DAILY, MONTHLY, YEARLY;
+
+        /**
+         * @param bucket daily, monthly or yearly, any case
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Bucket parse(String bucket) {
+            return switch (bucket.toLowerCase()) {
+                case "daily" -> DAILY;
+                case "monthly" -> MONTHLY;
+                case "yearly" -> YEARLY;
+                default -> throw new IllegalArgumentException("Invalid bucket: " + bucket);
+            };
+        }
+
+        LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAILY -> date;
+                case MONTHLY -> date.withDayOfMonth(1);
+                case YEARLY -> date.withDayOfYear(1);
+            };
+        }
+
+        LocalDate end(LocalDate start) {
+            return switch (this) {
+                case DAILY -> start;
+                case MONTHLY -> start.plusMonths(1).minusDays(1);
+                case YEARLY -> start.plusYears(1).minusDays(1);
+            };
+        }
+    }
+
+    private final CashFlowHelper cashFlowHelper;
+    private final BondService bondService;
+    private final PortfolioStoreService portfolioStoreService;
+
+    public CashFlowLadderService(CashFlowHelper cashFlowHelper, BondService bondService,
+                                 PortfolioStoreService portfolioStoreService) {
+        this.cashFlowHelper = cashFlowHelper;
+        this.bondService = bondService;
+        this.portfolioStoreService = portfolioStoreService;
+    }
+
+    /**
+     * @param bondDTORequests The positions
+     * @param bucket Bucket size
+     * @return The ladder as of today
+     * @throws IllegalArgumentException if a bond is invalid or has matured
+     */
+    public CashFlowLadderResponse ladder(List<BondDTORequest> bondDTORequests, Bucket bucket) {
+        LocalDate today = LocalDate.now();
+        return ladder(validate(bondDTORequests, today), today, bucket);
+    }
+
+    /**
+     * @param portfolioId A stored portfolio
+     * @param bucket Bucket size
+     * @return The ladder of its current positions as of today, or empty if there is no such portfolio
+     */
+    public Optional<CashFlowLadderResponse> storedLadder(UUID portfolioId, Bucket bucket) {
+        LocalDate today = LocalDate.now();
+        return portfolioStoreService.read(portfolioId, stored -> ladder(stored.getBonds(), today, bucket));
+    }
+
+    /**
+     * @param bonds Validated positions
+     * @param today Flows before this date are skipped, as are bonds maturing before it
+     * @param bucket Bucket size
+     * @return The ladder
+     */
+    public CashFlowLadderResponse ladder(Collection<Bond> bonds, LocalDate today, Bucket bucket) {
+        LadderMerge merge = new LadderMerge(cashFlowHelper, bonds, today, bucket);
+        List<CashFlowBucketResponse> buckets = new ArrayList<>();
+        double totalCoupon = 0.0;
+        double totalPrincipal = 0.0;
+        for (CashFlowBucketResponse next = merge.next(); next != null; next = merge.next()) {
+            buckets.add(next);
+            totalCoupon += next.getCouponAmount();
+            totalPrincipal += next.getPrincipalAmount();
+        }
+        return new CashFlowLadderResponse(bucket.name().toLowerCase(), today, bonds.size(),
+                totalCoupon, totalPrincipal, buckets);
+    }
+
+    /**
+     * Streaming ladder for books too large to return as one document. The positions are validated
+     * in order, then each call to next() on the returned merge completes the next bucket in date order.
+     * Every position must be read before the first bucket, its earliest flow could come first.
+     *
+     * @param bondDTORequests The positions
+     * @param bucket Bucket size
+     * @return The merge of the positions' flows from today, not thread-safe
+     * @throws IllegalArgumentException if any bond is invalid or has matured
+     */
+    public LadderMerge streamLadder(List<BondDTORequest> bondDTORequests, Bucket bucket) {
+        LocalDate today = LocalDate.now();
+        return new LadderMerge(cashFlowHelper, validate(bondDTORequests, today), today, bucket);
+    }
+
+    private List<Bond> validate(List<BondDTORequest> bondDTORequests, LocalDate today) {
+        List<Bond> bonds = new ArrayList<>(bondDTORequests.size());
+        for (BondDTORequest bondDTORequest : bondDTORequests) {
+            Bond bond = bondService.validateAndConvertToBond(bondDTORequest);
+            if (bond.getMaturityDate().isBefore(today)) {
+                throw new IllegalArgumentException("Bond has already matured: " + bond.getISIN());
+            }
+            bonds.add(bond);
+        }
+        return bonds;
+    }
+
+    /**
+     * K-way merge of the positions' schedules, one bucket at a time.
+     *
+     * The priority queue is a calendar queue rather than a binary heap: payment days are integers in a
+     * bounded range (today to the last maturity), so each cursor waits in the list of its next payment
+     * day and the merge walks the days in order. Taking a flow and re-queueing its cursor is O(1)
+     * instead of a log(positions) sift, and cursors paying on the same day are taken together.
+     */
+    public static final class LadderMerge {
+
+        private final List<CashFlowHelper.Cursor>[] cursorsByDay;
+        private final long firstDay;
+        private final Bucket bucket;
+        private int day;
+        private int remaining;
+
+        @SuppressWarnings("unchecked")
+        LadderMerge(CashFlowHelper cashFlowHelper, Collection<Bond> bonds, LocalDate today, Bucket bucket) {
+            this.firstDay = today.toEpochDay();
+            this.bucket = bucket;
+            long lastDay = firstDay;
+            List<CashFlowHelper.Cursor> cursors = new ArrayList<>(bonds.size());
+            for (Bond bond : bonds) {
+                if (bond.getMaturityDate().isBefore(today)) {
+                    continue;
+                }
+                cursors.add(cashFlowHelper.cursor(bond, today));
+                lastDay = Math.max(lastDay, bond.getMaturityDate().toEpochDay());
+            }
+            this.cursorsByDay = new List[Math.toIntExact(lastDay - firstDay + 1)];
+            for (CashFlowHelper.Cursor cursor : cursors) {
+                enqueue(cursor);
+            }
+        }
+
+        /**
+         * @return The next non-empty bucket, or null once every flow has been merged
+         */
+        public CashFlowBucketResponse next() {
+            if (remaining == 0) {
+                return null;
+            }
+            while (cursorsByDay[day] == null) {
+                day++;
+            }
+            LocalDate start = bucket.start(LocalDate.ofEpochDay(firstDay + day));
+            LocalDate end = bucket.end(start);
+            long endDay = Math.min(end.toEpochDay() - firstDay, cursorsByDay.length - 1);
+            double coupon = 0.0;
+            double principal = 0.0;
+            int flows = 0;
+            for (; day <= endDay; day++) {
+                List<CashFlowHelper.Cursor> due = cursorsByDay[day];
+                if (due == null) {
+                    continue;
+                }
+                cursorsByDay[day] = null;
+                remaining -= due.size();
+                for (CashFlowHelper.Cursor cursor : due) {
+                    int quantity = cursor.getBond().getQuantity();
+                    coupon += cursor.getCoupon() * quantity;
+                    principal += cursor.getPrincipal() * quantity;
+                    flows++;
+                    if (cursor.next()) {
+                        enqueue(cursor);
+                    }
+                }
+            }
+            return new CashFlowBucketResponse(start, end, coupon, principal, coupon + principal, flows);
+        }
+
+        private void enqueue(CashFlowHelper.Cursor cursor) {
+            int index = (int) (cursor.getEpochDay() - firstDay);
+            List<CashFlowHelper.Cursor> due = cursorsByDay[index];
+            if (due == null) {
+                due = new ArrayList<>(4);
+                cursorsByDay[index] = due;
+            }
+            due.add(cursor);
+            remaining++;
+        }
+    }
+}
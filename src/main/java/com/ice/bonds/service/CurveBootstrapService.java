@@ -0,0 +1,95 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.CurveBootstrapRequest;
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.dto.YieldCurveResponse;
+import com.ice.bonds.helper.BootstrapHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.YieldCurve;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the current curve bootstrapped from a set of benchmark bonds. Setting the benchmarks solves
+ * every pillar and makes the curve current; a benchmark quote solves its pillar and the ones after it
+ * again and replaces the current curve, also one set by YieldCurveService.replace.
+ *
+ * Bootstraps are serialized, a quote batch solves the curve once, from its earliest ticked pillar.
+ */
+@Service
+public class CurveBootstrapService {
+
+    private final BondService bondService;
+    private final BootstrapHelper bootstrapHelper;
+    private final YieldCurveService yieldCurveService;
+    private BootstrapHelper.Bootstrap bootstrap;
+
+    public CurveBootstrapService(BondService bondService, BootstrapHelper bootstrapHelper,
+                                 YieldCurveService yieldCurveService) {
+        this.bondService = bondService;
+        this.bootstrapHelper = bootstrapHelper;
+        this.yieldCurveService = yieldCurveService;
+    }
+
+    /**
+     * Bootstraps the curve from new benchmarks and makes it the current one.
+     *
+     * @param request The benchmarks and the interpolation
+     * @return Pillars of the new curve
+     * @throws IllegalArgumentException if a benchmark or the interpolation is invalid
+     * @throws IllegalStateException if a pillar does not converge
+     */
+    public synchronized YieldCurveResponse bootstrap(CurveBootstrapRequest request) {
+        if (request.getBenchmarks() == null || request.getBenchmarks().isEmpty()) {
+            throw new IllegalArgumentException("Bootstrapping needs at least one benchmark");
+        }
+        YieldCurve.Interpolation interpolation = YieldCurve.Interpolation.parse(request.getInterpolation());
+        List<Bond> benchmarks = new ArrayList<>(request.getBenchmarks().size());
+        for (BondDTORequest benchmark : request.getBenchmarks()) {
+            benchmarks.add(bondService.validateAndConvertToBond(benchmark));
+        }
+        BootstrapHelper.Bootstrap newBootstrap = bootstrapHelper.bootstrap(benchmarks, interpolation, LocalDate.now());
+        bootstrap = newBootstrap;
+        yieldCurveService.setCurve(newBootstrap.getCurve());
+        return YieldCurveService.toResponse(newBootstrap.getCurve());
+    }
+
+    /**
+     * Applies new benchmark prices and makes the re-solved curve the current one. Quotes for ISINs that
+     * are not benchmarks are ignored; the last quote of an ISIN wins.
+     *
+     * @param quotes New prices, in cents per bond
+     * @return Pillars of the curve, or empty if no benchmarks were set
+     * @throws IllegalArgumentException if a quote is invalid, then no price of the batch is applied
+     * @throws IllegalStateException if a pillar does not converge
+     */
+    public synchronized Optional<YieldCurveResponse> applyQuotes(List<PriceTickRequest> quotes) {
+        if (bootstrap == null) {
+            return Optional.empty();
+        }
+        int[] prices = new int[quotes.size()];
+        for (int i = 0; i < prices.length; i++) {
+            bondService.validateISIN(quotes.get(i).getIsin());
+            prices[i] = bondService.validateValue(quotes.get(i).getMarketValue(), "marketValue");
+            if (prices[i] == 0) {
+                throw new IllegalArgumentException("Invalid marketValue for " + quotes.get(i).getIsin() + ": 0");
+            }
+        }
+        LocalDate today = LocalDate.now();
+        if (!bootstrap.getToday().equals(today)) {
+            // Pillar tenors are years from the bootstrap date, start again from today
+            bootstrap = bootstrapHelper.bootstrap(bootstrap.getBenchmarks(), bootstrap.getCurve().getInterpolation(), today);
+        }
+        for (int i = 0; i < prices.length; i++) {
+            bootstrap.setPrice(quotes.get(i).getIsin(), prices[i]);
+        }
+        YieldCurve curve = bootstrap.getCurve();
+        yieldCurveService.setCurve(curve);
+        return Optional.of(YieldCurveService.toResponse(curve));
+    }
+}
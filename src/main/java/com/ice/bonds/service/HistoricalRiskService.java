@@ -0,0 +1,144 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.HistoricalVaRResponse;
+import com.ice.bonds.dto.RiskLevelResponse;
+import com.ice.bonds.helper.RiskHelper;
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.YieldHistory;
+import com.ice.bonds.serialization.YieldHistoryFile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Historical VaR and expected shortfall of stored portfolios over the yield history file set in
+ * bonds.risk.history-file, loaded at startup (CSV or binary, see YieldHistoryFile).
+ *
+ * Each historical day is one scenario: its yield change is applied as a parallel shift to the
+ * portfolio IRR and the portfolio's netted cash flows are priced again (FULL), or the P&L is taken
+ * from the base duration and convexity (APPROXIMATION). The flows are copied under the portfolio lock
+ * and the scenarios priced outside it, in parallel on a dedicated pool of bonds.risk.parallelism threads.
+ */
+@Service
+public class HistoricalRiskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalRiskService.class);
+
+    public enum Mode {
+        FULL, APPROXIMATION;
+
+        /**
+         * @param mode full or approximation, any case
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Mode parse(String mode) {
+            return switch (mode.toLowerCase()) {
+                case "full" -> FULL;
+                case "approximation" -> APPROXIMATION;
+                default -> throw new IllegalArgumentException("Invalid mode: " + mode);
+            };
+        }
+    }
+
+    private record Snapshot(PortfolioCashFlows cashFlows, double baseYield) {
+    }
+
+    private final PortfolioStoreService portfolioStoreService;
+    private final RiskHelper riskHelper;
+    private final YieldHistory history;
+    private final ForkJoinPool pool;
+
+    public HistoricalRiskService(PortfolioStoreService portfolioStoreService, RiskHelper riskHelper,
+                                 @Value("${bonds.risk.history-file:}") String file,
+                                 @Value("${bonds.risk.parallelism:0}") int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("bonds.risk.parallelism cannot be negative");
+        }
+        this.portfolioStoreService = portfolioStoreService;
+        this.riskHelper = riskHelper;
+        this.pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        if (file.isBlank()) {
+            this.history = null;
+            return;
+        }
+        try {
+            this.history = YieldHistoryFile.read(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read yield history " + file, e);
+        }
+        if (history.size() == 0) {
+            throw new IllegalArgumentException("Yield history " + file + " has no days");
+        }
+        logger.info("Loaded yield history {} with {} days from {} to {}",
+                file, history.size(), history.getDate(0), history.getDate(history.size() - 1));
+    }
+
+    /**
+     * @return true if a yield history was configured and loaded, historicalVaR needs one
+     */
+    public boolean hasHistory() {
+        return history != null;
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @param confidences Confidence levels, each strictly between 0 and 1
+     * @param mode Full revaluation or duration-convexity approximation
+     * @return VaR and expected shortfall at each level as of today, or empty if there is no such portfolio
+     * @throws IllegalArgumentException if a confidence level is invalid or a shifted yield is -10000 bps or below
+     * @throws IllegalStateException if no yield history is configured, see hasHistory()
+     */
+    public Optional<HistoricalVaRResponse> historicalVaR(UUID portfolioId, List<Double> confidences, Mode mode) {
+        if (history == null) {
+            throw new IllegalStateException("No yield history configured, set bonds.risk.history-file");
+        }
+        for (double confidence : confidences) {
+            if (!(confidence > 0 && confidence < 1)) {
+                throw new IllegalArgumentException("Invalid confidence: " + confidence + ", must be between 0 and 1");
+            }
+        }
+        LocalDate today = LocalDate.now();
+        return portfolioStoreService.read(portfolioId, stored ->
+                        new Snapshot(stored.getCashFlows().copy(), stored.getPortfolio().getInternalRateOfReturn()))
+                .map(snapshot -> {
+                    PortfolioCashFlows cashFlows = snapshot.cashFlows();
+                    double baseYield = snapshot.baseYield();
+                    PortfolioCashFlows.Valuation base = cashFlows.value(today, baseYield / 10000.0);
+
+                    double[] pnl = new double[history.size()];
+                    pool.submit(() -> IntStream.range(0, pnl.length).parallel().forEach(day ->
+                            pnl[day] = mode == Mode.FULL
+                                    ? riskHelper.fullRevaluationPnl(cashFlows, today, base, baseYield, history.getChange(day))
+                                    : riskHelper.approximatePnl(base, history.getChange(day))))
+                            .join();
+                    Arrays.sort(pnl);
+
+                    List<RiskLevelResponse> levels = new ArrayList<>(confidences.size());
+                    for (double confidence : confidences) {
+                        levels.add(new RiskLevelResponse(confidence, riskHelper.valueAtRisk(pnl, confidence),
+                                riskHelper.expectedShortfall(pnl, confidence)));
+                    }
+                    return new HistoricalVaRResponse(portfolioId, today, mode.name().toLowerCase(), pnl.length, history.getDate(0),
+                            history.getDate(history.size() - 1), baseYield, base.presentValue(), levels);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
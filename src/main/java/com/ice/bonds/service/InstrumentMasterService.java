@@ -0,0 +1,57 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.serialization.InstrumentMasterFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Static instrument data (ISIN, dates, coupon, face value, payment term) from the instrument master
+ * file set in bonds.instruments.file. The file is memory-mapped at startup, see InstrumentMasterFile.
+ * Without a file configured every lookup is empty.
+ */
+@Service
+public class InstrumentMasterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentMasterService.class);
+
+    private final InstrumentMasterFile instruments;
+
+    public InstrumentMasterService(@Value("${bonds.instruments.file:}") String file) {
+        if (file.isBlank()) {
+            this.instruments = null;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            this.instruments = InstrumentMasterFile.open(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open instrument master " + file, e);
+        }
+        logger.info("Mapped instrument master {} with {} instruments in {} ms",
+                file, instruments.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param isin The ISIN
+     * @return A read-only view of the instrument's static terms, with market value and quantity 0,
+     *         or empty if it is not in the instrument master
+     */
+    public Optional<Bond> find(String isin) {
+        return instruments == null ? Optional.empty() : instruments.find(isin);
+    }
+
+    /**
+     * @return Number of instruments loaded, 0 without an instrument master
+     */
+    public int size() {
+        return instruments == null ? 0 : instruments.size();
+    }
+}
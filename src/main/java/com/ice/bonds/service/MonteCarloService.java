@@ -0,0 +1,140 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.QuantileResponse;
+import com.ice.bonds.dto.SimulationResponse;
+import com.ice.bonds.helper.MonteCarloHelper;
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.QuantileSketch;
+import com.ice.bonds.model.ShortRateModel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo distribution of a stored portfolio's present value under a Vasicek or Hull-White short
+ * rate, see MonteCarloHelper.
+ *
+ * Paths are generated in chunks of CHUNK_PATHS on a dedicated ForkJoinPool of
+ * bonds.simulation.parallelism threads. Each chunk draws from its own SplittableRandom, split from
+ * the seed in chunk order before any chunk runs, and counts its paths in its own QuantileSketch; the
+ * sketches and the chunk sums are combined in chunk order. The same seed therefore gives the same
+ * result whatever the number of threads, and memory stays bounded by the sketches however many paths
+ * are run.
+ */
+@Service
+public class MonteCarloService {
+
+    static final int CHUNK_PATHS = 4096;
+
+    private record Snapshot(PortfolioCashFlows.StepMoments flows, double baseYield, double presentValue) {
+    }
+
+    private final PortfolioStoreService portfolioStoreService;
+    private final MonteCarloHelper monteCarloHelper;
+    private final int stepDays;
+    private final int maxPaths;
+    private final double relativeAccuracy;
+    private final ForkJoinPool pool;
+
+    public MonteCarloService(PortfolioStoreService portfolioStoreService, MonteCarloHelper monteCarloHelper,
+                             @Value("${bonds.simulation.step-days:30}") int stepDays,
+                             @Value("${bonds.simulation.max-paths:10000000}") int maxPaths,
+                             @Value("${bonds.simulation.relative-accuracy:0.0005}") double relativeAccuracy,
+                             @Value("${bonds.simulation.parallelism:0}") int parallelism) {
+        if (stepDays < 1) {
+            throw new IllegalArgumentException("bonds.simulation.step-days must be at least 1");
+        }
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("bonds.simulation.parallelism cannot be negative");
+        }
+        this.portfolioStoreService = portfolioStoreService;
+        this.monteCarloHelper = monteCarloHelper;
+        this.stepDays = stepDays;
+        this.maxPaths = maxPaths;
+        this.relativeAccuracy = relativeAccuracy;
+        this.pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @param model vasicek or hull-white
+     * @param meanReversion Mean reversion speed, per year
+     * @param volatility Short rate volatility in basis points per √year
+     * @param longTermRate Vasicek long-term rate in basis points, null for the starting rate
+     * @param paths Number of paths, 1 to bonds.simulation.max-paths
+     * @param seed Seed of the random streams, the same seed gives the same result
+     * @param probabilities Quantiles to report, each between 0 and 1
+     * @return The present value distribution as of today, or empty if there is no such portfolio
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    public Optional<SimulationResponse> simulate(UUID portfolioId, String model, double meanReversion, double volatility,
+                                                 Double longTermRate, int paths, long seed, List<Double> probabilities) {
+        if (paths < 1 || paths > maxPaths) {
+            throw new IllegalArgumentException("Invalid paths: " + paths + ", must be between 1 and " + maxPaths);
+        }
+        for (double probability : probabilities) {
+            if (!(probability >= 0 && probability <= 1)) {
+                throw new IllegalArgumentException("Invalid quantile: " + probability + ", must be between 0 and 1");
+            }
+        }
+        LocalDate today = LocalDate.now();
+        return portfolioStoreService.read(portfolioId, stored -> {
+            double irr = stored.getPortfolio().getInternalRateOfReturn();
+            return new Snapshot(stored.getCashFlows().stepMoments(today, stepDays), irr,
+                    stored.getCashFlows().value(today, irr / 10000.0).presentValue());
+        }).map(snapshot -> {
+            // The portfolio IRR is annual (effective), the models' rates continuously compounded
+            double initialRate = Math.log1p(snapshot.baseYield() / 10000.0);
+            ShortRateModel shortRateModel = switch (model.toLowerCase()) {
+                case "vasicek" -> new ShortRateModel.Vasicek(meanReversion, volatility / 10000.0, initialRate,
+                        longTermRate != null ? Math.log1p(longTermRate / 10000.0) : initialRate);
+                case "hull-white" -> new ShortRateModel.HullWhite(meanReversion, volatility / 10000.0, initialRate);
+                default -> throw new IllegalArgumentException("Invalid model: " + model);
+            };
+            PortfolioCashFlows.StepMoments flows = snapshot.flows();
+            MonteCarloHelper.PathGrid grid = monteCarloHelper.pathGrid(shortRateModel, flows);
+
+            int chunks = (paths + CHUNK_PATHS - 1) / CHUNK_PATHS;
+            SplittableRandom root = new SplittableRandom(seed);
+            SplittableRandom[] streams = new SplittableRandom[chunks];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                streams[chunk] = root.split();
+            }
+            QuantileSketch[] sketches = new QuantileSketch[chunks];
+            double[] sums = new double[chunks];
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int chunkPaths = Math.min(CHUNK_PATHS, paths - chunk * CHUNK_PATHS);
+                sketches[chunk] = new QuantileSketch(relativeAccuracy);
+                sums[chunk] = monteCarloHelper.simulate(flows, grid, streams[chunk], chunkPaths, sketches[chunk]);
+            })).join();
+
+            QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+            double sum = 0.0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                sketch.merge(sketches[chunk]);
+                sum += sums[chunk];
+            }
+            List<QuantileResponse> quantiles = new ArrayList<>(probabilities.size());
+            for (double probability : probabilities) {
+                quantiles.add(new QuantileResponse(probability, sketch.quantile(probability)));
+            }
+            return new SimulationResponse(portfolioId, today, shortRateModel.name(), paths, seed, flows.steps(),
+                    stepDays, snapshot.baseYield(), snapshot.presentValue(), sum / paths, sketch.getMin(),
+                    sketch.getMax(), quantiles);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
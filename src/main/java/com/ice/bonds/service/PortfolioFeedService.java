@@ -0,0 +1,305 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioUpdateEvent;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.StoredPortfolio;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of stored portfolio analytics.
+ *
+ * A subscriber first gets a "snapshot" event with the full analysis, then an "update" event
+ * (PortfolioUpdateEvent) whenever positions change: new aggregates plus the changed positions only.
+ *
+ * Changes are coalesced: the first change schedules a flush bonds.feed.coalesce-window later, and
+ * every change arriving before the flush is folded into the same event, which is built from the
+ * portfolio state at flush time. A burst of updates therefore costs subscribers one event.
+ * Portfolios nobody subscribes to are not tracked at all, a feed is dropped with its last subscriber.
+ *
+ * Events are sent outside the feed's lock, so a slow subscriber never holds up changes or other
+ * subscriptions to the portfolio. Each subscriber's own lock keeps its events in order: the snapshot
+ * is sent before any update, and updates in version order.
+ */
+@Service
+public class PortfolioFeedService implements PortfolioStoreService.ChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioFeedService.class);
+
+    /**
+     * Subscribers and the changes waiting to be flushed for one portfolio.
+     * Guarded by its own monitor, which is always taken before the StoredPortfolio's and a Subscriber's.
+     */
+    private static final class Feed {
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private final Set<String> pendingChanged = new LinkedHashSet<>();
+        private final Set<String> pendingRemoved = new LinkedHashSet<>();
+        private boolean flushScheduled;
+        // Set once the feed has left the map, a subscriber racing with that starts a new feed
+        private boolean closed;
+    }
+
+    /**
+     * One subscription. Its lock is held while sending to it, so its events go out one at a time and in
+     * the order they were taken.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock sending = new ReentrantLock();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return false if the subscriber is gone, it has then been completed with the error
+         */
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            sending.lock();
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            } finally {
+                sending.unlock();
+            }
+        }
+    }
+
+    private final PortfolioStoreService portfolioStoreService;
+    private final PortfolioService portfolioService;
+    private final long coalesceWindowMillis;
+    private final long emitterTimeoutMillis;
+    private final ConcurrentMap<UUID, Feed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public PortfolioFeedService(PortfolioStoreService portfolioStoreService, PortfolioService portfolioService,
+                                @Value("${bonds.feed.coalesce-window:PT0.2S}") Duration coalesceWindow,
+                                @Value("${bonds.feed.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        if (coalesceWindow.isNegative()) {
+            throw new IllegalArgumentException("bonds.feed.coalesce-window cannot be negative");
+        }
+        this.portfolioStoreService = portfolioStoreService;
+        this.portfolioService = portfolioService;
+        this.coalesceWindowMillis = coalesceWindow.toMillis();
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        portfolioStoreService.addListener(this);
+    }
+
+    /**
+     * Subscribes to a stored portfolio. The snapshot event is sent before this returns.
+     *
+     * @param portfolioId The portfolio id
+     * @return The emitter to return from the controller, or empty if there is no such portfolio
+     */
+    public Optional<SseEmitter> subscribe(UUID portfolioId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMillis));
+        Feed feed;
+        PortfolioAnalysisResponse snapshot;
+        while (true) {
+            feed = feeds.computeIfAbsent(portfolioId, id -> new Feed());
+            synchronized (feed) {
+                if (feed.closed) {
+                    continue;
+                }
+                Optional<PortfolioAnalysisResponse> current = portfolioStoreService.get(portfolioId);
+                if (current.isEmpty()) {
+                    removeIfUnused(portfolioId, feed);
+                    return Optional.empty();
+                }
+                snapshot = current.get();
+                // Held until the snapshot is out, an update flushed meanwhile waits for it
+                subscriber.sending.lock();
+                feed.subscribers.add(subscriber);
+                break;
+            }
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .name("snapshot")
+                    .data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(portfolioId, feed, subscriber);
+            subscriber.emitter.completeWithError(e);
+            return Optional.of(subscriber.emitter);
+        } finally {
+            subscriber.sending.unlock();
+        }
+        Feed subscribed = feed;
+        Runnable unsubscribe = () -> unsubscribe(portfolioId, subscribed, subscriber);
+        subscriber.emitter.onCompletion(unsubscribe);
+        subscriber.emitter.onTimeout(unsubscribe);
+        subscriber.emitter.onError(error -> unsubscribe.run());
+        return Optional.of(subscriber.emitter);
+    }
+
+    @Override
+    public void onPortfolioChanged(UUID portfolioId, Set<String> changedIsins, Set<String> removedIsins) {
+        Feed feed = feeds.get(portfolioId);
+        if (feed == null) {
+            return;
+        }
+        // Checked under the lock, a subscriber reading its snapshot now adds its emitter before this runs
+        synchronized (feed) {
+            if (feed.subscribers.isEmpty()) {
+                return;
+            }
+            feed.pendingChanged.addAll(changedIsins);
+            feed.pendingRemoved.removeAll(changedIsins);
+            feed.pendingChanged.removeAll(removedIsins);
+            feed.pendingRemoved.addAll(removedIsins);
+            if (!feed.flushScheduled) {
+                feed.flushScheduled = true;
+                flusher.schedule(() -> flush(portfolioId, feed), coalesceWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void onPortfolioDeleted(UUID portfolioId) {
+        Feed feed = feeds.remove(portfolioId);
+        if (feed == null) {
+            return;
+        }
+        List<Subscriber> subscribers;
+        synchronized (feed) {
+            feed.closed = true;
+            subscribers = new ArrayList<>(feed.subscribers);
+            feed.subscribers.clear();
+        }
+        SseEmitter.SseEventBuilder deleted = SseEmitter.event().name("deleted").data(portfolioId.toString());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.send(deleted)) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @return Number of open subscriptions to the portfolio
+     */
+    public int getSubscriberCount(UUID portfolioId) {
+        Feed feed = feeds.get(portfolioId);
+        if (feed == null) {
+            return 0;
+        }
+        synchronized (feed) {
+            return feed.subscribers.size();
+        }
+    }
+
+    /**
+     * @return Number of portfolios with at least one open subscription
+     */
+    public int getFeedCount() {
+        return feeds.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        for (Feed feed : feeds.values()) {
+            List<Subscriber> subscribers;
+            synchronized (feed) {
+                subscribers = new ArrayList<>(feed.subscribers);
+            }
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private void flush(UUID portfolioId, Feed feed) {
+        PortfolioUpdateEvent event;
+        List<Subscriber> subscribers;
+        synchronized (feed) {
+            feed.flushScheduled = false;
+            Set<String> changed = new LinkedHashSet<>(feed.pendingChanged);
+            Set<String> removed = new LinkedHashSet<>(feed.pendingRemoved);
+            feed.pendingChanged.clear();
+            feed.pendingRemoved.clear();
+
+            Optional<PortfolioUpdateEvent> update = portfolioStoreService.read(portfolioId,
+                    stored -> buildUpdate(portfolioId, stored, changed, removed));
+            if (update.isEmpty()) {
+                // Deleted between the change and the flush, onPortfolioDeleted closes the subscribers
+                return;
+            }
+            event = update.get();
+            subscribers = new ArrayList<>(feed.subscribers);
+        }
+        // One flusher thread, so the updates of a portfolio still go out in version order
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .id(Long.toString(event.getVersion()))
+                .name("update")
+                .data(event, MediaType.APPLICATION_JSON);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.send(builder)) {
+                logger.debug("Dropping portfolio {} subscriber", portfolioId);
+                unsubscribe(portfolioId, feed, subscriber);
+            }
+        }
+    }
+
+    private void unsubscribe(UUID portfolioId, Feed feed, Subscriber subscriber) {
+        synchronized (feed) {
+            feed.subscribers.remove(subscriber);
+            removeIfUnused(portfolioId, feed);
+        }
+    }
+
+    // Called holding the feed's lock
+    private void removeIfUnused(UUID portfolioId, Feed feed) {
+        if (feed.subscribers.isEmpty() && !feed.closed) {
+            feed.closed = true;
+            feeds.remove(portfolioId, feed);
+        }
+    }
+
+    private PortfolioUpdateEvent buildUpdate(UUID portfolioId, StoredPortfolio stored,
+                                             Set<String> changed, Set<String> removed) {
+        List<BondInPortfolioAnalysisResponse> changedBonds = new ArrayList<>(changed.size());
+        for (String isin : changed) {
+            Bond bond = stored.getBond(isin);
+            if (bond != null) {
+                changedBonds.add(portfolioService.mapToBondInPortfolioAnalysisResponse(bond));
+            }
+        }
+        return new PortfolioUpdateEvent(
+                portfolioId,
+                stored.getVersion(),
+                stored.getPortfolio().getWeightedMacaulayDuration(),
+                stored.getPortfolio().getWeightedModifiedDuration(),
+                stored.getPortfolio().getTotalPortfolioValue(),
+                changedBonds,
+                new ArrayList<>(removed));
+    }
+}
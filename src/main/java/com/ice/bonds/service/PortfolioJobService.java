@@ -0,0 +1,196 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs portfolio analysis in the background so large portfolios don't hold an HTTP request open.
+ *
+ * Jobs run on a fixed pool of bonds.jobs.workers threads. At most bonds.jobs.queue-capacity jobs
+ * wait for a worker, beyond that submit throws RejectedExecutionException (mapped to 429).
+ * Finished jobs are kept for bonds.jobs.result-retention and then evicted.
+ * A running job takes an analytics permit like a request does (see AnalyticsConcurrencyLimiter).
+ */
+@Service
+public class PortfolioJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioJobService.class);
+
+    private final PortfolioService portfolioService;
+    private final AnalyticsConcurrencyLimiter analyticsLimiter;
+    private final Duration resultRetention;
+    private final Clock clock;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService evictor;
+    private final ConcurrentMap<UUID, PortfolioJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PortfolioJobService(PortfolioService portfolioService, AnalyticsConcurrencyLimiter analyticsLimiter,
+                               @Value("${bonds.jobs.workers:0}") int workerCount,
+                               @Value("${bonds.jobs.queue-capacity:16}") int queueCapacity,
+                               @Value("${bonds.jobs.result-retention:PT15M}") Duration resultRetention) {
+        this(portfolioService, analyticsLimiter, workerCount, queueCapacity, resultRetention, Clock.systemUTC());
+    }
+
+    /**
+     * @param portfolioService Service used to analyze each job's bonds
+     * @param analyticsLimiter Limiter each job's analysis runs under
+     * @param workerCount Number of worker threads, 0 to use one per available processor
+     * @param queueCapacity Maximum number of jobs waiting for a worker
+     * @param resultRetention How long finished jobs are kept after completion
+     * @param clock Clock for submission/completion times and retention
+     */
+    public PortfolioJobService(PortfolioService portfolioService, AnalyticsConcurrencyLimiter analyticsLimiter,
+                               int workerCount, int queueCapacity, Duration resultRetention, Clock clock) {
+        if (workerCount < 0) {
+            throw new IllegalArgumentException("bonds.jobs.workers cannot be negative");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("bonds.jobs.queue-capacity must be at least 1");
+        }
+        if (resultRetention.isNegative() || resultRetention.isZero()) {
+            throw new IllegalArgumentException("bonds.jobs.result-retention must be positive");
+        }
+        int threads = workerCount == 0 ? Runtime.getRuntime().availableProcessors() : workerCount;
+
+        this.portfolioService = portfolioService;
+        this.analyticsLimiter = analyticsLimiter;
+        this.resultRetention = resultRetention;
+        this.clock = clock;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads("portfolio-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Sweep a few times per retention period, but not more than once a second
+        long sweepMillis = Math.max(1000L, resultRetention.toMillis() / 4);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(daemonThreads("portfolio-job-evictor-"));
+        this.evictor.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits a portfolio for background analysis.
+     *
+     * @param bondDTORequests The bonds to analyze
+     * @return The queued job
+     * @throws RejectedExecutionException if all workers are busy and the queue is full
+     */
+    public PortfolioJob submit(List<BondDTORequest> bondDTORequests) {
+        PortfolioJob job = new PortfolioJob(bondDTORequests.size(), clock.instant());
+        jobs.put(job.getId(), job);
+        try {
+            workers.execute(() -> run(job, bondDTORequests));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        logger.info("Queued portfolio job {} with {} bonds", job.getId(), job.getTotalBonds());
+        return job;
+    }
+
+    /**
+     * Looks up a job by id. Jobs that finished longer than the retention period ago are not returned.
+     *
+     * @param jobId The job id
+     * @return The job, or empty if it is unknown or has expired
+     */
+    public Optional<PortfolioJob> getJob(UUID jobId) {
+        PortfolioJob job = jobs.get(jobId);
+        if (job != null && isExpired(job, clock.instant())) {
+            jobs.remove(jobId, job);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Removes every finished job whose retention period has elapsed.
+     *
+     * @return Number of jobs removed
+     */
+    public int evictExpired() {
+        Instant now = clock.instant();
+        int removed = 0;
+        for (PortfolioJob job : jobs.values()) {
+            if (isExpired(job, now) && jobs.remove(job.getId(), job)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.debug("Evicted {} expired portfolio jobs", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * @return Number of jobs waiting for a worker
+     */
+    public int getQueuedJobCount() {
+        return workers.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(PortfolioJob job, List<BondDTORequest> bondDTORequests) {
+        try {
+            // The job stays QUEUED until it gets an analytics slot, it never times out waiting for one
+            Portfolio portfolio = analyticsLimiter.callWaiting(() -> {
+                job.markRunning(clock.instant());
+                return portfolioService.addBondsToPortfolio(
+                        new Portfolio("default-account"), bondDTORequests, job::setAnalyzedBonds);
+            });
+            job.markCompleted(portfolio, clock.instant());
+            logger.info("Portfolio job {} completed", job.getId());
+        } catch (RuntimeException e) {
+            job.markFailed(e.getMessage(), clock.instant());
+            logger.error("Portfolio job {} failed: {}", job.getId(), e.getMessage());
+        } catch (Error e) {
+            // Pollers must still see the job finish, the worker thread then dies with the error
+            job.markFailed(e.toString(), clock.instant());
+            logger.error("Portfolio job {} failed", job.getId(), e);
+            throw e;
+        }
+    }
+
+    private boolean isExpired(PortfolioJob job, Instant now) {
+        Instant completedAt = job.getCompletedAt();
+        return job.isFinished() && completedAt != null && !now.isBefore(completedAt.plus(resultRetention));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
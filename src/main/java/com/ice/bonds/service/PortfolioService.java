@@ -1,22 +1,55 @@
 package com.ice.bonds.service;
 
 import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.CurveHelper;
 import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
 import com.ice.bonds.model.Bond;
 import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.YieldCurve;
+import com.ice.bonds.serialization.BondColumns;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
 public class PortfolioService {
 
     private final BondService bondService;
     private final PortfolioHelper portfolioHelper;
+    private final AnalyticsMetrics metrics;
+    private final YieldCurveService yieldCurveService;
+    private final CurveHelper curveHelper;
 
-    public PortfolioService(BondService bondService, PortfolioHelper portfolioHelper) {
+    // Without a curve service no curve is ever set, responses carry no Z-spreads
+    public PortfolioService(BondService bondService, PortfolioHelper portfolioHelper, AnalyticsMetrics metrics) {
+        this(bondService, portfolioHelper, metrics, new YieldCurveService(), curveHelper(new CommonHelper()));
+    }
+
+    @Autowired
+    public PortfolioService(BondService bondService, PortfolioHelper portfolioHelper, AnalyticsMetrics metrics,
+                            YieldCurveService yieldCurveService, CurveHelper curveHelper) {
         this.bondService = bondService;
         this.portfolioHelper = portfolioHelper;
+        this.metrics = metrics;
+        this.yieldCurveService = yieldCurveService;
+        this.curveHelper = curveHelper;
+    }
+
+    private static CurveHelper curveHelper(CommonHelper commonHelper) {
+        return new CurveHelper(commonHelper, new CashFlowHelper(commonHelper));
     }
 
     public Portfolio addBondToPortfolio(Portfolio portfolio, BondDTORequest bondDTORequest){
@@ -29,24 +62,232 @@ public class PortfolioService {
     }
 
     public Portfolio addBondsToPortfolio(Portfolio portfolio, List<BondDTORequest> bondDTORequests){
+        return addBondsToPortfolio(portfolio, bondDTORequests, analyzed -> {});
+    }
+
+    /**
+     * Adds bonds to the portfolio and analyzes it, reporting progress as bonds are analyzed.
+     *
+     * @param portfolio The portfolio to add bonds to
+     * @param bondDTORequests The bonds to add
+     * @param progress Called with the number of bonds analyzed so far, after each bond
+     * @return The analyzed portfolio
+     */
+    public Portfolio addBondsToPortfolio(Portfolio portfolio, List<BondDTORequest> bondDTORequests, IntConsumer progress){
+        long start = metrics.start();
+        int analyzed = 0;
         for(BondDTORequest bondDTORequest : bondDTORequests){
             Bond bond = bondService.analyzeBond(bondDTORequest, java.time.LocalDate.now());
             portfolio.addBond(bond);
+            progress.accept(++analyzed);
         }
         analyzePortfolio(portfolio);
         for(Bond bond : portfolio.getBonds()){
             bond.setBondWeightInPortfolio(portfolioHelper.calculateBondWeight(bond, portfolio));
         }
+        metrics.recordAddBonds(start, bondDTORequests.size());
         return portfolio;
     }
 
+    /**
+     * Adds Bond models parsed from the v2 request schema to the portfolio and analyzes it.
+     * Each bond is validated before analysis.
+     *
+     * @param portfolio The portfolio to add bonds to
+     * @param bonds The parsed, unvalidated bonds
+     * @return The analyzed portfolio
+     */
+    public Portfolio addBondModelsToPortfolio(Portfolio portfolio, List<Bond> bonds){
+        long start = metrics.start();
+        LocalDate today = LocalDate.now();
+        for(Bond bond : bonds){
+            bondService.validateBond(bond);
+            portfolio.addBond(bondService.analyzeBond(bond, today));
+        }
+        analyzePortfolio(portfolio);
+        for(Bond bond : portfolio.getBonds()){
+            bond.setBondWeightInPortfolio(portfolioHelper.calculateBondWeight(bond, portfolio));
+        }
+        metrics.recordAddBonds(start, bonds.size());
+        return portfolio;
+    }
+
+    /**
+     * Adds bonds decoded from the binary columnar format to the portfolio and analyzes it.
+     * Rows are validated and analyzed one at a time, no BondDTORequest is created.
+     *
+     * @param portfolio The portfolio to add bonds to
+     * @param columns The decoded request columns
+     * @return The analyzed portfolio
+     */
+    public Portfolio addBondsToPortfolio(Portfolio portfolio, BondColumns columns){
+        long start = metrics.start();
+        LocalDate today = LocalDate.now();
+        for(int row = 0; row < columns.size(); row++){
+            Bond bond = columns.toBond(row);
+            bondService.validateBond(bond);
+            portfolio.addBond(bondService.analyzeBond(bond, today));
+        }
+        analyzePortfolio(portfolio);
+        for(Bond bond : portfolio.getBonds()){
+            bond.setBondWeightInPortfolio(portfolioHelper.calculateBondWeight(bond, portfolio));
+        }
+        metrics.recordAddBonds(start, columns.size());
+        return portfolio;
+    }
+
+
+    /**
+     * Maps an analyzed Portfolio model to a PortfolioAnalysisResponse DTO.
+     * When a yield curve is set, every bond's Z-spread over it is solved, in one batch, at the bond's
+     * dirty price, and averaged weighted by the bonds' market values.
+     *
+     * @param portfolio The portfolio to map
+     * @return The mapped PortfolioAnalysisResponse
+     */
+    public PortfolioAnalysisResponse mapToPortfolioAnalysisResponse(Portfolio portfolio) {
+        return mapToPortfolioAnalysisResponse(portfolio, null);
+    }
+
+    /**
+     * Maps an analyzed Portfolio model to a PortfolioAnalysisResponse DTO, serializing only some fields
+     * of each bond. An empty projection builds no bond DTOs at all, only the portfolio's figures.
+     *
+     * @param portfolio The portfolio to map
+     * @param bondFields Fields serialized for each bond, null for all of them, empty for no bonds
+     * @return The mapped PortfolioAnalysisResponse
+     */
+    public PortfolioAnalysisResponse mapToPortfolioAnalysisResponse(Portfolio portfolio,
+                                                                    Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        return mapToPortfolioAnalysisResponse(portfolio, bondFields, curve -> zSpreads(portfolio.getBonds(), curve, LocalDate.now()));
+    }
+
+    /**
+     * mapToPortfolioAnalysisResponse with the Z-spreads taken from the caller, e.g. cached with the portfolio.
+     * The spreads are only asked for when a curve is set and the response carries them: a projection
+     * that leaves out zSpread gets neither the bonds' spreads nor weightedZSpread, and skips the solve.
+     *
+     * @param portfolio The portfolio to map
+     * @param bondFields Fields serialized for each bond, null for all of them, empty for no bonds
+     * @param zSpreads The bonds' spreads over a curve, as zSpreads returns them
+     * @return The mapped PortfolioAnalysisResponse
+     */
+    public PortfolioAnalysisResponse mapToPortfolioAnalysisResponse(Portfolio portfolio,
+                                                                    Set<BondInPortfolioAnalysisResponse.Field> bondFields,
+                                                                    Function<YieldCurve, double[]> zSpreads) {
+        List<Bond> bonds = portfolio.getBonds();
+        boolean summaryOnly = bondFields != null && bondFields.isEmpty();
+        boolean spreadsProjected = bondFields == null || summaryOnly
+                || bondFields.contains(BondInPortfolioAnalysisResponse.Field.Z_SPREAD);
+        Optional<YieldCurve> curve = spreadsProjected ? yieldCurveService.getCurve() : Optional.empty();
+        List<BondInPortfolioAnalysisResponse> bondResponses = null;
+        Double weightedZSpread = null;
+        if (curve.isEmpty()) {
+            if (!summaryOnly) {
+                bondResponses = bonds.stream()
+                        .map(this::mapToBondInPortfolioAnalysisResponse)
+                        .collect(Collectors.toList());
+            }
+        } else {
+            double[] spreads = zSpreads.apply(curve.get());
+            if (!summaryOnly) {
+                bondResponses = new ArrayList<>(bonds.size());
+            }
+            double weightedSpreadSum = 0.0;
+            long totalMarketValue = 0;
+            for (int i = 0; i < spreads.length; i++) {
+                Bond bond = bonds.get(i);
+                Double zSpread = Double.isNaN(spreads[i]) ? null : spreads[i] * 10000.0;
+                if (!summaryOnly) {
+                    bondResponses.add(mapToBondInPortfolioAnalysisResponse(bond, zSpread));
+                }
+                if (zSpread != null) {
+                    weightedSpreadSum += zSpread * bond.getTotalMarketValue();
+                    totalMarketValue += bond.getTotalMarketValue();
+                }
+            }
+            weightedZSpread = totalMarketValue == 0 ? null : weightedSpreadSum / totalMarketValue;
+        }
+
+        return new PortfolioAnalysisResponse(
+                portfolio.getId(),
+                portfolio.getAccountId(),
+                bondResponses,
+                portfolio.getWeightedMacaulayDuration(),
+                portfolio.getWeightedModifiedDuration(),
+                portfolio.getTotalPortfolioValue(),
+                portfolio.getWeightedYieldToMaturity(),
+                portfolio.getInternalRateOfReturn(),
+                weightedZSpread,
+                bondFields
+        );
+    }
 
     /**
-     * Analyze the portfolio to calculate weighted durations and total value.
+     * @param bonds The bonds, analyzed
+     * @param curve The curve
+     * @param today Valuation date, the curve's time 0
+     * @return Each bond's Z-spread over the curve at its dirty price, decimal, NaN where it has none
+     */
+    public double[] zSpreads(List<Bond> bonds, YieldCurve curve, LocalDate today) {
+        double[] prices = new double[bonds.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = bonds.get(i).getDirtyPrice();
+        }
+        return curveHelper.zSpreads(bonds, prices, curve, today);
+    }
+
+    /**
+     * Maps a Bond model to a BondInPortfolioAnalysisResponse DTO.
+     *
+     * @param bond The bond to map
+     * @return The mapped BondInPortfolioAnalysisResponse
+     */
+    public BondInPortfolioAnalysisResponse mapToBondInPortfolioAnalysisResponse(Bond bond) {
+        return mapToBondInPortfolioAnalysisResponse(bond, null);
+    }
+
+    /**
+     * @param bond The bond to map
+     * @param zSpread The bond's Z-spread in bps, null if it has none
+     * @return The mapped BondInPortfolioAnalysisResponse
+     */
+    public BondInPortfolioAnalysisResponse mapToBondInPortfolioAnalysisResponse(Bond bond, Double zSpread) {
+        return new BondInPortfolioAnalysisResponse(
+                bond.getISIN(),
+                bond.getYieldToMaturity(),
+                bond.getMacaulayDuration(),
+                bond.getModifiedDuration(),
+                bond.getMaturityDate(),
+                bond.getIssueDate(),
+                bond.getCouponRate(),
+                bond.getFaceValue(),
+                bond.getMarketValue(),
+                bond.getPaymentTerm(),
+                bond.getQuantity(),
+                bond.getBondWeightInPortfolio(),
+                bond.getAccruedInterest(),
+                bond.getDirtyPrice(),
+                zSpread
+        );
+    }
+
+    /**
+     * Analyze the portfolio to calculate weighted durations, yields and total value.
      * @param portfolio The portfolio to analyze
      * MUTATES the portfolio object by setting calculated values.
      */
     public void analyzePortfolio(Portfolio portfolio){
+        analyzePortfolioAggregates(portfolio);
+        analyzePortfolioIRR(portfolio);
+    }
+
+    /**
+     * Analyze the portfolio like analyzePortfolio, except for the IRR, which needs every cash flow.
+     * @param portfolio The portfolio to analyze
+     * MUTATES the portfolio object by setting calculated values.
+     */
+    public void analyzePortfolioAggregates(Portfolio portfolio){
         double weightedMacaulayDuration = portfolioHelper.calculateWeightedAverageMacaulayDuration(portfolio);
         double weightedModifiedDuration = portfolioHelper.calculateWeightedAverageModifiedDuration(portfolio);
         long totalPortfolioValue = portfolioHelper.calculateTotalPortfolioValue(portfolio);
@@ -55,6 +296,16 @@ public class PortfolioService {
          portfolio.setWeightedMacaulayDuration(weightedMacaulayDuration);
          portfolio.setWeightedModifiedDuration(weightedModifiedDuration);
          portfolio.setTotalPortfolioValue(totalPortfolioValue);
+         portfolio.setWeightedYieldToMaturity(portfolioHelper.calculateWeightedAverageYTM(portfolio));
+    }
+
+    /**
+     * Recomputes only the portfolio IRR, over the merged cash flows of its bonds as of today.
+     * @param portfolio The portfolio to analyze
+     * MUTATES the portfolio object by setting the IRR.
+     */
+    public void analyzePortfolioIRR(Portfolio portfolio){
+        portfolio.setInternalRateOfReturn(portfolioHelper.calculatePortfolioIRR(portfolio, LocalDate.now()));
     }
 
 
@@ -0,0 +1,820 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.IsinExposureResponse;
+import com.ice.bonds.dto.IsinHoldingResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioValuationResponse;
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.dto.PriceTickResponse;
+import com.ice.bonds.dto.YieldScenarioResponse;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import com.ice.bonds.model.HoldingsIndex;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.PortfolioLogRecord;
+import com.ice.bonds.model.StoredPortfolio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory store of portfolios kept on the server, so clients can change positions instead of
+ * uploading and re-analyzing the whole book on every request.
+ *
+ * Each portfolio holds one position per ISIN. On a change only the affected bonds are re-analyzed,
+ * then the portfolio aggregates and weights are recomputed. Price ticks go further: the repriced
+ * positions' contributions are swapped in the StoredPortfolio running sums and weights are only
+ * refreshed on the next read, like the portfolio IRR. Each position change also adds or subtracts
+ * only that position's flows in the portfolio's netted PortfolioCashFlows.
+ * Every access to a portfolio is synchronized on its StoredPortfolio, different portfolios don't
+ * contend.
+ *
+ * A HoldingsIndex maps each ISIN to the portfolios holding it, kept up to date under the portfolio
+ * lock on every position change, so price ticks and exposure queries don't scan every portfolio.
+ *
+ * Registered ChangeListeners are called after each change, outside the portfolio lock.
+ *
+ * With persistence enabled every change is appended to the Journal under the portfolio lock, so the
+ * log holds each portfolio's changes in the order they were applied, and the call returns once the
+ * record is durable. replay() and restore() rebuild the store from the log and snapshots at startup.
+ * A recovered bond that can no longer be analyzed, one that matured while the service was down, is
+ * kept with no analytics rather than failing the startup.
+ */
+@Service
+public class PortfolioStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioStoreService.class);
+
+    /**
+     * Notified after a stored portfolio changes.
+     */
+    public interface ChangeListener {
+
+        /**
+         * @param portfolioId The changed portfolio
+         * @param changedIsins Positions added or updated
+         * @param removedIsins Positions removed
+         */
+        void onPortfolioChanged(UUID portfolioId, Set<String> changedIsins, Set<String> removedIsins);
+
+        /**
+         * @param portfolioId The deleted portfolio
+         */
+        default void onPortfolioDeleted(UUID portfolioId) {
+        }
+    }
+
+    /**
+     * Durable log of the store's changes, see PortfolioPersistenceService.
+     */
+    public interface Journal {
+
+        Journal NONE = new Journal() {
+            @Override
+            public long append(PortfolioLogRecord record) {
+                return 0;
+            }
+
+            @Override
+            public void awaitDurable(long lsn) {
+            }
+        };
+
+        /**
+         * Appends a record, called under the portfolio lock. The record shares live bonds and must be
+         * encoded before this returns.
+         *
+         * @return The record's log sequence number
+         */
+        long append(PortfolioLogRecord record);
+
+        /**
+         * Blocks until the record with the lsn and all before it are durable, called outside any lock.
+         */
+        void awaitDurable(long lsn);
+    }
+
+    private static final int MAX_ACCOUNT_ID_LENGTH = 256;
+
+    private final BondService bondService;
+    private final PortfolioService portfolioService;
+    private final PortfolioHelper portfolioHelper;
+    private final AnalyticsMetrics metrics;
+    private final ConcurrentMap<UUID, StoredPortfolio> portfolios = new ConcurrentHashMap<>();
+    private final HoldingsIndex holdingsIndex = new HoldingsIndex();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Journal journal = Journal.NONE;
+
+    public PortfolioStoreService(BondService bondService, PortfolioService portfolioService,
+                                 PortfolioHelper portfolioHelper, AnalyticsMetrics metrics) {
+        this.bondService = bondService;
+        this.portfolioService = portfolioService;
+        this.portfolioHelper = portfolioHelper;
+        this.metrics = metrics;
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts logging changes to the journal, after recovery.
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Analyzes and stores a new portfolio.
+     *
+     * @param accountId Account the portfolio belongs to
+     * @param bondDTORequests Initial positions, at most one per ISIN
+     * @return Analysis of the stored portfolio, its id identifies it in later calls
+     * @throws IllegalArgumentException if a bond is invalid or an ISIN appears more than once
+     */
+    public PortfolioAnalysisResponse create(String accountId, List<BondDTORequest> bondDTORequests) {
+        return create(accountId, bondDTORequests, null);
+    }
+
+    /**
+     * Analyzes and stores a new portfolio.
+     *
+     * @param accountId Account the portfolio belongs to
+     * @param bondDTORequests Initial positions, at most one per ISIN
+     * @param bondFields Bond fields of the response, null for all of them, empty for no bonds
+     * @return Analysis of the stored portfolio, its id identifies it in later calls
+     * @throws IllegalArgumentException if a bond is invalid or an ISIN appears more than once
+     */
+    public PortfolioAnalysisResponse create(String accountId, List<BondDTORequest> bondDTORequests,
+                                            Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        if (accountId.length() > MAX_ACCOUNT_ID_LENGTH) {
+            throw new IllegalArgumentException("Invalid accountId: longer than " + MAX_ACCOUNT_ID_LENGTH + " characters");
+        }
+        StoredPortfolio stored = new StoredPortfolio(new Portfolio(accountId));
+        LocalDate today = LocalDate.now();
+        for (Bond bond : analyzeUnique(bondDTORequests, today)) {
+            stored.putBond(bond);
+        }
+        reanalyze(stored);
+        UUID portfolioId = stored.getPortfolio().getId();
+        PortfolioAnalysisResponse response;
+        long lsn;
+        synchronized (stored) {
+            publish(stored);
+            lsn = log(stored, PortfolioLogRecord.create(portfolioId, accountId, List.copyOf(stored.getBonds())));
+            refreshStale(stored);
+            response = map(stored, bondFields);
+        }
+        journal.awaitDurable(lsn);
+        return response;
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @return Current analysis of the portfolio, or empty if there is no such portfolio
+     */
+    public Optional<PortfolioAnalysisResponse> get(UUID portfolioId) {
+        return get(portfolioId, null);
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @param bondFields Bond fields of the response, null for all of them, empty for no bonds
+     * @return Current analysis of the portfolio, or empty if there is no such portfolio
+     */
+    public Optional<PortfolioAnalysisResponse> get(UUID portfolioId, Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        return read(portfolioId, stored -> map(stored, bondFields));
+    }
+
+    /**
+     * Runs a read against a consistent view of the portfolio, with the bond weights and the IRR up to date.
+     * The StoredPortfolio must not be kept or modified beyond the function.
+     *
+     * @param portfolioId The portfolio id
+     * @param reader Function to apply while holding the portfolio lock
+     * @return The function's result, or empty if there is no such portfolio
+     */
+    public <T> Optional<T> read(UUID portfolioId, Function<StoredPortfolio, T> reader) {
+        StoredPortfolio stored = portfolios.get(portfolioId);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        synchronized (stored) {
+            refreshStale(stored);
+            return Optional.ofNullable(reader.apply(stored));
+        }
+    }
+
+    /**
+     * Adds positions, or replaces the positions with the same ISIN. Only these bonds are re-analyzed.
+     *
+     * @param portfolioId The portfolio id
+     * @param bondDTORequests Positions to add or replace, at most one per ISIN
+     * @return Analysis of the updated portfolio, or empty if there is no such portfolio
+     * @throws IllegalArgumentException if a bond is invalid or an ISIN appears more than once
+     */
+    public Optional<PortfolioAnalysisResponse> upsertBonds(UUID portfolioId, List<BondDTORequest> bondDTORequests) {
+        return upsertBonds(portfolioId, bondDTORequests, null);
+    }
+
+    /**
+     * Adds positions, or replaces the positions with the same ISIN. Only these bonds are re-analyzed.
+     *
+     * @param portfolioId The portfolio id
+     * @param bondDTORequests Positions to add or replace, at most one per ISIN
+     * @param bondFields Bond fields of the response, null for all of them, empty for no bonds
+     * @return Analysis of the updated portfolio, or empty if there is no such portfolio
+     * @throws IllegalArgumentException if a bond is invalid or an ISIN appears more than once
+     */
+    public Optional<PortfolioAnalysisResponse> upsertBonds(UUID portfolioId, List<BondDTORequest> bondDTORequests,
+                                                           Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        StoredPortfolio stored = portfolios.get(portfolioId);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        // Validate and analyze before taking the lock, a bad request leaves the portfolio unchanged
+        List<Bond> bonds = analyzeUnique(bondDTORequests, LocalDate.now());
+        Set<String> changed = new LinkedHashSet<>();
+        PortfolioAnalysisResponse response;
+        long lsn;
+        synchronized (stored) {
+            if (!isStored(portfolioId, stored)) {
+                return Optional.empty();
+            }
+            LocalDate today = LocalDate.now();
+            for (Bond bond : bonds) {
+                putPosition(stored, bond, today);
+                changed.add(bond.getISIN());
+            }
+            reanalyze(stored);
+            lsn = log(stored, PortfolioLogRecord.upsert(portfolioId, bonds));
+            refreshStale(stored);
+            response = map(stored, bondFields);
+        }
+        journal.awaitDurable(lsn);
+        notifyChanged(portfolioId, changed, Set.of());
+        return Optional.of(response);
+    }
+
+    /**
+     * Removes the position with the given ISIN.
+     *
+     * @param portfolioId The portfolio id
+     * @param isin The position to remove
+     * @return Analysis of the updated portfolio, or empty if there is no such portfolio or position
+     */
+    public Optional<PortfolioAnalysisResponse> removeBond(UUID portfolioId, String isin) {
+        return removeBond(portfolioId, isin, null);
+    }
+
+    /**
+     * Removes the position with the given ISIN.
+     *
+     * @param portfolioId The portfolio id
+     * @param isin The position to remove
+     * @param bondFields Bond fields of the response, null for all of them, empty for no bonds
+     * @return Analysis of the updated portfolio, or empty if there is no such portfolio or position
+     */
+    public Optional<PortfolioAnalysisResponse> removeBond(UUID portfolioId, String isin,
+                                                          Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        StoredPortfolio stored = portfolios.get(portfolioId);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        PortfolioAnalysisResponse response;
+        long lsn;
+        synchronized (stored) {
+            if (!isStored(portfolioId, stored) || !removePosition(stored, isin, LocalDate.now())) {
+                return Optional.empty();
+            }
+            reanalyze(stored);
+            lsn = log(stored, PortfolioLogRecord.remove(portfolioId, isin));
+            refreshStale(stored);
+            response = map(stored, bondFields);
+        }
+        journal.awaitDurable(lsn);
+        notifyChanged(portfolioId, Set.of(), Set.of(isin));
+        return Optional.of(response);
+    }
+
+    /**
+     * @param portfolioId The portfolio id
+     * @return true if the portfolio existed
+     */
+    public boolean delete(UUID portfolioId) {
+        StoredPortfolio stored = portfolios.get(portfolioId);
+        if (stored == null) {
+            return false;
+        }
+        long lsn;
+        synchronized (stored) {
+            if (!isStored(portfolioId, stored)) {
+                return false;
+            }
+            unpublish(stored);
+            lsn = log(stored, PortfolioLogRecord.delete(portfolioId));
+        }
+        journal.awaitDurable(lsn);
+        for (ChangeListener listener : listeners) {
+            listener.onPortfolioDeleted(portfolioId);
+        }
+        return true;
+    }
+
+    /**
+     * Applies new market prices to every stored position holding the ticked ISINs.
+     * The whole batch is validated first, a bad tick rejects the batch. Ticks are coalesced by ISIN,
+     * the last one wins, and only positions whose price actually changes are re-analyzed.
+     * Positions sharing a price and terms across portfolios are analyzed once per batch. A position
+     * that cannot be analyzed at its new price, e.g. one that has matured, keeps its old price and
+     * is counted as rejected, the rest of the batch is still applied.
+     *
+     * @param ticks The price ticks, in arrival order
+     * @return Counts of what the batch changed
+     * @throws IllegalArgumentException if a tick has an invalid ISIN or market value
+     */
+    public PriceTickResponse applyPriceTicks(List<PriceTickRequest> ticks) {
+        long start = metrics.start();
+        Map<String, Integer> prices = new LinkedHashMap<>();
+        for (PriceTickRequest tick : ticks) {
+            bondService.validateISIN(tick.getIsin());
+            prices.put(tick.getIsin(), bondService.validateValue(tick.getMarketValue(), "marketValue"));
+        }
+
+        // Group the ticks by holding portfolio, so each portfolio is locked once per batch
+        Map<StoredPortfolio, List<Map.Entry<String, Integer>>> pricesByHolder = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> price : prices.entrySet()) {
+            for (StoredPortfolio holder : holdingsIndex.getHolders(price.getKey()).values()) {
+                pricesByHolder.computeIfAbsent(holder, key -> new ArrayList<>()).add(price);
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<PricedTerms, PricedAnalytics> analyzed = new HashMap<>();
+        int repriced = 0;
+        int rejected = 0;
+        long lastLsn = 0;
+        Map<UUID, Set<String>> changedByPortfolio = new LinkedHashMap<>();
+        for (Map.Entry<StoredPortfolio, List<Map.Entry<String, Integer>>> entry : pricesByHolder.entrySet()) {
+            StoredPortfolio stored = entry.getKey();
+            UUID portfolioId = stored.getPortfolio().getId();
+            Set<String> changed = new LinkedHashSet<>();
+            synchronized (stored) {
+                if (!isStored(portfolioId, stored)) {
+                    continue;
+                }
+                for (Map.Entry<String, Integer> price : entry.getValue()) {
+                    if (!repricePosition(stored, stored.getBond(price.getKey()), price.getValue(), today, analyzed,
+                            changed)) {
+                        rejected++;
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    stored.incrementVersion();
+                    Map<String, Integer> applied = new LinkedHashMap<>();
+                    for (String isin : changed) {
+                        applied.put(isin, stored.getBond(isin).getMarketValue());
+                    }
+                    lastLsn = log(stored, PortfolioLogRecord.prices(portfolioId, applied));
+                }
+            }
+            if (!changed.isEmpty()) {
+                repriced += changed.size();
+                changedByPortfolio.put(portfolioId, changed);
+            }
+        }
+        // Subscribers only see prices that are durable, like every other change
+        journal.awaitDurable(lastLsn);
+        changedByPortfolio.forEach((portfolioId, changed) -> notifyChanged(portfolioId, changed, Set.of()));
+        metrics.recordPriceBatch(start, ticks.size(), repriced);
+        return new PriceTickResponse(ticks.size(), prices.size(), repriced, rejected, changedByPortfolio.size());
+    }
+
+    /**
+     * Exposure to an ISIN across every stored portfolio: total quantity and market value, and each
+     * position's weight and contribution to its portfolio's weighted durations.
+     * Only the portfolios holding the ISIN are visited.
+     *
+     * @param isin The ISIN
+     * @return The exposure, with no holdings if no stored portfolio holds the ISIN
+     * @throws IllegalArgumentException if the ISIN is invalid
+     */
+    public IsinExposureResponse getExposure(String isin) {
+        bondService.validateISIN(isin);
+        List<IsinHoldingResponse> holdings = new ArrayList<>();
+        long totalQuantity = 0;
+        long totalMarketValue = 0;
+        double macaulayValueSum = 0.0;
+        double modifiedValueSum = 0.0;
+        for (Map.Entry<UUID, StoredPortfolio> holder : holdingsIndex.getHolders(isin).entrySet()) {
+            IsinHoldingResponse holding = read(holder.getKey(), stored -> {
+                Bond bond = stored.getBond(isin);
+                if (bond == null) {
+                    return null;
+                }
+                return new IsinHoldingResponse(holder.getKey(), stored.getPortfolio().getAccountId(),
+                        bond.getQuantity(), bond.getTotalMarketValue(), bond.getBondWeightInPortfolio(),
+                        bond.getMacaulayDuration(), bond.getModifiedDuration());
+            }).orElse(null);
+            if (holding == null) {
+                continue;
+            }
+            holdings.add(holding);
+            totalQuantity += holding.getQuantity();
+            totalMarketValue += holding.getPositionMarketValue();
+            macaulayValueSum += holding.getMacaulayDuration() * holding.getPositionMarketValue();
+            modifiedValueSum += holding.getModifiedDuration() * holding.getPositionMarketValue();
+        }
+        return new IsinExposureResponse(isin, totalQuantity, totalMarketValue,
+                totalMarketValue == 0 ? 0.0 : macaulayValueSum / totalMarketValue,
+                totalMarketValue == 0 ? 0.0 : modifiedValueSum / totalMarketValue,
+                holdings);
+    }
+
+    /**
+     * Prices a stored portfolio's netted cash flows at a flat yield and at parallel shocks of it, one
+     * sweep over the flows per scenario however many positions the portfolio holds.
+     *
+     * @param portfolioId The portfolio id
+     * @param baseYield Annual (effective) yield in basis points, null for the portfolio IRR
+     * @param shocks Basis points added to the base yield, one scenario each
+     * @return The valuation as of today, or empty if there is no such portfolio
+     * @throws IllegalArgumentException if a shocked yield is -10000 bps or below
+     */
+    public Optional<PortfolioValuationResponse> valuation(UUID portfolioId, Double baseYield, List<Double> shocks) {
+        LocalDate today = LocalDate.now();
+        return read(portfolioId, stored -> {
+            double base = baseYield != null ? baseYield : stored.getPortfolio().getInternalRateOfReturn();
+            List<YieldScenarioResponse> scenarios = new ArrayList<>(shocks.size());
+            for (double shock : shocks) {
+                PortfolioCashFlows.Valuation valuation = stored.getCashFlows().value(today, (base + shock) / 10000.0);
+                scenarios.add(new YieldScenarioResponse(shock, base + shock, valuation.presentValue(),
+                        valuation.macaulayDuration(), valuation.modifiedDuration(), valuation.convexity()));
+            }
+            return new PortfolioValuationResponse(portfolioId, today, base, scenarios);
+        });
+    }
+
+    /**
+     * Restores a portfolio from a snapshot at startup, with its version and last applied log record.
+     * The bonds are re-analyzed as of today.
+     *
+     * @param snapshot A SNAPSHOT record
+     */
+    public void restore(PortfolioLogRecord snapshot) {
+        StoredPortfolio stored = restorePortfolio(snapshot.getPortfolioId(), snapshot.getAccountId(), snapshot.getBonds());
+        stored.setVersion(snapshot.getVersion());
+        stored.setLastLsn(snapshot.getLsn());
+    }
+
+    /**
+     * Applies a record read back from the write-ahead log at startup, in log order. Records the
+     * portfolio already reflects and changes to portfolios that no longer exist are skipped.
+     * The record is not logged again and listeners are not notified.
+     *
+     * @param record A record with its lsn
+     */
+    public void replay(PortfolioLogRecord record) {
+        UUID portfolioId = record.getPortfolioId();
+        StoredPortfolio stored = portfolios.get(portfolioId);
+        if (record.getType() == PortfolioLogRecord.Type.CREATE) {
+            if (stored == null) {
+                restorePortfolio(portfolioId, record.getAccountId(), record.getBonds()).setLastLsn(record.getLsn());
+            }
+            return;
+        }
+        if (stored == null) {
+            return;
+        }
+        synchronized (stored) {
+            if (record.getLsn() <= stored.getLastLsn()) {
+                return;
+            }
+            LocalDate today = LocalDate.now();
+            switch (record.getType()) {
+                case UPSERT -> {
+                    for (Bond bond : record.getBonds()) {
+                        putPosition(stored, analyzeRecovered(portfolioId, bond, today), today);
+                    }
+                    reanalyze(stored);
+                }
+                case REMOVE -> {
+                    if (removePosition(stored, record.getIsin(), today)) {
+                        reanalyze(stored);
+                    }
+                }
+                case DELETE -> unpublish(stored);
+                case PRICES -> {
+                    Map<PricedTerms, PricedAnalytics> analyzed = new HashMap<>();
+                    Set<String> changed = new LinkedHashSet<>();
+                    for (Map.Entry<String, Integer> price : record.getPrices().entrySet()) {
+                        Bond bond = stored.getBond(price.getKey());
+                        if (!repricePosition(stored, bond, price.getValue(), today, analyzed, changed)) {
+                            // The price was applied before the restart, keep it even if the position has matured since
+                            stored.subtractContribution(bond);
+                            bond.setMarketValue(price.getValue());
+                            stored.addContributionAndPublish(analyzeRecovered(portfolioId, bond, today));
+                        }
+                    }
+                    stored.incrementVersion();
+                }
+                default -> throw new IllegalArgumentException("Cannot replay a " + record.getType() + " record");
+            }
+            stored.setLastLsn(record.getLsn());
+        }
+    }
+
+    /**
+     * Passes every stored portfolio to the consumer as a SNAPSHOT record, one at a time under the
+     * portfolio lock. The record shares the live bonds, the consumer must encode it before returning.
+     *
+     * @param consumer Receives the records
+     */
+    public void snapshot(Consumer<PortfolioLogRecord> consumer) {
+        for (Map.Entry<UUID, StoredPortfolio> entry : portfolios.entrySet()) {
+            StoredPortfolio stored = entry.getValue();
+            synchronized (stored) {
+                if (isStored(entry.getKey(), stored)) {
+                    consumer.accept(PortfolioLogRecord.snapshot(entry.getKey(), stored.getPortfolio().getAccountId(),
+                            stored.getVersion(), stored.getLastLsn(), List.copyOf(stored.getBonds())));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Number of stored portfolios
+     */
+    public int size() {
+        return portfolios.size();
+    }
+
+    private StoredPortfolio restorePortfolio(UUID portfolioId, String accountId, List<Bond> bonds) {
+        Portfolio portfolio = new Portfolio(accountId);
+        portfolio.setId(portfolioId);
+        StoredPortfolio stored = new StoredPortfolio(portfolio);
+        LocalDate today = LocalDate.now();
+        for (Bond bond : bonds) {
+            stored.putBond(analyzeRecovered(portfolioId, bond, today));
+        }
+        reanalyze(stored);
+        synchronized (stored) {
+            publish(stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Analyzes a bond read back at startup. If it cannot be analyzed any more, it matured or matures
+     * today, it is kept with no analytics instead of failing the recovery.
+     */
+    private Bond analyzeRecovered(UUID portfolioId, Bond bond, LocalDate today) {
+        try {
+            return bondService.analyzeBond(bond, today);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            logger.warn("Restoring {} of portfolio {} without analytics: {}", bond.getISIN(), portfolioId, e.getMessage());
+            bond.setYieldToMaturity(0.0);
+            bond.setMacaulayDuration(0.0);
+            bond.setModifiedDuration(0.0);
+            bond.setAccruedInterest(0.0);
+            return bond;
+        }
+    }
+
+    /**
+     * Makes a new portfolio visible, call under its lock.
+     */
+    private void publish(StoredPortfolio stored) {
+        portfolios.put(stored.getPortfolio().getId(), stored);
+        for (Bond bond : stored.getBonds()) {
+            holdingsIndex.add(bond.getISIN(), stored);
+        }
+    }
+
+    /**
+     * Removes a deleted portfolio and its holdings, call under its lock.
+     */
+    private void unpublish(StoredPortfolio stored) {
+        UUID portfolioId = stored.getPortfolio().getId();
+        portfolios.remove(portfolioId, stored);
+        for (Bond bond : stored.getBonds()) {
+            holdingsIndex.remove(bond.getISIN(), portfolioId);
+        }
+    }
+
+    /**
+     * Adds or replaces a position and its cash flows, call under the portfolio lock.
+     */
+    private void putPosition(StoredPortfolio stored, Bond bond, LocalDate today) {
+        Bond previous = stored.getBond(bond.getISIN());
+        if (previous == null) {
+            holdingsIndex.add(bond.getISIN(), stored);
+        } else {
+            updateCashFlows(stored, previous, today, -1);
+        }
+        stored.putBond(bond);
+        updateCashFlows(stored, bond, today, 1);
+    }
+
+    /**
+     * Removes a position and its cash flows, call under the portfolio lock.
+     *
+     * @return false if there is no such position
+     */
+    private boolean removePosition(StoredPortfolio stored, String isin, LocalDate today) {
+        Bond removed = stored.removeBond(isin);
+        if (removed == null) {
+            return false;
+        }
+        holdingsIndex.remove(isin, stored.getPortfolio().getId());
+        updateCashFlows(stored, removed, today, -1);
+        return true;
+    }
+
+    private void updateCashFlows(StoredPortfolio stored, Bond bond, LocalDate today, int sign) {
+        if (stored.getCashFlows() != null) {
+            portfolioHelper.addCashFlows(stored.getCashFlows(), bond, today, sign);
+            stored.countCashFlowUpdate();
+        }
+    }
+
+    /**
+     * Appends the change to the journal, call under the portfolio lock right after applying it.
+     *
+     * @return The record's lsn, to wait on outside the lock
+     */
+    private long log(StoredPortfolio stored, PortfolioLogRecord record) {
+        long lsn = journal.append(record);
+        stored.setLastLsn(lsn);
+        return lsn;
+    }
+
+    /**
+     * @return true if the portfolio was not deleted, call under its lock before changing it
+     */
+    private boolean isStored(UUID portfolioId, StoredPortfolio stored) {
+        return portfolios.get(portfolioId) == stored;
+    }
+
+    /**
+     * Swaps the position's contribution to the running sums for its contribution at the new price.
+     * The analytics at the new price are taken from the batch's memo, or computed on a copy of the
+     * position, so a position that cannot be analyzed at the price is left untouched.
+     * Caller holds the portfolio lock.
+     *
+     * @return false if the position cannot be analyzed at the new price and was not repriced
+     */
+    private boolean repricePosition(StoredPortfolio stored, Bond bond, int marketValue, LocalDate today,
+                                    Map<PricedTerms, PricedAnalytics> analyzed, Set<String> changed) {
+        if (bond == null || bond.getMarketValue() == marketValue) {
+            return true;
+        }
+        PricedTerms terms = new PricedTerms(bond, marketValue);
+        PricedAnalytics analytics = analyzed.get(terms);
+        if (analytics == null) {
+            try {
+                analytics = analyzeAt(bond, marketValue, today);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                return false;
+            }
+            analyzed.put(terms, analytics);
+        }
+        stored.subtractContribution(bond);
+        bond.setMarketValue(marketValue);
+        bond.setYieldToMaturity(analytics.yieldToMaturity());
+        bond.setMacaulayDuration(analytics.macaulayDuration());
+        bond.setModifiedDuration(analytics.modifiedDuration());
+        bond.setAccruedInterest(analytics.accruedInterest());
+        stored.addContributionAndPublish(bond);
+        changed.add(bond.getISIN());
+        return true;
+    }
+
+    /**
+     * Analyzes a copy of the position at a new price, the position itself is not touched.
+     */
+    private PricedAnalytics analyzeAt(Bond bond, int marketValue, LocalDate today) {
+        Bond priced = new Bond(bond.getISIN(), bond.getMaturityDate(), bond.getIssueDate(), bond.getCouponRate(),
+                bond.getFaceValue(), marketValue, bond.getPaymentTerm(), bond.getQuantity());
+        priced.setType(bond.getType());
+        bondService.analyzeBond(priced, today);
+        return new PricedAnalytics(priced.getYieldToMaturity(), priced.getMacaulayDuration(),
+                priced.getModifiedDuration(), priced.getAccruedInterest());
+    }
+
+    /**
+     * The analytics inputs of a position at a price, quantity doesn't affect YTM or duration.
+     * The type is part of the terms, positions of one ISIN may be held as different kinds of bond.
+     */
+    private record PricedTerms(int marketValue, int faceValue, int couponRate, LocalDate maturityDate,
+                               LocalDate issueDate, String paymentTerm, BondType type) {
+
+        PricedTerms(Bond bond, int marketValue) {
+            this(marketValue, bond.getFaceValue(), bond.getCouponRate(), bond.getMaturityDate(), bond.getIssueDate(),
+                    bond.getPaymentTerm(), bond.getType());
+        }
+    }
+
+    /**
+     * Analytics computed once per batch for a PricedTerms, copied into every position with those terms.
+     */
+    private record PricedAnalytics(double yieldToMaturity, double macaulayDuration, double modifiedDuration,
+                                   double accruedInterest) {
+    }
+
+    private List<Bond> analyzeUnique(List<BondDTORequest> bondDTORequests, LocalDate today) {
+        Set<String> seen = new HashSet<>();
+        List<Bond> bonds = new ArrayList<>(bondDTORequests.size());
+        for (BondDTORequest bondDTORequest : bondDTORequests) {
+            Bond bond = bondService.analyzeBond(bondDTORequest, today);
+            if (!seen.add(bond.getISIN())) {
+                throw new IllegalArgumentException("Duplicate ISIN in portfolio: " + bond.getISIN());
+            }
+            bonds.add(bond);
+        }
+        return bonds;
+    }
+
+    /**
+     * Recomputes the aggregates and weights from the already analyzed bonds, bumps the version.
+     * The IRR is left to refreshStale before the next response, log replay does not pay for it.
+     */
+    private void reanalyze(StoredPortfolio stored) {
+        stored.syncPortfolioBonds();
+        portfolioService.analyzePortfolioAggregates(stored.getPortfolio());
+        if (stored.isCashFlowRebuildDue()) {
+            stored.resetCashFlows(portfolioHelper.aggregateCashFlows(stored.getBonds(), LocalDate.now()));
+        }
+        stored.markIrrStale();
+        refreshWeights(stored);
+        stored.resetSums();
+        stored.incrementVersion();
+    }
+
+    /**
+     * Maps the portfolio with its cached Z-spreads, solving them only if the positions or the curve
+     * changed since. Caller holds the portfolio lock, with refreshStale done.
+     */
+    private PortfolioAnalysisResponse map(StoredPortfolio stored, Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        return portfolioService.mapToPortfolioAnalysisResponse(stored.getPortfolio(), bondFields, curve -> {
+            LocalDate today = LocalDate.now();
+            double[] zSpreads = stored.getZSpreads(curve, today);
+            if (zSpreads == null) {
+                zSpreads = portfolioService.zSpreads(stored.getPortfolio().getBonds(), curve, today);
+                stored.setZSpreads(curve, today, zSpreads);
+            }
+            return zSpreads;
+        });
+    }
+
+    /**
+     * Brings the weights and the IRR up to date before a response is mapped. Caller holds the portfolio lock.
+     */
+    private void refreshStale(StoredPortfolio stored) {
+        if (stored.isWeightsStale()) {
+            refreshWeights(stored);
+        }
+        if (stored.isIrrStale()) {
+            Portfolio portfolio = stored.getPortfolio();
+            portfolio.setInternalRateOfReturn(
+                    portfolioHelper.calculatePortfolioIRR(portfolio, stored.getCashFlows(), LocalDate.now()));
+            stored.markIrrFresh();
+        }
+    }
+
+    private void refreshWeights(StoredPortfolio stored) {
+        Portfolio portfolio = stored.getPortfolio();
+        for (Bond bond : portfolio.getBonds()) {
+            bond.setBondWeightInPortfolio(portfolioHelper.calculateBondWeight(bond, portfolio));
+        }
+        stored.markWeightsFresh();
+    }
+
+    private void notifyChanged(UUID portfolioId, Set<String> changed, Set<String> removed) {
+        for (ChangeListener listener : listeners) {
+            listener.onPortfolioChanged(portfolioId, changed, removed);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ice.bonds.service;
+
+import com.ice.bonds.dto.YieldCurveRequest;
+import com.ice.bonds.dto.YieldCurveResponse;
+import com.ice.bonds.model.YieldCurve;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The current discount curve curve-based analytics price against. A new curve replaces the old one
+ * atomically; readers keep pricing against the curve they read, curves are immutable.
+ */
+@Service
+public class YieldCurveService {
+
+    private volatile YieldCurve curve;
+
+    /**
+     * @return The current curve, or empty if none was set
+     */
+    public Optional<YieldCurve> getCurve() {
+        return Optional.ofNullable(curve);
+    }
+
+    /**
+     * @param curve The new current curve
+     */
+    public void setCurve(YieldCurve curve) {
+        this.curve = curve;
+    }
+
+    /**
+     * Builds a curve from its pillars and makes it the current one.
+     *
+     * @param request Tenors with either zero rates or discount factors
+     * @return Pillars of the new curve
+     * @throws IllegalArgumentException if the pillars or the interpolation are invalid
+     */
+    public YieldCurveResponse replace(YieldCurveRequest request) {
+        if (request.getTenors() == null || (request.getZeroRates() == null) == (request.getDiscountFactors() == null)) {
+            throw new IllegalArgumentException("A curve needs tenors and either zeroRates or discountFactors");
+        }
+        YieldCurve.Interpolation interpolation = YieldCurve.Interpolation.parse(request.getInterpolation());
+        double[] tenors = toArray(request.getTenors());
+        YieldCurve newCurve;
+        if (request.getZeroRates() != null) {
+            double[] zeroRates = toArray(request.getZeroRates());
+            for (int i = 0; i < zeroRates.length; i++) {
+                zeroRates[i] /= 10000.0;
+            }
+            newCurve = YieldCurve.fromZeroRates(tenors, zeroRates, interpolation);
+        } else {
+            newCurve = YieldCurve.fromDiscountFactors(tenors, toArray(request.getDiscountFactors()), interpolation);
+        }
+        setCurve(newCurve);
+        return toResponse(newCurve);
+    }
+
+    /**
+     * @return Pillars of the current curve, or empty if none was set
+     */
+    public Optional<YieldCurveResponse> describe() {
+        return getCurve().map(YieldCurveService::toResponse);
+    }
+
+    static YieldCurveResponse toResponse(YieldCurve curve) {
+        List<Double> tenors = new ArrayList<>(curve.size());
+        List<Double> zeroRates = new ArrayList<>(curve.size());
+        List<Double> discountFactors = new ArrayList<>(curve.size());
+        for (int pillar = 0; pillar < curve.size(); pillar++) {
+            tenors.add(curve.getTenor(pillar));
+            zeroRates.add(curve.getZeroRate(pillar) * 10000.0);
+            discountFactors.add(curve.discountFactor(curve.getTenor(pillar)));
+        }
+        return new YieldCurveResponse(curve.getInterpolation().getName(), tenors, zeroRates, discountFactors);
+    }
+
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            if (values.get(i) == null) {
+                throw new IllegalArgumentException("Curve values cannot be null");
+            }
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ice.bonds;
+
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Analytics Concurrency Limiter Tests")
+class AnalyticsConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("Should never run more tasks at once than the configured limit")
+    void shouldCapConcurrency() throws Exception {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 2, Duration.ofSeconds(10));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int value = i;
+                results.add(executor.submit(() -> limiter.call(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return value;
+                })));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        assertTrue(maxRunning.get() <= 2, "At most 2 tasks should run concurrently but saw " + maxRunning.get());
+        assertEquals(2, limiter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should reject when no permit frees up within the timeout")
+    void shouldRejectAfterTimeout() throws Exception {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 1, Duration.ofMillis(20));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> limiter.call(() -> {
+            holding.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+        assertThrows(RejectedExecutionException.class, () -> limiter.call(() -> 1));
+
+        release.countDown();
+        holder.join();
+        assertEquals(1, limiter.call(() -> 1));
+    }
+
+    @Test
+    @DisplayName("Should wait past the timeout for a permit when asked to")
+    void shouldWaitWithoutTimeout() throws Exception {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 1, Duration.ZERO);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> limiter.call(() -> {
+            holding.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> waiting = executor.submit(() -> limiter.callWaiting(() -> 1));
+            Thread.sleep(50);
+            assertFalse(waiting.isDone());
+
+            release.countDown();
+            holder.join();
+            assertEquals(1, waiting.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the task throws")
+    void shouldReleaseOnException() {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 1, Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> limiter.call(() -> {
+            throw new IllegalArgumentException("Invalid ISIN");
+        }));
+
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should default to one permit per available processor")
+    void shouldDefaultToProcessorCount() {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 0, Duration.ofSeconds(1));
+
+        assertEquals(Runtime.getRuntime().availableProcessors(), limiter.getMaxConcurrency());
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnalyticsConcurrencyLimiter(true, -1, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.serialization.BondV2Reader;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Analytics Metrics Tests")
+class AnalyticsMetricsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    private SimpleMeterRegistry registry;
+    private BondService bondService;
+    private PortfolioService portfolioService;
+
+    private void setUp(boolean enabled) {
+        registry = new SimpleMeterRegistry();
+        AnalyticsMetrics metrics = new AnalyticsMetrics(registry, enabled);
+        CommonHelper commonHelper = new CommonHelper();
+        bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+        portfolioService = new PortfolioService(bondService, new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics);
+    }
+
+    private BondDTORequest createBond(String couponRate) {
+        BondDTORequest dto = new BondDTORequest();
+        dto.setIsin("US0378331005");
+        dto.setIssueDate("2023-01-15");
+        dto.setMaturityDate("2033-01-15");
+        dto.setCouponRate(couponRate);
+        dto.setFaceValue("100000");
+        dto.setMarketValue("95000");
+        dto.setPaymentTerm("semiannual");
+        dto.setQuantity("1");
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Should time each analytics step and count cash flows")
+    void shouldRecordAnalyticsTimers() {
+        setUp(true);
+        bondService.analyzeBond(createBond("500"), TODAY);
+
+        assertEquals(1, registry.get("bonds.analyze").timer().count());
+        assertEquals(1, registry.get("bonds.ytm").timer().count());
+        assertEquals(1, registry.get("bonds.duration.macaulay").timer().count());
+        assertEquals(1, registry.get("bonds.cashflows").summary().count());
+        assertTrue(registry.get("bonds.cashflows").summary().totalAmount() > 0);
+    }
+
+    @Test
+    @DisplayName("Should record bonds per portfolio request")
+    void shouldRecordPortfolioSize() {
+        setUp(true);
+        portfolioService.addBondsToPortfolio(new Portfolio("test"), List.of(createBond("500"), createBond("600")));
+
+        assertEquals(1, registry.get("bonds.portfolio.add").timer().count());
+        assertEquals(2, registry.get("bonds.portfolio.size").summary().totalAmount());
+        assertEquals(2, registry.get("bonds.analyze").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should count validation failures by field")
+    void shouldCountValidationFailures() {
+        setUp(true);
+        assertThrows(IllegalArgumentException.class, () -> bondService.analyzeBond(createBond("5.5"), TODAY));
+        assertThrows(IllegalArgumentException.class, () -> bondService.analyzeBond(createBond("-1"), TODAY));
+        BondDTORequest badMarketValue = createBond("500");
+        badMarketValue.setMarketValue("1,000");
+        assertThrows(IllegalArgumentException.class, () -> bondService.analyzeBond(badMarketValue, TODAY));
+
+        assertEquals(2, registry.get("bonds.validation.failures").tag("field", "couponRate").counter().count());
+        assertEquals(1, registry.get("bonds.validation.failures").tag("field", "marketValue").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should sample per-bond timers but record every request")
+    void shouldSamplePerBondTimers() {
+        registry = new SimpleMeterRegistry();
+        AnalyticsMetrics metrics = new AnalyticsMetrics(registry, true, 1_000_000);
+        CommonHelper commonHelper = new CommonHelper();
+        bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+        portfolioService = new PortfolioService(bondService, new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics);
+
+        portfolioService.addBondsToPortfolio(new Portfolio("test"), List.of(createBond("500"), createBond("600")));
+
+        assertEquals(1, registry.get("bonds.portfolio.add").timer().count());
+        assertTrue(registry.get("bonds.analyze").timer().count() <= 2);
+        // Cash flows are counted for exactly the bonds whose timers were sampled
+        assertEquals(registry.get("bonds.analyze").timer().count(), registry.get("bonds.cashflows").summary().count());
+    }
+
+    @Test
+    @DisplayName("Should count payment term and v2 validation failures by field")
+    void shouldCountPaymentTermAndV2Failures() {
+        setUp(true);
+        BondDTORequest weekly = createBond("500");
+        weekly.setPaymentTerm("weekly");
+        assertThrows(IllegalArgumentException.class, () -> bondService.analyzeBond(weekly, TODAY));
+
+        BondV2Reader v2Reader = new BondV2Reader(new ObjectMapper(), new AnalyticsMetrics(registry, true));
+        String v2 = """
+                {"isin": "US0378331005", "issueDate": "2023-01-15", "maturityDate": "2033-01-15",
+                 "couponRate": 500.5, "faceValue": 100000, "marketValue": 95000, "paymentTerm": "semiannual", "quantity": 1}
+                """;
+        assertThrows(IllegalArgumentException.class,
+                () -> v2Reader.readBond(new ByteArrayInputStream(v2.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(1, registry.get("bonds.validation.failures").tag("field", "paymentTerm").counter().count());
+        assertEquals(1, registry.get("bonds.validation.failures").tag("field", "couponRate").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should record nothing when disabled")
+    void shouldRecordNothingWhenDisabled() {
+        setUp(false);
+        portfolioService.addBondsToPortfolio(new Portfolio("test"), List.of(createBond("500")));
+        assertThrows(IllegalArgumentException.class, () -> bondService.analyzeBond(createBond("5.5"), TODAY));
+
+        assertEquals(0, registry.get("bonds.analyze").timer().count());
+        assertEquals(0, registry.get("bonds.portfolio.add").timer().count());
+        assertEquals(0, registry.get("bonds.cashflows").summary().count());
+        assertNull(registry.find("bonds.validation.failures").counter());
+    }
+}
@@ -1,5 +1,12 @@
 package com.ice.bonds;
 
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
+import com.ice.bonds.controller.BondController;
+import com.ice.bonds.serialization.BondV2Reader;
+import com.ice.bonds.serialization.EmbeddedJsonReader;
+import com.ice.bonds.serialization.NdjsonBondReader;
+import com.ice.bonds.serialization.NdjsonWriter;
+import com.ice.bonds.service.BondService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,10 +15,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -21,6 +36,21 @@ class BondControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private BondService bondService;
+
+    @Autowired
+    private EmbeddedJsonReader embeddedJsonReader;
+
+    @Autowired
+    private BondV2Reader bondV2Reader;
+
+    @Autowired
+    private NdjsonBondReader ndjsonBondReader;
+
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+
     // Valid ISIN constants for testing (Apple Inc. and Microsoft)
     private static final String VALID_ISIN_1 = "US0378331005";
     private static final String VALID_ISIN_2 = "US5949181045";
@@ -69,7 +99,9 @@ class BondControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.isin").value(VALID_ISIN_1))
                     .andExpect(jsonPath("$.issueDate").value("2023-01-15"))
-                    .andExpect(jsonPath("$.maturityDate").value("2033-01-15"));
+                    .andExpect(jsonPath("$.maturityDate").value("2033-01-15"))
+                    .andExpect(jsonPath("$.accruedInterest").isNumber())
+                    .andExpect(jsonPath("$.dirtyPrice").isNumber());
         }
 
         @Test
@@ -1095,5 +1127,313 @@ class BondControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
-}
 
+    @Nested
+    @DisplayName("V2 Typed Schema Tests")
+    class V2TypedSchemaTests {
+
+        // Numeric values are substituted unquoted, so they are native JSON numbers
+        private String createV2BondJson(String isin, String issueDate, String maturityDate,
+                                        String couponRate, String faceValue, String marketValue,
+                                        String paymentTerm, String quantity) {
+            return String.format("""
+                {
+                    "isin": "%s",
+                    "issueDate": "%s",
+                    "maturityDate": "%s",
+                    "couponRate": %s,
+                    "faceValue": %s,
+                    "marketValue": %s,
+                    "paymentTerm": "%s",
+                    "quantity": %s
+                }
+                """, isin, issueDate, maturityDate, couponRate, faceValue, marketValue, paymentTerm, quantity);
+        }
+
+        @Test
+        @DisplayName("Should return the same analytics as v1 for native numbers")
+        void shouldMatchV1Analytics() throws Exception {
+            String v1 = mockMvc.perform(post("/api/bonds/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createBondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", 500, 100000, 95000, "semiannual", 1)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "1")))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(v1));
+        }
+
+        @Test
+        @DisplayName("Should reject decimal numbers")
+        void shouldRejectDecimals() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", "500.5", "100000", "95000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid couponRate: 500.5. Coupon rate must be a whole number without decimals"));
+        }
+
+        @Test
+        @DisplayName("Should reject string-encoded numbers")
+        void shouldRejectStringNumbers() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "\"100000\"", "95000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid faceValue")));
+        }
+
+        @Test
+        @DisplayName("Should reject values outside the integer range")
+        void shouldRejectOverflow() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "3000000000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid marketValue: 3000000000. Value must be a valid integer"));
+        }
+
+        @Test
+        @DisplayName("Should reject negative values with the v1 messages")
+        void shouldRejectNegative() throws Exception {
+            int[][] values = {
+                    {-500, 100000, 95000, 1},
+                    {500, -100000, 95000, 1},
+                    {500, 100000, -95000, 1},
+                    {500, 100000, 95000, -1}
+            };
+            for (int[] v : values) {
+                String v1 = createBondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", v[0], v[1], v[2], "semiannual", v[3]);
+                String v1Error = mockMvc.perform(post("/api/bonds/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(v1))
+                        .andExpect(status().isBadRequest())
+                        .andReturn().getResponse().getContentAsString();
+
+                // Strip the quotes around numeric values to get the v2 body
+                mockMvc.perform(post("/api/bonds/v2/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(v1.replaceAll("\"(-?\\d+)\"", "$1")))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(content().string(v1Error));
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject null and missing fields")
+        void shouldRejectNullAndMissing() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", "null", "100000", "95000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid couponRate: value cannot be null or empty"));
+
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"isin\": \"US0378331005\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid issueDate: value cannot be null or empty"));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid date and ISIN")
+        void shouldRejectInvalidDateAndIsin() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson(VALID_ISIN_1, "01/15/2023", "2033-01-15", "500", "100000", "95000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid issueDate: 01/15/2023. Date must be in YYYY-MM-DD format"));
+
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createV2BondJson("INVALID12345", "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "1")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid ISIN: INVALID12345"));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed JSON")
+        void shouldRejectMalformedJson() throws Exception {
+            mockMvc.perform(post("/api/bonds/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"isin\": "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(startsWith("Invalid JSON format")));
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON Streaming Tests")
+    class NdjsonStreamingTests {
+
+        private final MediaType ndjson = MediaType.APPLICATION_NDJSON;
+
+        private String line(String isin, int couponRate, int marketValue) {
+            return createBondJson(isin, "2023-01-15", "2033-01-15", couponRate, 100000, marketValue, "semiannual", 1)
+                    .replaceAll("\\s+", "") + "\n";
+        }
+
+        private MvcResult stream(String body) throws Exception {
+            return mockMvc.perform(post("/api/bonds/analyze")
+                            .contentType(ndjson)
+                            .accept(ndjson)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(ndjson))
+                    .andReturn();
+        }
+
+        @Test
+        @DisplayName("Should stream one result per line in request order")
+        void shouldStreamResultsInOrder() throws Exception {
+            String body = line(VALID_ISIN_1, 500, 95000) + line(VALID_ISIN_2, 650, 105000) + line(VALID_ISIN_1, 0, 100000);
+
+            MvcResult result = stream(body);
+
+            String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].contains("\"isin\":\"" + VALID_ISIN_1 + "\""));
+            assertTrue(lines[1].contains("\"isin\":\"" + VALID_ISIN_2 + "\""));
+            assertTrue(lines[2].contains("\"isin\":\"" + VALID_ISIN_1 + "\""));
+        }
+
+        @Test
+        @DisplayName("Should return the same analytics as the JSON endpoint")
+        void shouldMatchJsonAnalytics() throws Exception {
+            String json = mockMvc.perform(post("/api/bonds/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createBondJson(VALID_ISIN_1, "2023-01-15", "2033-01-15", 500, 100000, 95000, "semiannual", 1)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            MvcResult result = stream(line(VALID_ISIN_1, 500, 95000));
+
+            assertEquals(json.trim(), result.getResponse().getContentAsString().trim());
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid bond before any result is written")
+        void shouldRejectInvalidBond() throws Exception {
+            mockMvc.perform(post("/api/bonds/analyze")
+                            .contentType(ndjson)
+                            .accept(ndjson)
+                            .content(line("INVALID", 500, 95000)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should reject a line that is not a bond object")
+        void shouldRejectNonObjectLine() throws Exception {
+            mockMvc.perform(post("/api/bonds/analyze")
+                            .contentType(ndjson)
+                            .accept(ndjson)
+                            .content("[1, 2]\n"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(startsWith("Invalid JSON format")));
+        }
+
+        @Test
+        @DisplayName("Should analyze each line under the analytics limiter")
+        void shouldAnalyzeUnderLimiter() throws Exception {
+            AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 1, Duration.ZERO);
+            MockMvc limited = MockMvcBuilders.standaloneSetup(new BondController(bondService, embeddedJsonReader,
+                    bondV2Reader, limiter, ndjsonBondReader, ndjsonWriter)).build();
+            CountDownLatch holding = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = Thread.ofVirtual().start(() -> limiter.call(() -> {
+                holding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            try {
+                limited.perform(post("/api/bonds/analyze")
+                                .contentType(ndjson)
+                                .accept(ndjson)
+                                .content(line(VALID_ISIN_1, 500, 95000)))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string("Retry-After", "1"));
+            } finally {
+                release.countDown();
+                holder.join();
+            }
+
+            limited.perform(post("/api/bonds/analyze")
+                            .contentType(ndjson)
+                            .accept(ndjson)
+                            .content(line(VALID_ISIN_1, 500, 95000)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Nested
+    @DisplayName("Bond Type Tests")
+    class BondTypeTests {
+
+        private String typedBondJson(String marketValue, String typeFields) {
+            String json = createBondJson(VALID_ISIN_1, "2020-01-15", "2040-01-15", "600", "100000", marketValue,
+                    "semiannual", "1").trim();
+            return json.substring(0, json.length() - 1) + ", " + typeFields + "}";
+        }
+
+        private double analyze(String json, String field) throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/bonds/analyze")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String body = result.getResponse().getContentAsString();
+            // Doubles printed with 17 digits come back from JsonPath as BigDecimal
+            return ((Number) com.jayway.jsonpath.JsonPath.read(body, "$." + field)).doubleValue();
+        }
+
+        @Test
+        @DisplayName("Should report the yield to call of a premium callable bond")
+        void shouldReportYieldToWorst() throws Exception {
+            double toMaturity = analyze(typedBondJson("115000", "\"bondType\": \"fixed\""), "ytm");
+            double toWorst = analyze(typedBondJson("115000",
+                    "\"bondType\": \"callable\", \"callDate\": \"2030-01-15\", \"callPrice\": \"100000\""), "ytm");
+
+            assertTrue(toWorst < toMaturity, toWorst + " >= " + toMaturity);
+        }
+
+        @Test
+        @DisplayName("Should analyze floating rate and amortizing bonds")
+        void shouldAnalyzeOtherTypes() throws Exception {
+            String fixed = typedBondJson("70000", "\"bondType\": \"fixed\"");
+            double fixedDuration = analyze(fixed, "macaulayDuration");
+            for (String type : new String[]{"floating", "amortizing", "FLOATING"}) {
+                double duration = analyze(typedBondJson("70000", "\"bondType\": \"" + type + "\""), "macaulayDuration");
+
+                assertTrue(duration > 0 && duration < fixedDuration, type + ": " + duration);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid bond types and call terms")
+        void shouldRejectInvalidTypes() throws Exception {
+            String[] invalid = {
+                    "\"bondType\": \"perpetual\"",
+                    "\"bondType\": \"zero\"",
+                    "\"bondType\": \"callable\", \"callPrice\": \"100000\"",
+                    "\"bondType\": \"callable\", \"callDate\": \"2030-01-15\"",
+                    "\"bondType\": \"callable\", \"callDate\": \"2040-01-15\", \"callPrice\": \"100000\"",
+                    "\"bondType\": \"callable\", \"callDate\": \"2030-02-15\", \"callPrice\": \"100000\""
+            };
+            for (String typeFields : invalid) {
+                mockMvc.perform(post("/api/bonds/analyze")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(typedBondJson("100000", typeFields)))
+                        .andExpect(status().isBadRequest());
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.BootstrapHelper;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.CurveHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.YieldCurve;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bootstrap Helper Tests")
+class BootstrapHelperTest {
+
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    private final CommonHelper commonHelper = new CommonHelper();
+    private final YTMHelper ytmHelper = new YTMHelper(commonHelper);
+    private final CashFlowHelper cashFlowHelper = new CashFlowHelper(commonHelper);
+    private final BootstrapHelper bootstrapHelper = new BootstrapHelper(cashFlowHelper, ytmHelper);
+    private final CurveHelper curveHelper = new CurveHelper(commonHelper, cashFlowHelper);
+    private final LocalDate today = LocalDate.of(2025, 3, 10);
+
+    // One benchmark maturing every year for 20 years, the first a zero coupon bond
+    private List<Bond> benchmarks() {
+        List<Bond> benchmarks = new ArrayList<>();
+        for (int year = 1; year <= 20; year++) {
+            benchmarks.add(new Bond("BENCH" + year, LocalDate.of(2025 + year, 1, 15), LocalDate.of(2024, 1, 15),
+                    year == 1 ? 0 : 200 + 15 * year, 100000, 95000 + 250 * year, TERMS[year % TERMS.length], 1));
+        }
+        return benchmarks;
+    }
+
+    // At their dirty prices
+    private void assertReprices(List<Bond> benchmarks, YieldCurve curve) {
+        CurveHelper.Pricer pricer = curveHelper.pricer(curve, today);
+        for (Bond benchmark : benchmarks) {
+            double dirtyPrice = benchmark.getMarketValue() + ytmHelper.calculateAccruedInterest(today, benchmark);
+            assertEquals(dirtyPrice, pricer.price(benchmark, 0.0).getPresentValue(), 1e-6, benchmark.getISIN());
+        }
+    }
+
+    @Nested
+    @DisplayName("Bootstrap Tests")
+    class BootstrapTests {
+
+        @Test
+        @DisplayName("Should reprice every benchmark on the curve, with a pillar at each maturity")
+        void shouldRepriceBenchmarks() {
+            for (YieldCurve.Interpolation interpolation : new YieldCurve.Interpolation[]{
+                    YieldCurve.Interpolation.LINEAR, YieldCurve.Interpolation.LOG_LINEAR}) {
+                List<Bond> benchmarks = benchmarks();
+                YieldCurve curve = bootstrapHelper.bootstrap(benchmarks, interpolation, today).getCurve();
+
+                assertEquals(benchmarks.size(), curve.size());
+                assertEquals(interpolation, curve.getInterpolation());
+                assertEquals((LocalDate.of(2026, 1, 15).toEpochDay() - today.toEpochDay()) / 365.25, curve.getTenor(0), 1e-15);
+                assertReprices(benchmarks, curve);
+            }
+        }
+
+        @Test
+        @DisplayName("Should recover the zero rates the benchmarks were priced at")
+        void shouldRecoverZeroRates() {
+            List<Bond> benchmarks = benchmarks();
+            // A large face value, so whole cent prices carry the rates to 1e-9
+            for (Bond benchmark : benchmarks) {
+                benchmark.setFaceValue(1_000_000_000);
+            }
+            double[] tenors = new double[benchmarks.size()];
+            double[] zeroRates = new double[benchmarks.size()];
+            for (int i = 0; i < tenors.length; i++) {
+                tenors[i] = (benchmarks.get(i).getMaturityDate().toEpochDay() - today.toEpochDay()) / 365.25;
+                zeroRates[i] = 0.03 + 0.01 * Math.sqrt(i);
+            }
+            YieldCurve curve = YieldCurve.fromZeroRates(tenors, zeroRates, YieldCurve.Interpolation.LOG_LINEAR);
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve, today);
+            for (Bond benchmark : benchmarks) {
+                benchmark.setMarketValue((int) Math.round(pricer.price(benchmark, 0.0).getPresentValue()
+                        - ytmHelper.calculateAccruedInterest(today, benchmark)));
+            }
+
+            YieldCurve bootstrapped = bootstrapHelper.bootstrap(benchmarks, YieldCurve.Interpolation.LOG_LINEAR, today).getCurve();
+            for (int i = 0; i < tenors.length; i++) {
+                assertEquals(zeroRates[i], bootstrapped.getZeroRate(i), 1e-9, "pillar " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Should accept benchmarks in any order")
+        void shouldSortByMaturity() {
+            List<Bond> benchmarks = benchmarks();
+            List<Bond> reversed = new ArrayList<>(benchmarks).reversed();
+            YieldCurve sorted = bootstrapHelper.bootstrap(benchmarks, YieldCurve.Interpolation.LINEAR, today).getCurve();
+            YieldCurve unsorted = bootstrapHelper.bootstrap(reversed, YieldCurve.Interpolation.LINEAR, today).getCurve();
+
+            for (int i = 0; i < sorted.size(); i++) {
+                assertEquals(sorted.getZeroRate(i), unsorted.getZeroRate(i));
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject monotone-cubic, duplicates and matured benchmarks")
+        void shouldRejectInvalidBenchmarks() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> bootstrapHelper.bootstrap(benchmarks(), YieldCurve.Interpolation.MONOTONE_CUBIC, today));
+            assertThrows(IllegalArgumentException.class,
+                    () -> bootstrapHelper.bootstrap(List.of(), YieldCurve.Interpolation.LINEAR, today));
+
+            List<Bond> sameMaturity = benchmarks();
+            sameMaturity.get(1).setMaturityDate(sameMaturity.get(2).getMaturityDate());
+            assertThrows(IllegalArgumentException.class,
+                    () -> bootstrapHelper.bootstrap(sameMaturity, YieldCurve.Interpolation.LINEAR, today));
+
+            List<Bond> sameIsin = benchmarks();
+            sameIsin.get(1).setISIN(sameIsin.get(2).getISIN());
+            assertThrows(IllegalArgumentException.class,
+                    () -> bootstrapHelper.bootstrap(sameIsin, YieldCurve.Interpolation.LINEAR, today));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> bootstrapHelper.bootstrap(benchmarks(), YieldCurve.Interpolation.LINEAR, LocalDate.of(2030, 6, 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Tests")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("Should keep the pillars before a tick and match a full bootstrap after it")
+        void shouldSolveFromTickedPillar() {
+            BootstrapHelper.Bootstrap bootstrap = bootstrapHelper.bootstrap(benchmarks(), YieldCurve.Interpolation.LOG_LINEAR, today);
+            YieldCurve before = bootstrap.getCurve();
+
+            assertTrue(bootstrap.setPrice("BENCH8", 97500));
+            YieldCurve after = bootstrap.getCurve();
+
+            for (int i = 0; i < 7; i++) {
+                assertEquals(before.getZeroRate(i), after.getZeroRate(i), "pillar " + i);
+            }
+            assertNotEquals(before.getZeroRate(7), after.getZeroRate(7));
+
+            List<Bond> ticked = benchmarks();
+            ticked.get(7).setMarketValue(97500);
+            YieldCurve full = bootstrapHelper.bootstrap(ticked, YieldCurve.Interpolation.LOG_LINEAR, today).getCurve();
+            for (int i = 0; i < full.size(); i++) {
+                assertEquals(full.getZeroRate(i), after.getZeroRate(i), 1e-13, "pillar " + i);
+            }
+            assertReprices(ticked, after);
+        }
+
+        @Test
+        @DisplayName("Should ignore unknown ISINs and reject prices that are not positive")
+        void shouldValidateTicks() {
+            BootstrapHelper.Bootstrap bootstrap = bootstrapHelper.bootstrap(benchmarks(), YieldCurve.Interpolation.LINEAR, today);
+            YieldCurve before = bootstrap.getCurve();
+
+            assertFalse(bootstrap.setPrice("US0378331005", 97000));
+            assertSame(before, bootstrap.getCurve());
+            assertThrows(IllegalArgumentException.class, () -> bootstrap.setPrice("BENCH3", 0));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cash Flow Helper Tests")
+class CashFlowHelperTest {
+
+    private CommonHelper commonHelper;
+    private CashFlowHelper cashFlowHelper;
+    private DurationHelper durationHelper;
+
+    @BeforeEach
+    void setUp() {
+        commonHelper = new CommonHelper();
+        cashFlowHelper = new CashFlowHelper(commonHelper);
+        durationHelper = new DurationHelper(commonHelper);
+    }
+
+    private static Bond bond(String issueDate, String maturityDate, int couponRate, String paymentTerm) {
+        Bond bond = new Bond();
+        bond.setISIN("US0378331005");
+        bond.setIssueDate(LocalDate.parse(issueDate));
+        bond.setMaturityDate(LocalDate.parse(maturityDate));
+        bond.setCouponRate(couponRate);
+        bond.setFaceValue(100000);
+        bond.setMarketValue(98000);
+        bond.setPaymentTerm(paymentTerm);
+        bond.setQuantity(1);
+        return bond;
+    }
+
+    private List<?> generateCashFlows(Bond bond, LocalDate today) throws Exception {
+        Method method = DurationHelper.class.getDeclaredMethod("generateCashFlows", Bond.class, LocalDate.class, int.class);
+        method.setAccessible(true);
+        return (List<?>) method.invoke(durationHelper, bond, today, commonHelper.periodsPerPaymentTerm(bond.getPaymentTerm()));
+    }
+
+    private static Object field(Object cashFlow, String name) throws Exception {
+        Field field = cashFlow.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(cashFlow);
+    }
+
+    @Nested
+    @DisplayName("Cursor Tests")
+    class CursorTests {
+
+        @ParameterizedTest
+        @DisplayName("Should produce the same flows as generateCashFlows")
+        @CsvSource({
+                "2020-01-01, 2030-01-01, 600, semiannual, 2025-01-01",
+                "2020-01-01, 2030-01-01, 600, semiannual, 2025-03-17",
+                "2023-01-31, 2028-01-28, 450, monthly, 2024-02-29",
+                "2021-08-31, 2031-08-28, 375, quarterly, 2025-11-30",
+                "2019-05-15, 2049-05-15, 250, annual, 2026-05-15",
+                "2024-03-01, 2027-03-01, 0, annual, 2025-06-01",
+                "2024-03-01, 2027-03-01, 500, annual, 2027-03-01"
+        })
+        void shouldMatchGenerateCashFlows(String issueDate, String maturityDate, int couponRate, String paymentTerm,
+                                          String today) throws Exception {
+            Bond bond = bond(issueDate, maturityDate, couponRate, paymentTerm);
+            LocalDate date = LocalDate.parse(today);
+            List<?> expected = generateCashFlows(bond, date);
+
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, date);
+            int i = 0;
+            do {
+                Object flow = expected.get(i++);
+                assertEquals((long) field(flow, "daysFromToday"), ChronoUnit.DAYS.between(date, cursor.getDate()));
+                assertEquals(cursor.getDate().toEpochDay(), cursor.getEpochDay());
+                assertEquals((double) field(flow, "amount"), cursor.getCoupon() + cursor.getPrincipal(), 1e-9);
+            } while (cursor.next());
+            assertEquals(expected.size(), i);
+            assertEquals(bond.getFaceValue(), cursor.getPrincipal());
+            assertEquals(bond.getMaturityDate(), cursor.getDate());
+        }
+
+        @Test
+        @DisplayName("Should only repay principal at maturity")
+        void shouldOnlyRepayPrincipalAtMaturity() {
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond("2020-01-15", "2023-01-15", 500, "annual"),
+                    LocalDate.of(2021, 6, 1));
+
+            assertEquals(LocalDate.of(2022, 1, 15), cursor.getDate());
+            assertEquals(5000.0, cursor.getCoupon());
+            assertEquals(0.0, cursor.getPrincipal());
+            assertTrue(cursor.next());
+            assertEquals(LocalDate.of(2023, 1, 15), cursor.getDate());
+            assertEquals(100000.0, cursor.getPrincipal());
+            assertFalse(cursor.next());
+        }
+
+        @Test
+        @DisplayName("Should repay an amortizing bond's principal in installments")
+        void shouldAmortizePrincipal() {
+            Bond bond = bond("2020-01-15", "2024-01-15", 500, "annual");
+            bond.setType(BondType.AMORTIZING);
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, LocalDate.of(2022, 1, 1));
+
+            double[] coupons = {3750.0, 2500.0, 1250.0};
+            int i = 0;
+            double principal = 0.0;
+            do {
+                assertEquals(coupons[i++], cursor.getCoupon(), 1e-9);
+                assertEquals(25000.0, cursor.getPrincipal(), 1e-9);
+                principal += cursor.getPrincipal();
+            } while (cursor.next());
+            assertEquals(3, i);
+            assertEquals(75000.0, principal, 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should reject a matured bond")
+        void shouldRejectMaturedBond() {
+            Bond bond = bond("2015-01-15", "2020-01-15", 500, "annual");
+
+            assertThrows(IllegalArgumentException.class, () -> cashFlowHelper.cursor(bond, LocalDate.of(2025, 1, 1)));
+        }
+
+        @Test
+        @DisplayName("Should fail like generateCashFlows when the last coupon misses maturity")
+        void shouldFailWhenLastCouponMissesMaturity() {
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond("2020-01-15", "2022-03-01", 500, "annual"),
+                    LocalDate.of(2020, 6, 1));
+
+            assertEquals(LocalDate.of(2021, 1, 15), cursor.getDate());
+            assertThrows(IllegalStateException.class, cursor::next);
+        }
+    }
+
+    @Nested
+    @DisplayName("Payment Schedule Tests")
+    class PaymentScheduleTests {
+
+        private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+        @ParameterizedTest
+        @DisplayName("Should hold the dates findNextPaymentDate walks through, up to maturity")
+        @CsvSource({
+                "2020-01-01, 2030-01-01",
+                "2023-01-31, 2028-01-28",
+                "2021-08-31, 2031-08-28",
+                "2020-02-29, 2032-02-29",
+                "2024-03-01, 2024-05-01"
+        })
+        void shouldMatchFindNextPaymentDate(String issueDate, String maturityDate) {
+            LocalDate issue = LocalDate.parse(issueDate);
+            LocalDate maturity = LocalDate.parse(maturityDate);
+            for (String paymentTerm : TERMS) {
+                int periodsPerYear = commonHelper.periodsPerPaymentTerm(paymentTerm);
+                int[] schedule = commonHelper.paymentSchedule(issue, maturity, periodsPerYear);
+
+                int i = 0;
+                for (LocalDate date = commonHelper.findNextPaymentDate(issue, issue, periodsPerYear);
+                     !date.isAfter(maturity); date = commonHelper.findNextPaymentDate(issue, date.plusDays(1), periodsPerYear)) {
+                    assertEquals(date.toEpochDay(), schedule[i++], paymentTerm);
+                }
+                assertEquals(i, schedule.length, paymentTerm);
+            }
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should give the same periods as walking the schedule, for every valuation date")
+        @CsvSource({
+                "2020-01-01, 2030-01-01",
+                "2023-01-31, 2028-01-28",
+                "2021-08-31, 2031-08-28",
+                "2020-01-15, 2022-03-01"
+        })
+        void shouldMatchWalkedPeriods(String issueDate, String maturityDate) {
+            LocalDate issue = LocalDate.parse(issueDate);
+            LocalDate maturity = LocalDate.parse(maturityDate);
+            for (String paymentTerm : TERMS) {
+                int periodsPerYear = commonHelper.periodsPerPaymentTerm(paymentTerm);
+                int monthsPerPeriod = 12 / periodsPerYear;
+                for (LocalDate today = issue; !today.isAfter(maturity); today = today.plusDays(1)) {
+                    LocalDate next = commonHelper.findNextPaymentDate(issue, today, periodsPerYear);
+                    int remaining = 0;
+                    for (LocalDate date = next; !date.isAfter(maturity); date = date.plusMonths(monthsPerPeriod)) {
+                        remaining++;
+                    }
+
+                    assertEquals(remaining, commonHelper.calculateRemainingPeriods(today, issue, maturity, periodsPerYear),
+                            paymentTerm + " " + today);
+                    assertEquals(commonHelper.calculateFractionalPeriod(issue, today, periodsPerYear),
+                            commonHelper.calculateFractionalPeriod(issue, maturity, today, periodsPerYear),
+                            paymentTerm + " " + today);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should share one schedule between bonds with the same dates and term")
+        void shouldShareSchedule() {
+            LocalDate issue = LocalDate.of(2020, 1, 15);
+            LocalDate maturity = LocalDate.of(2030, 1, 15);
+
+            int[] schedule = commonHelper.paymentSchedule(issue, maturity, 2);
+
+            assertSame(schedule, commonHelper.paymentSchedule(issue, maturity, 2));
+            assertNotSame(schedule, commonHelper.paymentSchedule(issue, maturity, 4));
+            assertEquals(20, schedule.length);
+        }
+
+        @Test
+        @DisplayName("Should rebuild every schedule when the cache is disabled")
+        void shouldRebuildWithoutCache() {
+            CommonHelper uncached = new CommonHelper(0);
+            LocalDate issue = LocalDate.of(2020, 1, 15);
+            LocalDate maturity = LocalDate.of(2030, 1, 15);
+
+            int[] schedule = uncached.paymentSchedule(issue, maturity, 2);
+
+            assertNotSame(schedule, uncached.paymentSchedule(issue, maturity, 2));
+            assertArrayEquals(schedule, commonHelper.paymentSchedule(issue, maturity, 2));
+        }
+
+        @Test
+        @DisplayName("Should find the first payment on or after a date")
+        void shouldFindFirstPaymentOnOrAfter() {
+            int[] schedule = {10, 20, 30};
+
+            assertEquals(0, CommonHelper.firstPaymentOnOrAfter(schedule, 5));
+            assertEquals(0, CommonHelper.firstPaymentOnOrAfter(schedule, 10));
+            assertEquals(1, CommonHelper.firstPaymentOnOrAfter(schedule, 11));
+            assertEquals(2, CommonHelper.firstPaymentOnOrAfter(schedule, 30));
+            assertEquals(3, CommonHelper.firstPaymentOnOrAfter(schedule, 31));
+        }
+    }
+}
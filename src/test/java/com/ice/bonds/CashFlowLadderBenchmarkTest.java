@@ -0,0 +1,116 @@
+package com.ice.bonds;
+
+import com.ice.bonds.dto.CashFlowLadderResponse;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.service.CashFlowLadderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cash-flow ladder of a large book: streaming merge of the per-bond schedules against materializing
+ * every flow and aggregating through a sorted map.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=CashFlowLadderBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Cash Flow Ladder Benchmark")
+class CashFlowLadderBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashFlowLadderBenchmarkTest.class);
+
+    private static final int POSITIONS = 200_000;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+    private static final int ROUNDS = 5;
+
+    @Test
+    @DisplayName("Monthly ladder time and allocation")
+    void ladder() {
+        CashFlowHelper cashFlowHelper = new CashFlowHelper(new CommonHelper());
+        CashFlowLadderService service = new CashFlowLadderService(cashFlowHelper, null, null);
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        List<Bond> bonds = book(today);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            CashFlowLadderResponse ladder = service.ladder(bonds, today, CashFlowLadderService.Bucket.MONTHLY);
+            double mergeMillis = (System.nanoTime() - start) / 1e6;
+            long mergeBytes = allocatedBytes() - allocated;
+
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            int[] flows = new int[1];
+            TreeMap<LocalDate, double[]> materialized = materialize(cashFlowHelper, bonds, today, flows);
+            double materializeMillis = (System.nanoTime() - start) / 1e6;
+            long materializeBytes = allocatedBytes() - allocated;
+
+            assertEquals(materialized.size(), ladder.getBuckets().size());
+            logger.info("{} positions, {} flows, {} monthly buckets: merge {} ms / {} MB allocated, "
+                            + "materialized {} ms / {} MB allocated",
+                    POSITIONS, flows[0], ladder.getBuckets().size(),
+                    String.format("%.0f", mergeMillis), mergeBytes >> 20,
+                    String.format("%.0f", materializeMillis), materializeBytes >> 20);
+        }
+    }
+
+    private static List<Bond> book(LocalDate today) {
+        Random random = new Random(42);
+        List<Bond> bonds = new ArrayList<>(POSITIONS);
+        for (int i = 0; i < POSITIONS; i++) {
+            Bond bond = new Bond();
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(issueDate.plusYears(1 + random.nextInt(30)));
+            if (bond.getMaturityDate().isBefore(today)) {
+                bond.setMaturityDate(bond.getMaturityDate().plusYears(10));
+            }
+            // The 28th at most, so every schedule lands on maturity
+            bond.setIssueDate(issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28)));
+            bond.setMaturityDate(bond.getMaturityDate().withDayOfMonth(bond.getIssueDate().getDayOfMonth()));
+            bond.setCouponRate(100 + random.nextInt(700));
+            bond.setFaceValue(100000);
+            bond.setPaymentTerm(TERMS[random.nextInt(TERMS.length)]);
+            bond.setQuantity(1 + random.nextInt(100));
+            bonds.add(bond);
+        }
+        return bonds;
+    }
+
+    /**
+     * The straightforward ladder: every flow of every bond collected, then summed per month.
+     */
+    private static TreeMap<LocalDate, double[]> materialize(CashFlowHelper cashFlowHelper, List<Bond> bonds,
+                                                           LocalDate today, int[] flows) {
+        List<Object[]> all = new ArrayList<>();
+        for (Bond bond : bonds) {
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+            do {
+                all.add(new Object[]{cursor.getDate(), (cursor.getCoupon() + cursor.getPrincipal()) * bond.getQuantity()});
+            } while (cursor.next());
+        }
+        flows[0] = all.size();
+        TreeMap<LocalDate, double[]> buckets = new TreeMap<>();
+        for (Object[] flow : all) {
+            buckets.computeIfAbsent(((LocalDate) flow[0]).withDayOfMonth(1), month -> new double[1])[0] += (double) flow[1];
+        }
+        return buckets;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
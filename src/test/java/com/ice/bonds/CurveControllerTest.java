@@ -0,0 +1,214 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.service.YieldCurveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Curve Controller Tests")
+class CurveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private YieldCurveService yieldCurveService;
+
+    private static final String PORTFOLIO = """
+            [
+                {"isin": "US0378331005", "issueDate": "2023-01-15", "maturityDate": "2035-01-15", "couponRate": 500,
+                 "faceValue": 100000, "marketValue": 97000, "paymentTerm": "semiannual", "quantity": 10},
+                {"isin": "US5949181045", "issueDate": "2024-06-01", "maturityDate": "2029-06-01", "couponRate": 300,
+                 "faceValue": 100000, "marketValue": 95000, "paymentTerm": "annual", "quantity": 30}
+            ]
+            """;
+
+    // The curve is shared by every test of the application context
+    @AfterEach
+    void clearCurve() {
+        yieldCurveService.setCurve(null);
+    }
+
+    @Test
+    @DisplayName("Should replace the curve and return its pillars")
+    void shouldReplaceCurve() throws Exception {
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"interpolation": "log-linear", "tenors": [1, 2, 5], "zeroRates": [300, 350, 400]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interpolation").value("log-linear"))
+                .andExpect(jsonPath("$.discountFactors[0]").value(closeTo(Math.exp(-0.03), 1e-12)));
+
+        mockMvc.perform(get("/api/curve"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenors.length()").value(3))
+                .andExpect(jsonPath("$.zeroRates[2]").value(closeTo(400.0, 1e-9)));
+    }
+
+    @Test
+    @DisplayName("Should reject unordered tenors, unknown interpolations and missing rates")
+    void shouldRejectInvalidCurves() throws Exception {
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"tenors": [2, 1], "zeroRates": [300, 350]}
+                                """))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"interpolation": "spline", "tenors": [1], "zeroRates": [300]}
+                                """))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"tenors": [1]}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should add Z-spreads over the current curve to portfolio analysis")
+    void shouldAddZSpreadsToPortfolioAnalysis() throws Exception {
+        mockMvc.perform(post("/api/portfolios/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PORTFOLIO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weightedZSpread").value(nullValue()))
+                .andExpect(jsonPath("$.bonds[0].zSpread").value(nullValue()));
+
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"tenors": [1, 2, 5, 10], "zeroRates": [300, 320, 350, 380]}
+                                """))
+                .andExpect(status().isOk());
+        String body = mockMvc.perform(post("/api/portfolios/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PORTFOLIO))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        double first = response.get("bonds").get(0).get("zSpread").asDouble();
+        double second = response.get("bonds").get(1).get("zSpread").asDouble();
+        // Both trade below par on coupons under or near the curve, so both have a positive spread
+        assertTrue(first > 0 && second > 0, first + ", " + second);
+        assertEquals((first * 970000 + second * 2850000) / (970000 + 2850000),
+                response.get("weightedZSpread").asDouble(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should skip Z-spreads left out of the projection and re-solve stored ones on a new curve")
+    void shouldSolveZSpreadsOnlyWhenNeeded() throws Exception {
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"tenors": [1, 2, 5, 10], "zeroRates": [300, 320, 350, 380]}
+                                """))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/portfolios/analyze")
+                        .param("fields", "isin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PORTFOLIO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weightedZSpread").value(nullValue()));
+
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/portfolios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PORTFOLIO))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        String id = created.get("id").asText();
+        double spread = created.get("weightedZSpread").asDouble();
+        mockMvc.perform(get("/api/portfolios/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weightedZSpread").value(closeTo(spread, 1e-12)));
+        mockMvc.perform(get("/api/portfolios/" + id).param("fields", "isin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weightedZSpread").value(nullValue()));
+
+        // 100 bps higher curve, the same prices are 100 bps less over it
+        mockMvc.perform(put("/api/curve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"tenors": [1, 2, 5, 10], "zeroRates": [400, 420, 450, 480]}
+                                """))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/portfolios/" + id).param("summaryOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.weightedZSpread").value(closeTo(spread - 100, 1e-6)));
+    }
+
+    @Test
+    @DisplayName("Should bootstrap the curve from benchmarks and re-solve it on a quote")
+    void shouldBootstrapCurve() throws Exception {
+        String body = mockMvc.perform(put("/api/curve/bootstrap")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"interpolation": "linear", "benchmarks": [
+                                  {"isin": "US5949181045", "issueDate": "2024-01-15", "maturityDate": "2035-01-15", "couponRate": "450",
+                                   "faceValue": "100000", "marketValue": "98000", "paymentTerm": "semiannual", "quantity": "1"},
+                                  {"isin": "US0378331005", "issueDate": "2024-01-15", "maturityDate": "2028-01-15", "couponRate": "0",
+                                   "faceValue": "100000", "marketValue": "95000", "paymentTerm": "annual", "quantity": "1"},
+                                  {"isin": "GB0002634946", "issueDate": "2024-01-15", "maturityDate": "2030-01-15", "couponRate": "400",
+                                   "faceValue": "100000", "marketValue": "99000", "paymentTerm": "annual", "quantity": "1"}
+                                ]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interpolation").value("linear"))
+                .andExpect(jsonPath("$.tenors.length()").value(3))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode bootstrapped = objectMapper.readTree(body);
+
+        body = mockMvc.perform(post("/api/curve/bootstrap/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"isin": "GB0002634946", "marketValue": "97000"}, {"isin": "DE0007164600", "marketValue": "50000"}]
+                                """))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode ticked = objectMapper.readTree(body);
+
+        // Only the 2030 pillar and the ones after it move, a lower price is a higher rate
+        assertEquals(bootstrapped.get("zeroRates").get(0).asDouble(), ticked.get("zeroRates").get(0).asDouble());
+        assertTrue(ticked.get("zeroRates").get(1).asDouble() > bootstrapped.get("zeroRates").get(1).asDouble());
+        mockMvc.perform(get("/api/curve"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zeroRates[1]").value(closeTo(ticked.get("zeroRates").get(1).asDouble(), 1e-9)));
+
+        mockMvc.perform(put("/api/curve/bootstrap")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"interpolation": "monotone-cubic", "benchmarks": [
+                                  {"isin": "US0378331005", "issueDate": "2024-01-15", "maturityDate": "2028-01-15", "couponRate": "0",
+                                   "faceValue": "100000", "marketValue": "95000", "paymentTerm": "annual", "quantity": "1"}
+                                ]}
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,279 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.CurveHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import com.ice.bonds.model.YieldCurve;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Curve Helper Tests")
+class CurveHelperTest {
+
+    private static final double[] TENORS = {0.25, 0.5, 1, 2, 3, 5, 7, 10, 30};
+    private static final double[] RATES = {0.030, 0.032, 0.034, 0.036, 0.037, 0.039, 0.040, 0.041, 0.043};
+
+    private final CommonHelper commonHelper = new CommonHelper();
+    private final CurveHelper curveHelper = new CurveHelper(commonHelper, new CashFlowHelper(commonHelper));
+    private final LocalDate today = LocalDate.of(2025, 3, 10);
+
+    private static YieldCurve curve(YieldCurve.Interpolation interpolation) {
+        return YieldCurve.fromZeroRates(TENORS, RATES, interpolation);
+    }
+
+    private Bond bond(int couponRate, String paymentTerm) {
+        return new Bond("US0378331005", LocalDate.of(2035, 1, 15), LocalDate.of(2023, 1, 15), couponRate, 100000,
+                97000, paymentTerm, 1);
+    }
+
+    @Nested
+    @DisplayName("Interpolation Tests")
+    class InterpolationTests {
+
+        @Test
+        @DisplayName("Should return the pillar rates at the pillars and extrapolate flat")
+        void shouldHitPillars() {
+            for (YieldCurve.Interpolation interpolation : YieldCurve.Interpolation.values()) {
+                YieldCurve curve = curve(interpolation);
+                for (int i = 0; i < TENORS.length; i++) {
+                    assertEquals(RATES[i], curve.zeroRate(TENORS[i]), 1e-15, interpolation + " at " + TENORS[i]);
+                }
+                assertEquals(RATES[0], curve.zeroRate(0.01));
+                assertEquals(RATES[RATES.length - 1], curve.zeroRate(50));
+            }
+        }
+
+        @Test
+        @DisplayName("Should interpolate linearly in the zero rate and in the log discount factor")
+        void shouldInterpolateLinearAndLogLinear() {
+            YieldCurve linear = curve(YieldCurve.Interpolation.LINEAR);
+            YieldCurve logLinear = curve(YieldCurve.Interpolation.LOG_LINEAR);
+
+            assertEquals((0.039 + 0.040) / 2, linear.zeroRate(6), 1e-15);
+            assertEquals(0.036 + 0.25 * (0.037 - 0.036), linear.zeroRate(2.25), 1e-15);
+            assertEquals(Math.sqrt(logLinear.discountFactor(5) * logLinear.discountFactor(7)),
+                    logLinear.discountFactor(6), 1e-15);
+        }
+
+        @Test
+        @DisplayName("Should find the right segment for any time, whatever the pillar spacing")
+        void shouldFindSegments() {
+            YieldCurve linear = curve(YieldCurve.Interpolation.LINEAR);
+            for (double time = 0.25; time < 30; time += 0.0137) {
+                int segment = 0;
+                while (TENORS[segment + 1] <= time) {
+                    segment++;
+                }
+                double weight = (time - TENORS[segment]) / (TENORS[segment + 1] - TENORS[segment]);
+                double expected = RATES[segment] + weight * (RATES[segment + 1] - RATES[segment]);
+                assertEquals(expected, linear.zeroRate(time), 1e-14, "at " + time);
+            }
+        }
+
+        @Test
+        @DisplayName("Should stay monotone between monotone pillars with monotone-cubic")
+        void shouldStayMonotone() {
+            YieldCurve curve = YieldCurve.fromZeroRates(new double[]{1, 2, 3, 4, 5},
+                    new double[]{0.01, 0.01, 0.05, 0.051, 0.051}, YieldCurve.Interpolation.MONOTONE_CUBIC);
+
+            double previous = curve.zeroRate(1);
+            for (double time = 1; time <= 5; time += 0.01) {
+                double rate = curve.zeroRate(time);
+                assertTrue(rate >= previous - 1e-15, "decreasing at " + time);
+                assertTrue(rate >= 0.01 - 1e-15 && rate <= 0.051 + 1e-15, "overshoot at " + time);
+                previous = rate;
+            }
+        }
+
+        @Test
+        @DisplayName("Should build the same curve from discount factors")
+        void shouldBuildFromDiscountFactors() {
+            double[] discountFactors = new double[TENORS.length];
+            for (int i = 0; i < TENORS.length; i++) {
+                discountFactors[i] = Math.exp(-RATES[i] * TENORS[i]);
+            }
+            YieldCurve curve = YieldCurve.fromDiscountFactors(TENORS, discountFactors, YieldCurve.Interpolation.LOG_LINEAR);
+
+            for (double time = 0.1; time < 35; time += 0.37) {
+                assertEquals(curve(YieldCurve.Interpolation.LOG_LINEAR).discountFactor(time), curve.discountFactor(time), 1e-14);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid pillars and interpolations")
+        void shouldRejectInvalidPillars() {
+            YieldCurve.Interpolation linear = YieldCurve.Interpolation.LINEAR;
+            assertThrows(IllegalArgumentException.class, () -> YieldCurve.fromZeroRates(new double[]{}, new double[]{}, linear));
+            assertThrows(IllegalArgumentException.class, () -> YieldCurve.fromZeroRates(new double[]{2, 1}, new double[]{0.01, 0.02}, linear));
+            assertThrows(IllegalArgumentException.class, () -> YieldCurve.fromZeroRates(new double[]{0, 1}, new double[]{0.01, 0.02}, linear));
+            assertThrows(IllegalArgumentException.class, () -> YieldCurve.fromDiscountFactors(new double[]{1}, new double[]{0}, linear));
+            assertThrows(IllegalArgumentException.class, () -> YieldCurve.Interpolation.parse("spline"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Pricing Tests")
+    class PricingTests {
+
+        @Test
+        @DisplayName("Should discount the same flows as CashFlowHelper at the curve rates")
+        void shouldDiscountCashFlowHelperFlows() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.MONOTONE_CUBIC);
+            CashFlowHelper cashFlowHelper = new CashFlowHelper(commonHelper);
+            Bond amortizing = bond(450, "quarterly");
+            amortizing.setType(BondType.AMORTIZING);
+
+            for (Bond bond : new Bond[]{bond(500, "semiannual"), bond(0, "annual"), amortizing}) {
+                double expected = 0.0;
+                CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+                do {
+                    double time = (cursor.getEpochDay() - today.toEpochDay()) / 365.25;
+                    expected += (cursor.getCoupon() + cursor.getPrincipal()) * Math.exp(-(curve.zeroRate(time) + 0.01) * time);
+                } while (cursor.next());
+
+                assertEquals(expected, curveHelper.pricer(curve, today).price(bond, 0.01).getPresentValue(), 1e-6);
+            }
+        }
+
+        @Test
+        @DisplayName("Should return the relative price sensitivity to the spread as duration")
+        void shouldMatchSpreadSensitivity() {
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve(YieldCurve.Interpolation.LINEAR), today);
+            Bond bond = bond(500, "semiannual");
+            double h = 1e-5;
+
+            double up = pricer.price(bond, h).getPresentValue();
+            double down = pricer.price(bond, -h).getPresentValue();
+            pricer.price(bond, 0.0);
+
+            assertEquals(-(up - down) / (2 * h) / pricer.getPresentValue(), pricer.getDuration(), 1e-5);
+            assertEquals((up + down - 2 * pricer.getPresentValue()) / (h * h) / pricer.getPresentValue(),
+                    pricer.getConvexity(), 1e-2);
+            assertTrue(pricer.getDuration() > 0 && pricer.getDuration() < 10);
+        }
+
+        @Test
+        @DisplayName("Should allocate no more than a cursor repricing a bond whose schedule is cached")
+        void shouldNotAllocate() {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve(YieldCurve.Interpolation.MONOTONE_CUBIC), today);
+            Bond bond = bond(500, "monthly");
+            double checksum = pricer.zSpread(bond, 95000, 0.0);
+
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 1000; i++) {
+                checksum += pricer.price(bond, i * 1e-5).getPresentValue();
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+            assertTrue(checksum > 0);
+            // At most one CashFlowHelper.Cursor per pricing, never the flows or the schedule
+            assertTrue(allocated < 1000 * 64, allocated + " bytes allocated");
+        }
+
+        @Test
+        @DisplayName("Should reject a matured bond")
+        void shouldRejectMaturedBond() {
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve(YieldCurve.Interpolation.LINEAR), LocalDate.of(2036, 1, 1));
+            assertThrows(IllegalArgumentException.class, () -> pricer.price(bond(500, "annual"), 0.0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Z-Spread Tests")
+    class ZSpreadTests {
+
+        @Test
+        @DisplayName("Should recover the spread a price was computed at")
+        void shouldRecoverSpread() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.MONOTONE_CUBIC);
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve, today);
+            for (Bond bond : new Bond[]{bond(500, "semiannual"), bond(0, "annual"), bond(800, "monthly")}) {
+                double price = pricer.price(bond, 0.0123).getPresentValue();
+                assertEquals(0.0123, pricer.zSpread(bond, price, 0.0), 1e-10);
+            }
+        }
+
+        @Test
+        @DisplayName("Should start close from the yield to maturity over the curve")
+        void shouldStartFromYieldToMaturity() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.LINEAR);
+            Bond bond = bond(500, "annual");
+            // Flat 5% annual: ln(1.05) continuous
+            bond.setYieldToMaturity(500);
+            double guess = curveHelper.spreadGuess(bond, curve, today);
+
+            assertEquals(Math.log(1.05) - curve.zeroRate((bond.getMaturityDate().toEpochDay() - today.toEpochDay()) / 365.25),
+                    guess, 1e-15);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Z-Spread Tests")
+    class BatchZSpreadTests {
+
+        @Test
+        @DisplayName("Should solve the same spreads as one bond at a time, across several batches")
+        void shouldMatchSingleBondSolver() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.MONOTONE_CUBIC);
+            CurveHelper.Pricer pricer = curveHelper.pricer(curve, today);
+            String[] terms = {"annual", "semiannual", "quarterly", "monthly"};
+            List<Bond> bonds = new ArrayList<>();
+            for (int i = 0; i < 2500; i++) {
+                Bond bond = bond(i % 7 == 0 ? 0 : 100 + i % 700, terms[i % terms.length]);
+                if (i % 11 == 0) {
+                    bond.setType(BondType.AMORTIZING);
+                }
+                bond.setMarketValue(90000 + i % 20000);
+                bond.setYieldToMaturity(300 + i % 400);
+                bonds.add(bond);
+            }
+            double[] prices = new double[bonds.size()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = bonds.get(i).getMarketValue();
+            }
+
+            double[] spreads = curveHelper.zSpreads(bonds, prices, curve, today);
+
+            for (int i = 0; i < bonds.size(); i++) {
+                Bond bond = bonds.get(i);
+                double expected = pricer.zSpread(bond, prices[i], curveHelper.spreadGuess(bond, curve, today));
+                assertEquals(expected, spreads[i], 1e-10, "bond " + i);
+                assertEquals(prices[i], pricer.price(bond, spreads[i]).getPresentValue(), 1e-6, "bond " + i);
+            }
+        }
+
+        @Test
+        @DisplayName("Should leave a matured bond without a spread and solve the others")
+        void shouldSkipMaturedBond() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.LINEAR);
+            Bond matured = new Bond("US0378331005", LocalDate.of(2024, 1, 15), LocalDate.of(2020, 1, 15), 500, 100000,
+                    97000, "annual", 1);
+            Bond live = bond(500, "annual");
+            double price = curveHelper.pricer(curve, today).price(live, 0.01).getPresentValue();
+
+            double[] spreads = curveHelper.zSpreads(List.of(matured, live), new double[]{97000, price}, curve, today);
+
+            assertTrue(Double.isNaN(spreads[0]));
+            assertEquals(0.01, spreads[1], 1e-10);
+        }
+
+        @Test
+        @DisplayName("Should reject a price count that does not match the bonds")
+        void shouldRejectMismatchedPrices() {
+            YieldCurve curve = curve(YieldCurve.Interpolation.LINEAR);
+            assertThrows(IllegalArgumentException.class,
+                    () -> curveHelper.zSpreads(List.of(bond(500, "annual")), new double[2], curve, today));
+        }
+    }
+}
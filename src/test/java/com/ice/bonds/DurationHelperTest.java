@@ -4,6 +4,7 @@ import com.ice.bonds.helper.CommonHelper;
 import com.ice.bonds.helper.DurationHelper;
 import com.ice.bonds.helper.YTMHelper;
 import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -1682,5 +1683,75 @@ class DurationHelperTest {
             }
         }
     }
-}
 
+    @Nested
+    @DisplayName("Bond Type Kernel Tests")
+    class BondTypeKernelTests {
+
+        private Bond bond(LocalDate issueDate, LocalDate maturityDate, int couponRate, int marketValue, String paymentTerm) {
+            Bond bond = new Bond();
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(maturityDate);
+            bond.setCouponRate(couponRate);
+            bond.setFaceValue(100000);
+            bond.setMarketValue(marketValue);
+            bond.setPaymentTerm(paymentTerm);
+            return bond;
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should give a zero coupon bond its time to maturity, as the cash flow path does")
+        @CsvSource({"3, 50", "1825, 450", "7300, 900"})
+        void shouldMatchZeroCouponDuration(int daysToMaturity, double ytm) {
+            LocalDate today = LocalDate.now();
+            Bond bond = bond(today.minusYears(1), today.plusDays(daysToMaturity), 0, 80000, "semiannual");
+
+            double duration = durationHelper.calculateZeroCouponDuration(bond);
+
+            assertEquals(daysToMaturity / 365.25, duration, 1e-12);
+            assertEquals(durationHelper.calculateMacaulayDuration(bond, ytm), duration, 1e-12);
+        }
+
+        @Test
+        @DisplayName("Should give a floating rate note the time to its next reset")
+        void shouldGiveFloatingRateDurationToNextReset() {
+            LocalDate issueDate = LocalDate.now().minusMonths(2).withDayOfMonth(1);
+            Bond bond = bond(issueDate, issueDate.plusYears(10), 450, 99000, "semiannual");
+            bond.setType(BondType.FLOATING_RATE);
+
+            double duration = durationHelper.calculateFloatingRateDuration(bond);
+
+            long daysToReset = issueDate.plusMonths(6).toEpochDay() - LocalDate.now().toEpochDay();
+            assertEquals(daysToReset / 365.25, duration, 1e-12);
+            assertTrue(duration < durationHelper.calculateMacaulayDuration(bond, 450));
+        }
+
+        @Test
+        @DisplayName("Should give an amortizing bond a shorter duration than a bullet bond")
+        void shouldShortenAmortizingDuration() {
+            LocalDate issueDate = LocalDate.now().minusYears(2).withDayOfMonth(1);
+            Bond bullet = bond(issueDate, issueDate.plusYears(10), 500, 100000, "quarterly");
+            Bond amortizing = bond(issueDate, issueDate.plusYears(10), 500, 80000, "quarterly");
+            amortizing.setType(BondType.AMORTIZING);
+
+            double duration = durationHelper.calculateAmortizingDuration(amortizing, 500);
+
+            assertTrue(duration > 0);
+            assertTrue(duration < durationHelper.calculateMacaulayDuration(bullet, 500));
+        }
+
+        @Test
+        @DisplayName("Should measure duration to the call date as for a bond maturing then")
+        void shouldMeasureDurationToCall() {
+            LocalDate issueDate = LocalDate.now().minusYears(3).withDayOfMonth(1);
+            Bond bond = bond(issueDate, issueDate.plusYears(20), 600, 110000, "semiannual");
+            BondType.Callable callable = new BondType.Callable(issueDate.plusYears(8), 100000);
+            Bond maturingOnCall = bond(issueDate, issueDate.plusYears(8), 600, 110000, "semiannual");
+
+            double duration = durationHelper.calculateMacaulayDurationToCall(bond, callable, 400);
+
+            assertEquals(durationHelper.calculateMacaulayDuration(maturingOnCall, 400), duration, 1e-12);
+            assertTrue(duration < durationHelper.calculateMacaulayDuration(bond, 400));
+        }
+    }
+}
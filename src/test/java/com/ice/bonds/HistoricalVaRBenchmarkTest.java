@@ -0,0 +1,110 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.RiskHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Historical VaR of a 50,000 position book over 5,000 days of yield changes, the way
+ * HistoricalRiskService runs it: every scenario priced over the netted cash flows in parallel, fully
+ * revalued and by duration-convexity approximation.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=HistoricalVaRBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Historical VaR Benchmark")
+class HistoricalVaRBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalVaRBenchmarkTest.class);
+
+    private static final int POSITIONS = 50_000;
+    private static final int SCENARIOS = 5_000;
+    private static final int ROUNDS = 5;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @Test
+    @DisplayName("VaR of a 50,000 position portfolio over 5,000 historical days")
+    void historicalVaR() {
+        LocalDate today = LocalDate.now();
+        Portfolio portfolio = book(today);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+        RiskHelper riskHelper = new RiskHelper();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        Random random = new Random(7);
+        double[] changes = new double[SCENARIOS];
+        for (int day = 0; day < SCENARIOS; day++) {
+            changes[day] = random.nextGaussian() * 8;
+        }
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(portfolio.getBonds(), today);
+                double irr = portfolioHelper.calculatePortfolioIRR(portfolio, cashFlows, today);
+                PortfolioCashFlows.Valuation base = cashFlows.value(today, irr / 10000.0);
+                double buildMillis = (System.nanoTime() - start) / 1e6;
+
+                double[] pnl = new double[SCENARIOS];
+                start = System.nanoTime();
+                pool.submit(() -> IntStream.range(0, SCENARIOS).parallel().forEach(day ->
+                        pnl[day] = riskHelper.fullRevaluationPnl(cashFlows, today, base, irr, changes[day]))).join();
+                Arrays.sort(pnl);
+                double fullVaR = riskHelper.valueAtRisk(pnl, 0.99);
+                double fullMillis = (System.nanoTime() - start) / 1e6;
+
+                start = System.nanoTime();
+                for (int day = 0; day < SCENARIOS; day++) {
+                    pnl[day] = riskHelper.approximatePnl(base, changes[day]);
+                }
+                Arrays.sort(pnl);
+                double approximateVaR = riskHelper.valueAtRisk(pnl, 0.99);
+                double approximateMillis = (System.nanoTime() - start) / 1e6;
+
+                logger.info("Flows and IRR in {} ms; 99% VaR {} full revaluation in {} ms, {} approximated in {} ms",
+                        String.format("%.1f", buildMillis), String.format("%.0f", fullVaR), String.format("%.1f", fullMillis),
+                        String.format("%.0f", approximateVaR), String.format("%.2f", approximateMillis));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Portfolio book(LocalDate today) {
+        Random random = new Random(42);
+        Portfolio portfolio = new Portfolio("benchmark");
+        for (int i = 0; i < POSITIONS; i++) {
+            Bond bond = new Bond();
+            // The 28th at most, so every schedule lands on maturity
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            bond.setISIN("TEST-ISIN");
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(today.plusYears(1 + random.nextInt(30))
+                    .withMonth(issueDate.getMonthValue()).withDayOfMonth(issueDate.getDayOfMonth()));
+            bond.setCouponRate(100 + random.nextInt(700));
+            bond.setFaceValue(100000);
+            bond.setMarketValue(85_000 + random.nextInt(30_000));
+            bond.setPaymentTerm(TERMS[random.nextInt(TERMS.length)]);
+            bond.setQuantity(1 + random.nextInt(100));
+            bond.setYieldToMaturity(bond.getCouponRate());
+            portfolio.addBond(bond);
+        }
+        return portfolio;
+    }
+}
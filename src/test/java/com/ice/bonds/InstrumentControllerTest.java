@@ -0,0 +1,62 @@
+package com.ice.bonds;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.serialization.InstrumentMasterFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Instrument Controller Tests")
+class InstrumentControllerTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void instrumentMaster(DynamicPropertyRegistry registry) throws IOException {
+        Path path = tempDir.resolve("instruments.bin");
+        InstrumentMasterFile.write(path, List.of(
+                new Bond("US0378331005", LocalDate.of(2033, 1, 15), LocalDate.of(2023, 1, 15), 500, 100000, 0, "semiannual"),
+                new Bond("US5949181045", LocalDate.of(2030, 6, 1), LocalDate.of(2020, 6, 1), 375, 100000, 0, "annual")));
+        registry.add("bonds.instruments.file", path::toString);
+    }
+
+    @Test
+    @DisplayName("Should return the static terms of an instrument")
+    void shouldReturnInstrument() throws Exception {
+        mockMvc.perform(get("/api/instruments/US5949181045"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isin").value("US5949181045"))
+                .andExpect(jsonPath("$.issueDate").value("2020-06-01"))
+                .andExpect(jsonPath("$.maturityDate").value("2030-06-01"))
+                .andExpect(jsonPath("$.couponRate").value(375))
+                .andExpect(jsonPath("$.faceValue").value(100000))
+                .andExpect(jsonPath("$.paymentTerm").value("annual"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an instrument not in the instrument master")
+    void shouldReturnNotFoundForUnknownInstrument() throws Exception {
+        mockMvc.perform(get("/api/instruments/GB0002634946"))
+                .andExpect(status().isNotFound());
+    }
+}
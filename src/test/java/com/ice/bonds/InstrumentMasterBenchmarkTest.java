@@ -0,0 +1,89 @@
+package com.ice.bonds;
+
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.serialization.InstrumentMasterFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Startup and lookup cost of a 2M instrument master file.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=InstrumentMasterBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Instrument Master Benchmark")
+class InstrumentMasterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentMasterBenchmarkTest.class);
+
+    private static final int INSTRUMENTS = 2_000_000;
+    private static final int LOOKUPS = 5_000_000;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Open and look up a 2M instrument master")
+    void openAndLookUp() throws IOException {
+        Path path = tempDir.resolve("instruments.bin");
+        List<String> isins = writeInstruments(path);
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        InstrumentMasterFile file = InstrumentMasterFile.open(path);
+        long openMicros = (System.nanoTime() - start) / 1_000;
+        System.gc();
+        logger.info("Opened {} instruments in {} us, heap delta {} KB", file.size(), openMicros,
+                (usedHeap() - heapBefore) >> 10);
+
+        Random random = new Random(42);
+        for (int round = 0; round < 3; round++) {
+            long checksum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                int id = file.idOf(isins.get(random.nextInt(INSTRUMENTS)));
+                checksum += file.bond(id).getCouponRate();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("Round {}: {} lookups/s (checksum {})", round, String.format("%.0f", LOOKUPS / seconds), checksum);
+        }
+    }
+
+    /**
+     * Writes the file in its own method, so the source bonds are garbage before the file is opened.
+     */
+    private static List<String> writeInstruments(Path path) throws IOException {
+        List<String> isins = new ArrayList<>(INSTRUMENTS);
+        List<Bond> bonds = new ArrayList<>(INSTRUMENTS);
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            String isin = String.format("XS%010d", i);
+            isins.add(isin);
+            bonds.add(new Bond(isin, LocalDate.of(2030, 1, 15).plusDays(i % 3000),
+                    LocalDate.of(2020, 1, 15).plusDays(i % 1000), i % 900, 100000, 0, TERMS[i % TERMS.length]));
+        }
+        long start = System.nanoTime();
+        InstrumentMasterFile.write(path, bonds);
+        logger.info("Wrote {} instruments ({} MB) in {} ms", INSTRUMENTS, Files.size(path) >> 20,
+                (System.nanoTime() - start) / 1_000_000);
+        return isins;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,172 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.serialization.InstrumentMasterFile;
+import com.ice.bonds.serialization.MappedBond;
+import com.ice.bonds.service.BondService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Instrument Master File Tests")
+class InstrumentMasterFileTest {
+
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @TempDir
+    Path tempDir;
+
+    private static List<Bond> instruments(int n) {
+        List<Bond> bonds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            bonds.add(new Bond(String.format("XS%010d", i),
+                    LocalDate.of(2030, 1, 15).plusDays(i % 3000),
+                    LocalDate.of(2020, 1, 15).plusDays(i % 1000),
+                    i % 900,
+                    100000,
+                    0,
+                    TERMS[i % TERMS.length]));
+        }
+        return bonds;
+    }
+
+    private InstrumentMasterFile writeAndOpen(List<Bond> bonds) throws IOException {
+        Path path = tempDir.resolve("instruments.bin");
+        InstrumentMasterFile.write(path, bonds);
+        return InstrumentMasterFile.open(path);
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should find every instrument by ISIN with its terms")
+        void shouldFindEveryInstrument() throws IOException {
+            List<Bond> bonds = instruments(10_000);
+            InstrumentMasterFile file = writeAndOpen(bonds);
+
+            assertEquals(bonds.size(), file.size());
+            for (int id = 0; id < bonds.size(); id++) {
+                Bond expected = bonds.get(id);
+                assertEquals(id, file.idOf(expected.getISIN()));
+                Bond actual = file.find(expected.getISIN()).orElseThrow();
+                assertEquals(expected.getISIN(), actual.getISIN());
+                assertEquals(expected.getIssueDate(), actual.getIssueDate());
+                assertEquals(expected.getMaturityDate(), actual.getMaturityDate());
+                assertEquals(expected.getCouponRate(), actual.getCouponRate());
+                assertEquals(expected.getFaceValue(), actual.getFaceValue());
+                assertEquals(expected.getPaymentTerm(), actual.getPaymentTerm());
+            }
+        }
+
+        @Test
+        @DisplayName("Should not find unknown ISINs")
+        void shouldNotFindUnknownIsins() throws IOException {
+            InstrumentMasterFile file = writeAndOpen(instruments(100));
+
+            assertEquals(-1, file.idOf("XS9999999999"));
+            assertEquals(-1, file.idOf("XS00000000"));
+            assertEquals(-1, file.idOf(null));
+            assertTrue(file.find("US0378331005").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should open an empty file")
+        void shouldOpenEmptyFile() throws IOException {
+            InstrumentMasterFile file = writeAndOpen(List.of());
+
+            assertEquals(0, file.size());
+            assertTrue(file.find("US0378331005").isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Mapped Bond Tests")
+    class MappedBondTests {
+
+        @Test
+        @DisplayName("Should analyze a mapped bond like the bond it was written from")
+        void shouldAnalyzeLikeSourceBond() throws IOException {
+            Bond source = new Bond("US0378331005", LocalDate.of(2033, 1, 15), LocalDate.of(2023, 1, 15),
+                    500, 100000, 95000, "semiannual", 10);
+            MappedBond mapped = writeAndOpen(List.of(source)).bond(0);
+            mapped.setMarketValue(95000);
+            mapped.setQuantity(10);
+
+            AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+            CommonHelper commonHelper = new CommonHelper();
+            BondService bondService = new BondService(new YTMHelper(commonHelper),
+                    new DurationHelper(commonHelper, metrics), new ISINHelper(), metrics);
+            LocalDate today = LocalDate.of(2025, 6, 1);
+            bondService.analyzeBond(source, today);
+            bondService.analyzeBond(mapped, today);
+
+            assertEquals(source.getYieldToMaturity(), mapped.getYieldToMaturity());
+            assertEquals(source.getMacaulayDuration(), mapped.getMacaulayDuration());
+            assertEquals(source.getModifiedDuration(), mapped.getModifiedDuration());
+            assertEquals(source.getTotalMarketValue(), mapped.getTotalMarketValue());
+        }
+
+        @Test
+        @DisplayName("Should reject changes to the static terms")
+        void shouldRejectTermChanges() throws IOException {
+            MappedBond mapped = writeAndOpen(instruments(1)).bond(0);
+
+            assertThrows(UnsupportedOperationException.class, () -> mapped.setISIN("US0378331005"));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.setCouponRate(100));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.setMaturityDate(LocalDate.now()));
+            assertThrows(IndexOutOfBoundsException.class, () -> writeAndOpen(instruments(1)).bond(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Format Validation Tests")
+    class FormatValidationTests {
+
+        @Test
+        @DisplayName("Should reject duplicate ISINs when writing")
+        void shouldRejectDuplicateIsins() {
+            List<Bond> bonds = instruments(10);
+            bonds.add(instruments(1).get(0));
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> InstrumentMasterFile.write(tempDir.resolve("dup.bin"), bonds));
+            assertTrue(e.getMessage().contains("Duplicate ISIN"));
+        }
+
+        @Test
+        @DisplayName("Should reject files with a bad magic number or a truncated body")
+        void shouldRejectInvalidFiles() throws IOException {
+            Path path = tempDir.resolve("instruments.bin");
+            InstrumentMasterFile.write(path, instruments(100));
+            byte[] bytes = Files.readAllBytes(path);
+
+            Path truncated = tempDir.resolve("truncated.bin");
+            Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+            assertThrows(IllegalArgumentException.class, () -> InstrumentMasterFile.open(truncated));
+
+            bytes[0] = 'X';
+            Path badMagic = tempDir.resolve("bad-magic.bin");
+            Files.write(badMagic, bytes);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> InstrumentMasterFile.open(badMagic));
+            assertTrue(e.getMessage().contains("bad magic number"));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.serialization.JsonStringUnescapingReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON String Unescaping Reader Tests")
+class JsonStringUnescapingReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String readAll(String encoded) throws IOException {
+        JsonStringUnescapingReader reader = new JsonStringUnescapingReader(new StringReader(encoded));
+        assertTrue(reader.open());
+        StringBuilder out = new StringBuilder();
+        char[] chunk = new char[7]; // small chunk to cross escape boundaries
+        int n;
+        while ((n = reader.read(chunk, 0, chunk.length)) != -1) {
+            out.append(chunk, 0, n);
+        }
+        return out.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "plain",
+            "{\"isin\": \"US0378331005\", \"couponRate\": \"500\"}",
+            "quote \" backslash \\ slash / tab \t newline \n return \r",
+            "control \b \f \u0001 unicode \u00e9 \u4e2d emoji \ud83d\ude00"
+    })
+    @DisplayName("Should produce the same content as Jackson string deserialization")
+    void shouldMatchJacksonUnescaping(String original) throws Exception {
+        String encoded = objectMapper.writeValueAsString(original);
+        assertEquals(objectMapper.readValue(encoded, String.class), readAll(encoded));
+    }
+
+    @Test
+    @DisplayName("Should unescape forward slash and unicode escapes")
+    void shouldUnescapeSlashAndUnicode() throws Exception {
+        assertEquals("a/b\u00e9", readAll("\"a\\/b\\u00E9\""));
+    }
+
+    @Test
+    @DisplayName("Should skip leading whitespace before the opening quote")
+    void shouldSkipLeadingWhitespace() throws Exception {
+        assertEquals("x", readAll(" \n\t \"x\""));
+    }
+
+    @Test
+    @DisplayName("Should report JSON null")
+    void shouldReportNull() throws Exception {
+        Reader reader = new JsonStringUnescapingReader(new StringReader("null"));
+        assertFalse(((JsonStringUnescapingReader) reader).open());
+        assertEquals(-1, reader.read(new char[4], 0, 4));
+    }
+
+    @Test
+    @DisplayName("Should reject values that are not strings")
+    void shouldRejectNonString() {
+        JsonStringUnescapingReader reader = new JsonStringUnescapingReader(new StringReader("{\"a\": 1}"));
+        assertThrows(IOException.class, reader::open);
+    }
+
+    @Test
+    @DisplayName("Should reject unterminated string")
+    void shouldRejectUnterminatedString() throws Exception {
+        JsonStringUnescapingReader reader = new JsonStringUnescapingReader(new StringReader("\"abc"));
+        assertTrue(reader.open());
+        assertThrows(IOException.class, reader::finish);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid escapes")
+    void shouldRejectInvalidEscapes() {
+        assertThrows(IOException.class, () -> readAll("\"\\x\""));
+        assertThrows(IOException.class, () -> readAll("\"\\u12G4\""));
+    }
+
+    @Test
+    @DisplayName("Should let Jackson parse the embedded document directly")
+    void shouldParseEmbeddedDocument() throws Exception {
+        String encoded = objectMapper.writeValueAsString("[{\"isin\": \"US0378331005\"}, {\"isin\": \"US5949181045\"}]");
+        JsonStringUnescapingReader reader = new JsonStringUnescapingReader(new StringReader(encoded));
+        assertTrue(reader.open());
+        var tree = objectMapper.readTree(reader);
+        assertEquals(2, tree.size());
+        assertEquals("US5949181045", tree.get(1).get("isin").asText());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ice.bonds;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cost of the analytics instrumentation: portfolio analysis with metrics enabled vs disabled.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=MetricsOverheadBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Metrics Overhead Benchmark")
+class MetricsOverheadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsOverheadBenchmarkTest.class);
+
+    private static final int BONDS = 20_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 40;
+
+    private PortfolioService portfolioService(boolean enabled, int bondSampleInterval) {
+        AnalyticsMetrics metrics = new AnalyticsMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT),
+                enabled, bondSampleInterval);
+        CommonHelper commonHelper = new CommonHelper();
+        BondService bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+        return new PortfolioService(bondService, new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics);
+    }
+
+    @Test
+    @DisplayName("Portfolio analysis with metrics enabled vs disabled")
+    void overhead() {
+        List<BondDTORequest> requests = new ArrayList<>(BONDS);
+        for (int i = 0; i < BONDS; i++) {
+            BondDTORequest dto = new BondDTORequest();
+            dto.setIsin("US0378331005");
+            dto.setIssueDate("2023-01-15");
+            dto.setMaturityDate("2033-01-15");
+            dto.setCouponRate(String.valueOf(400 + i % 300));
+            dto.setFaceValue("100000");
+            dto.setMarketValue(String.valueOf(90000 + i % 20000));
+            dto.setPaymentTerm("semiannual");
+            dto.setQuantity("10");
+            requests.add(dto);
+        }
+
+        PortfolioService disabled = portfolioService(false, 1);
+        PortfolioService everyBond = portfolioService(true, 1);
+        PortfolioService sampled = portfolioService(true, 16);
+
+        // Alternate the configurations so JIT and GC effects hit all of them equally
+        Runnable[] tasks = {
+                () -> disabled.addBondsToPortfolio(new Portfolio("bench"), requests),
+                () -> everyBond.addBondsToPortfolio(new Portfolio("bench"), requests),
+                () -> sampled.addBondsToPortfolio(new Portfolio("bench"), requests)
+        };
+        for (int i = 0; i < WARMUP; i++) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+        double[][] samples = new double[tasks.length][ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int t = 0; t < tasks.length; t++) {
+                samples[t][i] = timeMillis(tasks[t]);
+            }
+        }
+        double off = median(samples[0]);
+        double all = median(samples[1]);
+        double oneIn16 = median(samples[2]);
+        logger.info("Analyze {} bonds: metrics off {} ms, every bond {} ms ({}%), 1 in 16 bonds {} ms ({}%)",
+                BONDS, fmt(off), fmt(all), fmt((all / off - 1) * 100), fmt(oneIn16), fmt((oneIn16 / off - 1) * 100));
+    }
+
+    private static String fmt(double value) {
+        return String.format("%.1f", value);
+    }
+
+    private static double timeMillis(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double median(double[] samples) {
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+}
@@ -0,0 +1,87 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.MonteCarloHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.QuantileSketch;
+import com.ice.bonds.model.ShortRateModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Hull-White present value paths of a 50,000 position book, monthly steps out to the last flow,
+ * counted in a quantile sketch, on one thread.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=MonteCarloBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Monte Carlo Benchmark")
+class MonteCarloBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonteCarloBenchmarkTest.class);
+
+    private static final int POSITIONS = 50_000;
+    private static final int PATHS = 1_000_000;
+    private static final int ROUNDS = 3;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @Test
+    @DisplayName("1,000,000 Hull-White paths of a 50,000 position portfolio")
+    void paths() {
+        LocalDate today = LocalDate.now();
+        Portfolio portfolio = book(today);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+        MonteCarloHelper monteCarloHelper = new MonteCarloHelper();
+
+        PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(portfolio.getBonds(), today);
+        double irr = portfolioHelper.calculatePortfolioIRR(portfolio, cashFlows, today);
+        PortfolioCashFlows.StepMoments flows = cashFlows.stepMoments(today, 30);
+        MonteCarloHelper.PathGrid grid = monteCarloHelper.pathGrid(
+                new ShortRateModel.HullWhite(0.1, 0.01, Math.log1p(irr / 10000.0)), flows);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            QuantileSketch sketch = new QuantileSketch(0.0005);
+            long start = System.nanoTime();
+            double sum = monteCarloHelper.simulate(flows, grid, new SplittableRandom(round), PATHS, sketch);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("{} paths of {} steps in {} s ({} paths/s), mean {}, 1% {}, 99% {}", PATHS, flows.steps(),
+                    String.format("%.2f", seconds), String.format("%.0f", PATHS / seconds),
+                    String.format("%.0f", sum / PATHS), String.format("%.0f", sketch.quantile(0.01)),
+                    String.format("%.0f", sketch.quantile(0.99)));
+        }
+    }
+
+    private static Portfolio book(LocalDate today) {
+        Random random = new Random(42);
+        Portfolio portfolio = new Portfolio("benchmark");
+        for (int i = 0; i < POSITIONS; i++) {
+            Bond bond = new Bond();
+            // The 28th at most, so every schedule lands on maturity
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            bond.setISIN("TEST-ISIN");
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(today.plusYears(1 + random.nextInt(30))
+                    .withMonth(issueDate.getMonthValue()).withDayOfMonth(issueDate.getDayOfMonth()));
+            bond.setCouponRate(100 + random.nextInt(700));
+            bond.setFaceValue(100000);
+            bond.setMarketValue(85_000 + random.nextInt(30_000));
+            bond.setPaymentTerm(TERMS[random.nextInt(TERMS.length)]);
+            bond.setQuantity(1 + random.nextInt(100));
+            bond.setYieldToMaturity(bond.getCouponRate());
+            portfolio.addBond(bond);
+        }
+        return portfolio;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.MonteCarloHelper;
+import com.ice.bonds.model.PortfolioCashFlows;
+import com.ice.bonds.model.QuantileSketch;
+import com.ice.bonds.model.ShortRateModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Monte Carlo Helper Tests")
+class MonteCarloHelperTest {
+
+    private final MonteCarloHelper monteCarloHelper = new MonteCarloHelper();
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+
+    // 10 year 5% annual coupon bond, 10 positions
+    private PortfolioCashFlows cashFlows() {
+        PortfolioCashFlows cashFlows = new PortfolioCashFlows(today);
+        for (int year = 1; year <= 10; year++) {
+            cashFlows.add(today.plusYears(year).toEpochDay(), 50000);
+        }
+        cashFlows.add(today.plusYears(10).toEpochDay(), 1000000);
+        return cashFlows;
+    }
+
+    private QuantileSketch simulate(ShortRateModel model, int paths, long seed) {
+        PortfolioCashFlows.StepMoments flows = cashFlows().stepMoments(today, 30);
+        QuantileSketch sketch = new QuantileSketch(0.0005);
+        monteCarloHelper.simulate(flows, monteCarloHelper.pathGrid(model, flows), new SplittableRandom(seed), paths, sketch);
+        return sketch;
+    }
+
+    @Nested
+    @DisplayName("Path Tests")
+    class PathTests {
+
+        @Test
+        @DisplayName("Should reprice at the flat yield when the short rate has no volatility")
+        void shouldRepriceWithoutVolatility() {
+            double rate = Math.log1p(0.05);
+            PortfolioCashFlows.StepMoments flows = cashFlows().stepMoments(today, 30);
+            ShortRateModel model = new ShortRateModel.Vasicek(0.1, 0.0, rate, rate);
+
+            QuantileSketch sketch = new QuantileSketch(0.0005);
+            double sum = monteCarloHelper.simulate(flows, monteCarloHelper.pathGrid(model, flows),
+                    new SplittableRandom(1), 10, sketch);
+
+            double expected = cashFlows().value(today, 0.05).presentValue();
+            assertEquals(expected, sum / 10, expected * 1e-7);
+            assertEquals(sketch.getMin(), sketch.getMax());
+        }
+
+        @Test
+        @DisplayName("Should average to today's price under Hull-White fitted to the flat curve")
+        void shouldMatchCurveOnAverage() {
+            double rate = Math.log1p(0.05);
+            PortfolioCashFlows.StepMoments flows = cashFlows().stepMoments(today, 30);
+            ShortRateModel model = new ShortRateModel.HullWhite(0.1, 0.01, rate);
+
+            double sum = monteCarloHelper.simulate(flows, monteCarloHelper.pathGrid(model, flows),
+                    new SplittableRandom(7), 20000, new QuantileSketch(0.0005));
+
+            double expected = cashFlows().value(today, 0.05).presentValue();
+            assertEquals(expected, sum / 20000, expected * 0.005);
+        }
+
+        @Test
+        @DisplayName("Should widen the distribution with volatility and reproduce it from the seed")
+        void shouldReproduceFromSeed() {
+            double rate = Math.log1p(0.05);
+            QuantileSketch low = simulate(new ShortRateModel.HullWhite(0.1, 0.005, rate), 5000, 3);
+            QuantileSketch high = simulate(new ShortRateModel.HullWhite(0.1, 0.02, rate), 5000, 3);
+            QuantileSketch again = simulate(new ShortRateModel.HullWhite(0.1, 0.02, rate), 5000, 3);
+            QuantileSketch other = simulate(new ShortRateModel.HullWhite(0.1, 0.02, rate), 5000, 4);
+
+            assertTrue(high.quantile(0.99) - high.quantile(0.01) > 2 * (low.quantile(0.99) - low.quantile(0.01)));
+            for (double probability : new double[]{0.01, 0.5, 0.99}) {
+                assertEquals(high.quantile(probability), again.quantile(probability));
+            }
+            assertNotEquals(high.getMin(), other.getMin());
+        }
+
+        @Test
+        @DisplayName("Should reject a mean reversion of 0 and a negative volatility")
+        void shouldRejectInvalidModels() {
+            assertThrows(IllegalArgumentException.class, () -> new ShortRateModel.HullWhite(0.0, 0.01, 0.05));
+            assertThrows(IllegalArgumentException.class, () -> new ShortRateModel.Vasicek(0.1, -0.01, 0.05, 0.05));
+        }
+    }
+
+    @Nested
+    @DisplayName("Quantile Sketch Tests")
+    class QuantileSketchTests {
+
+        @Test
+        @DisplayName("Should return quantiles within the relative accuracy")
+        void shouldStayWithinRelativeAccuracy() {
+            QuantileSketch sketch = new QuantileSketch(0.001);
+            for (int value = 1; value <= 100000; value++) {
+                sketch.add(value);
+            }
+
+            for (double probability : new double[]{0.0, 0.01, 0.25, 0.5, 0.9, 0.999, 1.0}) {
+                double exact = 1 + Math.floor(probability * 99999);
+                assertEquals(exact, sketch.quantile(probability), exact * 0.001 + 1e-9);
+            }
+            assertEquals(100000, sketch.getCount());
+        }
+
+        @Test
+        @DisplayName("Should merge into the same quantiles as one sketch of every value")
+        void shouldMerge() {
+            SplittableRandom random = new SplittableRandom(11);
+            QuantileSketch whole = new QuantileSketch(0.001);
+            QuantileSketch first = new QuantileSketch(0.001);
+            QuantileSketch second = new QuantileSketch(0.001);
+            for (int i = 0; i < 20000; i++) {
+                double value = random.nextGaussian() * 1000;
+                whole.add(value);
+                (i % 2 == 0 ? first : second).add(value);
+            }
+            first.merge(second);
+
+            for (double probability : new double[]{0.0, 0.05, 0.5, 0.95, 1.0}) {
+                assertEquals(whole.quantile(probability), first.quantile(probability));
+            }
+            assertTrue(first.quantile(0.05) < 0 && first.quantile(0.95) > 0);
+        }
+
+        @Test
+        @DisplayName("Should reject an empty sketch and sketches of different accuracy")
+        void shouldRejectInvalidUse() {
+            QuantileSketch sketch = new QuantileSketch(0.001);
+            assertThrows(IllegalStateException.class, () -> sketch.quantile(0.5));
+            assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.01)));
+        }
+    }
+}
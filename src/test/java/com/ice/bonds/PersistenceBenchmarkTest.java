@@ -0,0 +1,167 @@
+package com.ice.bonds;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.persistence.PortfolioPersistenceService;
+import com.ice.bonds.serialization.PortfolioLogCodec;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioService;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput of acknowledged portfolio changes with the write-ahead log (in memory, fsync off, fsync on)
+ * and startup time replaying the log.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=PersistenceBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Persistence Benchmark")
+class PersistenceBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceBenchmarkTest.class);
+
+    private static final int THREADS = 16;
+    private static final int POSITIONS = 20;
+    private static final int WARMUP_CHANGES = 20_000;
+    private static final int CHANGES = 100_000;
+    private static final int RECOVERY_PORTFOLIOS = 1_000;
+    private static final int RECOVERY_CHANGES = 200_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Acknowledged changes per second and log replay time")
+    void throughputAndRecovery() throws Exception {
+        ISINHelper isinHelper = new ISINHelper();
+        List<String> isins = new ArrayList<>(POSITIONS);
+        for (int i = 0; i < POSITIONS; i++) {
+            isins.add(PriceTickBenchmarkTest.isin(isinHelper, i));
+        }
+
+        PortfolioStoreService memory = newStore();
+        measure("in memory", memory, isins);
+
+        for (boolean fsync : new boolean[]{false, true}) {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory.resolve("fsync-" + fsync), fsync);
+            measure(fsync ? "fsync on" : "fsync off", store, isins);
+            persistence.shutdown();
+        }
+
+        Path recoveryDir = directory.resolve("recovery");
+        PortfolioStoreService store = newStore();
+        start(store, recoveryDir, false);
+        List<UUID> ids = new ArrayList<>(RECOVERY_PORTFOLIOS);
+        for (int p = 0; p < RECOVERY_PORTFOLIOS; p++) {
+            ids.add(store.create("bench", positions(isins)).getId());
+        }
+        for (int i = 0; i < RECOVERY_CHANGES; i++) {
+            store.upsertBonds(ids.get(i % RECOVERY_PORTFOLIOS),
+                    List.of(position(isins.get(i % POSITIONS), 90_000 + i % 20_000)));
+        }
+        // No shutdown: the next start finds no snapshot and replays every record, like after a crash
+        long start = System.nanoTime();
+        PortfolioPersistenceService recovered = start(newStore(), recoveryDir, false);
+        double millis = (System.nanoTime() - start) / 1e6;
+        logger.info("Replayed {} log records ({} portfolios x {} positions) in {} ms, {} records/s",
+                RECOVERY_PORTFOLIOS + RECOVERY_CHANGES, RECOVERY_PORTFOLIOS, POSITIONS, String.format("%.0f", millis),
+                String.format("%.0f", (RECOVERY_PORTFOLIOS + RECOVERY_CHANGES) / millis * 1000));
+        recovered.shutdown();
+    }
+
+    private void measure(String mode, PortfolioStoreService store, List<String> isins) throws Exception {
+        List<UUID> ids = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            ids.add(store.create("bench", positions(isins)).getId());
+        }
+        run(store, ids, isins, WARMUP_CHANGES);
+        long start = System.nanoTime();
+        run(store, ids, isins, CHANGES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("{}, {} threads: {} acknowledged changes/s", mode, THREADS,
+                String.format("%.0f", CHANGES / seconds));
+    }
+
+    /**
+     * Each thread reprices one position of its own portfolio per change, alternating between two prices.
+     */
+    private static void run(PortfolioStoreService store, List<UUID> ids, List<String> isins, int changes)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < changes / THREADS; i++) {
+                        store.upsertBonds(ids.get(thread),
+                                List.of(position(isins.get(i % POSITIONS), i % 2 == 0 ? 97_000 : 98_000)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static PortfolioStoreService newStore() {
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        CommonHelper commonHelper = new CommonHelper();
+        BondService bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+        return new PortfolioStoreService(bondService, new PortfolioService(bondService, portfolioHelper, metrics),
+                portfolioHelper, metrics);
+    }
+
+    private static PortfolioPersistenceService start(PortfolioStoreService store, Path dir, boolean fsync) {
+        return new PortfolioPersistenceService(store, new PortfolioLogCodec(), AnalyticsMetrics.disabled(),
+                true, dir.toString(), fsync, Duration.ofHours(1));
+    }
+
+    private static List<BondDTORequest> positions(List<String> isins) {
+        List<BondDTORequest> positions = new ArrayList<>(isins.size());
+        for (String isin : isins) {
+            positions.add(position(isin, 100_000));
+        }
+        return positions;
+    }
+
+    private static BondDTORequest position(String isin, int marketValue) {
+        BondDTORequest dto = new BondDTORequest();
+        dto.setIsin(isin);
+        dto.setIssueDate("2023-01-15");
+        dto.setMaturityDate("2033-01-15");
+        dto.setCouponRate("500");
+        dto.setFaceValue("100000");
+        dto.setMarketValue(String.valueOf(marketValue));
+        dto.setPaymentTerm("semiannual");
+        dto.setQuantity("10");
+        return dto;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ice.bonds;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,10 +10,23 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -327,6 +342,45 @@ class PortfolioControllerTest {
                     .andExpect(jsonPath("$.totalPortfolioValue").value(1475000));
         }
 
+        @Test
+        @DisplayName("Should report the portfolio weighted YTM and IRR in basis points")
+        void shouldReportPortfolioYields() throws Exception {
+            String validJson = createTwoBondPortfolioJson(
+                VALID_ISIN_1, "2023-01-15", "2033-01-15", 500, 100000, 95000, "semiannual", 10,
+                VALID_ISIN_2, "2022-06-01", "2032-06-01", 650, 100000, 105000, "semiannual", 5
+            );
+
+            MvcResult result = mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(validJson))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.weightedYieldToMaturity").isNumber())
+                    .andExpect(jsonPath("$.internalRateOfReturn").isNumber())
+                    .andReturn();
+
+            JsonNode response = new ObjectMapper().readTree(result.getResponse().getContentAsString());
+            double irr = response.get("internalRateOfReturn").asDouble();
+            assertTrue(irr > 400 && irr < 800, "IRR should be between the coupons: " + irr);
+        }
+
+        @Test
+        @DisplayName("Should report the IRR of a deep discount bond maturing within days")
+        void shouldReportIrrNearMaturity() throws Exception {
+            LocalDate maturityDate = LocalDate.now().plusDays(5);
+            for (int marketValue : new int[]{80000, 90000}) {
+                String validJson = createSingleBondPortfolioJson(
+                    VALID_ISIN_1, maturityDate.minusYears(5).toString(), maturityDate.toString(),
+                    500, 100000, marketValue, "semiannual", 1
+                );
+
+                mockMvc.perform(post("/api/portfolios/analyze")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(validJson))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.internalRateOfReturn").isNumber());
+            }
+        }
+
         @Test
         @DisplayName("Should accept large values in cents")
         void shouldAcceptLargeValuesInCents() throws Exception {
@@ -1270,5 +1324,538 @@ class PortfolioControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
-}
 
+    @Nested
+    @DisplayName("Columnar Binary Format Tests")
+    class ColumnarFormatTests {
+
+        private static final String COLUMNAR = "application/x-bonds-columnar";
+
+        private byte[] encodeRequest(String[] isins, LocalDate[] issueDates, LocalDate[] maturityDates,
+                                     int[] couponRates, int[] faceValues, int[] marketValues,
+                                     int[] periodsPerYear, int[] quantities) {
+            int n = isins.length;
+            ByteBuffer buffer = ByteBuffer.allocate(10 + n * (12 + 6 * 4 + 1));
+            buffer.putInt(0x424E4443).putShort((short) 1).putInt(n);
+            for (String isin : isins) buffer.put(isin.getBytes(StandardCharsets.US_ASCII));
+            for (LocalDate d : issueDates) buffer.putInt((int) d.toEpochDay());
+            for (LocalDate d : maturityDates) buffer.putInt((int) d.toEpochDay());
+            for (int v : couponRates) buffer.putInt(v);
+            for (int v : faceValues) buffer.putInt(v);
+            for (int v : marketValues) buffer.putInt(v);
+            for (int v : periodsPerYear) buffer.put((byte) v);
+            for (int v : quantities) buffer.putInt(v);
+            return buffer.array();
+        }
+
+        @Test
+        @DisplayName("Should return the same analytics as the JSON endpoint")
+        void shouldMatchJsonEndpoint() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{VALID_ISIN_1, VALID_ISIN_2},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15), LocalDate.of(2022, 6, 1)},
+                    new LocalDate[]{LocalDate.of(2033, 1, 15), LocalDate.of(2032, 6, 1)},
+                    new int[]{500, 650}, new int[]{100000, 100000}, new int[]{95000, 105000},
+                    new int[]{2, 2}, new int[]{10, 5});
+
+            byte[] response = mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .accept(COLUMNAR)
+                    .content(request))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(COLUMNAR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            String json = createTwoBondPortfolioJson(
+                    VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "10",
+                    VALID_ISIN_2, "2022-06-01", "2032-06-01", "650", "100000", "105000", "semiannual", "5");
+            String jsonResponse = mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode expected = new ObjectMapper().readTree(jsonResponse);
+
+            ByteBuffer buffer = ByteBuffer.wrap(response);
+            assertEquals(0x424E4452, buffer.getInt());
+            assertEquals(1, buffer.getShort());
+            buffer.getLong();
+            buffer.getLong();
+            assertEquals(expected.get("totalPortfolioValue").asLong(), buffer.getLong());
+            assertEquals(expected.get("weightedMacaulayDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("weightedModifiedDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(2, buffer.getInt());
+
+            byte[] isin = new byte[12];
+            buffer.get(isin);
+            assertEquals(VALID_ISIN_1, new String(isin, StandardCharsets.US_ASCII));
+            buffer.get(isin);
+            assertEquals(VALID_ISIN_2, new String(isin, StandardCharsets.US_ASCII));
+            assertEquals(expected.get("bonds").get(0).get("ytm").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(1).get("ytm").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(0).get("macaulayDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(1).get("macaulayDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(0).get("modifiedDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(1).get("modifiedDuration").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(0).get("bondWeightInPortfolio").asDouble(), buffer.getDouble(), 1e-12);
+            assertEquals(expected.get("bonds").get(1).get("bondWeightInPortfolio").asDouble(), buffer.getDouble(), 1e-12);
+            assertFalse(buffer.hasRemaining());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid ISIN in columnar request")
+        void shouldRejectInvalidIsin() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{"US0378331006"},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15)}, new LocalDate[]{LocalDate.of(2033, 1, 15)},
+                    new int[]{500}, new int[]{100000}, new int[]{95000}, new int[]{2}, new int[]{1});
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(request))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid ISIN")));
+        }
+
+        @Test
+        @DisplayName("Should reject negative values in columnar request")
+        void shouldRejectNegativeValues() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{VALID_ISIN_1},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15)}, new LocalDate[]{LocalDate.of(2033, 1, 15)},
+                    new int[]{500}, new int[]{100000}, new int[]{-95000}, new int[]{2}, new int[]{1});
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(request))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid marketValue")));
+        }
+
+        @Test
+        @DisplayName("Should reject unsupported payment term code")
+        void shouldRejectInvalidPaymentTerm() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{VALID_ISIN_1},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15)}, new LocalDate[]{LocalDate.of(2033, 1, 15)},
+                    new int[]{500}, new int[]{100000}, new int[]{95000}, new int[]{3}, new int[]{1});
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(request))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid payment term")));
+        }
+
+        @Test
+        @DisplayName("Should reject an epoch day outside YYYY-MM-DD dates")
+        void shouldRejectOutOfRangeEpochDay() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{VALID_ISIN_1},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15)}, new LocalDate[]{LocalDate.of(2033, 1, 15)},
+                    new int[]{500}, new int[]{100000}, new int[]{95000}, new int[]{2}, new int[]{1});
+            // The maturity column follows the header, the ISINs and the issue dates
+            ByteBuffer.wrap(request).putInt(10 + 12 + 4, Integer.MAX_VALUE);
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(request))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid maturityDate: epoch day " + Integer.MAX_VALUE
+                            + ". Date must be between 0000-01-01 and 9999-12-31"));
+        }
+
+        @Test
+        @DisplayName("Should reject truncated columnar request")
+        void shouldRejectTruncatedRequest() throws Exception {
+            byte[] request = encodeRequest(
+                    new String[]{VALID_ISIN_1},
+                    new LocalDate[]{LocalDate.of(2023, 1, 15)}, new LocalDate[]{LocalDate.of(2033, 1, 15)},
+                    new int[]{500}, new int[]{100000}, new int[]{95000}, new int[]{2}, new int[]{1});
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(Arrays.copyOf(request, request.length - 3)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should reject bad magic number")
+        void shouldRejectBadMagic() throws Exception {
+            mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(COLUMNAR)
+                    .content(new byte[]{0, 0, 0, 0, 0, 1, 0, 0, 0, 0}))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("bad magic number")));
+        }
+    }
+
+    @Nested
+    @DisplayName("V2 Typed Schema Tests")
+    class V2TypedSchemaTests {
+
+        @Test
+        @DisplayName("Should analyze a v2 portfolio with native numbers")
+        void shouldAnalyzeV2Portfolio() throws Exception {
+            String v1 = createTwoBondPortfolioJson(
+                    VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "10",
+                    VALID_ISIN_2, "2022-06-01", "2032-06-01", "650", "100000", "105000", "semiannual", "5");
+            // Strip the quotes around numeric values to get the v2 body
+            String v2 = v1.replaceAll("\"(-?\\d+)\"", "$1");
+
+            mockMvc.perform(post("/api/portfolios/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(v2))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(2)))
+                    .andExpect(jsonPath("$.bonds[0].quantity").value(10))
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(95000L * 10 + 105000L * 5));
+        }
+
+        @Test
+        @DisplayName("Should reject a decimal value in any element")
+        void shouldRejectDecimalInElement() throws Exception {
+            String v2 = """
+                [
+                    {"isin": "US0378331005", "issueDate": "2023-01-15", "maturityDate": "2033-01-15",
+                     "couponRate": 500, "faceValue": 100000, "marketValue": 95000, "paymentTerm": "semiannual", "quantity": 1},
+                    {"isin": "US5949181045", "issueDate": "2022-06-01", "maturityDate": "2032-06-01",
+                     "couponRate": 650, "faceValue": 100000, "marketValue": 105000.25, "paymentTerm": "semiannual", "quantity": 1}
+                ]
+                """;
+
+            mockMvc.perform(post("/api/portfolios/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(v2))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid marketValue: 105000.25. Value must be a whole number without decimals"));
+        }
+
+        @Test
+        @DisplayName("Should reject a null element")
+        void shouldRejectNullElement() throws Exception {
+            mockMvc.perform(post("/api/portfolios/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[null]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Invalid bond: expected a JSON object"));
+        }
+
+        @Test
+        @DisplayName("Should accept an empty portfolio")
+        void shouldAcceptEmptyPortfolio() throws Exception {
+            mockMvc.perform(post("/api/portfolios/v2/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON Streaming Tests")
+    class NdjsonStreamingTests {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private String line(String isin, String marketValue, String quantity) {
+            return String.format("{\"isin\":\"%s\",\"issueDate\":\"2023-01-15\",\"maturityDate\":\"2033-01-15\","
+                    + "\"couponRate\":\"500\",\"faceValue\":\"100000\",\"marketValue\":\"%s\","
+                    + "\"paymentTerm\":\"semiannual\",\"quantity\":\"%s\"}\n", isin, marketValue, quantity);
+        }
+
+        private ResultActions stream(String body) throws Exception {
+            return mockMvc.perform(post("/api/portfolios/analyze")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(body));
+        }
+
+        @Test
+        @DisplayName("Should return the same portfolio analytics as the JSON endpoint")
+        void shouldMatchJsonAnalytics() throws Exception {
+            String json = createTwoBondPortfolioJson(
+                    VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "10",
+                    VALID_ISIN_2, "2023-01-15", "2033-01-15", "500", "100000", "105000", "semiannual", "5");
+            JsonNode expected = objectMapper.readTree(mockMvc.perform(post("/api/portfolios/analyze")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+
+            String body = stream(line(VALID_ISIN_1, "95000", "10") + line(VALID_ISIN_2, "105000", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode actual = objectMapper.readTree(body);
+
+            assertEquals(expected.get("totalPortfolioValue"), actual.get("totalPortfolioValue"));
+            assertEquals(expected.get("weightedMacaulayDuration"), actual.get("weightedMacaulayDuration"));
+            assertEquals(expected.get("weightedModifiedDuration"), actual.get("weightedModifiedDuration"));
+            assertEquals(expected.get("bonds"), actual.get("bonds"));
+        }
+
+        @Test
+        @DisplayName("Should keep request order")
+        void shouldKeepRequestOrder() throws Exception {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                body.append(line(i % 2 == 0 ? VALID_ISIN_1 : VALID_ISIN_2, String.valueOf(90000 + i), "1"));
+            }
+
+            String response = stream(body.toString())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(200)))
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode bonds = objectMapper.readTree(response).get("bonds");
+            for (int i = 0; i < 200; i++) {
+                assertEquals(90000 + i, bonds.get(i).get("marketValue").asInt());
+            }
+        }
+
+        @Test
+        @DisplayName("Should return 400 when any bond is invalid")
+        void shouldRejectInvalidBond() throws Exception {
+            stream(line(VALID_ISIN_1, "95000", "10") + line(VALID_ISIN_2, "95,000", "10"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for malformed JSON")
+        void shouldRejectMalformedJson() throws Exception {
+            stream(line(VALID_ISIN_1, "95000", "10") + "{\"isin\": \n")
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(startsWith("Invalid JSON format")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cash Flow Ladder Tests")
+    class CashFlowLadderTests {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private String ladderBody() {
+            return createTwoBondPortfolioJson(
+                    VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "10",
+                    VALID_ISIN_2, "2024-03-10", "2030-03-10", "400", "100000", "99000", "annual", "3");
+        }
+
+        private JsonNode ladder(String bucket, String body) throws Exception {
+            return objectMapper.readTree(mockMvc.perform(post("/api/portfolios/cashflows")
+                            .param("bucket", bucket)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        private int remainingPaymentDates(LocalDate issueDate, LocalDate maturityDate, int monthsPerPeriod) {
+            LocalDate today = LocalDate.now();
+            int count = 0;
+            for (LocalDate date = issueDate.plusMonths(monthsPerPeriod); !date.isAfter(maturityDate);
+                 date = date.plusMonths(monthsPerPeriod)) {
+                if (!date.isBefore(today)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Test
+        @DisplayName("Should sum coupons and principal times quantity")
+        void shouldSumFlowsTimesQuantity() throws Exception {
+            JsonNode ladder = ladder("yearly", ladderBody());
+
+            int semiannual = remainingPaymentDates(LocalDate.of(2023, 1, 15), LocalDate.of(2033, 1, 15), 6);
+            int annual = remainingPaymentDates(LocalDate.of(2024, 3, 10), LocalDate.of(2030, 3, 10), 12);
+            assertEquals("yearly", ladder.get("bucket").asText());
+            assertEquals(2, ladder.get("positions").asInt());
+            assertEquals(semiannual * 2500.0 * 10 + annual * 4000.0 * 3, ladder.get("totalCoupon").asDouble(), 1e-6);
+            assertEquals(100000.0 * 13, ladder.get("totalPrincipal").asDouble(), 1e-6);
+
+            double total = 0.0;
+            int flows = 0;
+            for (JsonNode bucket : ladder.get("buckets")) {
+                LocalDate start = LocalDate.parse(bucket.get("startDate").asText());
+                assertEquals(1, start.getDayOfYear());
+                assertEquals(start.plusYears(1).minusDays(1).toString(), bucket.get("endDate").asText());
+                double expectedPrincipal = start.getYear() == 2033 ? 1_000_000.0 : start.getYear() == 2030 ? 300_000.0 : 0.0;
+                assertEquals(expectedPrincipal, bucket.get("principalAmount").asDouble(), 1e-6);
+                total += bucket.get("totalAmount").asDouble();
+                flows += bucket.get("flowCount").asInt();
+            }
+            assertEquals(ladder.get("totalCoupon").asDouble() + ladder.get("totalPrincipal").asDouble(), total, 1e-6);
+            assertEquals(semiannual + annual, flows);
+        }
+
+        @Test
+        @DisplayName("Should list monthly buckets in date order")
+        void shouldListMonthlyBucketsInOrder() throws Exception {
+            JsonNode buckets = ladder("monthly", ladderBody()).get("buckets");
+
+            LocalDate previous = LocalDate.MIN;
+            for (JsonNode bucket : buckets) {
+                LocalDate start = LocalDate.parse(bucket.get("startDate").asText());
+                assertEquals(1, start.getDayOfMonth());
+                assertTrue(start.isAfter(previous));
+                assertTrue(Set.of(1, 3, 7).contains(start.getMonthValue()));
+                previous = start;
+            }
+            assertEquals("2033-01-01", buckets.get(buckets.size() - 1).get("startDate").asText());
+            assertEquals(25000.0 + 1_000_000.0, buckets.get(buckets.size() - 1).get("totalAmount").asDouble(), 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should use single day buckets")
+        void shouldUseDailyBuckets() throws Exception {
+            JsonNode buckets = ladder("daily", ladderBody()).get("buckets");
+
+            for (JsonNode bucket : buckets) {
+                assertEquals(bucket.get("startDate"), bucket.get("endDate"));
+                assertTrue(Set.of(10, 15).contains(LocalDate.parse(bucket.get("startDate").asText()).getDayOfMonth()));
+            }
+        }
+
+        @Test
+        @DisplayName("Should stream the same buckets as NDJSON")
+        void shouldStreamSameBuckets() throws Exception {
+            JsonNode expected = ladder("monthly", ladderBody()).get("buckets");
+            StringBuilder ndjson = new StringBuilder();
+            for (JsonNode bond : objectMapper.readTree(ladderBody())) {
+                ndjson.append(bond).append('\n');
+            }
+
+            String body = mockMvc.perform(post("/api/portfolios/cashflows")
+                            .param("bucket", "monthly")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .content(ndjson.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+            assertEquals(expected.size(), lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                assertEquals(expected.get(i), objectMapper.readTree(lines.get(i)));
+            }
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown bucket or a matured bond")
+        void shouldRejectInvalidRequests() throws Exception {
+            mockMvc.perform(post("/api/portfolios/cashflows")
+                            .param("bucket", "weekly")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(ladderBody()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid bucket")));
+
+            mockMvc.perform(post("/api/portfolios/cashflows")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(createSingleBondPortfolioJson(VALID_ISIN_1, "2015-01-15", "2020-01-15",
+                                    500, 100000, 95000, "annual", 1)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("matured")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Field Projection Tests")
+    class FieldProjectionTests {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private final String json = createTwoBondPortfolioJson(
+                VALID_ISIN_1, "2023-01-15", "2033-01-15", "500", "100000", "95000", "semiannual", "10",
+                VALID_ISIN_2, "2023-01-15", "2033-01-15", "500", "100000", "105000", "semiannual", "5");
+
+        private JsonNode analyze(String... params) throws Exception {
+            var request = post("/api/portfolios/analyze")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(json);
+            for (int i = 0; i < params.length; i += 2) {
+                request.param(params[i], params[i + 1]);
+            }
+            return objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should return only the requested bond fields, with the same values")
+        void shouldProjectBondFields() throws Exception {
+            JsonNode full = analyze();
+            JsonNode projected = analyze("fields", "isin, ytm,zSpread");
+
+            assertEquals(full.get("bonds").size(), projected.get("bonds").size());
+            for (int i = 0; i < full.get("bonds").size(); i++) {
+                JsonNode bond = projected.get("bonds").get(i);
+                assertEquals(Set.of("isin", "ytm", "zSpread"), Set.copyOf(fieldNames(bond)));
+                assertEquals(full.get("bonds").get(i).get("isin"), bond.get("isin"));
+                assertEquals(full.get("bonds").get(i).get("ytm"), bond.get("ytm"));
+            }
+            assertEquals(full.get("totalPortfolioValue"), projected.get("totalPortfolioValue"));
+            assertEquals(full.get("internalRateOfReturn"), projected.get("internalRateOfReturn"));
+        }
+
+        @Test
+        @DisplayName("Should leave the bonds out of a summary only response")
+        void shouldReturnSummaryOnly() throws Exception {
+            JsonNode full = analyze();
+            JsonNode summary = analyze("summaryOnly", "true", "fields", "isin");
+
+            assertFalse(summary.has("bonds"));
+            assertEquals(full.get("weightedMacaulayDuration"), summary.get("weightedMacaulayDuration"));
+            assertEquals(full.get("weightedYieldToMaturity"), summary.get("weightedYieldToMaturity"));
+            assertTrue(summary.has("weightedZSpread"));
+            assertFalse(analyze("fields", "").has("bonds"));
+        }
+
+        @Test
+        @DisplayName("Should project the v2, from-string and NDJSON endpoints the same way")
+        void shouldProjectEveryEndpoint() throws Exception {
+            String v2 = mockMvc.perform(post("/api/portfolios/v2/analyze")
+                            .param("fields", "marketValue")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json.replaceAll("\"(-?\\d+)\"", "$1")))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(Set.of("marketValue"), Set.copyOf(fieldNames(objectMapper.readTree(v2).get("bonds").get(0))));
+
+            mockMvc.perform(post("/api/portfolios/analyze-from-string")
+                            .param("summaryOnly", "true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(json)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds").doesNotExist())
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(1475000));
+
+            mockMvc.perform(post("/api/portfolios/analyze")
+                            .param("fields", "quantity")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(objectMapper.readTree(json).get(0).toString() + "\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds[0].quantity").value(10))
+                    .andExpect(jsonPath("$.bonds[0].isin").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown field")
+        void shouldRejectUnknownField() throws Exception {
+            mockMvc.perform(post("/api/portfolios/analyze")
+                            .param("fields", "isin,price")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("price")));
+        }
+
+        private static List<String> fieldNames(JsonNode bond) {
+            List<String> names = new ArrayList<>();
+            bond.fieldNames().forEachRemaining(names::add);
+            return names;
+        }
+    }
+}
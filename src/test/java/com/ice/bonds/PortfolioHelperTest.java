@@ -1,8 +1,11 @@
 package com.ice.bonds;
 
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
 import com.ice.bonds.helper.PortfolioHelper;
 import com.ice.bonds.model.Bond;
 import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -26,7 +29,7 @@ class PortfolioHelperTest {
 
     @BeforeEach
     void setUp() {
-        portfolioHelper = new PortfolioHelper();
+        portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
     }
 
     /**
@@ -1218,5 +1221,218 @@ class PortfolioHelperTest {
                     "Calculated total should match sum of individual values");
         }
     }
-}
 
+    @Nested
+    @DisplayName("Portfolio Yield Tests")
+    class PortfolioYieldTests {
+
+        private final LocalDate today = LocalDate.now();
+
+        private Bond createPricedBond(String isin, LocalDate maturityDate, int couponRate, int marketValue, int quantity) {
+            Bond bond = createBond(isin, marketValue, quantity, 0.0, 0.0);
+            bond.setIssueDate(maturityDate.minusYears(10));
+            bond.setMaturityDate(maturityDate);
+            bond.setCouponRate(couponRate);
+            return bond;
+        }
+
+        private double presentValue(Portfolio portfolio, double irr) {
+            CashFlowHelper cashFlowHelper = new CashFlowHelper(new CommonHelper());
+            double pv = 0.0;
+            for (Bond bond : portfolio.getBonds()) {
+                CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+                do {
+                    double years = (cursor.getEpochDay() - today.toEpochDay()) / 365.25;
+                    pv += (cursor.getCoupon() + cursor.getPrincipal()) * bond.getQuantity() / Math.pow(1 + irr / 10000, years);
+                } while (cursor.next());
+            }
+            return pv;
+        }
+
+        @Test
+        @DisplayName("Should weight YTM by market value")
+        void testWeightedAverageYTM() {
+            Bond bond1 = createBond("US0378331005", 100000, 1, 4.0, 3.8);
+            bond1.setYieldToMaturity(400);
+            Bond bond2 = createBond("US5949181045", 100000, 3, 6.0, 5.6);
+            bond2.setYieldToMaturity(600);
+            Portfolio portfolio = createPortfolio("ACC001", List.of(bond1, bond2));
+
+            assertEquals(550.0, portfolioHelper.calculateWeightedAverageYTM(portfolio), 1e-9);
+            assertEquals(0.0, portfolioHelper.calculateWeightedAverageYTM(createPortfolio("ACC002", List.of())));
+        }
+
+        @Test
+        @DisplayName("IRR of a single zero coupon bond should be its exact annual yield")
+        void testZeroCouponIRR() {
+            LocalDate maturityDate = today.plusYears(5);
+            Portfolio portfolio = createPortfolio("ACC001", List.of(createPricedBond("US0378331005", maturityDate, 0, 75000, 10)));
+
+            double years = (maturityDate.toEpochDay() - today.toEpochDay()) / 365.25;
+            double expected = (Math.pow(100000.0 / 75000.0, 1 / years) - 1) * 10000;
+
+            assertEquals(expected, portfolioHelper.calculatePortfolioIRR(portfolio, today), 1e-6);
+        }
+
+        @Test
+        @DisplayName("IRR should discount the merged cash flows to the portfolio value")
+        void testIRRDiscountsToValue() {
+            Bond bond1 = createPricedBond("US0378331005", today.plusYears(3).plusDays(17), 450, 97000, 20);
+            bond1.setPaymentTerm("quarterly");
+            Bond bond2 = createPricedBond("US5949181045", today.plusYears(12).minusDays(40), 625, 104000, 35);
+            Bond bond3 = createPricedBond("GB0002634946", today.plusYears(7), 0, 70000, 5);
+            Portfolio portfolio = createPortfolio("ACC001", List.of(bond1, bond2, bond3));
+
+            double irr = portfolioHelper.calculatePortfolioIRR(portfolio, today);
+            logger.info("Portfolio IRR: {} bps", irr);
+
+            assertEquals(portfolioHelper.calculateTotalPortfolioValue(portfolio), presentValue(portfolio, irr), 1e-4);
+            assertTrue(irr > 0 && irr < 1000, "IRR should be a plausible yield");
+        }
+
+        @Test
+        @DisplayName("IRR should lie between the IRRs of the positions")
+        void testIRRBetweenPositions() {
+            Bond cheap = createPricedBond("US0378331005", today.plusYears(4), 0, 70000, 1);
+            Bond rich = createPricedBond("US5949181045", today.plusYears(9), 0, 90000, 1);
+
+            double cheapIrr = portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC001", List.of(cheap)), today);
+            double richIrr = portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC002", List.of(rich)), today);
+            double irr = portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC003", List.of(cheap, rich)), today);
+
+            assertTrue(irr < cheapIrr && irr > richIrr, "IRR " + irr + " should be between " + richIrr + " and " + cheapIrr);
+        }
+
+        @Test
+        @DisplayName("IRR should leave out matured bonds and be 0 for an empty portfolio")
+        void testIRRSkipsMatured() {
+            Bond live = createPricedBond("US0378331005", today.plusYears(5), 0, 75000, 10);
+            Bond matured = createPricedBond("US5949181045", today.minusDays(1), 500, 100000, 10);
+
+            assertEquals(portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC001", List.of(live)), today),
+                    portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC002", List.of(live, matured)), today), 1e-9);
+            assertEquals(0.0, portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC003", List.of()), today));
+            assertEquals(0.0, portfolioHelper.calculatePortfolioIRR(createPortfolio("ACC004", List.of(matured)), today));
+        }
+
+        @ParameterizedTest
+        @CsvSource({"80000", "90000"})
+        @DisplayName("IRR should converge for a deep discount bond maturing within days")
+        void testIRRNearMaturityDeepDiscount(int marketValue) {
+            Bond bond = createPricedBond("US0378331005", today.plusDays(5), 500, marketValue, 1);
+            bond.setYieldToMaturity(500);
+            Portfolio portfolio = createPortfolio("ACC001", List.of(bond));
+
+            double irr = portfolioHelper.calculatePortfolioIRR(portfolio, today);
+
+            assertTrue(Double.isFinite(irr) && irr > 0, "IRR " + irr);
+            assertEquals(1.0, presentValue(portfolio, irr) / bond.getDirtyPrice(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("IRR should be NaN when no yield discounts the flows to the value")
+        void testIRRWithoutRoot() {
+            PortfolioCashFlows cashFlows = new PortfolioCashFlows(today);
+            cashFlows.add(today.toEpochDay(), 50000);
+            cashFlows.add(today.plusDays(30).toEpochDay(), 1000);
+
+            assertTrue(Double.isNaN(cashFlows.yieldFor(today, 40000, 0.05)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Netted Cash Flow Tests")
+    class NettedCashFlowTests {
+
+        private final LocalDate today = LocalDate.now();
+
+        private Bond createPricedBond(String isin, LocalDate maturityDate, int couponRate, int marketValue, int quantity) {
+            Bond bond = createBond(isin, marketValue, quantity, 0.0, 0.0);
+            bond.setIssueDate(maturityDate.minusYears(10));
+            bond.setMaturityDate(maturityDate);
+            bond.setCouponRate(couponRate);
+            return bond;
+        }
+
+        @Test
+        @DisplayName("Zero coupon bond should be worth its discounted face value with duration equal to its term")
+        void testZeroCouponValuation() {
+            LocalDate maturityDate = today.plusYears(6);
+            PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(
+                    List.of(createPricedBond("US0378331005", maturityDate, 0, 70000, 3)), today);
+
+            double years = (maturityDate.toEpochDay() - today.toEpochDay()) / 365.25;
+            PortfolioCashFlows.Valuation valuation = cashFlows.value(today, 0.05);
+
+            assertEquals(300000 / Math.pow(1.05, years), valuation.presentValue(), 1e-6);
+            assertEquals(years, valuation.macaulayDuration(), 1e-9);
+            assertEquals(years / 1.05, valuation.modifiedDuration(), 1e-9);
+            assertEquals(years * (years + 1) / (1.05 * 1.05), valuation.convexity(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Duration and convexity should match finite differences of the present value")
+        void testSensitivities() {
+            PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(List.of(
+                    createPricedBond("US0378331005", today.plusYears(3).plusDays(17), 450, 97000, 20),
+                    createPricedBond("US5949181045", today.plusYears(12).minusDays(40), 625, 104000, 35)), today);
+            double yield = 0.048;
+            double h = 1e-4;
+
+            double pv = cashFlows.value(today, yield).presentValue();
+            double up = cashFlows.value(today, yield + h).presentValue();
+            double down = cashFlows.value(today, yield - h).presentValue();
+            PortfolioCashFlows.Valuation valuation = cashFlows.value(today, yield);
+
+            assertEquals(-(up - down) / (2 * h * pv), valuation.modifiedDuration(), 1e-5);
+            assertEquals((up + down - 2 * pv) / (h * h * pv), valuation.convexity(), 1e-3);
+        }
+
+        @Test
+        @DisplayName("Should value the flows at the portfolio IRR at the portfolio value")
+        void testValueAtIRR() {
+            Bond bond1 = createPricedBond("US0378331005", today.plusYears(3).plusDays(17), 450, 97000, 20);
+            Bond bond2 = createPricedBond("US5949181045", today.plusYears(12).minusDays(40), 625, 104000, 35);
+            Portfolio portfolio = createPortfolio("ACC001", List.of(bond1, bond2));
+            PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(portfolio.getBonds(), today);
+
+            double irr = portfolioHelper.calculatePortfolioIRR(portfolio, cashFlows, today);
+
+            assertEquals(portfolioHelper.calculatePortfolioIRR(portfolio, today), irr, 1e-9);
+            assertEquals(portfolio.getTotalPortfolioValue(), cashFlows.value(today, irr / 10000).presentValue(), 1e-4);
+        }
+
+        @Test
+        @DisplayName("Adding and removing positions incrementally should match a rebuild")
+        void testIncrementalUpdates() {
+            Bond bond1 = createPricedBond("US0378331005", today.plusYears(3).plusDays(17), 450, 97000, 20);
+            Bond bond2 = createPricedBond("US5949181045", today.plusYears(12).minusDays(40), 625, 104000, 35);
+            Bond bond3 = createPricedBond("GB0002634946", today.plusYears(7), 0, 70000, 5);
+            PortfolioCashFlows incremental = portfolioHelper.aggregateCashFlows(List.of(bond1, bond2), today);
+
+            portfolioHelper.addCashFlows(incremental, bond3, today, 1);
+            portfolioHelper.addCashFlows(incremental, bond1, today, -1);
+            PortfolioCashFlows rebuilt = portfolioHelper.aggregateCashFlows(List.of(bond2, bond3), today);
+
+            for (long day = today.toEpochDay(); day <= today.plusYears(13).toEpochDay(); day++) {
+                assertEquals(rebuilt.getAmount(day), incremental.getAmount(day), 1e-6);
+            }
+            assertEquals(rebuilt.value(today, 0.05).presentValue(), incremental.value(today, 0.05).presentValue(), 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should skip flows before the valuation date and reject yields at or below -100%")
+        void testValuationDate() {
+            PortfolioCashFlows cashFlows = new PortfolioCashFlows(today);
+            cashFlows.add(today.minusDays(10).toEpochDay(), 5000);
+            cashFlows.add(today.toEpochDay(), 1000);
+            cashFlows.add(today.plusDays(30).toEpochDay(), 2000);
+
+            assertEquals(5000, cashFlows.getAmount(today.minusDays(10).toEpochDay()));
+            assertEquals(3000, cashFlows.value(today, 0.0).presentValue(), 1e-9);
+            assertEquals(2000, cashFlows.value(today.plusDays(1), 0.0).presentValue(), 1e-9);
+            assertFalse(cashFlows.hasFlowsAfter(today.plusDays(30)));
+            assertThrows(IllegalArgumentException.class, () -> cashFlows.value(today, -1.0));
+        }
+    }
+}
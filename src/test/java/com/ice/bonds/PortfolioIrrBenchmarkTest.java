@@ -0,0 +1,117 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioCashFlows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Portfolio IRR of a 100,000 position book: merging every position's remaining cash flows and solving
+ * for the yield over them. Then flat-yield scenarios priced over the netted flows, against the
+ * per-bond duration they replace.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=PortfolioIrrBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Portfolio IRR Benchmark")
+class PortfolioIrrBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioIrrBenchmarkTest.class);
+
+    private static final int POSITIONS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final int SCENARIOS = 100;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @Test
+    @DisplayName("IRR of a 100,000 position portfolio")
+    void irr() {
+        LocalDate today = LocalDate.now();
+        Portfolio portfolio = book(today);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+
+        long flows = 0;
+        CashFlowHelper cashFlowHelper = new CashFlowHelper(new CommonHelper());
+        for (Bond bond : portfolio.getBonds()) {
+            CashFlowHelper.Cursor cursor = cashFlowHelper.cursor(bond, today);
+            do {
+                flows++;
+            } while (cursor.next());
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            double irr = portfolioHelper.calculatePortfolioIRR(portfolio, today);
+            double millis = (System.nanoTime() - start) / 1e6;
+            logger.info("Portfolio IRR of {} positions, {} flows: {} bps in {} ms", POSITIONS, flows,
+                    String.format("%.4f", irr), String.format("%.1f", millis));
+        }
+    }
+
+    @Test
+    @DisplayName("Flat-yield scenarios of a 100,000 position portfolio, netted flows and per bond")
+    void scenarios() {
+        LocalDate today = LocalDate.now();
+        Portfolio portfolio = book(today);
+        CommonHelper commonHelper = new CommonHelper();
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(commonHelper));
+        DurationHelper durationHelper = new DurationHelper(commonHelper);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            PortfolioCashFlows cashFlows = portfolioHelper.aggregateCashFlows(portfolio.getBonds(), today);
+            double buildMillis = (System.nanoTime() - start) / 1e6;
+
+            double checksum = 0.0;
+            start = System.nanoTime();
+            for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+                checksum += cashFlows.value(today, 0.03 + scenario * 0.0001).modifiedDuration();
+            }
+            double sweepMicros = (System.nanoTime() - start) / 1e3 / SCENARIOS;
+
+            start = System.nanoTime();
+            for (Bond bond : portfolio.getBonds()) {
+                checksum += durationHelper.calculateMacaulayDuration(bond, 300);
+            }
+            double perBondMillis = (System.nanoTime() - start) / 1e6;
+
+            logger.info("Netted flows built in {} ms, {} us per scenario; per-bond durations {} ms per scenario (checksum {})",
+                    String.format("%.1f", buildMillis), String.format("%.1f", sweepMicros),
+                    String.format("%.1f", perBondMillis), String.format("%.1f", checksum));
+        }
+    }
+
+    private static Portfolio book(LocalDate today) {
+        Random random = new Random(42);
+        Portfolio portfolio = new Portfolio("benchmark");
+        for (int i = 0; i < POSITIONS; i++) {
+            Bond bond = new Bond();
+            // The 28th at most, so every schedule lands on maturity
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            bond.setISIN("TEST-ISIN");
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(today.plusYears(1 + random.nextInt(30))
+                    .withMonth(issueDate.getMonthValue()).withDayOfMonth(issueDate.getDayOfMonth()));
+            bond.setCouponRate(100 + random.nextInt(700));
+            bond.setFaceValue(100000);
+            bond.setMarketValue(85_000 + random.nextInt(30_000));
+            bond.setPaymentTerm(TERMS[random.nextInt(TERMS.length)]);
+            bond.setQuantity(1 + random.nextInt(100));
+            bond.setYieldToMaturity(bond.getCouponRate());
+            portfolio.addBond(bond);
+        }
+        return portfolio;
+    }
+}
@@ -0,0 +1,127 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Portfolio Job Controller Tests")
+class PortfolioJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String createPortfolioJson(String isin) {
+        return String.format("""
+            [
+                {
+                    "isin": "%s",
+                    "issueDate": "2023-01-15",
+                    "maturityDate": "2033-01-15",
+                    "couponRate": "500",
+                    "faceValue": "100000",
+                    "marketValue": "95000",
+                    "paymentTerm": "semiannual",
+                    "quantity": "10"
+                }
+            ]
+            """, isin);
+    }
+
+    private String submit(String json) throws Exception {
+        String body = mockMvc.perform(post("/api/portfolios/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/portfolios/jobs/")))
+                .andExpect(jsonPath("$.jobId").isNotEmpty())
+                .andExpect(jsonPath("$.totalBonds").value(1))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("jobId").asText();
+    }
+
+    private JsonNode awaitFinished(String jobId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            String body = mockMvc.perform(get("/api/portfolios/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode status = objectMapper.readTree(body);
+            String state = status.get("status").asText();
+            if (state.equals("COMPLETED") || state.equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish in time");
+    }
+
+    @Test
+    @DisplayName("Should run a submitted job and return its result")
+    void shouldReturnResultOfCompletedJob() throws Exception {
+        String jobId = submit(createPortfolioJson("US0378331005"));
+
+        JsonNode status = awaitFinished(jobId);
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertEquals(1, status.get("analyzedBonds").asInt());
+
+        mockMvc.perform(get("/api/portfolios/jobs/" + jobId + "/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bonds", hasSize(1)))
+                .andExpect(jsonPath("$.bonds[0].isin").value("US0378331005"))
+                .andExpect(jsonPath("$.totalPortfolioValue").value(950000))
+                .andExpect(jsonPath("$.weightedMacaulayDuration").value(greaterThan(0.0)));
+    }
+
+    @Test
+    @DisplayName("Should report a failed job with its error")
+    void shouldReportFailedJob() throws Exception {
+        String jobId = submit(createPortfolioJson("INVALID"));
+
+        awaitFinished(jobId);
+
+        mockMvc.perform(get("/api/portfolios/jobs/" + jobId + "/result"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown job")
+    void shouldReturnNotFoundForUnknownJob() throws Exception {
+        String jobId = UUID.randomUUID().toString();
+
+        mockMvc.perform(get("/api/portfolios/jobs/" + jobId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/portfolios/jobs/" + jobId + "/result"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a malformed job request")
+    void shouldRejectMalformedRequest() throws Exception {
+        mockMvc.perform(post("/api/portfolios/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ not json"))
+                .andExpect(status().isBadRequest());
+    }
+}
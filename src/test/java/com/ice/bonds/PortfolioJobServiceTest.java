@@ -0,0 +1,265 @@
+package com.ice.bonds;
+
+import com.ice.bonds.concurrency.AnalyticsConcurrencyLimiter;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Portfolio;
+import com.ice.bonds.model.PortfolioJob;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioJobService;
+import com.ice.bonds.service.PortfolioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Portfolio Job Service Tests")
+class PortfolioJobServiceTest {
+
+    private PortfolioJobService jobService;
+
+    /**
+     * Clock that only moves when the test advances it.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    /**
+     * PortfolioService that holds every job until released, to fill up the worker pool.
+     */
+    private static class BlockingPortfolioService extends PortfolioService {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingPortfolioService(BondService bondService, AnalyticsMetrics metrics) {
+            super(bondService, new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics);
+        }
+
+        @Override
+        public Portfolio addBondsToPortfolio(Portfolio portfolio, List<BondDTORequest> bondDTORequests,
+                                             IntConsumer progress) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.addBondsToPortfolio(portfolio, bondDTORequests, progress);
+        }
+    }
+
+    private BondService createBondService(AnalyticsMetrics metrics) {
+        CommonHelper commonHelper = new CommonHelper();
+        return new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+    }
+
+    private PortfolioService createPortfolioService() {
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        return new PortfolioService(createBondService(metrics), new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics);
+    }
+
+    private BondDTORequest createBond(String isin) {
+        BondDTORequest dto = new BondDTORequest();
+        dto.setIsin(isin);
+        dto.setIssueDate("2023-01-15");
+        dto.setMaturityDate("2033-01-15");
+        dto.setCouponRate("500");
+        dto.setFaceValue("100000");
+        dto.setMarketValue("95000");
+        dto.setPaymentTerm("semiannual");
+        dto.setQuantity("1");
+        return dto;
+    }
+
+    private PortfolioJob awaitFinished(PortfolioJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Job did not finish in time");
+        return job;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should analyze the portfolio and report full progress")
+    void shouldCompleteJob() throws InterruptedException {
+        jobService = new PortfolioJobService(createPortfolioService(), AnalyticsConcurrencyLimiter.unlimited(), 2, 4, Duration.ofMinutes(15),
+                Clock.systemUTC());
+
+        PortfolioJob job = jobService.submit(List.of(createBond("US0378331005"), createBond("US5949181045")));
+        awaitFinished(job);
+
+        assertEquals(PortfolioJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getTotalBonds());
+        assertEquals(2, job.getAnalyzedBonds());
+        assertEquals(2, job.getResult().getBonds().size());
+        assertTrue(job.getResult().getTotalPortfolioValue() > 0);
+        assertNotNull(job.getCompletedAt());
+        assertSame(job, jobService.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should mark the job failed when a bond is invalid")
+    void shouldFailJobOnInvalidBond() throws InterruptedException {
+        jobService = new PortfolioJobService(createPortfolioService(), AnalyticsConcurrencyLimiter.unlimited(), 1, 4, Duration.ofMinutes(15),
+                Clock.systemUTC());
+
+        PortfolioJob job = jobService.submit(List.of(createBond("US0378331005"), createBond("INVALID")));
+        awaitFinished(job);
+
+        assertEquals(PortfolioJob.Status.FAILED, job.getStatus());
+        assertEquals(1, job.getAnalyzedBonds());
+        assertNotNull(job.getError());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    @DisplayName("Should mark the job failed when the analysis throws an Error")
+    void shouldFailJobOnError() throws InterruptedException {
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        PortfolioService failing = new PortfolioService(createBondService(metrics),
+                new PortfolioHelper(new CashFlowHelper(new CommonHelper())), metrics) {
+            @Override
+            public Portfolio addBondsToPortfolio(Portfolio portfolio, List<BondDTORequest> bondDTORequests,
+                                                 IntConsumer progress) {
+                throw new StackOverflowError();
+            }
+        };
+        jobService = new PortfolioJobService(failing, AnalyticsConcurrencyLimiter.unlimited(), 1, 4,
+                Duration.ofMinutes(15), Clock.systemUTC());
+
+        PortfolioJob job = awaitFinished(jobService.submit(List.of(createBond("US0378331005"))));
+
+        assertEquals(PortfolioJob.Status.FAILED, job.getStatus());
+        assertEquals("java.lang.StackOverflowError", job.getError());
+        assertNull(job.getResult());
+    }
+
+    @Test
+    @DisplayName("Should reject jobs once the workers are busy and the queue is full")
+    void shouldRejectWhenSaturated() throws InterruptedException {
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        BlockingPortfolioService blocking = new BlockingPortfolioService(createBondService(metrics), metrics);
+        jobService = new PortfolioJobService(blocking, AnalyticsConcurrencyLimiter.unlimited(), 1, 1, Duration.ofMinutes(15), Clock.systemUTC());
+
+        PortfolioJob running = jobService.submit(List.of(createBond("US0378331005")));
+        // Wait for the single worker to pick up the first job so the second one sits in the queue
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (running.getStatus() == PortfolioJob.Status.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        PortfolioJob queued = jobService.submit(List.of(createBond("US0378331005")));
+        assertEquals(1, jobService.getQueuedJobCount());
+
+        assertThrows(RejectedExecutionException.class,
+                () -> jobService.submit(List.of(createBond("US0378331005"))));
+
+        blocking.release.countDown();
+        assertEquals(PortfolioJob.Status.COMPLETED, awaitFinished(running).getStatus());
+        assertEquals(PortfolioJob.Status.COMPLETED, awaitFinished(queued).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should wait for an analytics slot instead of failing")
+    void shouldRunUnderAnalyticsLimiter() throws InterruptedException {
+        AnalyticsConcurrencyLimiter limiter = new AnalyticsConcurrencyLimiter(true, 1, Duration.ZERO);
+        jobService = new PortfolioJobService(createPortfolioService(), limiter, 1, 4, Duration.ofMinutes(15),
+                Clock.systemUTC());
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> limiter.call(() -> {
+            holding.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+        PortfolioJob waiting = jobService.submit(List.of(createBond("US0378331005")));
+        Thread.sleep(100);
+        assertEquals(PortfolioJob.Status.QUEUED, waiting.getStatus());
+        assertEquals(0, waiting.getAnalyzedBonds());
+
+        release.countDown();
+        holder.join();
+        assertEquals(PortfolioJob.Status.COMPLETED, awaitFinished(waiting).getStatus());
+        assertEquals(1, waiting.getAnalyzedBonds());
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Should evict finished jobs after the retention period")
+    void shouldEvictExpiredJobs() throws InterruptedException {
+        MutableClock clock = new MutableClock();
+        jobService = new PortfolioJobService(createPortfolioService(), AnalyticsConcurrencyLimiter.unlimited(), 1, 4, Duration.ofMinutes(5), clock);
+
+        PortfolioJob job = awaitFinished(jobService.submit(List.of(createBond("US0378331005"))));
+
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(0, jobService.evictExpired());
+        assertTrue(jobService.getJob(job.getId()).isPresent());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, jobService.evictExpired());
+        assertTrue(jobService.getJob(job.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid pool configuration")
+    void shouldRejectInvalidConfiguration() {
+        PortfolioService portfolioService = createPortfolioService();
+        assertThrows(IllegalArgumentException.class,
+                () -> new PortfolioJobService(portfolioService, AnalyticsConcurrencyLimiter.unlimited(), -1, 4, Duration.ofMinutes(1), Clock.systemUTC()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PortfolioJobService(portfolioService, AnalyticsConcurrencyLimiter.unlimited(), 1, 0, Duration.ofMinutes(1), Clock.systemUTC()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PortfolioJobService(portfolioService, AnalyticsConcurrencyLimiter.unlimited(), 1, 4, Duration.ZERO, Clock.systemUTC()));
+    }
+}
@@ -0,0 +1,342 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
+import com.ice.bonds.model.PortfolioLogRecord;
+import com.ice.bonds.model.StoredPortfolio;
+import com.ice.bonds.persistence.PortfolioPersistenceService;
+import com.ice.bonds.serialization.PortfolioLogCodec;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioService;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Portfolio Persistence Service Tests")
+class PortfolioPersistenceServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<PortfolioPersistenceService> started = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutdown() {
+        started.forEach(PortfolioPersistenceService::shutdown);
+    }
+
+    private static PortfolioStoreService newStore() {
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        CommonHelper commonHelper = new CommonHelper();
+        BondService bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                new ISINHelper(), metrics);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+        return new PortfolioStoreService(bondService, new PortfolioService(bondService, portfolioHelper, metrics),
+                portfolioHelper, metrics);
+    }
+
+    private PortfolioPersistenceService start(PortfolioStoreService store, Path dir) {
+        PortfolioPersistenceService persistence = new PortfolioPersistenceService(store, new PortfolioLogCodec(),
+                AnalyticsMetrics.disabled(), true, dir.toString(), false, Duration.ofHours(1));
+        started.add(persistence);
+        return persistence;
+    }
+
+    private static BondDTORequest bond(String isin, String marketValue, String quantity) {
+        BondDTORequest dto = new BondDTORequest();
+        dto.setIsin(isin);
+        dto.setIssueDate("2023-01-15");
+        dto.setMaturityDate("2033-01-15");
+        dto.setCouponRate("500");
+        dto.setFaceValue("100000");
+        dto.setMarketValue(marketValue);
+        dto.setPaymentTerm("semiannual");
+        dto.setQuantity(quantity);
+        return dto;
+    }
+
+    private static PriceTickRequest tick(String isin, String marketValue) {
+        PriceTickRequest tick = new PriceTickRequest();
+        tick.setIsin(isin);
+        tick.setMarketValue(marketValue);
+        return tick;
+    }
+
+    /**
+     * Copies the data directory while the service is running, the state a crash would leave on disk.
+     */
+    private static Path crashImage(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, to.resolve(file.getFileName()));
+            }
+        }
+        return to;
+    }
+
+    private String json(PortfolioStoreService store, UUID id) throws IOException {
+        PortfolioAnalysisResponse response = store.get(id).orElseThrow();
+        return objectMapper.writeValueAsString(response);
+    }
+
+    private static long version(PortfolioStoreService store, UUID id) {
+        return store.read(id, StoredPortfolio::getVersion).orElseThrow();
+    }
+
+    /**
+     * Creates two portfolios and changes them with every kind of logged operation.
+     *
+     * @return The id of the portfolio left stored
+     */
+    private static UUID populate(PortfolioStoreService store) {
+        UUID kept = store.create("acct-1", List.of(bond("US0378331005", "98000", "10"),
+                bond("US5949181045", "101000", "3"))).getId();
+        UUID deleted = store.create("acct-2", List.of(bond("US0378331005", "98000", "1"))).getId();
+        store.upsertBonds(kept, List.of(bond("GB0002634946", "97000", "7"), bond("US5949181045", "102500", "4")));
+        store.removeBond(kept, "US5949181045");
+        store.applyPriceTicks(List.of(tick("US0378331005", "96500"), tick("GB0002634946", "99000")));
+        store.delete(deleted);
+        return kept;
+    }
+
+    @Nested
+    @DisplayName("Recovery Tests")
+    class RecoveryTests {
+
+        @Test
+        @DisplayName("Should replay the write-ahead log after a crash")
+        void shouldReplayLogAfterCrash() throws IOException {
+            PortfolioStoreService store = newStore();
+            start(store, directory);
+            UUID id = populate(store);
+
+            PortfolioStoreService recovered = newStore();
+            Path crash = crashImage(directory, directory.resolve("crash"));
+            PortfolioPersistenceService restarted = start(recovered, crash);
+
+            assertEquals(1, recovered.size());
+            assertEquals(json(store, id), json(recovered, id));
+            assertEquals(version(store, id), version(recovered, id));
+            assertEquals(1, recovered.getExposure("US0378331005").getHoldings().size());
+            assertEquals(10, recovered.getExposure("US0378331005").getTotalQuantity());
+        }
+
+        @Test
+        @DisplayName("Should recover a portfolio holding a bond that matured while stopped")
+        void shouldRecoverMaturedBond() throws IOException {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            UUID id = UUID.randomUUID();
+            Bond matured = new Bond("US0378331005", LocalDate.of(2020, 1, 15), LocalDate.of(2015, 1, 15), 500, 100000,
+                    99000, "semiannual", 2);
+            Bond live = new Bond("US5949181045", LocalDate.of(2033, 1, 15), LocalDate.of(2023, 1, 15), 500, 100000,
+                    98000, "semiannual", 3);
+            persistence.awaitDurable(persistence.append(PortfolioLogRecord.create(id, "acct-1", List.of(matured, live))));
+
+            PortfolioStoreService recovered = newStore();
+            Path crash = crashImage(directory, directory.resolve("crash"));
+            PortfolioPersistenceService restarted = start(recovered, crash);
+
+            PortfolioAnalysisResponse response = recovered.get(id).orElseThrow();
+            assertEquals(2, response.getBonds().size());
+            assertEquals(2, recovered.getExposure("US0378331005").getTotalQuantity());
+            assertTrue(response.getBonds().stream()
+                    .filter(b -> b.getIsin().equals("US5949181045"))
+                    .allMatch(b -> b.getYtm() > 0));
+
+            restarted.snapshot();
+            PortfolioStoreService fromSnapshot = newStore();
+            start(fromSnapshot, crashImage(crash, directory.resolve("snapshot")));
+            assertEquals(json(recovered, id), json(fromSnapshot, id));
+        }
+
+        @Test
+        @DisplayName("Should keep bond types through the log and snapshots")
+        void shouldKeepBondTypes() throws IOException {
+            BondDTORequest callable = bond("US0378331005", "110000", "5");
+            callable.setBondType("callable");
+            callable.setCallDate("2028-01-15");
+            callable.setCallPrice("101000");
+            BondDTORequest amortizing = bond("US5949181045", "60000", "2");
+            amortizing.setBondType("amortizing");
+            BondDTORequest floating = bond("GB0002634946", "99500", "3");
+            floating.setBondType("floating");
+
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            UUID id = store.create("acct-1", List.of(callable, amortizing, bond("DE0007164600", "98000", "1"))).getId();
+            store.upsertBonds(id, List.of(floating));
+            List<BondType> types = store.read(id, stored -> stored.getBonds().stream().map(Bond::getType).toList())
+                    .orElseThrow();
+
+            PortfolioStoreService replayed = newStore();
+            start(replayed, crashImage(directory, directory.resolve("crash")));
+            persistence.snapshot();
+            PortfolioStoreService restored = newStore();
+            start(restored, crashImage(directory, directory.resolve("snapshot")));
+
+            assertEquals(List.of(new BondType.Callable(LocalDate.of(2028, 1, 15), 101000), BondType.AMORTIZING,
+                    BondType.FIXED_COUPON, BondType.FLOATING_RATE), types);
+            for (PortfolioStoreService recovered : List.of(replayed, restored)) {
+                assertEquals(types, recovered.read(id, stored -> stored.getBonds().stream().map(Bond::getType).toList())
+                        .orElseThrow());
+                assertEquals(json(store, id), json(recovered, id));
+            }
+        }
+
+        @Test
+        @DisplayName("Should restore from a snapshot and replay the changes after it")
+        void shouldRestoreSnapshotAndReplayLaterChanges() throws IOException {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            UUID id = populate(store);
+            long snapshotLsn = persistence.snapshot();
+            store.applyPriceTicks(List.of(tick("US0378331005", "95000")));
+            store.upsertBonds(id, List.of(bond("DE0007164600", "100000", "2")));
+
+            PortfolioStoreService recovered = newStore();
+            Path crash = crashImage(directory, directory.resolve("crash"));
+            PortfolioPersistenceService restarted = start(recovered, crash);
+
+            assertTrue(snapshotLsn > 0);
+            assertEquals(json(store, id), json(recovered, id));
+            assertEquals(version(store, id), version(recovered, id));
+        }
+
+        @Test
+        @DisplayName("Should delete the log segments covered by a snapshot")
+        void shouldDeleteCoveredSegments() throws IOException {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            populate(store);
+            persistence.snapshot();
+            // The roll happens with the next batch, the segment before it is then deleted by the next snapshot
+            store.applyPriceTicks(List.of(tick("US0378331005", "94000")));
+            persistence.snapshot();
+
+            try (Stream<Path> files = Files.list(directory)) {
+                List<String> names = files.map(path -> path.getFileName().toString()).sorted().toList();
+                assertEquals(1, names.stream().filter(name -> name.startsWith("snapshot-")).count(), names.toString());
+                assertEquals(1, names.stream().filter(name -> name.startsWith("wal-")).count(), names.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("Should restart from the final snapshot after a clean shutdown")
+        void shouldRestartFromFinalSnapshot() throws IOException {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            UUID id = populate(store);
+            String before = json(store, id);
+            persistence.shutdown();
+
+            PortfolioStoreService recovered = newStore();
+            start(recovered, directory);
+
+            assertEquals(before, json(recovered, id));
+            UUID created = recovered.create("acct-3", List.of(bond("FR0000120578", "99000", "1"))).getId();
+            assertTrue(recovered.get(created).isPresent());
+        }
+
+        @Test
+        @DisplayName("Should truncate a torn record at the end of the log")
+        void shouldTruncateTornTail() throws IOException {
+            PortfolioStoreService store = newStore();
+            start(store, directory);
+            UUID id = populate(store);
+            Path crash = crashImage(directory, directory.resolve("crash"));
+            Path lastSegment;
+            try (Stream<Path> files = Files.list(crash)) {
+                lastSegment = files.filter(path -> path.getFileName().toString().startsWith("wal-"))
+                        .filter(path -> path.toFile().length() > 0)
+                        .sorted().reduce((a, b) -> b).orElseThrow();
+            }
+            // Half a frame header: a record that never reached the disk
+            Files.write(lastSegment, new byte[]{0, 0, 0, 40, 0, 0, 0}, StandardOpenOption.APPEND);
+            long tornSize = Files.size(lastSegment);
+
+            PortfolioStoreService recovered = newStore();
+            start(recovered, crash);
+
+            assertEquals(json(store, id), json(recovered, id));
+            assertEquals(tornSize - 7, Files.size(lastSegment));
+        }
+
+        @Test
+        @DisplayName("Should fail startup on a corrupt record before the end of the log")
+        void shouldFailOnCorruptMiddleSegment() throws IOException {
+            PortfolioStoreService store = newStore();
+            PortfolioPersistenceService persistence = start(store, directory);
+            populate(store);
+            persistence.snapshot();
+            store.applyPriceTicks(List.of(tick("US0378331005", "93000")));
+            Path crash = crashImage(directory, directory.resolve("crash"));
+            try (Stream<Path> files = Files.list(crash)) {
+                for (Path path : files.toList()) {
+                    if (path.getFileName().toString().startsWith("snapshot-")) {
+                        Files.delete(path);
+                    }
+                }
+            }
+            Path firstSegment;
+            try (Stream<Path> files = Files.list(crash)) {
+                firstSegment = files.filter(path -> path.getFileName().toString().startsWith("wal-"))
+                        .sorted().findFirst().orElseThrow();
+            }
+            byte[] bytes = Files.readAllBytes(firstSegment);
+            bytes[bytes.length - 1] ^= 0x55;
+            Files.write(firstSegment, bytes);
+
+            assertThrows(UncheckedIOException.class, () -> start(newStore(), crash));
+        }
+    }
+
+    @Nested
+    @DisplayName("Disabled Tests")
+    class DisabledTests {
+
+        @Test
+        @DisplayName("Should leave the store in memory only when disabled")
+        void shouldDoNothingWhenDisabled() throws IOException {
+            PortfolioStoreService store = newStore();
+            Path dir = directory.resolve("unused");
+            PortfolioPersistenceService persistence = new PortfolioPersistenceService(store, new PortfolioLogCodec(),
+                    AnalyticsMetrics.disabled(), false, dir.toString(), true, Duration.ofMinutes(5));
+            populate(store);
+
+            assertEquals(0, persistence.snapshot());
+            assertFalse(Files.exists(dir));
+            persistence.shutdown();
+        }
+    }
+}
@@ -0,0 +1,743 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ice.bonds.controller.PortfolioStoreController;
+import com.ice.bonds.dto.CashFlowLadderResponse;
+import com.ice.bonds.helper.RiskHelper;
+import com.ice.bonds.service.CashFlowLadderService;
+import com.ice.bonds.service.HistoricalRiskService;
+import com.ice.bonds.service.MonteCarloService;
+import com.ice.bonds.service.PortfolioFeedService;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "bonds.feed.coalesce-window=PT0.3S")
+@AutoConfigureMockMvc
+@DisplayName("Portfolio Store Controller Tests")
+class PortfolioStoreControllerTest {
+
+    private static final String VALID_ISIN_1 = "US0378331005";
+    private static final String VALID_ISIN_2 = "US5949181045";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PortfolioFeedService portfolioFeedService;
+
+    @Autowired
+    private PortfolioStoreService portfolioStoreService;
+
+    @Autowired
+    private CashFlowLadderService cashFlowLadderService;
+
+    @Autowired
+    private MonteCarloService monteCarloService;
+
+    @Autowired
+    private RiskHelper riskHelper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    static Path tempDir;
+
+    // 100 days of yield changes: -50, -49, ..., 49 bps
+    @DynamicPropertySource
+    static void yieldHistory(DynamicPropertyRegistry registry) throws IOException {
+        StringBuilder csv = new StringBuilder("date,change\n");
+        for (int day = 0; day < 100; day++) {
+            csv.append(LocalDate.of(2024, 1, 1).plusDays(day)).append(',').append(day - 50).append('\n');
+        }
+        Path path = tempDir.resolve("history.csv");
+        Files.writeString(path, csv);
+        registry.add("bonds.risk.history-file", path::toString);
+    }
+
+    private String bond(String isin, String marketValue, String quantity) {
+        return String.format("""
+                {
+                    "isin": "%s",
+                    "issueDate": "2023-01-15",
+                    "maturityDate": "2033-01-15",
+                    "couponRate": "500",
+                    "faceValue": "100000",
+                    "marketValue": "%s",
+                    "paymentTerm": "semiannual",
+                    "quantity": "%s"
+                }
+                """, isin, marketValue, quantity);
+    }
+
+    private String array(String... bonds) {
+        return "[" + String.join(",", bonds) + "]";
+    }
+
+    private String createPortfolio(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/portfolios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", startsWith("/api/portfolios/")))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+
+    // Σ dirty price × quantity, what the flows are worth at the IRR
+    private double dirtyValue(String id) throws Exception {
+        JsonNode portfolio = objectMapper.readTree(mockMvc.perform(get("/api/portfolios/" + id))
+                .andReturn().getResponse().getContentAsString());
+        double dirtyValue = 0.0;
+        for (JsonNode bond : portfolio.get("bonds")) {
+            dirtyValue += bond.get("dirtyPrice").asDouble() * bond.get("quantity").asInt();
+        }
+        return dirtyValue;
+    }
+
+    @Nested
+    @DisplayName("Stored Portfolio Tests")
+    class StoredPortfolioTests {
+
+        @Test
+        @DisplayName("Should store a portfolio and return its analysis")
+        void shouldCreateAndGetPortfolio() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+
+            mockMvc.perform(get("/api/portfolios/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(id))
+                    .andExpect(jsonPath("$.accountId").value("default-account"))
+                    .andExpect(jsonPath("$.bonds", hasSize(2)))
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(95000L * 10 + 105000L * 5));
+        }
+
+        @Test
+        @DisplayName("Should project the bonds of a stored portfolio")
+        void shouldProjectStoredPortfolio() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+
+            mockMvc.perform(get("/api/portfolios/" + id).param("fields", "isin,dirtyPrice"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(2)))
+                    .andExpect(jsonPath("$.bonds[0].isin").value(VALID_ISIN_1))
+                    .andExpect(jsonPath("$.bonds[0].dirtyPrice").isNumber())
+                    .andExpect(jsonPath("$.bonds[0].marketValue").doesNotExist());
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .param("summaryOnly", "true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_1, "96000", "10"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds").doesNotExist())
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(96000L * 10 + 105000L * 5));
+            mockMvc.perform(get("/api/portfolios/" + id).param("fields", "yield"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should update and add positions by ISIN")
+        void shouldUpsertPositions() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_1, "96000", "10"), bond(VALID_ISIN_2, "105000", "5"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(2)))
+                    .andExpect(jsonPath("$.bonds[0].isin").value(VALID_ISIN_1))
+                    .andExpect(jsonPath("$.bonds[0].marketValue").value(96000))
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(96000L * 10 + 105000L * 5));
+        }
+
+        @Test
+        @DisplayName("Should match the stateless analysis")
+        void shouldMatchStatelessAnalysis() throws Exception {
+            String body = array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5"));
+            JsonNode expected = objectMapper.readTree(mockMvc.perform(post("/api/portfolios/analyze")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getContentAsString());
+
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "90000", "10")));
+            JsonNode actual = objectMapper.readTree(mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getContentAsString());
+
+            assertEquals(expected.get("bonds"), actual.get("bonds"));
+            assertEquals(expected.get("weightedMacaulayDuration"), actual.get("weightedMacaulayDuration"));
+            assertEquals(expected.get("totalPortfolioValue"), actual.get("totalPortfolioValue"));
+            assertEquals(expected.get("internalRateOfReturn").asDouble(), actual.get("internalRateOfReturn").asDouble(), 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should return the IRR of the new positions from every write")
+        void shouldReturnCurrentIrrFromWrites() throws Exception {
+            String one = array(bond(VALID_ISIN_1, "95000", "10"));
+            String two = array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5"));
+            double oneIrr = statelessIrr(one);
+            double twoIrr = statelessIrr(two);
+
+            JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/portfolios")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(one))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(oneIrr, created.get("internalRateOfReturn").asDouble(), 1e-6);
+            String id = created.get("id").asText();
+
+            JsonNode upserted = objectMapper.readTree(mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_2, "105000", "5"))))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(twoIrr, upserted.get("internalRateOfReturn").asDouble(), 1e-6);
+
+            JsonNode removed = objectMapper.readTree(mockMvc.perform(delete("/api/portfolios/" + id + "/bonds/" + VALID_ISIN_2))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(oneIrr, removed.get("internalRateOfReturn").asDouble(), 1e-6);
+        }
+
+        private double statelessIrr(String body) throws Exception {
+            return objectMapper.readTree(mockMvc.perform(post("/api/portfolios/analyze")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).get("internalRateOfReturn").asDouble();
+        }
+
+        @Test
+        @DisplayName("Should reject duplicate ISINs and leave the portfolio unchanged on invalid bonds")
+        void shouldRejectInvalidUpdates() throws Exception {
+            mockMvc.perform(post("/api/portfolios")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_1, "96000", "10"))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Duplicate ISIN")));
+
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_2, "105000", "5"), bond("INVALID", "1", "1"))))
+                    .andExpect(status().isBadRequest());
+
+            mockMvc.perform(get("/api/portfolios/" + id))
+                    .andExpect(jsonPath("$.bonds", hasSize(1)))
+                    .andExpect(jsonPath("$.totalPortfolioValue").value(950000));
+        }
+
+        @Test
+        @DisplayName("Should remove positions and delete portfolios")
+        void shouldRemoveAndDelete() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+
+            mockMvc.perform(delete("/api/portfolios/" + id + "/bonds/" + VALID_ISIN_2))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bonds", hasSize(1)))
+                    .andExpect(jsonPath("$.bonds[0].bondWeightInPortfolio").value(1.0));
+            mockMvc.perform(delete("/api/portfolios/" + id + "/bonds/" + VALID_ISIN_2))
+                    .andExpect(status().isNotFound());
+
+            mockMvc.perform(delete("/api/portfolios/" + id))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(get("/api/portfolios/" + id))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown portfolio")
+        void shouldReturnNotFound() throws Exception {
+            String id = UUID.randomUUID().toString();
+
+            mockMvc.perform(get("/api/portfolios/" + id))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_1, "95000", "10"))))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/portfolios/" + id + "/stream"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Live Feed Tests")
+    class LiveFeedTests {
+
+        private MockHttpServletResponse subscribe(String id) throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/portfolios/" + id + "/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            return result.getResponse();
+        }
+
+        private List<JsonNode> events(MockHttpServletResponse response, String name) throws Exception {
+            List<JsonNode> events = new ArrayList<>();
+            String content = response.getContentAsString();
+            // Events are written in parts, only look at the ones already terminated by a blank line
+            content = content.substring(0, content.lastIndexOf("\n\n") + 1);
+            for (String block : content.split("\n\n")) {
+                if (block.contains("event:" + name + "\n")) {
+                    String data = block.substring(block.indexOf("data:") + "data:".length());
+                    events.add(objectMapper.readTree(data));
+                }
+            }
+            return events;
+        }
+
+        private List<JsonNode> awaitEvents(MockHttpServletResponse response, String name, int count) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            List<JsonNode> events = events(response, name);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+                events = events(response, name);
+            }
+            return events;
+        }
+
+        private void upsert(String id, String body) throws Exception {
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should send the full analysis as the first event")
+        void shouldSendSnapshot() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            MockHttpServletResponse response = subscribe(id);
+
+            assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.parseMediaType(response.getContentType()).toString());
+            List<JsonNode> snapshots = events(response, "snapshot");
+            assertEquals(1, snapshots.size());
+            assertEquals(id, snapshots.get(0).get("id").asText());
+            assertEquals(950000, snapshots.get(0).get("totalPortfolioValue").asLong());
+            assertEquals(1, portfolioFeedService.getSubscriberCount(UUID.fromString(id)));
+        }
+
+        @Test
+        @DisplayName("Should coalesce a burst of changes into one update with the changed positions only")
+        void shouldCoalesceBurst() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+            MockHttpServletResponse response = subscribe(id);
+
+            upsert(id, array(bond(VALID_ISIN_1, "95100", "10")));
+            upsert(id, array(bond(VALID_ISIN_1, "95200", "10")));
+            upsert(id, array(bond(VALID_ISIN_1, "95300", "10")));
+
+            List<JsonNode> updates = awaitEvents(response, "update", 1);
+            // Give a second, uncoalesced event the chance to show up
+            Thread.sleep(500);
+            updates = events(response, "update");
+
+            assertEquals(1, updates.size());
+            JsonNode update = updates.get(0);
+            assertEquals(4, update.get("version").asLong());
+            assertEquals(95300L * 10 + 105000L * 5, update.get("totalPortfolioValue").asLong());
+            assertEquals(1, update.get("changedBonds").size());
+            assertEquals(VALID_ISIN_1, update.get("changedBonds").get(0).get("isin").asText());
+            assertEquals(95300, update.get("changedBonds").get(0).get("marketValue").asInt());
+            assertEquals(0, update.get("removedIsins").size());
+        }
+
+        @Test
+        @DisplayName("Should report removed positions")
+        void shouldReportRemovedPositions() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+            MockHttpServletResponse response = subscribe(id);
+
+            mockMvc.perform(delete("/api/portfolios/" + id + "/bonds/" + VALID_ISIN_2))
+                    .andExpect(status().isOk());
+
+            List<JsonNode> updates = awaitEvents(response, "update", 1);
+            assertEquals(1, updates.size());
+            assertEquals(VALID_ISIN_2, updates.get(0).get("removedIsins").get(0).asText());
+            assertEquals(0, updates.get(0).get("changedBonds").size());
+            assertEquals(950000, updates.get(0).get("totalPortfolioValue").asLong());
+        }
+
+        @Test
+        @DisplayName("Should drop the feed with its last subscriber")
+        void shouldDropFeedWithLastSubscriber() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+            int feeds = portfolioFeedService.getFeedCount();
+            MvcResult first = mockMvc.perform(get("/api/portfolios/" + id + "/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andReturn();
+            MvcResult second = mockMvc.perform(get("/api/portfolios/" + id + "/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andReturn();
+            assertEquals(feeds + 1, portfolioFeedService.getFeedCount());
+
+            // The client going away completes the async request, like a timeout would
+            first.getRequest().getAsyncContext().complete();
+            assertEquals(1, portfolioFeedService.getSubscriberCount(UUID.fromString(id)));
+            assertEquals(feeds + 1, portfolioFeedService.getFeedCount());
+
+            second.getRequest().getAsyncContext().complete();
+            assertEquals(0, portfolioFeedService.getSubscriberCount(UUID.fromString(id)));
+            assertEquals(feeds, portfolioFeedService.getFeedCount());
+        }
+
+        @Test
+        @DisplayName("Should close the feed when the portfolio is deleted")
+        void shouldCloseFeedOnDelete() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+            MockHttpServletResponse response = subscribe(id);
+
+            mockMvc.perform(delete("/api/portfolios/" + id))
+                    .andExpect(status().isNoContent());
+
+            assertTrue(response.getContentAsString().contains("event:deleted"));
+            assertEquals(0, portfolioFeedService.getSubscriberCount(UUID.fromString(id)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Holdings Index Tests")
+    class HoldingsIndexTests {
+
+        private static final String HELD_ISIN = "JP3633400001";
+        private static final String OTHER_ISIN = "CH0012005267";
+
+        @Test
+        @DisplayName("Should aggregate the exposure to an ISIN across portfolios and follow position changes")
+        void shouldAggregateExposureAcrossPortfolios() throws Exception {
+            String first = createPortfolio(array(bond(HELD_ISIN, "95000", "10"), bond(OTHER_ISIN, "95000", "10")));
+            String second = createPortfolio(array(bond(HELD_ISIN, "95000", "30")));
+
+            String body = mockMvc.perform(get("/api/portfolios/holdings/" + HELD_ISIN))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isin").value(HELD_ISIN))
+                    .andExpect(jsonPath("$.holdings", hasSize(2)))
+                    .andExpect(jsonPath("$.totalQuantity").value(40))
+                    .andExpect(jsonPath("$.totalMarketValue").value(95000L * 40))
+                    .andReturn().getResponse().getContentAsString();
+            for (JsonNode holding : objectMapper.readTree(body).get("holdings")) {
+                double expectedWeight = holding.get("portfolioId").asText().equals(first) ? 0.5 : 1.0;
+                assertEquals(expectedWeight, holding.get("bondWeightInPortfolio").asDouble(), 1e-12);
+                assertEquals(expectedWeight * holding.get("modifiedDuration").asDouble(),
+                        holding.get("modifiedDurationContribution").asDouble(), 1e-12);
+            }
+
+            mockMvc.perform(delete("/api/portfolios/" + first + "/bonds/" + HELD_ISIN))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/portfolios/holdings/" + HELD_ISIN))
+                    .andExpect(jsonPath("$.holdings", hasSize(1)))
+                    .andExpect(jsonPath("$.holdings[0].portfolioId").value(second))
+                    .andExpect(jsonPath("$.totalQuantity").value(30));
+
+            mockMvc.perform(delete("/api/portfolios/" + second))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(get("/api/portfolios/holdings/" + HELD_ISIN))
+                    .andExpect(jsonPath("$.holdings", hasSize(0)))
+                    .andExpect(jsonPath("$.totalMarketValue").value(0));
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid ISIN")
+        void shouldRejectInvalidIsin() throws Exception {
+            mockMvc.perform(get("/api/portfolios/holdings/US0378331006"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid ISIN")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cash Flow Ladder Tests")
+    class CashFlowLadderTests {
+
+        @Test
+        @DisplayName("Should project the current positions of a stored portfolio")
+        void shouldProjectCurrentPositions() throws Exception {
+            String id = createPortfolio(array(bond("US0378331005", "95000", "10")));
+
+            mockMvc.perform(get("/api/portfolios/" + id + "/cashflows").param("bucket", "yearly"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.positions").value(1))
+                    .andExpect(jsonPath("$.totalPrincipal").value(1_000_000.0))
+                    .andExpect(jsonPath("$.buckets[-1:].startDate").value(contains("2033-01-01")));
+
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond("US0378331005", "95000", "4"), bond("US5949181045", "95000", "6"))))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/portfolios/" + id + "/cashflows"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.bucket").value("monthly"))
+                    .andExpect(jsonPath("$.positions").value(2))
+                    .andExpect(jsonPath("$.totalPrincipal").value(1_000_000.0));
+        }
+
+        @Test
+        @DisplayName("Should skip positions that have matured since they were added")
+        void shouldSkipMaturedPositions() throws Exception {
+            String id = createPortfolio(array(bond("US0378331005", "95000", "10"),
+                    bond("US5949181045", "95000", "6").replace("2033-01-15", "2028-01-15")));
+            LocalDate afterFirstMaturity = LocalDate.of(2029, 1, 1);
+
+            CashFlowLadderResponse ladder = portfolioStoreService.read(UUID.fromString(id), stored ->
+                    cashFlowLadderService.ladder(stored.getBonds(), afterFirstMaturity, CashFlowLadderService.Bucket.YEARLY))
+                    .orElseThrow();
+
+            assertEquals(2, ladder.getPositions());
+            assertEquals(1_000_000.0, ladder.getTotalPrincipal());
+            assertEquals(LocalDate.of(2029, 1, 1), ladder.getBuckets().get(0).getStartDate());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown portfolio")
+        void shouldReturn404ForUnknownPortfolio() throws Exception {
+            mockMvc.perform(get("/api/portfolios/" + UUID.randomUUID() + "/cashflows"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Valuation Tests")
+    class ValuationTests {
+
+        private JsonNode valuation(String id, String... params) throws Exception {
+            var request = get("/api/portfolios/" + id + "/valuation");
+            for (int i = 0; i < params.length; i += 2) {
+                request.param(params[i], params[i + 1]);
+            }
+            return objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should price the netted flows at the IRR and at shocked yields")
+        void shouldPriceAtShockedYields() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+            JsonNode portfolio = objectMapper.readTree(mockMvc.perform(get("/api/portfolios/" + id))
+                    .andReturn().getResponse().getContentAsString());
+
+            JsonNode response = valuation(id, "shock", "-100,0,100");
+            JsonNode scenarios = response.get("scenarios");
+
+            assertEquals(portfolio.get("internalRateOfReturn").asDouble(), response.get("baseYield").asDouble(), 1e-9);
+            assertEquals(3, scenarios.size());
+            assertEquals(dirtyValue(id), scenarios.get(1).get("presentValue").asDouble(), 1e-3);
+            assertTrue(scenarios.get(0).get("presentValue").asDouble() > scenarios.get(1).get("presentValue").asDouble());
+            assertTrue(scenarios.get(2).get("presentValue").asDouble() < scenarios.get(1).get("presentValue").asDouble());
+            assertTrue(scenarios.get(1).get("convexity").asDouble() > 0);
+        }
+
+        @Test
+        @DisplayName("Should follow position changes like a portfolio created with the same positions")
+        void shouldFollowPositionChanges() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+            mockMvc.perform(put("/api/portfolios/" + id + "/bonds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond(VALID_ISIN_1, "95000", "4"), bond(VALID_ISIN_2, "95000", "6"))))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/api/portfolios/" + id + "/bonds/" + VALID_ISIN_1))
+                    .andExpect(status().isOk());
+            String expectedId = createPortfolio(array(bond(VALID_ISIN_2, "95000", "6")));
+
+            JsonNode actual = valuation(id, "yield", "450").get("scenarios").get(0);
+            JsonNode expected = valuation(expectedId, "yield", "450").get("scenarios").get(0);
+
+            assertEquals(expected.get("presentValue").asDouble(), actual.get("presentValue").asDouble(), 1e-6);
+            assertEquals(expected.get("macaulayDuration").asDouble(), actual.get("macaulayDuration").asDouble(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should reject a yield at or below -100% and return 404 for an unknown portfolio")
+        void shouldRejectInvalidRequests() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            mockMvc.perform(get("/api/portfolios/" + id + "/valuation").param("yield", "-10000"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + UUID.randomUUID() + "/valuation"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Historical VaR Tests")
+    class HistoricalVaRTests {
+
+        private JsonNode historicalVaR(String id, String... params) throws Exception {
+            var request = get("/api/portfolios/" + id + "/var");
+            for (int i = 0; i < params.length; i += 2) {
+                request.param(params[i], params[i + 1]);
+            }
+            return objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should take VaR and expected shortfall from the worst historical days fully revalued")
+        void shouldRevalueWorstDays() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+            JsonNode valuation = objectMapper.readTree(mockMvc.perform(get("/api/portfolios/" + id + "/valuation")
+                            .param("shock", "0,45,46,47,48,49"))
+                    .andReturn().getResponse().getContentAsString()).get("scenarios");
+            double base = valuation.get(0).get("presentValue").asDouble();
+            double tailLoss = 0.0;
+            for (int i = 1; i <= 5; i++) {
+                tailLoss += base - valuation.get(i).get("presentValue").asDouble();
+            }
+
+            JsonNode response = historicalVaR(id, "confidence", "0.99,0.95");
+            JsonNode levels = response.get("levels");
+
+            assertEquals("full", response.get("mode").asText());
+            assertEquals(100, response.get("scenarios").asInt());
+            assertEquals("2024-01-01", response.get("historyStart").asText());
+            assertEquals(base, response.get("presentValue").asDouble(), 1e-6);
+            assertEquals(base - valuation.get(5).get("presentValue").asDouble(),
+                    levels.get(0).get("valueAtRisk").asDouble(), 1e-6);
+            assertEquals(base - valuation.get(1).get("presentValue").asDouble(),
+                    levels.get(1).get("valueAtRisk").asDouble(), 1e-6);
+            assertEquals(tailLoss / 5, levels.get(1).get("expectedShortfall").asDouble(), 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should approximate full revaluation with duration and convexity")
+        void shouldApproximateFullRevaluation() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            JsonNode full = historicalVaR(id, "mode", "full").get("levels");
+            JsonNode approximate = historicalVaR(id, "mode", "approximation").get("levels");
+
+            for (int i = 0; i < 2; i++) {
+                double fullVaR = full.get(i).get("valueAtRisk").asDouble();
+                assertTrue(fullVaR > 0);
+                assertEquals(fullVaR, approximate.get(i).get("valueAtRisk").asDouble(), fullVaR * 1e-3);
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid confidence levels and modes and return 404 for an unknown portfolio")
+        void shouldRejectInvalidRequests() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            mockMvc.perform(get("/api/portfolios/" + id + "/var").param("confidence", "1.5"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + id + "/var").param("mode", "parametric"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + UUID.randomUUID() + "/var"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 503 when no yield history is configured")
+        void shouldReturnUnavailableWithoutHistory() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+            HistoricalRiskService noHistory = new HistoricalRiskService(portfolioStoreService, riskHelper, "", 1);
+            try {
+                MockMvc withoutHistory = MockMvcBuilders.standaloneSetup(new PortfolioStoreController(
+                        portfolioStoreService, portfolioFeedService, cashFlowLadderService, noHistory,
+                        monteCarloService)).build();
+
+                withoutHistory.perform(get("/api/portfolios/" + id + "/var"))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(content().string(containsString("bonds.risk.history-file")));
+            } finally {
+                noHistory.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Simulation Tests")
+    class SimulationTests {
+
+        private JsonNode simulation(String id, String... params) throws Exception {
+            var request = get("/api/portfolios/" + id + "/simulation");
+            for (int i = 0; i < params.length; i += 2) {
+                request.param(params[i], params[i + 1]);
+            }
+            return objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should simulate around the dirty value and reproduce the result from the seed")
+        void shouldSimulateReproducibly() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10"), bond(VALID_ISIN_2, "105000", "5")));
+
+            JsonNode response = simulation(id, "paths", "10000", "seed", "42", "quantile", "0.05,0.5,0.95");
+            JsonNode again = simulation(id, "paths", "10000", "seed", "42", "quantile", "0.05,0.5,0.95");
+            JsonNode quantiles = response.get("quantiles");
+
+            double dirtyValue = dirtyValue(id);
+            assertEquals("hull-white", response.get("model").asText());
+            assertEquals(10000, response.get("paths").asInt());
+            assertEquals(dirtyValue, response.get("presentValue").asDouble(), 1e-3);
+            assertEquals(dirtyValue, response.get("meanPresentValue").asDouble(), dirtyValue * 0.01);
+            assertTrue(quantiles.get(0).get("presentValue").asDouble() < dirtyValue);
+            assertTrue(quantiles.get(2).get("presentValue").asDouble() > dirtyValue);
+            assertEquals(response.get("meanPresentValue").asDouble(), again.get("meanPresentValue").asDouble());
+            assertEquals(quantiles.get(0).get("presentValue").asDouble(),
+                    again.get("quantiles").get(0).get("presentValue").asDouble());
+        }
+
+        @Test
+        @DisplayName("Should pull the Vasicek distribution towards the long-term rate")
+        void shouldFollowLongTermRate() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            double low = simulation(id, "model", "vasicek", "longTermRate", "200", "volatility", "50")
+                    .get("meanPresentValue").asDouble();
+            double high = simulation(id, "model", "vasicek", "longTermRate", "900", "volatility", "50")
+                    .get("meanPresentValue").asDouble();
+
+            assertTrue(low > 950000 && high < 950000);
+        }
+
+        @Test
+        @DisplayName("Should reject invalid models, path counts and quantiles and return 404 for an unknown portfolio")
+        void shouldRejectInvalidRequests() throws Exception {
+            String id = createPortfolio(array(bond(VALID_ISIN_1, "95000", "10")));
+
+            mockMvc.perform(get("/api/portfolios/" + id + "/simulation").param("model", "cir"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + id + "/simulation").param("paths", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + id + "/simulation").param("quantile", "1.5"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + id + "/simulation").param("meanReversion", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/portfolios/" + UUID.randomUUID() + "/simulation"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
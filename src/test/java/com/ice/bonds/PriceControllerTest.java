@@ -0,0 +1,228 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Price Controller Tests")
+class PriceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String bond(String isin, String marketValue, String quantity) {
+        return String.format("""
+                {
+                    "isin": "%s",
+                    "issueDate": "2023-01-15",
+                    "maturityDate": "2033-01-15",
+                    "couponRate": "500",
+                    "faceValue": "100000",
+                    "marketValue": "%s",
+                    "paymentTerm": "semiannual",
+                    "quantity": "%s"
+                }
+                """, isin, marketValue, quantity);
+    }
+
+    private String tick(String isin, String marketValue) {
+        return String.format("{\"isin\": \"%s\", \"marketValue\": \"%s\"}", isin, marketValue);
+    }
+
+    private String array(String... items) {
+        return "[" + String.join(",", items) + "]";
+    }
+
+    private String createPortfolio(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/portfolios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+
+    private JsonNode getPortfolio(String id) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/portfolios/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @Nested
+    @DisplayName("Price Tick Tests")
+    class PriceTickTests {
+
+        @Test
+        @DisplayName("Should reprice held positions and match a full re-analysis")
+        void shouldRepriceAndMatchFullAnalysis() throws Exception {
+            String id = createPortfolio(array(bond("JP3633400001", "95000", "10"), bond("CH0012005267", "105000", "5")));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("JP3633400001", "91000"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.ticksReceived").value(1))
+                    .andExpect(jsonPath("$.isinsPriced").value(1))
+                    .andExpect(jsonPath("$.positionsRepriced").value(1))
+                    .andExpect(jsonPath("$.portfoliosUpdated").value(1));
+
+            JsonNode expected = objectMapper.readTree(mockMvc.perform(post("/api/portfolios/analyze")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(bond("JP3633400001", "91000", "10"), bond("CH0012005267", "105000", "5"))))
+                    .andReturn().getResponse().getContentAsString());
+            JsonNode actual = getPortfolio(id);
+
+            assertEquals(expected.get("totalPortfolioValue"), actual.get("totalPortfolioValue"));
+            assertEquals(expected.get("weightedMacaulayDuration").asDouble(),
+                    actual.get("weightedMacaulayDuration").asDouble(), 1e-9);
+            assertEquals(expected.get("weightedModifiedDuration").asDouble(),
+                    actual.get("weightedModifiedDuration").asDouble(), 1e-9);
+            for (int i = 0; i < 2; i++) {
+                JsonNode expectedBond = expected.get("bonds").get(i);
+                JsonNode actualBond = actual.get("bonds").get(i);
+                assertEquals(expectedBond.get("marketValue"), actualBond.get("marketValue"));
+                assertEquals(expectedBond.get("yieldToMaturity"), actualBond.get("yieldToMaturity"));
+                assertEquals(expectedBond.get("macaulayDuration"), actualBond.get("macaulayDuration"));
+                assertEquals(expectedBond.get("bondWeightInPortfolio").asDouble(),
+                        actualBond.get("bondWeightInPortfolio").asDouble(), 1e-12);
+            }
+        }
+
+        @Test
+        @DisplayName("Should apply the last tick of an ISIN to every portfolio holding it")
+        void shouldApplyLastTickToEveryHolder() throws Exception {
+            String first = createPortfolio(array(bond("FR0000120578", "95000", "10")));
+            String second = createPortfolio(array(bond("FR0000120578", "95000", "3"), bond("DE0007164600", "99000", "1")));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("FR0000120578", "97000"), tick("FR0000120578", "98000"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.ticksReceived").value(2))
+                    .andExpect(jsonPath("$.isinsPriced").value(1))
+                    .andExpect(jsonPath("$.positionsRepriced").value(2))
+                    .andExpect(jsonPath("$.portfoliosUpdated").value(2));
+
+            assertEquals(98000, getPortfolio(first).get("bonds").get(0).get("marketValue").asInt());
+            JsonNode updated = getPortfolio(second);
+            assertEquals(98000, updated.get("bonds").get(0).get("marketValue").asInt());
+            assertEquals(98000L * 3 + 99000L, updated.get("totalPortfolioValue").asLong());
+        }
+
+        @Test
+        @DisplayName("Should not reprice positions whose price is unchanged")
+        void shouldSkipUnchangedPrices() throws Exception {
+            createPortfolio(array(bond("GB0002634946", "95000", "10")));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("GB0002634946", "95000"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.positionsRepriced").value(0))
+                    .andExpect(jsonPath("$.portfoliosUpdated").value(0));
+        }
+
+        @Test
+        @DisplayName("Should not reprice deleted portfolios")
+        void shouldSkipDeletedPortfolios() throws Exception {
+            String id = createPortfolio(array(bond("US5949181045", "95000", "10")));
+            mockMvc.perform(delete("/api/portfolios/" + id))
+                    .andExpect(status().isNoContent());
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("US5949181045", "97000"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.positionsRepriced").value(0))
+                    .andExpect(jsonPath("$.portfoliosUpdated").value(0));
+        }
+
+        @Test
+        @DisplayName("Should analyze positions of one ISIN held as different bond types separately")
+        void shouldRepriceMixedTypesOfOneIsin() throws Exception {
+            String callable = bond("SE0000108656", "110000", "2").replace("\"quantity\"",
+                    "\"bondType\": \"callable\", \"callDate\": \"2028-01-15\", \"callPrice\": \"101000\", \"quantity\"");
+            String plain = bond("SE0000108656", "110000", "2");
+            String callableId = createPortfolio(array(callable));
+            String plainId = createPortfolio(array(plain));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("SE0000108656", "112000"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.positionsRepriced").value(2));
+
+            for (String[] position : new String[][]{{callableId, callable}, {plainId, plain}}) {
+                JsonNode expected = objectMapper.readTree(mockMvc.perform(post("/api/portfolios/analyze")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(array(position[1].replace("110000", "112000"))))
+                        .andReturn().getResponse().getContentAsString()).get("bonds").get(0);
+                JsonNode actual = getPortfolio(position[0]).get("bonds").get(0);
+                assertEquals(expected.get("ytm"), actual.get("ytm"));
+                assertEquals(expected.get("macaulayDuration"), actual.get("macaulayDuration"));
+            }
+            assertNotEquals(getPortfolio(callableId).get("bonds").get(0).get("ytm"),
+                    getPortfolio(plainId).get("bonds").get(0).get("ytm"));
+        }
+
+        @Test
+        @DisplayName("Should leave positions that cannot be analyzed at the new price untouched")
+        void shouldRejectPositionsThatCannotBeAnalyzed() throws Exception {
+            String amortizing = bond("NL0000235190", "60000", "2").replace("\"quantity\"",
+                    "\"bondType\": \"amortizing\", \"quantity\"");
+            String held = createPortfolio(array(amortizing, bond("IT0003132476", "95000", "1")));
+            String other = createPortfolio(array(bond("ES0113900J37", "95000", "3")));
+            JsonNode before = getPortfolio(held);
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("ES0113900J37", "97000"), tick("NL0000235190", "0"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.positionsRepriced").value(1))
+                    .andExpect(jsonPath("$.positionsRejected").value(1))
+                    .andExpect(jsonPath("$.portfoliosUpdated").value(1));
+
+            assertEquals(97000L * 3, getPortfolio(other).get("totalPortfolioValue").asLong());
+            JsonNode after = getPortfolio(held);
+            assertEquals(before.get("bonds"), after.get("bonds"));
+            assertEquals(before.get("totalPortfolioValue"), after.get("totalPortfolioValue"));
+            assertEquals(before.get("weightedMacaulayDuration"), after.get("weightedMacaulayDuration"));
+        }
+
+        @Test
+        @DisplayName("Should reject the whole batch when a tick is invalid")
+        void shouldRejectInvalidBatch() throws Exception {
+            String id = createPortfolio(array(bond("US0231351067", "95000", "10")));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("US0231351067", "90000"), tick("US0231351067", "90000.50"))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid marketValue")));
+
+            mockMvc.perform(post("/api/prices/ticks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(array(tick("US0378331006", "90000"))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid ISIN")));
+
+            assertEquals(95000, getPortfolio(id).get("bonds").get(0).get("marketValue").asInt());
+        }
+    }
+}
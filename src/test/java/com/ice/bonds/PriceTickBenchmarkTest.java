@@ -0,0 +1,119 @@
+package com.ice.bonds;
+
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.PriceTickRequest;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.ISINHelper;
+import com.ice.bonds.helper.PortfolioHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.metrics.AnalyticsMetrics;
+import com.ice.bonds.service.BondService;
+import com.ice.bonds.service.PortfolioService;
+import com.ice.bonds.service.PortfolioStoreService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Price tick throughput against a populated portfolio store.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=PriceTickBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Price Tick Benchmark")
+class PriceTickBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceTickBenchmarkTest.class);
+
+    private static final int PORTFOLIOS = 1_000;
+    private static final int POSITIONS = 50;
+    private static final int UNIVERSE = 5_000;
+    private static final int[] BATCH_SIZES = {50, 500};
+    private static final int WARMUP_TICKS = 200_000;
+    private static final int TICKS = 1_000_000;
+
+    @Test
+    @DisplayName("Ticks per second applied to the stored portfolios")
+    void throughput() {
+        ISINHelper isinHelper = new ISINHelper();
+        AnalyticsMetrics metrics = AnalyticsMetrics.disabled();
+        CommonHelper commonHelper = new CommonHelper();
+        BondService bondService = new BondService(new YTMHelper(commonHelper), new DurationHelper(commonHelper, metrics),
+                isinHelper, metrics);
+        PortfolioHelper portfolioHelper = new PortfolioHelper(new CashFlowHelper(new CommonHelper()));
+        PortfolioStoreService store = new PortfolioStoreService(bondService,
+                new PortfolioService(bondService, portfolioHelper, metrics), portfolioHelper, metrics);
+
+        List<String> isins = new ArrayList<>(UNIVERSE);
+        for (int i = 0; i < UNIVERSE; i++) {
+            isins.add(isin(isinHelper, i));
+        }
+        Random random = new Random(42);
+        for (int p = 0; p < PORTFOLIOS; p++) {
+            List<BondDTORequest> positions = new ArrayList<>(POSITIONS);
+            int first = random.nextInt(UNIVERSE);
+            for (int i = 0; i < POSITIONS; i++) {
+                positions.add(position(isins.get((first + i * 97) % UNIVERSE), 1 + random.nextInt(100)));
+            }
+            store.create("bench", positions);
+        }
+
+        for (int batchSize : BATCH_SIZES) {
+            for (int i = 0; i < WARMUP_TICKS / batchSize; i++) {
+                store.applyPriceTicks(batch(isins, random, batchSize));
+            }
+            long repriced = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < TICKS / batchSize; i++) {
+                repriced += store.applyPriceTicks(batch(isins, random, batchSize)).getPositionsRepriced();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("{} portfolios x {} positions, {} ISINs, batches of {}: {} ticks/s, {} positions repriced/s",
+                    PORTFOLIOS, POSITIONS, UNIVERSE, batchSize,
+                    String.format("%.0f", TICKS / seconds), String.format("%.0f", repriced / seconds));
+        }
+    }
+
+    private static List<PriceTickRequest> batch(List<String> isins, Random random, int size) {
+        List<PriceTickRequest> ticks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ticks.add(new PriceTickRequest(isins.get(random.nextInt(isins.size())),
+                    String.valueOf(90000 + random.nextInt(20000))));
+        }
+        return ticks;
+    }
+
+    private static BondDTORequest position(String isin, int quantity) {
+        BondDTORequest dto = new BondDTORequest();
+        dto.setIsin(isin);
+        dto.setIssueDate("2023-01-15");
+        dto.setMaturityDate("2033-01-15");
+        dto.setCouponRate("500");
+        dto.setFaceValue("100000");
+        dto.setMarketValue("100000");
+        dto.setPaymentTerm("semiannual");
+        dto.setQuantity(String.valueOf(quantity));
+        return dto;
+    }
+
+    /**
+     * Synthetic ISIN with a valid check digit.
+     */
+    static String isin(ISINHelper isinHelper, int n) {
+        String body = String.format("XS%09d", n);
+        for (int check = 0; check < 10; check++) {
+            if (isinHelper.isValidISIN(body + check)) {
+                return body + check;
+            }
+        }
+        throw new IllegalStateException("No check digit for " + body);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.RiskHelper;
+import com.ice.bonds.model.PortfolioCashFlows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Risk Helper Tests")
+class RiskHelperTest {
+
+    private final RiskHelper riskHelper = new RiskHelper();
+
+    @Nested
+    @DisplayName("Tail Statistics Tests")
+    class TailStatisticsTests {
+
+        // 100 scenarios: -100, -99, ..., -1
+        private double[] pnl() {
+            double[] pnl = new double[100];
+            for (int i = 0; i < pnl.length; i++) {
+                pnl[i] = i - 100;
+            }
+            return pnl;
+        }
+
+        @Test
+        @DisplayName("Should take the VaR from the k-th worst scenario")
+        void shouldTakeValueAtRisk() {
+            assertEquals(100, riskHelper.valueAtRisk(pnl(), 0.99));
+            assertEquals(96, riskHelper.valueAtRisk(pnl(), 0.95));
+            assertEquals(91, riskHelper.valueAtRisk(pnl(), 0.90));
+        }
+
+        @Test
+        @DisplayName("Should average the tail losses for expected shortfall")
+        void shouldAverageTailForExpectedShortfall() {
+            assertEquals(100, riskHelper.expectedShortfall(pnl(), 0.99));
+            assertEquals(98, riskHelper.expectedShortfall(pnl(), 0.95));
+            assertTrue(riskHelper.expectedShortfall(pnl(), 0.90) >= riskHelper.valueAtRisk(pnl(), 0.90));
+        }
+
+        @Test
+        @DisplayName("Should use the worst scenario when the tail holds less than one")
+        void shouldUseWorstScenarioForSmallTail() {
+            double[] pnl = {-5, 1, 2};
+            assertEquals(5, riskHelper.valueAtRisk(pnl, 0.99));
+            assertEquals(5, riskHelper.expectedShortfall(pnl, 0.99));
+        }
+
+        @Test
+        @DisplayName("Should reject confidence levels outside (0, 1)")
+        void shouldRejectInvalidConfidence() {
+            assertThrows(IllegalArgumentException.class, () -> riskHelper.valueAtRisk(pnl(), 1.0));
+            assertThrows(IllegalArgumentException.class, () -> riskHelper.expectedShortfall(pnl(), 0.0));
+            assertThrows(IllegalArgumentException.class, () -> riskHelper.valueAtRisk(pnl(), Double.NaN));
+        }
+    }
+
+    @Nested
+    @DisplayName("Scenario P&L Tests")
+    class ScenarioPnlTests {
+
+        private final LocalDate today = LocalDate.of(2025, 1, 15);
+
+        private PortfolioCashFlows cashFlows() {
+            PortfolioCashFlows cashFlows = new PortfolioCashFlows(today);
+            for (int year = 1; year <= 10; year++) {
+                cashFlows.add(today.plusYears(year).toEpochDay(), 5000);
+            }
+            cashFlows.add(today.plusYears(10).toEpochDay(), 100000);
+            return cashFlows;
+        }
+
+        @Test
+        @DisplayName("Should lose value when yields rise and gain when they fall")
+        void shouldFollowYieldDirection() {
+            PortfolioCashFlows cashFlows = cashFlows();
+            PortfolioCashFlows.Valuation base = cashFlows.value(today, 0.05);
+
+            assertTrue(riskHelper.fullRevaluationPnl(cashFlows, today, base, 500, 25) < 0);
+            assertTrue(riskHelper.fullRevaluationPnl(cashFlows, today, base, 500, -25) > 0);
+            assertEquals(0, riskHelper.fullRevaluationPnl(cashFlows, today, base, 500, 0), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should approximate full revaluation closely for small shifts")
+        void shouldApproximateFullRevaluation() {
+            PortfolioCashFlows cashFlows = cashFlows();
+            PortfolioCashFlows.Valuation base = cashFlows.value(today, 0.05);
+
+            for (double change : new double[]{-20, -5, 5, 20}) {
+                double full = riskHelper.fullRevaluationPnl(cashFlows, today, base, 500, change);
+                double approximate = riskHelper.approximatePnl(base, change);
+                // Third order term: well under 0.1% of the P&L for shifts this size
+                assertEquals(full, approximate, Math.abs(full) * 1e-3);
+            }
+        }
+
+        @Test
+        @DisplayName("Should leave a copy of the flows unchanged by later additions")
+        void shouldCopyFlows() {
+            PortfolioCashFlows cashFlows = cashFlows();
+            PortfolioCashFlows copy = cashFlows.copy();
+            cashFlows.add(today.plusYears(2).toEpochDay(), 1000);
+
+            assertEquals(5000, copy.getAmount(today.plusYears(2).toEpochDay()));
+            assertEquals(cashFlows().value(today, 0.05).presentValue(), copy.value(today, 0.05).presentValue(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.model.Bond;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Repricing a book of instruments again and again, as price ticks do: YTM and Macaulay duration with
+ * the payment schedules cached against rebuilt on every call.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=ScheduleCacheBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Schedule Cache Benchmark")
+class ScheduleCacheBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleCacheBenchmarkTest.class);
+
+    private static final int INSTRUMENTS = 10_000;
+    private static final int REPRICES = 20;
+    private static final int ROUNDS = 5;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @Test
+    @DisplayName("Repriced bonds per second with and without the schedule cache")
+    void reprice() {
+        List<Bond> bonds = book(LocalDate.now());
+        for (int round = 0; round < ROUNDS; round++) {
+            double uncached = run("rebuilt", new CommonHelper(0), bonds);
+            double cached = run("cached", new CommonHelper(), bonds);
+            assertEquals(uncached, cached, Math.abs(uncached) * 1e-12);
+        }
+    }
+
+    /**
+     * @return Sum of the durations, so both runs can be compared and nothing is optimized away
+     */
+    private static double run(String mode, CommonHelper commonHelper, List<Bond> bonds) {
+        YTMHelper ytmHelper = new YTMHelper(commonHelper);
+        DurationHelper durationHelper = new DurationHelper(commonHelper);
+        LocalDate today = LocalDate.now();
+        double checksum = 0.0;
+        long start = System.nanoTime();
+        for (int reprice = 0; reprice < REPRICES; reprice++) {
+            for (Bond bond : bonds) {
+                bond.setMarketValue(95_000 + reprice * 500);
+                double ytm = ytmHelper.calculateYTM(today, bond);
+                checksum += durationHelper.calculateMacaulayDuration(bond, ytm);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Schedules {}: {} bonds/s", mode,
+                String.format("%.0f", bonds.size() * REPRICES / seconds));
+        return checksum;
+    }
+
+    private static List<Bond> book(LocalDate today) {
+        Random random = new Random(42);
+        List<Bond> bonds = new ArrayList<>(INSTRUMENTS);
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            Bond bond = new Bond();
+            // The 28th at most, so every schedule lands on maturity
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            bond.setIssueDate(issueDate);
+            bond.setMaturityDate(today.plusYears(1 + random.nextInt(30)).withDayOfMonth(issueDate.getDayOfMonth()));
+            bond.setMaturityDate(bond.getMaturityDate().withMonth(issueDate.getMonthValue()));
+            if (!bond.getMaturityDate().isAfter(today.plusMonths(1))) {
+                bond.setMaturityDate(bond.getMaturityDate().plusYears(1));
+            }
+            bond.setCouponRate(100 + random.nextInt(700));
+            bond.setFaceValue(100000);
+            bond.setPaymentTerm(TERMS[random.nextInt(TERMS.length)]);
+            bond.setQuantity(1);
+            bonds.add(bond);
+        }
+        return bonds;
+    }
+}
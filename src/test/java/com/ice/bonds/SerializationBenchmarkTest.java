@@ -0,0 +1,149 @@
+package com.ice.bonds;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ice.bonds.config.JacksonConfig;
+import com.ice.bonds.dto.BondDTORequest;
+import com.ice.bonds.dto.BondInPortfolioAnalysisResponse;
+import com.ice.bonds.dto.PortfolioAnalysisResponse;
+import com.ice.bonds.serialization.JsonCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parse/serialize throughput of the tuned JsonCodecs against a plain ObjectMapper on a large portfolio.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=SerializationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Serialization Benchmark")
+class SerializationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializationBenchmarkTest.class);
+
+    private static final int BONDS = 100_000;
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 20;
+
+    private ObjectMapper plainMapper;
+    private JsonCodecs jsonCodecs;
+    private byte[] requestJson;
+    private PortfolioAnalysisResponse response;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        plainMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        jsonCodecs = new JsonCodecs(new JacksonConfig().objectMapper());
+
+        List<BondDTORequest> requests = new ArrayList<>(BONDS);
+        List<BondInPortfolioAnalysisResponse> bonds = new ArrayList<>(BONDS);
+        for (int i = 0; i < BONDS; i++) {
+            BondDTORequest dto = new BondDTORequest();
+            dto.setIsin("US0378331005");
+            dto.setIssueDate("2023-01-15");
+            dto.setMaturityDate("2033-01-15");
+            dto.setCouponRate(String.valueOf(400 + i % 300));
+            dto.setFaceValue("100000");
+            dto.setMarketValue(String.valueOf(90000 + i % 20000));
+            dto.setPaymentTerm("semiannual");
+            dto.setQuantity(String.valueOf(1 + i % 50));
+            requests.add(dto);
+
+            bonds.add(new BondInPortfolioAnalysisResponse("US0378331005", 500.0 + i * 1e-3, 7.1 + i * 1e-6, 6.9 + i * 1e-6,
+                    LocalDate.of(2033, 1, 15), LocalDate.of(2023, 1, 15), 500, 100000, 95000, "semiannual",
+                    10, 1.0 / BONDS));
+        }
+        requestJson = plainMapper.writeValueAsBytes(requests);
+        response = new PortfolioAnalysisResponse(UUID.randomUUID(), "default-account", bonds, 7.1, 6.9, 95000L * BONDS);
+    }
+
+    @Test
+    @DisplayName("Parse List<BondDTORequest>")
+    void parse() throws Exception {
+        double plain = medianMillis(() -> {
+            List<BondDTORequest> parsed = plainMapper.readValue(requestJson, new TypeReference<List<BondDTORequest>>() {});
+            assertEquals(BONDS, parsed.size());
+        });
+        double tuned = medianMillis(() -> {
+            List<BondDTORequest> parsed = jsonCodecs.getBondRequestListReader().readValue(requestJson);
+            assertEquals(BONDS, parsed.size());
+        });
+        logger.info("Parse {} bonds ({} KB): plain {} ms, tuned {} ms, speedup {}x",
+                BONDS, requestJson.length / 1024, fmt(plain), fmt(tuned), fmt(plain / tuned));
+    }
+
+    @Test
+    @DisplayName("Serialize PortfolioAnalysisResponse")
+    void serialize() throws Exception {
+        double plain = medianMillis(() -> plainMapper.writeValue(OutputStream.nullOutputStream(), response));
+        double tuned = medianMillis(() -> jsonCodecs.getPortfolioAnalysisResponseWriter().writeValue(OutputStream.nullOutputStream(), response));
+        logger.info("Serialize {} bonds: plain {} ms, tuned {} ms, speedup {}x",
+                BONDS, fmt(plain), fmt(tuned), fmt(plain / tuned));
+    }
+
+    @Test
+    @DisplayName("Serialize PortfolioAnalysisResponse with a bond projection")
+    void serializeProjected() throws Exception {
+        PortfolioAnalysisResponse projected = copy(response, EnumSet.of(
+                BondInPortfolioAnalysisResponse.Field.ISIN, BondInPortfolioAnalysisResponse.Field.YTM));
+        PortfolioAnalysisResponse summary = copy(response, EnumSet.noneOf(BondInPortfolioAnalysisResponse.Field.class));
+        double full = medianMillis(() -> jsonCodecs.writerForValue(response).writeValue(OutputStream.nullOutputStream(), response));
+        double twoFields = medianMillis(() -> jsonCodecs.writerForValue(projected).writeValue(OutputStream.nullOutputStream(), projected));
+        double summaryOnly = medianMillis(() -> jsonCodecs.writerForValue(summary).writeValue(OutputStream.nullOutputStream(), summary));
+        logger.info("Serialize {} bonds: all fields {} ms ({} KB), isin,ytm {} ms ({} KB), summary only {} ms ({} bytes)",
+                BONDS, fmt(full), jsonCodecs.writerForValue(response).writeValueAsBytes(response).length / 1024,
+                fmt(twoFields), jsonCodecs.writerForValue(projected).writeValueAsBytes(projected).length / 1024,
+                fmt(summaryOnly), jsonCodecs.writerForValue(summary).writeValueAsBytes(summary).length);
+    }
+
+    // The bonds are left out of an empty projection, as PortfolioService does
+    private static PortfolioAnalysisResponse copy(PortfolioAnalysisResponse response,
+                                                  Set<BondInPortfolioAnalysisResponse.Field> bondFields) {
+        return new PortfolioAnalysisResponse(response.getId(), response.getAccountId(),
+                bondFields.isEmpty() ? null : response.getBonds(), response.getWeightedMacaulayDuration(),
+                response.getWeightedModifiedDuration(), response.getTotalPortfolioValue(),
+                response.getWeightedYieldToMaturity(), response.getInternalRateOfReturn(),
+                response.getWeightedZSpread(), bondFields);
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private static double medianMillis(Task task) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private static String fmt(double value) {
+        return String.format("%.2f", value);
+    }
+}
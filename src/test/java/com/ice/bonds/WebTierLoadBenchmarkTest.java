@@ -0,0 +1,169 @@
+package com.ice.bonds;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of POST /api/bonds/analyze with request handling on platform threads vs virtual threads.
+ *
+ * Starts the application on a random port once per mode and drives it with a fixed number of concurrent
+ * clients, each sending requests back to back. Reports throughput and latency percentiles per mode and
+ * concurrency level. Client and server share the machine, so absolute numbers are only comparable
+ * between runs on the same host.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=WebTierLoadBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Web Tier Load Benchmark")
+class WebTierLoadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebTierLoadBenchmarkTest.class);
+
+    private static final int[] CONCURRENCY = {16, 256, 1024};
+    private static final Duration WARMUP = Duration.ofSeconds(20);
+    private static final Duration MEASURE = Duration.ofSeconds(5);
+    private static final int ROUNDS = 4;
+
+    // Shared across runs so every run reuses warm keep-alive connections
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private static final String BOND_JSON = """
+            {
+                "isin": "US0378331005",
+                "issueDate": "2023-01-15",
+                "maturityDate": "2053-01-15",
+                "couponRate": "500",
+                "faceValue": "100000",
+                "marketValue": "95000",
+                "paymentTerm": "monthly",
+                "quantity": "10"
+            }
+            """;
+
+    private record Result(int requests, int errors, double seconds, long[] latenciesMicros) {
+        double throughput() {
+            return requests / seconds;
+        }
+
+        double percentileMillis(double p) {
+            if (latenciesMicros.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latenciesMicros.length - 1, Math.ceil(p * latenciesMicros.length) - 1);
+            return latenciesMicros[Math.max(0, index)] / 1000.0;
+        }
+    }
+
+    @Test
+    @DisplayName("Platform threads vs virtual threads for /api/bonds/analyze")
+    void platformVsVirtualThreads() throws Exception {
+        String[] modes = {"platform threads", "virtual threads", "virtual threads, no limiter"};
+        List<ConfigurableApplicationContext> contexts = List.of(
+                start(false, true),
+                start(true, true),
+                start(true, false));
+        try {
+            URI[] uris = new URI[modes.length];
+            for (int m = 0; m < modes.length; m++) {
+                uris[m] = URI.create("http://localhost:" + contexts.get(m).getEnvironment().getProperty("local.server.port")
+                        + "/api/bonds/analyze");
+                run(uris[m], CONCURRENCY[CONCURRENCY.length - 1], WARMUP);
+            }
+            // Alternate the mode order each round so JIT and GC drift hits all of them equally
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < modes.length; i++) {
+                    int m = round % 2 == 0 ? i : modes.length - 1 - i;
+                    for (int clients : CONCURRENCY) {
+                        Result result = run(uris[m], clients, MEASURE);
+                        logger.info("{}, {} clients: {} req/s, p50 {} ms, p99 {} ms, max {} ms, errors {}",
+                                modes[m], clients, fmt(result.throughput()),
+                                fmt(result.percentileMillis(0.50)), fmt(result.percentileMillis(0.99)),
+                                fmt(result.percentileMillis(1.0)), result.errors());
+                    }
+                }
+            }
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, boolean limiter) {
+        return new SpringApplicationBuilder(BondsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "bonds.analytics.limiter.enabled=" + limiter,
+                        // Keep the per-request INFO logging out of the measurement
+                        "logging.level.com.ice.bonds.controller=WARN",
+                        "logging.level.com.ice.bonds.service=WARN")
+                .run();
+    }
+
+    private static Result run(URI uri, int clients, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BOND_JSON))
+                .build();
+        AtomicInteger errors = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+
+        List<Future<List<Long>>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() == 200) {
+                                latencies.add((System.nanoTime() - sent) / 1000);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            // Tomcat closes keep-alive connections after maxKeepAliveRequests, a request
+                            // racing that close fails here
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                all.addAll(future.get());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long[] latencies = all.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(latencies);
+            return new Result(latencies.length, errors.get(), seconds, latencies);
+        }
+    }
+
+    private static String fmt(double value) {
+        return String.format("%.1f", value);
+    }
+}
@@ -3,6 +3,7 @@ package com.ice.bonds;
 import com.ice.bonds.helper.CommonHelper;
 import com.ice.bonds.helper.YTMHelper;
 import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.BondType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,7 +14,6 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -672,137 +672,104 @@ class YTMHelperTest {
     }
 
     @Nested
-    @DisplayName("calculateAccruedInterest Tests (via reflection)")
+    @DisplayName("calculateAccruedInterest Tests")
     class CalculateAccruedInterestTests {
 
-        private double invokeCalculateAccruedInterest(double couponPayment, int periodsPerPaymentTerm,
-                                                      LocalDate issueDate, LocalDate settlementDate) throws Exception {
-            Method method = YTMHelper.class.getDeclaredMethod("calculateAccruedInterest",
-                                                             double.class, int.class,
-                                                             LocalDate.class, LocalDate.class);
-            method.setAccessible(true);
-            return (double) method.invoke(ytmHelper, couponPayment, periodsPerPaymentTerm, issueDate, settlementDate);
+        // 600 bps on 100000 cents, $30 per semiannual period or $15 per quarter
+        private double accruedInterest(int couponRate, String paymentTerm, LocalDate issueDate, LocalDate settlementDate) {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2034, 1, 1), issueDate, couponRate, 100000, 98000, paymentTerm);
+            double accrued = ytmHelper.calculateAccruedInterest(settlementDate, bond);
+
+            logger.info("Accrued interest at settlement date: {} (Coupon Rate: {}, Issue: {}, Settlement: {})",
+                    accrued, couponRate, issueDate, settlementDate);
+            return accrued;
         }
 
         @Test
         @DisplayName("Should return 0 accrued interest at issue date")
-        void testNoAccruedInterestAtIssue() throws Exception {
-            // Given
-            double couponPayment = 3000.0; // $30 per period
-            int periodsPerPaymentTerm = 2;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 1, 1);
-
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
-
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                        accrued, couponPayment, issueDate, settlementDate);
+        void testNoAccruedInterestAtIssue() {
+            double accrued = accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1));
 
-            // Then
             assertEquals(0.0, accrued, "Accrued interest should be 0 at issue date");
         }
 
         @Test
         @DisplayName("Should calculate accrued interest at mid-period")
-        void testAccruedInterestAtMidPeriod() throws Exception {
-            // Given: Halfway through semiannual period
-            double couponPayment = 3000.0; // $30 per period
-            int periodsPerPaymentTerm = 2;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 4, 1); // ~3 months (half period)
+        void testAccruedInterestAtMidPeriod() {
+            // 91 of the 182 days from Jan 1 to Jul 1
+            double accrued = accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1));
 
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
-
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                    accrued, couponPayment, issueDate, settlementDate);
-
-            // Then: Should be approximately half of coupon payment
-            assertEquals(1500, accrued, "Accrued interest should be $15 (half of $30), was: " + accrued);
+            assertEquals(1500, accrued, 1e-9, "Accrued interest should be $15 (half of $30), was: " + accrued);
         }
 
         @Test
         @DisplayName("Should calculate full period accrued interest just before payment")
-        void testAccruedInterestBeforePayment() throws Exception {
-            // Given: Just before first payment
-            double couponPayment = 3000.0; // $30 per period
-            int periodsPerPaymentTerm = 2;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 6, 30); // Day before payment
+        void testAccruedInterestBeforePayment() {
+            double accrued = accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30));
 
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
-
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                    accrued, couponPayment, issueDate, settlementDate);
-
-            // Then: Should be close to full coupon payment
             assertTrue(accrued > 2900, "Accrued interest should be close to full coupon payment, was: " + accrued);
         }
 
         @Test
         @DisplayName("Should handle accrued interest after first payment")
-        void testAccruedInterestAfterFirstPayment() throws Exception {
-            // Given: 1 month after first payment
-            double couponPayment = 3000.0; // $30 per period
-            int periodsPerPaymentTerm = 2;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 8, 1); // ~1 month into second period
-
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
+        void testAccruedInterestAfterFirstPayment() {
+            // ~1 month into the second period
+            double accrued = accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 8, 1));
 
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                    accrued, couponPayment, issueDate, settlementDate);
-
-            // Then: Should be small amount for partial second period
             assertTrue(accrued > 0 && accrued < 1000,
                       "Accrued interest should be less than half coupon, was: " + accrued);
         }
 
         @Test
         @DisplayName("Should handle quarterly payments")
-        void testAccruedInterestQuarterly() throws Exception {
-            // Given: Quarterly bond, 1.5 months into period
-            double couponPayment = 1500.0; // $15 per quarter
-            int periodsPerPaymentTerm = 4;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 2, 15); // ~1.5 months into quarter
+        void testAccruedInterestQuarterly() {
+            // ~1.5 months into a quarter
+            double accrued = accruedInterest(600, "quarterly", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 15));
 
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
+            assertEquals(750.0, accrued, 50, "Accrued interest should be around half the quarterly coupon");
+        }
 
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                    accrued, couponPayment, issueDate, settlementDate);
+        @Test
+        @DisplayName("Should handle zero coupon payment")
+        void testZeroCouponPayment() {
+            double accrued = accruedInterest(0, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1));
 
-            // Then: Should be around half of quarterly payment
-            assertEquals(750.0, accrued, 50, "Accrued interest should be between 0 and full coupon");
+            assertEquals(0.0, accrued, "Zero coupon bond should have no accrued interest");
         }
 
         @Test
-        @DisplayName("Should handle zero coupon payment")
-        void testZeroCouponPayment() throws Exception {
-            // Given: Zero coupon bond
-            double couponPayment = 0.0;
-            int periodsPerPaymentTerm = 2;
-            LocalDate issueDate = LocalDate.of(2024, 1, 1);
-            LocalDate settlementDate = LocalDate.of(2024, 4, 1); // 3 months into period
+        @DisplayName("Should set the same accrued interest on the bond while solving the YTM")
+        void testYTMSetsAccruedInterest() {
+            LocalDate settlementDate = LocalDate.of(2024, 4, 1);
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2034, 1, 1), LocalDate.of(2024, 1, 1), 600, 100000, 98000, "semiannual");
 
-            // When
-            double accrued = invokeCalculateAccruedInterest(couponPayment, periodsPerPaymentTerm,
-                                                           issueDate, settlementDate);
+            ytmHelper.calculateYTM(settlementDate, bond);
 
-            logger.info("Accrued interest at settlement date: {} (Coupon Payment: {}, Issue: {}, Settlement: {})",
-                    accrued, couponPayment, issueDate, settlementDate);
+            assertEquals(ytmHelper.calculateAccruedInterest(settlementDate, bond), bond.getAccruedInterest());
+            assertEquals(98000 + bond.getAccruedInterest(), bond.getDirtyPrice());
+        }
 
-            // Then
-            assertEquals(0.0, accrued, "Zero coupon bond should have no accrued interest");
+        @Test
+        @DisplayName("Should accrue an amortizing bond's coupon on the principal outstanding")
+        void testAmortizingAccruedInterest() {
+            LocalDate settlementDate = LocalDate.of(2029, 4, 1);
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2034, 1, 1), LocalDate.of(2024, 1, 1), 600, 100000, 50000, "semiannual");
+            bond.setType(BondType.AMORTIZING);
+            double bullet = accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), settlementDate);
+
+            double accrued = ytmHelper.calculateAccruedInterest(settlementDate, bond);
+
+            // About half the principal is left halfway through the bond
+            assertEquals(bullet / 2, accrued, bullet * 0.1);
+            ytmHelper.calculateAmortizingYTM(settlementDate, bond);
+            assertEquals(accrued, bond.getAccruedInterest());
+        }
+
+        @Test
+        @DisplayName("Should reject a matured bond")
+        void testMaturedBond() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> accruedInterest(600, "semiannual", LocalDate.of(2024, 1, 1), LocalDate.of(2034, 1, 2)));
         }
     }
 
@@ -996,5 +963,112 @@ class YTMHelperTest {
             });
         }
     }
-}
 
+    @Nested
+    @DisplayName("Bond Type Kernel Tests")
+    class BondTypeKernelTests {
+
+        private final LocalDate currentDate = LocalDate.of(2024, 1, 1);
+
+        @ParameterizedTest
+        @DisplayName("Should discount a zero coupon bond's face value back to its market value")
+        @CsvSource({
+                "2034-01-01, 50000, semiannual",
+                "2026-07-01, 91000, annual",
+                "2024-03-15, 99500, monthly",
+                "2030-01-01, 120000, quarterly"
+        })
+        void shouldSolveZeroCouponYTMExactly(String maturityDate, int marketValue, String paymentTerm) {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.parse(maturityDate), LocalDate.of(2023, 1, 1), 0, 100000,
+                    marketValue, paymentTerm);
+            int periodsPerYear = commonHelper.periodsPerPaymentTerm(paymentTerm);
+
+            double ytm = ytmHelper.calculateZeroCouponYTM(currentDate, bond);
+
+            double periods = java.time.temporal.ChronoUnit.DAYS.between(currentDate, bond.getMaturityDate())
+                    / (365.25 / periodsPerYear);
+            double price = 100000 / Math.pow(1 + ytm / 10000.0 / periodsPerYear, periods);
+            assertEquals(marketValue, price, 1e-6);
+            assertEquals(marketValue > 100000, ytm < 0);
+        }
+
+        @Test
+        @DisplayName("Should reject a zero coupon bond maturing today or without a market value")
+        void shouldRejectZeroCouponWithoutYield() {
+            Bond maturing = new Bond("TEST-ISIN", currentDate, LocalDate.of(2020, 1, 1), 0, 100000, 99000, "annual");
+            Bond free = new Bond("TEST-ISIN", LocalDate.of(2030, 1, 1), LocalDate.of(2020, 1, 1), 0, 100000, 0, "annual");
+
+            assertThrows(IllegalArgumentException.class, () -> ytmHelper.calculateZeroCouponYTM(currentDate, maturing));
+            assertThrows(IllegalArgumentException.class, () -> ytmHelper.calculateZeroCouponYTM(currentDate, free));
+        }
+
+        @ParameterizedTest
+        @DisplayName("Should solve the yield that prices an amortizing bond's remaining flows")
+        @CsvSource({
+                "2020-01-01, 2030-01-01, 600, semiannual, 500",
+                "2022-06-15, 2032-06-15, 450, quarterly, 800",
+                "2023-03-01, 2028-03-01, 0, annual, 300",
+                "2021-01-01, 2041-01-01, 700, monthly, -50"
+        })
+        void shouldSolveAmortizingYTM(String issueDate, String maturityDate, int couponRate, String paymentTerm,
+                                      int yieldBasisPoints) {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.parse(maturityDate), LocalDate.parse(issueDate), couponRate,
+                    100000, 0, paymentTerm);
+            bond.setType(BondType.AMORTIZING);
+            int periodsPerYear = commonHelper.periodsPerPaymentTerm(paymentTerm);
+            int[] schedule = commonHelper.paymentSchedule(bond.getIssueDate(), bond.getMaturityDate(), periodsPerYear);
+            double price = 0.0;
+            for (int i = CommonHelper.firstPaymentOnOrAfter(schedule, currentDate.toEpochDay()); i < schedule.length; i++) {
+                double flow = commonHelper.amortizingPrincipal(bond, schedule.length)
+                        + commonHelper.amortizingCoupon(bond, i, schedule.length, periodsPerYear);
+                double periods = (schedule[i] - currentDate.toEpochDay()) / (365.25 / periodsPerYear);
+                price += flow / Math.pow(1 + yieldBasisPoints / 10000.0 / periodsPerYear, periods);
+            }
+            // The flows are worth the dirty price
+            bond.setMarketValue((int) Math.round(price - ytmHelper.calculateAccruedInterest(currentDate, bond)));
+
+            double ytm = ytmHelper.calculateAmortizingYTM(currentDate, bond);
+
+            // The price was rounded to a cent
+            assertEquals(yieldBasisPoints, ytm, 0.05);
+        }
+
+        @Test
+        @DisplayName("Should reject an amortizing bond whose schedule misses maturity")
+        void shouldRejectMisalignedAmortizingBond() {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2030, 3, 1), LocalDate.of(2020, 1, 15), 500, 100000,
+                    70000, "annual");
+            bond.setType(BondType.AMORTIZING);
+
+            assertThrows(IllegalStateException.class, () -> ytmHelper.calculateAmortizingYTM(currentDate, bond));
+        }
+
+        @Test
+        @DisplayName("Should yield less to an early call than to maturity for a premium bond")
+        void shouldYieldLessToCallAtPremium() {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2034, 1, 1), LocalDate.of(2014, 1, 1), 600, 100000,
+                    110000, "semiannual");
+            BondType.Callable callable = new BondType.Callable(LocalDate.of(2027, 1, 1), 100000);
+
+            double toMaturity = ytmHelper.calculateYTM(currentDate, bond);
+            double toCall = ytmHelper.calculateYieldToCall(currentDate, bond, callable);
+
+            assertTrue(toCall < toMaturity, toCall + " >= " + toMaturity);
+            Bond maturingOnCall = new Bond("TEST-ISIN", LocalDate.of(2027, 1, 1), LocalDate.of(2014, 1, 1), 600, 100000,
+                    110000, "semiannual");
+            assertEquals(ytmHelper.calculateYTM(currentDate, maturingOnCall), toCall, 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should reject a call date that is not a coupon payment date")
+        void shouldRejectCallDateOffSchedule() {
+            Bond bond = new Bond("TEST-ISIN", LocalDate.of(2034, 1, 1), LocalDate.of(2014, 1, 1), 600, 100000,
+                    110000, "semiannual");
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> ytmHelper.calculateYieldToCall(currentDate, bond,
+                            new BondType.Callable(LocalDate.of(2027, 3, 1), 100000)));
+            assertTrue(exception.getMessage().contains("callDate"));
+        }
+    }
+}
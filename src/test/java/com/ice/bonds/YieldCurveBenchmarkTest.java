@@ -0,0 +1,168 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.BootstrapHelper;
+import com.ice.bonds.helper.CashFlowHelper;
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.CurveHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.model.Bond;
+import com.ice.bonds.model.YieldCurve;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 10,000 bonds priced against one shared curve, per interpolation: PV and durations, then Z-spreads,
+ * with the bytes allocated on the pricing thread. Then Z-spreads warm-started from the YTM, one bond at
+ * a time and in batches. Last, a curve bootstrapped from 50 benchmarks, in full and after one quote.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=YieldCurveBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Yield Curve Benchmark")
+class YieldCurveBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(YieldCurveBenchmarkTest.class);
+
+    private static final int INSTRUMENTS = 10_000;
+    private static final int ROUNDS = 5;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+    private static final double[] TENORS = {0.25, 0.5, 1, 2, 3, 5, 7, 10, 15, 20, 30};
+    private static final double[] RATES = {0.030, 0.032, 0.034, 0.036, 0.037, 0.039, 0.040, 0.041, 0.042, 0.0425, 0.043};
+
+    @Test
+    @DisplayName("Bonds priced per second against one curve and bytes allocated")
+    void curvePricing() {
+        LocalDate today = LocalDate.now();
+        // Room for most schedules: the bytes still counted are the cursors and schedules rebuilt on direct-mapped cache collisions
+        CommonHelper commonHelper = new CommonHelper(1 << 20);
+        CurveHelper curveHelper = new CurveHelper(commonHelper, new CashFlowHelper(commonHelper));
+        List<Bond> bonds = book(today);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (YieldCurve.Interpolation interpolation : YieldCurve.Interpolation.values()) {
+            CurveHelper.Pricer pricer = curveHelper.pricer(YieldCurve.fromZeroRates(TENORS, RATES, interpolation), today);
+            for (int round = 0; round < ROUNDS; round++) {
+                double checksum = 0.0;
+                long allocated = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (Bond bond : bonds) {
+                    pricer.price(bond, 0.005);
+                    checksum += pricer.getPresentValue() + pricer.getDuration();
+                }
+                double priced = INSTRUMENTS / ((System.nanoTime() - start) / 1e9);
+                long pricingBytes = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+                allocated = threads.getCurrentThreadAllocatedBytes();
+                start = System.nanoTime();
+                for (Bond bond : bonds) {
+                    checksum += pricer.zSpread(bond, bond.getMarketValue(), 0.0);
+                }
+                double solved = INSTRUMENTS / ((System.nanoTime() - start) / 1e9);
+                long spreadBytes = threads.getCurrentThreadAllocatedBytes() - allocated;
+
+                logger.info("{}: {} bonds/s priced ({} bytes allocated), {} Z-spreads/s ({} bytes allocated) (checksum {})",
+                        interpolation.getName(), String.format("%.0f", priced), pricingBytes, String.format("%.0f", solved),
+                        spreadBytes, String.format("%.1f", checksum));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Z-spreads per second, one bond at a time and in batches")
+    void batchZSpreads() {
+        LocalDate today = LocalDate.now();
+        CommonHelper commonHelper = new CommonHelper(1 << 20);
+        CurveHelper curveHelper = new CurveHelper(commonHelper, new CashFlowHelper(commonHelper));
+        List<Bond> bonds = book(today);
+        double[] prices = new double[bonds.size()];
+        for (int i = 0; i < prices.length; i++) {
+            Bond bond = bonds.get(i);
+            // A YTM near the coupon, for the warm start
+            bond.setYieldToMaturity(bond.getCouponRate() + 50);
+            prices[i] = bond.getMarketValue();
+        }
+        YieldCurve curve = YieldCurve.fromZeroRates(TENORS, RATES, YieldCurve.Interpolation.MONOTONE_CUBIC);
+        CurveHelper.Pricer pricer = curveHelper.pricer(curve, today);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            double checksum = 0.0;
+            long start = System.nanoTime();
+            for (int i = 0; i < prices.length; i++) {
+                checksum += pricer.zSpread(bonds.get(i), prices[i], curveHelper.spreadGuess(bonds.get(i), curve, today));
+            }
+            double single = INSTRUMENTS / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (double spread : curveHelper.zSpreads(bonds, prices, curve, today)) {
+                checksum -= spread;
+            }
+            double batched = INSTRUMENTS / ((System.nanoTime() - start) / 1e9);
+
+            logger.info("Z-spreads from the YTM: {}/s one at a time, {}/s in batches (difference {})",
+                    String.format("%.0f", single), String.format("%.0f", batched), String.format("%.2e", checksum));
+        }
+    }
+
+    @Test
+    @DisplayName("Bootstrap of a 50 benchmark curve, in full and from one ticked pillar")
+    void bootstrap() {
+        LocalDate today = LocalDate.now();
+        CommonHelper commonHelper = new CommonHelper();
+        BootstrapHelper bootstrapHelper = new BootstrapHelper(new CashFlowHelper(commonHelper), new YTMHelper(commonHelper));
+        // Semiannual benchmarks every 6 months out to 25 years, coupons near a 4% curve, priced near par
+        List<Bond> benchmarks = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            LocalDate maturityDate = today.plusMonths(6L * i);
+            benchmarks.add(new Bond("BENCH" + i, maturityDate, maturityDate.minusYears(30), 350 + 2 * i, 100000,
+                    99000 + 20 * i, "semiannual", 1));
+        }
+        int ticks = 10_000;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            BootstrapHelper.Bootstrap bootstrap = null;
+            for (int rebuild = 0; rebuild < 1000; rebuild++) {
+                bootstrap = bootstrapHelper.bootstrap(benchmarks, YieldCurve.Interpolation.LOG_LINEAR, today);
+            }
+            double fullMicros = (System.nanoTime() - start) / 1e3 / 1000;
+
+            double checksum = 0.0;
+            Random random = new Random(round);
+            start = System.nanoTime();
+            for (int tick = 0; tick < ticks; tick++) {
+                int pillar = random.nextInt(benchmarks.size());
+                bootstrap.setPrice(benchmarks.get(pillar).getISIN(), 99000 + random.nextInt(2000));
+                checksum += bootstrap.getCurve().getZeroRate(benchmarks.size() - 1);
+            }
+            double tickMicros = (System.nanoTime() - start) / 1e3 / ticks;
+
+            logger.info("Bootstrap of {} benchmarks: {} us in full, {} us per random single quote (checksum {})",
+                    benchmarks.size(), String.format("%.1f", fullMicros), String.format("%.1f", tickMicros),
+                    String.format("%.4f", checksum));
+        }
+    }
+
+    private static List<Bond> book(LocalDate today) {
+        Random random = new Random(42);
+        List<Bond> bonds = new ArrayList<>(INSTRUMENTS);
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            // The 28th at most, so every schedule lands on maturity
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            LocalDate maturityDate = today.plusYears(1 + random.nextInt(30))
+                    .withMonth(issueDate.getMonthValue()).withDayOfMonth(issueDate.getDayOfMonth());
+            bonds.add(new Bond("TEST-ISIN", maturityDate, issueDate, 100 + random.nextInt(700), 100000,
+                    85_000 + random.nextInt(30_000), TERMS[random.nextInt(TERMS.length)], 1));
+        }
+        return bonds;
+    }
+}
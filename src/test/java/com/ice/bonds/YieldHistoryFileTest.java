@@ -0,0 +1,69 @@
+package com.ice.bonds;
+
+import com.ice.bonds.model.YieldHistory;
+import com.ice.bonds.serialization.YieldHistoryFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Yield History File Tests")
+class YieldHistoryFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should read a CSV history with a header and blank lines")
+    void shouldReadCsv() throws IOException {
+        Path path = tempDir.resolve("history.csv");
+        Files.writeString(path, "date,change\n2024-01-02,3.5\n\n2024-01-03, -12\n2024-01-04,0\n");
+
+        YieldHistory history = YieldHistoryFile.read(path);
+
+        assertEquals(3, history.size());
+        assertEquals(LocalDate.of(2024, 1, 2), history.getDate(0));
+        assertEquals(3.5, history.getChange(0));
+        assertEquals(-12, history.getChange(1));
+        assertEquals(LocalDate.of(2024, 1, 4), history.getDate(2));
+    }
+
+    @Test
+    @DisplayName("Should read back a binary history as written")
+    void shouldRoundTripBinary() throws IOException {
+        int[] days = new int[1000];
+        double[] changes = new double[1000];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) LocalDate.of(2020, 1, 1).toEpochDay() + i;
+            changes[i] = Math.sin(i) * 15;
+        }
+        Path path = tempDir.resolve("history.bin");
+        YieldHistoryFile.write(path, new YieldHistory(days, changes));
+
+        YieldHistory history = YieldHistoryFile.read(path);
+
+        assertEquals(1000, history.size());
+        for (int i = 0; i < days.length; i++) {
+            assertEquals(LocalDate.ofEpochDay(days[i]), history.getDate(i));
+            assertEquals(changes[i], history.getChange(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject malformed lines and days out of order")
+    void shouldRejectInvalidContent() throws IOException {
+        Path malformed = tempDir.resolve("malformed.csv");
+        Files.writeString(malformed, "2024-01-02,3.5\n2024-01-03,abc\n");
+        Path unordered = tempDir.resolve("unordered.csv");
+        Files.writeString(unordered, "2024-01-03,3.5\n2024-01-02,1\n");
+
+        assertThrows(IllegalArgumentException.class, () -> YieldHistoryFile.read(malformed));
+        assertThrows(IllegalArgumentException.class, () -> YieldHistoryFile.read(unordered));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ice.bonds;
+
+import com.ice.bonds.helper.CommonHelper;
+import com.ice.bonds.helper.DurationHelper;
+import com.ice.bonds.helper.YTMHelper;
+import com.ice.bonds.model.Bond;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Zero coupon bonds through their closed-form kernel against the general coupon-schedule path they
+ * went through before bond types.
+ *
+ * Not part of the regular build, run with: ./mvnw test -Dtest=ZeroCouponBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Zero Coupon Benchmark")
+class ZeroCouponBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZeroCouponBenchmarkTest.class);
+
+    private static final int INSTRUMENTS = 10_000;
+    private static final int REPRICES = 20;
+    private static final int ROUNDS = 5;
+    private static final String[] TERMS = {"annual", "semiannual", "quarterly", "monthly"};
+
+    @Test
+    @DisplayName("Analyzed zero coupon bonds per second, closed form and general path")
+    void zeroCoupons() {
+        CommonHelper commonHelper = new CommonHelper();
+        YTMHelper ytmHelper = new YTMHelper(commonHelper);
+        DurationHelper durationHelper = new DurationHelper(commonHelper);
+        LocalDate today = LocalDate.now();
+        List<Bond> bonds = book(today);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            double checksum = 0.0;
+            long start = System.nanoTime();
+            for (int reprice = 0; reprice < REPRICES; reprice++) {
+                for (Bond bond : bonds) {
+                    bond.setMarketValue(60_000 + reprice * 500);
+                    double ytm = ytmHelper.calculateYTM(today, bond);
+                    checksum += ytm + durationHelper.calculateMacaulayDuration(bond, ytm);
+                }
+            }
+            double general = bonds.size() * REPRICES / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (int reprice = 0; reprice < REPRICES; reprice++) {
+                for (Bond bond : bonds) {
+                    bond.setMarketValue(60_000 + reprice * 500);
+                    checksum += ytmHelper.calculateZeroCouponYTM(today, bond) + durationHelper.calculateZeroCouponDuration(bond);
+                }
+            }
+            double closedForm = bonds.size() * REPRICES / ((System.nanoTime() - start) / 1e9);
+
+            logger.info("Zero coupon bonds/s: general path {}, closed form {} (checksum {})",
+                    String.format("%.0f", general), String.format("%.0f", closedForm), String.format("%.1f", checksum));
+        }
+    }
+
+    private static List<Bond> book(LocalDate today) {
+        Random random = new Random(42);
+        List<Bond> bonds = new ArrayList<>(INSTRUMENTS);
+        for (int i = 0; i < INSTRUMENTS; i++) {
+            LocalDate issueDate = today.minusDays(random.nextInt(3650));
+            issueDate = issueDate.withDayOfMonth(Math.min(issueDate.getDayOfMonth(), 28));
+            LocalDate maturityDate = today.plusYears(1 + random.nextInt(30))
+                    .withMonth(issueDate.getMonthValue()).withDayOfMonth(issueDate.getDayOfMonth());
+            bonds.add(new Bond("TEST-ISIN", maturityDate, issueDate, 0, 100000, 60_000,
+                    TERMS[random.nextInt(TERMS.length)], 1));
+        }
+        return bonds;
+    }
+}